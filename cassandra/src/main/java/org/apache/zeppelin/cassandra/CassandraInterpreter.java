@@ -23,6 +23,7 @@ import org.apache.zeppelin.interpreter.Interpreter;
 import org.apache.zeppelin.interpreter.InterpreterContext;
 import org.apache.zeppelin.interpreter.InterpreterPropertyBuilder;
 import org.apache.zeppelin.interpreter.InterpreterResult;
+import org.apache.zeppelin.scheduler.FairShare;
 import org.apache.zeppelin.scheduler.Scheduler;
 import org.apache.zeppelin.scheduler.SchedulerFactory;
 import org.slf4j.Logger;
@@ -328,7 +329,8 @@ public class CassandraInterpreter extends Interpreter {
   public Scheduler getScheduler() {
     return SchedulerFactory.singleton()
             .createOrGetParallelScheduler(CassandraInterpreter.class.getName() + this.hashCode(),
-                    parseInt(getProperty(CASSANDRA_INTERPRETER_PARALLELISM)));
+                    parseInt(getProperty(CASSANDRA_INTERPRETER_PARALLELISM)),
+                    FairShare.create(getProperty()));
   }
 
   @Override
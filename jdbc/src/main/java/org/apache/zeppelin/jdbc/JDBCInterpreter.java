@@ -16,13 +16,14 @@ package org.apache.zeppelin.jdbc;
 
 import static org.apache.commons.lang.StringUtils.containsIgnoreCase;
 
+import java.io.File;
 import java.io.IOException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -30,11 +31,20 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
 
+import org.apache.zeppelin.completer.SchemaMetadataCache;
+import org.apache.zeppelin.interpreter.ColumnarTable;
+import org.apache.zeppelin.interpreter.ColumnarTable.ColumnType;
 import org.apache.zeppelin.interpreter.Interpreter;
 import org.apache.zeppelin.interpreter.InterpreterContext;
+import org.apache.zeppelin.interpreter.InterpreterOutput;
 import org.apache.zeppelin.interpreter.InterpreterResult;
 import org.apache.zeppelin.interpreter.InterpreterResult.Code;
+import org.apache.zeppelin.scheduler.ExecutorFactory;
+import org.apache.zeppelin.scheduler.FairShare;
 import org.apache.zeppelin.scheduler.Scheduler;
 import org.apache.zeppelin.scheduler.SchedulerFactory;
 import org.slf4j.Logger;
@@ -42,8 +52,6 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
-import com.google.common.collect.Sets.SetView;
 
 /**
  * JDBC interpreter for Zeppelin. This interpreter can also be used for accessing HAWQ,
@@ -55,9 +63,24 @@ import com.google.common.collect.Sets.SetView;
  * <li>{@code default.password} - JDBC password..</li>
  * <li>{@code default.driver.name} - JDBC driver name.</li>
  * <li>{@code common.max.result} - Max number of SQL result to display.</li>
+ * <li>{@code common.fetch_size} - Number of rows fetched from the database at once. Rows are
+ * written to the paragraph output as they are fetched.</li>
+ * <li>{@code common.parallel} - Run paragraphs in parallel. Paragraphs run one at a time
+ * when false.</li>
+ * <li>{@code common.max_concurrency} - Max number of paragraphs running in parallel.
+ * Sum of pool.max_total of prefixes when not set.</li>
+ * <li>{@code common.completer_ttl} - Seconds after which table and column names of a schema
+ * are read again for completion. 0 to read them each time the interpreter opens.</li>
+ * <li>{@code common.completer_cache_dir} - Directory of the table and column names cached
+ * for completion.</li>
  * </ul>
  *
  * <p>
+ * Connections of each prefix are pooled. See {@link PooledDataSource} for pool.* properties of
+ * a prefix, e.g. {@code default.pool.max_total}.
+ * </p>
+ *
+ * <p>
  * How to use: <br/>
  * {@code %jdbc.sql} <br/>
  * {@code
@@ -74,6 +97,13 @@ public class JDBCInterpreter extends Interpreter {
   static final String COMMON_KEY = "common";
   static final String MAX_LINE_KEY = "max_count";
   static final String MAX_LINE_DEFAULT = "1000";
+  static final String FETCH_SIZE_KEY = "fetch_size";
+  static final String FETCH_SIZE_DEFAULT = "100";
+  static final String PARALLEL_KEY = "parallel";
+  static final String MAX_CONCURRENCY_KEY = "max_concurrency";
+  static final String COMPLETER_TTL_KEY = "completer_ttl";
+  static final String COMPLETER_TTL_DEFAULT = "86400";
+  static final String COMPLETER_CACHE_DIR_KEY = "completer_cache_dir";
 
   static final String DEFAULT_KEY = "default";
   static final String DRIVER_KEY = "driver";
@@ -88,8 +118,19 @@ public class JDBCInterpreter extends Interpreter {
   private static final String TABLE_MAGIC_TAG = "%table ";
   private static final String EXPLAIN_PREDICATE = "EXPLAIN ";
   private static final String UPDATE_COUNT_HEADER = "Update Count";
+  private static final String POSTGRESQL_URL_PREFIX = "jdbc:postgresql:";
+  // leading white spaces, comments and parentheses, then a keyword of a query
+  private static final Pattern QUERY_PATTERN = Pattern.compile(
+      "(\\s|\\(|--[^\\n]*(\\n|$)|/\\*.*?\\*/)*(SELECT|WITH|VALUES)\\b",
+      Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+  private static final String COMPLETER_EXECUTOR = "JDBCInterpreterCompleter";
+  private static final int COMPLETER_THREADS = 4;
 
   static final String COMMON_MAX_LINE = COMMON_KEY + DOT + MAX_LINE_KEY;
+  static final String COMMON_PARALLEL = COMMON_KEY + DOT + PARALLEL_KEY;
+  static final String COMMON_MAX_CONCURRENCY = COMMON_KEY + DOT + MAX_CONCURRENCY_KEY;
+  static final String COMMON_COMPLETER_TTL = COMMON_KEY + DOT + COMPLETER_TTL_KEY;
+  static final String COMMON_COMPLETER_CACHE_DIR = COMMON_KEY + DOT + COMPLETER_CACHE_DIR_KEY;
 
   static final String DEFAULT_DRIVER = DEFAULT_KEY + DOT + DRIVER_KEY;
   static final String DEFAULT_URL = DEFAULT_KEY + DOT + URL_KEY;
@@ -100,11 +141,14 @@ public class JDBCInterpreter extends Interpreter {
 
   private final HashMap<String, Properties> propertiesMap;
   private final Map<String, Statement> paragraphIdStatementMap;
+  // number of rows fetched by running paragraphs
+  private final Map<String, Integer> paragraphIdRowCountMap;
 
-  private final Map<String, ArrayList<Connection>> propertyKeyUnusedConnectionListMap;
-  private final Map<String, Connection> paragraphIdConnectionMap;
+  private final Map<String, PooledDataSource> propertyKeyDataSourceMap;
 
   private final Map<String, SqlCompleter> propertyKeySqlCompleterMap;
+  // background loading of table and column names for completion
+  private final Map<String, Future<?>> propertyKeyCompleterLoaderMap;
 
   private static final Function<CharSequence, String> sequenceToStringTransformer =
       new Function<CharSequence, String>() {
@@ -118,10 +162,11 @@ public class JDBCInterpreter extends Interpreter {
   public JDBCInterpreter(Properties property) {
     super(property);
     propertiesMap = new HashMap<>();
-    propertyKeyUnusedConnectionListMap = new HashMap<>();
-    paragraphIdStatementMap = new HashMap<>();
-    paragraphIdConnectionMap = new HashMap<>();
+    propertyKeyDataSourceMap = new HashMap<>();
+    paragraphIdStatementMap = new ConcurrentHashMap<>();
+    paragraphIdRowCountMap = new ConcurrentHashMap<>();
     propertyKeySqlCompleterMap = new HashMap<>();
+    propertyKeyCompleterLoaderMap = new ConcurrentHashMap<>();
   }
 
   public HashMap<String, Properties> getPropertiesMap() {
@@ -164,28 +209,22 @@ public class JDBCInterpreter extends Interpreter {
 
     logger.debug("propertiesMap: {}", propertiesMap);
 
-    Connection connection = null;
-    SqlCompleter sqlCompleter = null;
+    // keywords are completed right away. table and column names as they are read
     for (String propertyKey : propertiesMap.keySet()) {
-      try {
-        connection = getConnection(propertyKey);
-        sqlCompleter = createSqlCompleter(connection);
-      } catch (Exception e) {
-        sqlCompleter = createSqlCompleter(null);
-      }
+      SqlCompleter sqlCompleter = createSqlCompleter();
       propertyKeySqlCompleterMap.put(propertyKey, sqlCompleter);
+      if (sqlCompleter != null && !COMMON_KEY.equals(propertyKey)) {
+        loadSqlCompleter(propertyKey, sqlCompleter);
+      }
     }
   }
 
-  private SqlCompleter createSqlCompleter(Connection jdbcConnection) {
+  private SqlCompleter createSqlCompleter() {
 
     SqlCompleter completer = null;
     try {
-      Set<String> keywordsCompletions = SqlCompleter.getSqlKeywordsCompletions(jdbcConnection);
-      Set<String> dataModelCompletions =
-          SqlCompleter.getDataModelMetadataCompletions(jdbcConnection);
-      SetView<String> allCompletions = Sets.union(keywordsCompletions, dataModelCompletions);
-      completer = new SqlCompleter(allCompletions, dataModelCompletions);
+      Set<String> keywordsCompletions = SqlCompleter.getSqlKeywordsCompletions(null);
+      completer = new SqlCompleter(keywordsCompletions, new HashSet<String>());
 
     } catch (IOException | SQLException e) {
       logger.error("Cannot create SQL completer", e);
@@ -194,87 +233,123 @@ public class JDBCInterpreter extends Interpreter {
     return completer;
   }
 
-  public Connection getConnection(String propertyKey) throws ClassNotFoundException, SQLException {
-    Connection connection = null;
-    if (propertyKey == null || propertiesMap.get(propertyKey) == null) {
-      return null;
-    }
-    if (propertyKeyUnusedConnectionListMap.containsKey(propertyKey)) {
-      ArrayList<Connection> connectionList = propertyKeyUnusedConnectionListMap.get(propertyKey);
-      if (0 != connectionList.size()) {
-        connection = propertyKeyUnusedConnectionListMap.get(propertyKey).remove(0);
-        if (null != connection && connection.isClosed()) {
-          connection.close();
-          connection = null;
-        }
-      }
-    }
-    if (null == connection) {
-      Properties properties = propertiesMap.get(propertyKey);
-      logger.info(properties.getProperty(DRIVER_KEY));
-      Class.forName(properties.getProperty(DRIVER_KEY));
-      String url = properties.getProperty(URL_KEY);
-      connection = DriverManager.getConnection(url, properties);
-    }
-    return connection;
+  /**
+   * Complete cached names of the prefix, then read keywords of the driver and names of
+   * expired schemas in the background. Reading the metadata of a large database takes long,
+   * so it uses its own connection instead of one of the pool.
+   */
+  private void loadSqlCompleter(final String propertyKey, final SqlCompleter sqlCompleter) {
+    Properties properties = propertiesMap.get(propertyKey);
+    final SchemaMetadataCache cache = new SchemaMetadataCache(getCompleterCacheDir(),
+        properties.getProperty(URL_KEY), properties.getProperty(USER_KEY),
+        getCompleterTtl() * 1000);
+
+    Future<?> loader = ExecutorFactory.singleton()
+        .createOrGet(COMPLETER_EXECUTOR, COMPLETER_THREADS)
+        .submit(new Runnable() {
+          @Override
+          public void run() {
+            cache.load();
+            for (Map.Entry<String, Set<String>> e : cache.getAll().entrySet()) {
+              sqlCompleter.updateSchemaCompletions(e.getKey(), e.getValue());
+            }
+
+            try {
+              PooledDataSource dataSource = getDataSource(propertyKey);
+              try (Connection connection = dataSource.getUnpooledConnection()) {
+                sqlCompleter.setKeywordCompletions(
+                    SqlCompleter.getSqlKeywordsCompletions(connection));
+                sqlCompleter.updateDataModelMetaData(connection, cache);
+              }
+              logger.info("SQL completions of {} are loaded", propertyKey);
+            } catch (Exception e) {
+              logger.error("Cannot load SQL completions of " + propertyKey, e);
+            } finally {
+              propertyKeyCompleterLoaderMap.remove(propertyKey);
+            }
+          }
+        });
+    propertyKeyCompleterLoaderMap.put(propertyKey, loader);
   }
 
-  public Statement getStatement(String propertyKey, String paragraphId)
-      throws SQLException, ClassNotFoundException {
-    Connection connection;
-    if (paragraphIdConnectionMap.containsKey(paragraphId)) {
-      connection = paragraphIdConnectionMap.get(paragraphId);
-    } else {
-      connection = getConnection(propertyKey);
+  long getCompleterTtl() {
+    String ttl = getProperty(COMMON_COMPLETER_TTL);
+    try {
+      return Long.parseLong(ttl == null ? COMPLETER_TTL_DEFAULT : ttl.trim());
+    } catch (NumberFormatException e) {
+      logger.error("Invalid " + COMMON_COMPLETER_TTL, e);
+      return Long.parseLong(COMPLETER_TTL_DEFAULT);
     }
+  }
 
-    if (connection == null) {
+  /**
+   * @return null when names are not cached on disk
+   */
+  File getCompleterCacheDir() {
+    if (getCompleterTtl() <= 0) {
       return null;
     }
-
-    Statement statement = connection.createStatement();
-    if (isStatementClosed(statement)) {
-      connection = getConnection(propertyKey);
-      statement = connection.createStatement();
+    String dir = getProperty(COMMON_COMPLETER_CACHE_DIR);
+    if (dir == null || dir.trim().isEmpty()) {
+      return SchemaMetadataCache.getDefaultDir("jdbc");
     }
-    paragraphIdConnectionMap.put(paragraphId, connection);
-    paragraphIdStatementMap.put(paragraphId, statement);
+    return new File(dir.trim());
+  }
 
-    return statement;
+  /**
+   * Take a connection from the pool of the prefix. Closing the connection returns it to the pool.
+   * @return null when the prefix is not found
+   */
+  public Connection getConnection(String propertyKey) throws ClassNotFoundException, SQLException {
+    PooledDataSource dataSource = getDataSource(propertyKey);
+    if (dataSource == null) {
+      return null;
+    }
+    return dataSource.getConnection();
   }
 
-  private boolean isStatementClosed(Statement statement) {
-    try {
-      return statement.isClosed();
-    } catch (Throwable t) {
-      logger.debug("{} doesn't support isClosed method", statement);
-      return false;
+  PooledDataSource getDataSource(String propertyKey) throws ClassNotFoundException {
+    if (propertyKey == null || COMMON_KEY.equals(propertyKey)
+        || propertiesMap.get(propertyKey) == null) {
+      return null;
+    }
+
+    synchronized (propertyKeyDataSourceMap) {
+      PooledDataSource dataSource = propertyKeyDataSourceMap.get(propertyKey);
+      if (dataSource == null) {
+        Properties properties = propertiesMap.get(propertyKey);
+        logger.info(properties.getProperty(DRIVER_KEY));
+        Class.forName(properties.getProperty(DRIVER_KEY));
+        dataSource = new PooledDataSource(properties.getProperty(URL_KEY), properties);
+        propertyKeyDataSourceMap.put(propertyKey, dataSource);
+      }
+      return dataSource;
     }
   }
 
   @Override
   public void close() {
 
-    try {
-      for (List<Connection> connectionList : propertyKeyUnusedConnectionListMap.values()) {
-        for (Connection c : connectionList) {
-          c.close();
-        }
-      }
+    for (Future<?> loader : propertyKeyCompleterLoaderMap.values()) {
+      loader.cancel(true);
+    }
+    propertyKeyCompleterLoaderMap.clear();
 
+    try {
       for (Statement statement : paragraphIdStatementMap.values()) {
         statement.close();
       }
       paragraphIdStatementMap.clear();
-
-      for (Connection connection : paragraphIdConnectionMap.values()) {
-        connection.close();
-      }
-      paragraphIdConnectionMap.clear();
-
     } catch (SQLException e) {
       logger.error("Error while closing...", e);
     }
+
+    synchronized (propertyKeyDataSourceMap) {
+      for (PooledDataSource dataSource : propertyKeyDataSourceMap.values()) {
+        dataSource.close();
+      }
+      propertyKeyDataSourceMap.clear();
+    }
   }
 
   private InterpreterResult executeSql(String propertyKey, String sql,
@@ -282,15 +357,11 @@ public class JDBCInterpreter extends Interpreter {
 
     String paragraphId = interpreterContext.getParagraphId();
 
-    try {
+    try (Connection connection = getConnection(propertyKey)) {
 
-      Statement statement = getStatement(propertyKey, paragraphId);
-
-      if (statement == null) {
+      if (connection == null) {
         return new InterpreterResult(Code.ERROR, "Prefix not found.");
       }
-      statement.setMaxRows(getMaxResult());
-
       StringBuilder msg = null;
       boolean isTableType = false;
 
@@ -301,42 +372,26 @@ public class JDBCInterpreter extends Interpreter {
         isTableType = true;
       }
 
+      Statement statement = connection.createStatement();
+      paragraphIdStatementMap.put(paragraphId, statement);
+      boolean fetchInTransaction = false;
       ResultSet resultSet = null;
+      ColumnarTable table = null;
       try {
+        statement.setMaxRows(getMaxResult());
+        if (getFetchSize() > 0) {
+          statement.setFetchSize(getFetchSize());
+        }
+        fetchInTransaction = beginFetchInBatches(propertyKey, connection, sql);
 
         boolean isResultSetAvailable = statement.execute(sql);
 
         if (isResultSetAvailable) {
           resultSet = statement.getResultSet();
-
-          ResultSetMetaData md = resultSet.getMetaData();
-
-          for (int i = 1; i < md.getColumnCount() + 1; i++) {
-            if (i > 1) {
-              msg.append(TAB);
-            }
-            msg.append(replaceReservedChars(isTableType, md.getColumnName(i)));
-          }
-          msg.append(NEWLINE);
-
-          int displayRowCount = 0;
-          while (resultSet.next() && displayRowCount < getMaxResult()) {
-            for (int i = 1; i < md.getColumnCount() + 1; i++) {
-              Object resultObject;
-              String resultValue;
-              resultObject = resultSet.getObject(i);
-              if (resultObject == null) {
-                resultValue = "null";
-              } else {
-                resultValue = resultSet.getString(i);
-              }
-              msg.append(replaceReservedChars(isTableType, resultValue));
-              if (i != md.getColumnCount()) {
-                msg.append(TAB);
-              }
-            }
-            msg.append(NEWLINE);
-            displayRowCount++;
+          if (isTableType && interpreterContext.out == null) {
+            table = readTable(resultSet, paragraphId);
+          } else {
+            msg = writeResultSet(resultSet, isTableType, msg, interpreterContext);
           }
         } else {
           // Response contains either an update count or there are no results.
@@ -344,7 +399,14 @@ public class JDBCInterpreter extends Interpreter {
           msg.append(UPDATE_COUNT_HEADER).append(NEWLINE);
           msg.append(updateCount).append(NEWLINE);
         }
+        if (fetchInTransaction) {
+          connection.commit();
+          fetchInTransaction = false;
+          connection.setAutoCommit(true);
+        }
       } finally {
+        paragraphIdStatementMap.remove(paragraphId);
+        paragraphIdRowCountMap.remove(paragraphId);
         try {
           if (resultSet != null) {
             resultSet.close();
@@ -352,12 +414,20 @@ public class JDBCInterpreter extends Interpreter {
           statement.close();
         } finally {
           statement = null;
+          if (fetchInTransaction) {
+            // failed in the middle. return the connection to the pool as it was
+            connection.rollback();
+            connection.setAutoCommit(true);
+          }
         }
       }
 
+      if (table != null) {
+        return InterpreterResult.fromTable(Code.SUCCESS, table);
+      }
       return new InterpreterResult(Code.SUCCESS, msg.toString());
 
-    } catch (SQLException ex) {
+    } catch (SQLException | IOException ex) {
       logger.error("Cannot run " + sql, ex);
       return new InterpreterResult(Code.ERROR, ex.getMessage());
     } catch (ClassNotFoundException e) {
@@ -366,14 +436,176 @@ public class JDBCInterpreter extends Interpreter {
     }
   }
 
+  /**
+   * Read rows of a table as typed values, when there is no output to stream them to.
+   * The result keeps all rows in that case, and typed columns keep them compact.
+   */
+  private ColumnarTable readTable(ResultSet resultSet, String paragraphId) throws SQLException {
+    int batchSize = getFetchSize() > 0 ? getFetchSize() : Integer.parseInt(FETCH_SIZE_DEFAULT);
+    int maxResult = getMaxResult();
+    ColumnarTable.Builder builder = new ColumnarTable.Builder();
+
+    ResultSetMetaData md = resultSet.getMetaData();
+    int columnCount = md.getColumnCount();
+    int[] sqlTypes = new int[columnCount + 1];
+    for (int i = 1; i < columnCount + 1; i++) {
+      sqlTypes[i] = md.getColumnType(i);
+      builder.addColumn(md.getColumnName(i), getColumnType(sqlTypes[i]));
+    }
+
+    int displayRowCount = 0;
+    while (displayRowCount < maxResult && resultSet.next()) {
+      Object[] row = new Object[columnCount];
+      for (int i = 1; i < columnCount + 1; i++) {
+        row[i - 1] = getValue(resultSet, i, sqlTypes[i]);
+      }
+      builder.addRow(row);
+      displayRowCount++;
+      if (displayRowCount % batchSize == 0) {
+        paragraphIdRowCountMap.put(paragraphId, displayRowCount);
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Write rows while they are fetched, a batch of fetch_size rows at a time, to
+   * InterpreterContext.out, which pushes them to the browser. Only the current batch is kept
+   * here. Rows are kept in msg only when there is no output stream.
+   * @return rest of the result, to return as InterpreterResult
+   */
+  private StringBuilder writeResultSet(ResultSet resultSet, boolean isTableType,
+      StringBuilder msg, InterpreterContext interpreterContext)
+      throws SQLException, IOException {
+    String paragraphId = interpreterContext.getParagraphId();
+    InterpreterOutput out = interpreterContext.out;
+    int batchSize = getFetchSize() > 0 ? getFetchSize() : Integer.parseInt(FETCH_SIZE_DEFAULT);
+    int maxResult = getMaxResult();
+
+    ResultSetMetaData md = resultSet.getMetaData();
+    int columnCount = md.getColumnCount();
+    for (int i = 1; i < columnCount + 1; i++) {
+      if (i > 1) {
+        msg.append(TAB);
+      }
+      appendReservedCharsReplaced(msg, isTableType, md.getColumnName(i));
+    }
+    msg.append(NEWLINE);
+
+    int displayRowCount = 0;
+    while (displayRowCount < maxResult && resultSet.next()) {
+      for (int i = 1; i < columnCount + 1; i++) {
+        if (i > 1) {
+          msg.append(TAB);
+        }
+        String resultValue = resultSet.getString(i);
+        if (resultValue == null && resultSet.wasNull()) {
+          resultValue = "null";
+        }
+        appendReservedCharsReplaced(msg, isTableType, resultValue);
+      }
+      msg.append(NEWLINE);
+      displayRowCount++;
+
+      if (displayRowCount % batchSize == 0) {
+        paragraphIdRowCountMap.put(paragraphId, displayRowCount);
+        if (out != null) {
+          out.write(msg.toString());
+          msg.setLength(0);
+        }
+      }
+    }
+
+    if (out != null) {
+      out.write(msg.toString());
+      return new StringBuilder();
+    }
+    return msg;
+  }
+
+  private static ColumnType getColumnType(int sqlType) {
+    switch (sqlType) {
+        case Types.TINYINT:
+        case Types.SMALLINT:
+        case Types.INTEGER:
+        case Types.BIGINT:
+          return ColumnType.LONG;
+        case Types.REAL:
+        case Types.FLOAT:
+        case Types.DOUBLE:
+          return ColumnType.DOUBLE;
+        case Types.BOOLEAN:
+          return ColumnType.BOOLEAN;
+        default:
+          return ColumnType.STRING;
+    }
+  }
+
+  /**
+   * @return value of the column as the type of getColumnType(sqlType), or null
+   */
+  private static Object getValue(ResultSet resultSet, int column, int sqlType)
+      throws SQLException {
+    Object value;
+    switch (getColumnType(sqlType)) {
+        case LONG:
+          value = resultSet.getLong(column);
+          break;
+        case DOUBLE:
+          // REAL is single precision. keep the digits it prints, not the widened double
+          value = sqlType == Types.REAL ? Double.valueOf(Float.toString(resultSet.getFloat(column)))
+              : resultSet.getDouble(column);
+          break;
+        case BOOLEAN:
+          value = resultSet.getBoolean(column);
+          break;
+        default:
+          value = resultSet.getString(column);
+          break;
+    }
+    return resultSet.wasNull() ? null : value;
+  }
+
+  /**
+   * Start a transaction, so PostgreSQL driver fetches rows of a query in batches instead of
+   * all at once. PostgreSQL uses a cursor only when auto-commit is off.
+   * Other statements run with auto-commit, as some of them, e.g. VACUUM, can't run in a
+   * transaction.
+   * @return true when a transaction is started
+   */
+  private boolean beginFetchInBatches(String propertyKey, Connection connection, String sql)
+      throws SQLException {
+    String url = propertiesMap.get(propertyKey).getProperty(URL_KEY);
+    if (getFetchSize() <= 0 || url == null || !url.startsWith(POSTGRESQL_URL_PREFIX)
+        || !isQuery(sql) || !connection.getAutoCommit()) {
+      return false;
+    }
+    connection.setAutoCommit(false);
+    return true;
+  }
+
+  /**
+   * @return true when sql is a query, i.e. starts with SELECT, WITH or VALUES
+   */
+  static boolean isQuery(String sql) {
+    return QUERY_PATTERN.matcher(sql).lookingAt();
+  }
+
   /**
    * For %table response replace Tab and Newline characters from the content.
    */
-  private String replaceReservedChars(boolean isTableResponseType, String str) {
+  private void appendReservedCharsReplaced(StringBuilder sb, boolean isTableResponseType,
+      String str) {
     if (str == null) {
-      return EMPTY_COLUMN_VALUE;
+      sb.append(EMPTY_COLUMN_VALUE);
+    } else if (!isTableResponseType) {
+      sb.append(str);
+    } else {
+      for (int i = 0; i < str.length(); i++) {
+        char c = str.charAt(i);
+        sb.append(c == TAB || c == NEWLINE ? WHITESPACE : c);
+      }
     }
-    return (!isTableResponseType) ? str : str.replace(TAB, WHITESPACE).replace(NEWLINE, WHITESPACE);
   }
 
   @Override
@@ -397,9 +629,12 @@ public class JDBCInterpreter extends Interpreter {
 
     logger.info("Cancel current query statement.");
 
-    String paragraphId = context.getParagraphId();
+    Statement statement = paragraphIdStatementMap.get(context.getParagraphId());
+    if (statement == null) {
+      return;
+    }
     try {
-      paragraphIdStatementMap.get(paragraphId).cancel();
+      statement.cancel();
     } catch (SQLException e) {
       logger.error("Error while cancelling...", e);
     }
@@ -426,15 +661,60 @@ public class JDBCInterpreter extends Interpreter {
     return FormType.SIMPLE;
   }
 
+  /**
+   * Progress is the number of rows fetched, out of common.max_count.
+   */
   @Override
   public int getProgress(InterpreterContext context) {
-    return 0;
+    Integer rowCount = paragraphIdRowCountMap.get(context.getParagraphId());
+    if (rowCount == null) {
+      return 0;
+    }
+    return (int) Math.min(99, rowCount * 100L / Math.max(1, getMaxResult()));
   }
 
+  /**
+   * Paragraphs run one at a time, unless common.parallel is set. In parallel, paragraphs of a
+   * prefix are limited by the connection pool of the prefix and do not wait for other prefixes.
+   */
   @Override
   public Scheduler getScheduler() {
-    return SchedulerFactory.singleton().createOrGetFIFOScheduler(
-        JDBCInterpreter.class.getName() + this.hashCode());
+    if (Boolean.parseBoolean(getProperty(COMMON_PARALLEL))) {
+      return SchedulerFactory.singleton().createOrGetParallelScheduler(
+          JDBCInterpreter.class.getName() + this.hashCode(), getMaxConcurrency(),
+          FairShare.create(getProperty()));
+    } else {
+      return SchedulerFactory.singleton().createOrGetFIFOScheduler(
+          JDBCInterpreter.class.getName() + this.hashCode());
+    }
+  }
+
+  int getMaxConcurrency() {
+    String maxConcurrency = getProperty(COMMON_MAX_CONCURRENCY);
+    if (maxConcurrency != null && !maxConcurrency.trim().isEmpty()) {
+      try {
+        return Math.max(1, Integer.parseInt(maxConcurrency.trim()));
+      } catch (NumberFormatException e) {
+        logger.error("Invalid " + COMMON_MAX_CONCURRENCY, e);
+      }
+    }
+
+    // enough to keep every connection of every prefix busy
+    Map<String, Properties> prefixProperties = new HashMap<>();
+    for (String propertyKey : property.stringPropertyNames()) {
+      String[] keyValue = propertyKey.split("\\.", 2);
+      if (2 == keyValue.length && !COMMON_KEY.equals(keyValue[0])) {
+        if (!prefixProperties.containsKey(keyValue[0])) {
+          prefixProperties.put(keyValue[0], new Properties());
+        }
+        prefixProperties.get(keyValue[0]).put(keyValue[1], property.getProperty(propertyKey));
+      }
+    }
+    int sum = 0;
+    for (Properties properties : prefixProperties.values()) {
+      sum += PooledDataSource.getMaxTotal(properties);
+    }
+    return Math.max(1, sum);
   }
 
   @Override
@@ -452,5 +732,10 @@ public class JDBCInterpreter extends Interpreter {
     return Integer.valueOf(
         propertiesMap.get(COMMON_KEY).getProperty(MAX_LINE_KEY, MAX_LINE_DEFAULT));
   }
+
+  public int getFetchSize() {
+    return Integer.valueOf(
+        propertiesMap.get(COMMON_KEY).getProperty(FETCH_SIZE_KEY, FETCH_SIZE_DEFAULT));
+  }
 }
 
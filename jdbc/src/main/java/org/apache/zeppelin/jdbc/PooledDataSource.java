@@ -0,0 +1,388 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.zeppelin.jdbc;
+
+import java.io.Closeable;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.AbandonedConfig;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.slf4j.LoggerFactory;
+
+/**
+ * DataSource of a prefix of JDBCInterpreter, pooling connections to the JDBC URL.
+ * Closing a connection taken from it returns the connection to the pool.
+ *
+ * <ul>
+ * <li>{@code pool.max_total} - Max number of connections. Borrowers wait beyond it.</li>
+ * <li>{@code pool.min_idle} - Number of idle connections kept open.</li>
+ * <li>{@code pool.max_idle} - Max number of idle connections.</li>
+ * <li>{@code pool.max_wait} - Max milliseconds to wait for a connection. -1 to wait forever.</li>
+ * <li>{@code pool.idle_timeout} - Milliseconds after which an idle connection is closed.</li>
+ * <li>{@code pool.validation_query} - Query to validate a connection before it is used.
+ * Connection.isValid() is used when not set.</li>
+ * <li>{@code pool.leak_timeout} - Milliseconds after which a connection not returned is logged
+ * and closed. 0 to disable leak detection.</li>
+ * </ul>
+ */
+public class PooledDataSource implements DataSource, Closeable {
+
+  private static final org.slf4j.Logger logger = LoggerFactory.getLogger(PooledDataSource.class);
+
+  static final String POOL_KEY_PREFIX = "pool.";
+  static final String MAX_TOTAL_KEY = "pool.max_total";
+  static final String MIN_IDLE_KEY = "pool.min_idle";
+  static final String MAX_IDLE_KEY = "pool.max_idle";
+  static final String MAX_WAIT_KEY = "pool.max_wait";
+  static final String IDLE_TIMEOUT_KEY = "pool.idle_timeout";
+  static final String VALIDATION_QUERY_KEY = "pool.validation_query";
+  static final String LEAK_TIMEOUT_KEY = "pool.leak_timeout";
+
+  static final int MAX_TOTAL_DEFAULT = 8;
+  static final int MIN_IDLE_DEFAULT = 0;
+  static final long MAX_WAIT_DEFAULT = 30 * 1000;
+  static final long IDLE_TIMEOUT_DEFAULT = 10 * 60 * 1000;
+  static final long LEAK_TIMEOUT_DEFAULT = 0;
+
+  private static final long EVICTION_INTERVAL_MSEC = 30 * 1000;
+  private static final int VALIDATION_TIMEOUT_SEC = 5;
+
+  private final String url;
+  private final Properties connectionProperties;
+  private final GenericObjectPool<Connection> pool;
+
+  /**
+   * @param url JDBC URL to connect to
+   * @param properties properties of the prefix. Properties other than pool.* are given to
+   *                   the driver on connect
+   */
+  public PooledDataSource(String url, Properties properties) {
+    this.url = url;
+
+    connectionProperties = new Properties();
+    for (String key : properties.stringPropertyNames()) {
+      if (!key.startsWith(POOL_KEY_PREFIX)) {
+        connectionProperties.setProperty(key, properties.getProperty(key));
+      }
+    }
+
+    int maxTotal = getInt(properties, MAX_TOTAL_KEY, MAX_TOTAL_DEFAULT);
+    long idleTimeout = getLong(properties, IDLE_TIMEOUT_KEY, IDLE_TIMEOUT_DEFAULT);
+
+    GenericObjectPoolConfig config = new GenericObjectPoolConfig();
+    config.setMaxTotal(maxTotal);
+    config.setMaxIdle(getInt(properties, MAX_IDLE_KEY, maxTotal));
+    config.setMinIdle(getInt(properties, MIN_IDLE_KEY, MIN_IDLE_DEFAULT));
+    config.setMaxWaitMillis(getLong(properties, MAX_WAIT_KEY, MAX_WAIT_DEFAULT));
+    // paragraphs waiting for a connection get it in the order they asked
+    config.setFairness(true);
+    config.setTestOnBorrow(true);
+    config.setTestWhileIdle(true);
+    config.setMinEvictableIdleTimeMillis(idleTimeout > 0 ? idleTimeout : -1);
+    config.setTimeBetweenEvictionRunsMillis(EVICTION_INTERVAL_MSEC);
+    config.setJmxEnabled(false);
+
+    ConnectionFactory factory = new ConnectionFactory(url, connectionProperties,
+        properties.getProperty(VALIDATION_QUERY_KEY));
+
+    long leakTimeout = getLong(properties, LEAK_TIMEOUT_KEY, LEAK_TIMEOUT_DEFAULT);
+    if (leakTimeout > 0) {
+      AbandonedConfig abandonedConfig = new AbandonedConfig();
+      abandonedConfig.setRemoveAbandonedOnBorrow(true);
+      abandonedConfig.setRemoveAbandonedOnMaintenance(true);
+      abandonedConfig.setRemoveAbandonedTimeout((int) Math.max(1, leakTimeout / 1000));
+      abandonedConfig.setLogAbandoned(true);
+      pool = new GenericObjectPool<>(factory, config, abandonedConfig);
+    } else {
+      pool = new GenericObjectPool<>(factory, config);
+    }
+  }
+
+  private static int getInt(Properties properties, String key, int defaultValue) {
+    return (int) getLong(properties, key, defaultValue);
+  }
+
+  private static long getLong(Properties properties, String key, long defaultValue) {
+    String value = properties.getProperty(key);
+    if (value == null || value.trim().isEmpty()) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      logger.error("Invalid {} '{}'. Use {}", key, value, defaultValue);
+      return defaultValue;
+    }
+  }
+
+  public static int getMaxTotal(Properties properties) {
+    return getInt(properties, MAX_TOTAL_KEY, MAX_TOTAL_DEFAULT);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    Connection connection;
+    try {
+      connection = pool.borrowObject();
+    } catch (SQLException e) {
+      throw e;
+    } catch (NoSuchElementException e) {
+      throw new SQLException("Timeout waiting for a connection to " + url, e);
+    } catch (Exception e) {
+      throw new SQLException("Can't get a connection to " + url, e);
+    }
+
+    return (Connection) Proxy.newProxyInstance(
+        PooledDataSource.class.getClassLoader(),
+        new Class[] {Connection.class},
+        new PooledConnectionHandler(connection));
+  }
+
+  /**
+   * Make a connection outside of the pool, for long work that shouldn't hold a connection
+   * paragraphs wait for. The caller closes it.
+   */
+  public Connection getUnpooledConnection() throws SQLException {
+    return DriverManager.getConnection(url, connectionProperties);
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    throw new SQLFeatureNotSupportedException("Connections are made with the user of the prefix");
+  }
+
+  public int getNumActive() {
+    return pool.getNumActive();
+  }
+
+  public int getNumIdle() {
+    return pool.getNumIdle();
+  }
+
+  @Override
+  public void close() {
+    pool.close();
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return DriverManager.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    DriverManager.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    DriverManager.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return DriverManager.getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    if (iface.isInstance(this)) {
+      return iface.cast(this);
+    }
+    throw new SQLException(getClass().getName() + " is not a wrapper for " + iface.getName());
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this);
+  }
+
+  /**
+   * Connection given to the user of the pool. close() returns the connection to the pool.
+   */
+  private class PooledConnectionHandler implements InvocationHandler {
+    private final Connection connection;
+    private boolean closed;
+
+    // state of the connection before the user changed it, restored on release
+    private Boolean autoCommit;
+    private Boolean readOnly;
+    private String catalog;
+    private boolean catalogChanged;
+    private Integer transactionIsolation;
+
+    PooledConnectionHandler(Connection connection) {
+      this.connection = connection;
+    }
+
+    @Override
+    public synchronized Object invoke(Object proxy, Method method, Object[] args)
+        throws Throwable {
+      String name = method.getName();
+      if ("close".equals(name)) {
+        if (!closed) {
+          closed = true;
+          release();
+        }
+        return null;
+      } else if ("isClosed".equals(name)) {
+        return closed || connection.isClosed();
+      } else if ("equals".equals(name)) {
+        return proxy == args[0];
+      } else if ("hashCode".equals(name)) {
+        return System.identityHashCode(proxy);
+      } else if ("toString".equals(name)) {
+        return "Pooled " + connection;
+      } else if (closed) {
+        throw new SQLException("Connection is closed");
+      }
+
+      rememberState(name);
+      try {
+        return method.invoke(connection, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+
+    private void rememberState(String name) throws SQLException {
+      if ("setAutoCommit".equals(name) && autoCommit == null) {
+        autoCommit = connection.getAutoCommit();
+      } else if ("setReadOnly".equals(name) && readOnly == null) {
+        readOnly = connection.isReadOnly();
+      } else if ("setCatalog".equals(name) && !catalogChanged) {
+        catalog = connection.getCatalog();
+        catalogChanged = true;
+      } else if ("setTransactionIsolation".equals(name) && transactionIsolation == null) {
+        transactionIsolation = connection.getTransactionIsolation();
+      }
+    }
+
+    private void release() {
+      try {
+        if (connection.isClosed()) {
+          pool.invalidateObject(connection);
+          return;
+        }
+        if (!connection.getAutoCommit()) {
+          connection.rollback();
+        }
+        if (autoCommit != null && autoCommit != connection.getAutoCommit()) {
+          connection.setAutoCommit(autoCommit);
+        }
+        if (readOnly != null && readOnly != connection.isReadOnly()) {
+          connection.setReadOnly(readOnly);
+        }
+        if (catalogChanged && catalog != null) {
+          connection.setCatalog(catalog);
+        }
+        if (transactionIsolation != null
+            && transactionIsolation != connection.getTransactionIsolation()) {
+          connection.setTransactionIsolation(transactionIsolation);
+        }
+        pool.returnObject(connection);
+      } catch (Exception e) {
+        // removed as a leak, or broken while returning it
+        logger.warn("Can't return a connection to " + url + " to the pool", e);
+        try {
+          pool.invalidateObject(connection);
+        } catch (Exception ignore) {
+          // already removed from the pool
+        }
+      }
+    }
+  }
+
+  /**
+   * Makes connections to the JDBC URL and validates them.
+   */
+  private static class ConnectionFactory extends BasePooledObjectFactory<Connection> {
+    private final String url;
+    private final Properties properties;
+    private final String validationQuery;
+
+    ConnectionFactory(String url, Properties properties, String validationQuery) {
+      this.url = url;
+      this.properties = properties;
+      this.validationQuery = validationQuery;
+    }
+
+    @Override
+    public Connection create() throws Exception {
+      return DriverManager.getConnection(url, properties);
+    }
+
+    @Override
+    public PooledObject<Connection> wrap(Connection connection) {
+      return new DefaultPooledObject<>(connection);
+    }
+
+    @Override
+    public boolean validateObject(PooledObject<Connection> p) {
+      Connection connection = p.getObject();
+      try {
+        if (connection.isClosed()) {
+          return false;
+        }
+        if (validationQuery != null && !validationQuery.trim().isEmpty()) {
+          try (Statement statement = connection.createStatement()) {
+            statement.execute(validationQuery);
+          }
+          return true;
+        }
+      } catch (Exception e) {
+        logger.debug("Connection to {} is not valid", url, e);
+        return false;
+      }
+
+      try {
+        return connection.isValid(VALIDATION_TIMEOUT_SEC);
+      } catch (SQLException | AbstractMethodError e) {
+        // drivers of JDBC 3, and some of JDBC 4, don't support isValid().
+        // Set pool.validation_query to validate connections of them.
+        logger.debug("Connection to {} doesn't support isValid()", url, e);
+        return true;
+      }
+    }
+
+    @Override
+    public void destroyObject(PooledObject<Connection> p) throws Exception {
+      p.getObject().close();
+    }
+  }
+}
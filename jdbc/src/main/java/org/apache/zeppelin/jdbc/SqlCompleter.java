@@ -18,12 +18,11 @@ package org.apache.zeppelin.jdbc;
  * This source file is based on code taken from SQLLine 1.0.2 See SQLLine notice in LICENSE
  */
 
-import com.google.common.base.Joiner;
 import com.google.common.collect.Sets;
-import com.google.common.collect.Sets.SetView;
 import jline.console.completer.ArgumentCompleter.ArgumentList;
 import jline.console.completer.ArgumentCompleter.WhitespaceArgumentDelimiter;
-import jline.console.completer.StringsCompleter;
+import jline.console.completer.Completer;
+import org.apache.zeppelin.completer.SchemaMetadataCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,17 +34,33 @@ import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.regex.Pattern;
 
 import static org.apache.commons.lang.StringUtils.isBlank;
 
 /**
  * SQL auto complete functionality for the JdbcInterpreter.
+ *
+ * Completions are kept in a sorted index, so a completion looks up only the names starting
+ * with the word at the cursor. Table and column names are kept per schema, and a schema can be
+ * updated without reading the others again.
  */
-public class SqlCompleter extends StringsCompleter {
+public class SqlCompleter implements Completer {
 
   private static Logger logger = LoggerFactory.getLogger(SqlCompleter.class);
 
+  /**
+   * Schema of names of databases without schemas
+   */
+  static final String NO_SCHEMA = "";
+
+  /**
+   * Max number of candidates of a completion
+   */
+  static final int MAX_CANDIDATES = 1000;
+
   /**
    * Delimiter that can split SQL statement in keyword list
    */
@@ -60,11 +75,17 @@ public class SqlCompleter extends StringsCompleter {
     }
   };
 
-  private Set<String> modelCompletions = new HashSet<>();
+  // keywords and names of all schemas, read without lock by completions
+  private final NavigableSet<String> completions = new ConcurrentSkipListSet<>();
+
+  private Set<String> keywordCompletions = new HashSet<>();
+
+  private final Map<String, Set<String>> schemaCompletions = new ConcurrentHashMap<>();
 
   public SqlCompleter(Set<String> allCompletions, Set<String> dataModelCompletions) {
-    super(allCompletions);
-    this.modelCompletions = dataModelCompletions;
+    keywordCompletions = new HashSet<>(Sets.difference(allCompletions, dataModelCompletions));
+    updateSchemaCompletions(NO_SCHEMA, dataModelCompletions);
+    completions.addAll(allCompletions);
   }
 
   @Override
@@ -78,8 +99,6 @@ public class SqlCompleter extends StringsCompleter {
     // white spaces.
     ArgumentList argumentList = sqlDelimiter.delimit(buffer, cursor);
     String argument = argumentList.getCursorArgument();
-    // cursor in the selected argument
-    int argumentPosition = argumentList.getArgumentPosition();
 
     if (isBlank(argument)) {
       int argumentsCount = argumentList.getArguments().length;
@@ -88,37 +107,121 @@ public class SqlCompleter extends StringsCompleter {
         return -1;
       }
       argument = argumentList.getArguments()[argumentsCount - 1];
-      argumentPosition = argument.length();
     }
 
-    int complete = super.complete(argument, argumentPosition, candidates);
+    // names starting with the argument are next to each other in the index
+    for (String match : completions.tailSet(argument)) {
+      if (!match.startsWith(argument) || candidates.size() >= MAX_CANDIDATES) {
+        break;
+      }
+      candidates.add(match);
+    }
+
+    if (candidates.size() == 1) {
+      candidates.set(0, candidates.get(0) + " ");
+    }
+    int complete = candidates.isEmpty() ? -1 : 0;
 
     logger.debug("complete:" + complete + ", size:" + candidates.size());
 
     return complete;
   }
 
-  public void updateDataModelMetaData(Connection connection) {
+  /**
+   * Replace the keywords, e.g. with the keywords of the driver once connected.
+   */
+  public synchronized void setKeywordCompletions(Set<String> keywords) {
+    Set<String> removed = new HashSet<>(Sets.difference(keywordCompletions, keywords));
+    keywordCompletions = new HashSet<>(keywords);
+    completions.addAll(keywords);
+    removeUnused(removed);
+  }
 
-    try {
-      Set<String> newModelCompletions = getDataModelMetadataCompletions(connection);
-      logger.debug("New model metadata is:" + Joiner.on(',').join(newModelCompletions));
+  /**
+   * Replace the table and column names of a schema. Names no other schema has are removed
+   * from completions.
+   * @param names names of the schema. Empty when the schema is dropped
+   */
+  public synchronized void updateSchemaCompletions(String schema, Set<String> names) {
+    Set<String> old;
+    if (names.isEmpty()) {
+      old = schemaCompletions.remove(schema);
+    } else {
+      old = schemaCompletions.put(schema, new HashSet<>(names));
+      completions.addAll(names);
+    }
+    if (old != null) {
+      removeUnused(Sets.difference(old, names));
+    }
+  }
 
-      // Sets.difference(set1, set2) - returned set contains all elements that are contained by set1
-      // and not contained by set2. set2 may also contain elements not present in set1; these are
-      // simply ignored.
-      SetView<String> removedCompletions = Sets.difference(modelCompletions, newModelCompletions);
-      logger.debug("Removed Model Completions: " + Joiner.on(',').join(removedCompletions));
-      this.getStrings().removeAll(removedCompletions);
+  private void removeUnused(Set<String> names) {
+    for (String name : names) {
+      if (keywordCompletions.contains(name)) {
+        continue;
+      }
+      boolean used = false;
+      for (Set<String> schemaNames : schemaCompletions.values()) {
+        if (schemaNames.contains(name)) {
+          used = true;
+          break;
+        }
+      }
+      if (!used) {
+        completions.remove(name);
+      }
+    }
+  }
 
-      SetView<String> newCompletions = Sets.difference(newModelCompletions, modelCompletions);
-      logger.debug("New Completions: " + Joiner.on(',').join(newCompletions));
-      this.getStrings().addAll(newCompletions);
+  /**
+   * Read table and column names of all schemas again.
+   */
+  public void updateDataModelMetaData(Connection connection) {
+    updateDataModelMetaData(connection, null);
+  }
 
-      modelCompletions = newModelCompletions;
+  /**
+   * Read table and column names from the database, one schema at a time. Each schema is
+   * completed as soon as it is read. Schemas not expired in the cache are not read again.
+   * Stops when the thread is interrupted.
+   * @param cache null to read all schemas
+   */
+  public void updateDataModelMetaData(Connection connection, SchemaMetadataCache cache) {
+    try {
+      DatabaseMetaData meta = connection.getMetaData();
+      String catalog = connection.getCatalog();
+
+      Set<String> schemas = getSchemas(meta);
+      for (String schema : new ArrayList<>(schemaCompletions.keySet())) {
+        if (!schemas.contains(schema)) {
+          logger.debug("Removed schema: " + schema);
+          updateSchemaCompletions(schema, Collections.<String>emptySet());
+          if (cache != null) {
+            cache.remove(schema);
+          }
+        }
+      }
 
+      for (String schema : schemas) {
+        if (Thread.currentThread().isInterrupted()) {
+          logger.info("Stop reading the metadata completions");
+          return;
+        }
+        if (cache != null && !cache.isExpired(schema)) {
+          continue;
+        }
+        Set<String> names = getSchemaCompletions(meta, catalog, schema);
+        updateSchemaCompletions(schema, names);
+        if (cache != null) {
+          cache.put(schema, names);
+        }
+      }
     } catch (SQLException e) {
       logger.error("Failed to update the metadata conmpletions", e);
+    } finally {
+      if (cache != null) {
+        cache.save();
+      }
     }
   }
 
@@ -193,54 +296,82 @@ public class SqlCompleter extends StringsCompleter {
       throws SQLException {
     Set<String> completions = new TreeSet<>();
     if (null != connection) {
-      getColumnNames(connection.getMetaData(), completions);
-      getSchemaNames(connection.getMetaData(), completions);
+      DatabaseMetaData meta = connection.getMetaData();
+      for (String schema : getSchemas(meta)) {
+        completions.addAll(getSchemaCompletions(meta, connection.getCatalog(), schema));
+      }
     }
     return completions;
   }
 
-  private static void getColumnNames(DatabaseMetaData meta, Set<String> names) throws SQLException {
-
+  /**
+   * @return names of schemas, or NO_SCHEMA when the database has no schemas
+   */
+  static Set<String> getSchemas(DatabaseMetaData meta) {
+    Set<String> schemas = new LinkedHashSet<>();
     try {
-      ResultSet columns = meta.getColumns(meta.getConnection().getCatalog(), null, "%", "%");
-      try {
-
-        while (columns.next()) {
-          // Add the following strings: (1) column name, (2) table name
-          String name = columns.getString("TABLE_NAME");
-          if (!isBlank(name)) {
-            names.add(name);
-            names.add(columns.getString("COLUMN_NAME"));
-            // names.add(columns.getString("TABLE_NAME") + "." + columns.getString("COLUMN_NAME"));
+      ResultSet resultSet = meta.getSchemas();
+      if (resultSet != null) {
+        try {
+          while (resultSet.next()) {
+            String schemaName = resultSet.getString("TABLE_SCHEM");
+            if (!isBlank(schemaName)) {
+              schemas.add(schemaName);
+            }
           }
+        } finally {
+          resultSet.close();
         }
-      } finally {
-        columns.close();
       }
-
-      logger.debug(Joiner.on(',').join(names));
     } catch (Exception e) {
-      logger.error("Failed to retrieve the column name", e);
+      logger.error("Failed to retrieve the schema names", e);
     }
+
+    if (schemas.isEmpty()) {
+      schemas.add(NO_SCHEMA);
+    }
+    return schemas;
   }
 
-  private static void getSchemaNames(DatabaseMetaData meta, Set<String> names) throws SQLException {
+  /**
+   * @return "schema.", and names of tables and columns of the schema
+   */
+  static Set<String> getSchemaCompletions(DatabaseMetaData meta, String catalog, String schema) {
+    Set<String> names = new HashSet<>();
+    boolean noSchema = NO_SCHEMA.equals(schema);
+    if (!noSchema) {
+      names.add(schema + ".");
+    }
 
     try {
-      ResultSet schemas = meta.getSchemas();
+      ResultSet columns = meta.getColumns(catalog, noSchema ? null : schema, "%", "%");
+      if (columns == null) {
+        return names;
+      }
       try {
-        while (schemas.next()) {
-          String schemaName = schemas.getString("TABLE_SCHEM");
-          if (!isBlank(schemaName)) {
-            names.add(schemaName + ".");
+        while (columns.next()) {
+          // schema is a pattern, that may match other schemas with '_' in their name
+          String tableSchema = columns.getString("TABLE_SCHEM");
+          if (!noSchema && tableSchema != null && !schema.equals(tableSchema)) {
+            continue;
+          }
+          // Add the following strings: (1) column name, (2) table name
+          String name = columns.getString("TABLE_NAME");
+          if (!isBlank(name)) {
+            names.add(name);
+            String columnName = columns.getString("COLUMN_NAME");
+            if (!isBlank(columnName)) {
+              names.add(columnName);
+            }
           }
         }
       } finally {
-        schemas.close();
+        columns.close();
       }
     } catch (Exception e) {
-      logger.error("Failed to retrieve the column name", e);
+      logger.error("Failed to retrieve the column names of schema " + schema, e);
     }
+    return names;
   }
 
   // test purpose only
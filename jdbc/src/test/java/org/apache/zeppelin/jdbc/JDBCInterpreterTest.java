@@ -16,6 +16,8 @@ package org.apache.zeppelin.jdbc;
 
 import static java.lang.String.format;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.apache.zeppelin.jdbc.JDBCInterpreter.DEFAULT_KEY;
 import static org.apache.zeppelin.jdbc.JDBCInterpreter.DEFAULT_DRIVER;
 import static org.apache.zeppelin.jdbc.JDBCInterpreter.DEFAULT_PASSWORD;
@@ -27,11 +29,19 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.*;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Properties;
 
+import org.apache.zeppelin.interpreter.ColumnarTable;
 import org.apache.zeppelin.interpreter.InterpreterContext;
+import org.apache.zeppelin.interpreter.InterpreterOutput;
+import org.apache.zeppelin.interpreter.InterpreterOutputListener;
 import org.apache.zeppelin.interpreter.InterpreterResult;
 import org.apache.zeppelin.jdbc.JDBCInterpreter;
+import org.apache.zeppelin.scheduler.FIFOScheduler;
+import org.apache.zeppelin.scheduler.ParallelScheduler;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -200,4 +210,254 @@ public class JDBCInterpreterTest extends BasicJDBCTestCaseAdapter {
     assertEquals(InterpreterResult.Type.TABLE, interpreterResult.type());
     assertEquals("ID\tNAME\na\ta_name\n", interpreterResult.message());
   }
+
+  @Test
+  public void testSelectQueryStreamedToOutput() throws SQLException, IOException {
+    Properties properties = new Properties();
+    properties.setProperty("common.max_count", "10");
+    properties.setProperty("common.fetch_size", "1");
+    properties.setProperty("default.driver", "org.h2.Driver");
+    properties.setProperty("default.url", getJdbcConnection());
+    properties.setProperty("default.user", "");
+    properties.setProperty("default.password", "");
+    final JDBCInterpreter t = new JDBCInterpreter(properties);
+    t.open();
+
+    final InterpreterContext context = new InterpreterContext("", "1", "", "", null, null, null, null, null, null, null);
+    final List<String> appended = new LinkedList<>();
+    final List<Integer> progress = new LinkedList<>();
+    InterpreterOutput out = new InterpreterOutput(new InterpreterOutputListener() {
+      @Override
+      public void onAppend(InterpreterOutput out, byte[] line) {
+        appended.add(new String(line));
+        progress.add(t.getProgress(context));
+      }
+
+      @Override
+      public void onUpdate(InterpreterOutput out, byte[] output) {
+      }
+    });
+
+    String sqlQuery = "select * from test_table WHERE ID in ('a', 'b')";
+
+    InterpreterResult interpreterResult = t.interpret(sqlQuery, new InterpreterContext("", "1", "", "", null, null, null, null, null, null, out));
+
+    // rows are in the output, written as they are fetched
+    assertEquals(InterpreterResult.Code.SUCCESS, interpreterResult.code());
+    assertEquals("", interpreterResult.message());
+    assertEquals(InterpreterResult.Type.TABLE, out.getType());
+    assertEquals("ID\tNAME\na\ta_name\nb\tb_name\n", new String(out.toByteArray()));
+    assertEquals(3, appended.size());
+    // each row is appended while the query is running, right after it is fetched
+    assertEquals(Arrays.asList(10, 10, 20), progress);
+    assertEquals(0, t.getProgress(context));
+
+    // text result is written to the output as it is fetched
+    out.clear();
+    appended.clear();
+    interpreterResult = t.interpret("explain " + sqlQuery, new InterpreterContext("", "1", "", "", null, null, null, null, null, null, out));
+    assertEquals(InterpreterResult.Code.SUCCESS, interpreterResult.code());
+    assertEquals(InterpreterResult.Type.TEXT, interpreterResult.type());
+    assertTrue(appended.size() > 0);
+    assertTrue(new String(out.toByteArray()).startsWith("PLAN\n"));
+  }
+
+  @Test
+  public void testSelectQueryTypedColumns() throws SQLException, IOException {
+    Properties properties = new Properties();
+    properties.setProperty("common.max_count", "1000");
+    properties.setProperty("default.driver", "org.h2.Driver");
+    properties.setProperty("default.url", getJdbcConnection());
+    properties.setProperty("default.user", "");
+    properties.setProperty("default.password", "");
+    JDBCInterpreter t = new JDBCInterpreter(properties);
+    t.open();
+
+    String sqlQuery = "select id, count(*) as cnt, cast(1.5 as double) as avg, true as flag " +
+        "from test_table where id in ('a', 'c') group by id order by id";
+
+    InterpreterResult interpreterResult = t.interpret(sqlQuery, new InterpreterContext("", "1", "", "", null, null, null, null, null, null, null));
+
+    assertEquals(InterpreterResult.Code.SUCCESS, interpreterResult.code());
+    assertEquals(InterpreterResult.Type.TABLE, interpreterResult.type());
+    ColumnarTable table = interpreterResult.table();
+    assertEquals(ColumnarTable.ColumnType.STRING, table.getColumns().get(0).getType());
+    assertEquals(ColumnarTable.ColumnType.LONG, table.getColumns().get(1).getType());
+    assertEquals(ColumnarTable.ColumnType.DOUBLE, table.getColumns().get(2).getType());
+    assertEquals(ColumnarTable.ColumnType.BOOLEAN, table.getColumns().get(3).getType());
+    assertEquals(1L, table.getValue(1, 1));
+    assertEquals(1.5, table.getValue(1, 2));
+    assertEquals(true, table.getValue(1, 3));
+    assertEquals("ID\tCNT\tAVG\tFLAG\na\t1\t1.5\ttrue\nc\t1\t1.5\ttrue\n",
+        interpreterResult.message());
+  }
+
+  @Test
+  public void testOnlyQueriesFetchedInTransaction() {
+    assertTrue(JDBCInterpreter.isQuery("select * from test_table"));
+    assertTrue(JDBCInterpreter.isQuery("  WITH t AS (SELECT 1) SELECT * FROM t"));
+    assertTrue(JDBCInterpreter.isQuery("(select 1) union (select 2)"));
+    assertTrue(JDBCInterpreter.isQuery("-- comment\n/* comment */ values (1)"));
+    assertEquals(false, JDBCInterpreter.isQuery("VACUUM test_table"));
+    assertEquals(false, JDBCInterpreter.isQuery("CREATE DATABASE test"));
+    assertEquals(false, JDBCInterpreter.isQuery("insert into test_table select * from t"));
+    assertEquals(false, JDBCInterpreter.isQuery("selection"));
+  }
+
+  @Test
+  public void testNonQueryStatement() throws SQLException, IOException {
+    Properties properties = new Properties();
+    properties.setProperty("common.max_count", "1000");
+    properties.setProperty("default.driver", "org.h2.Driver");
+    properties.setProperty("default.url", getJdbcConnection());
+    properties.setProperty("default.user", "");
+    properties.setProperty("default.password", "");
+    JDBCInterpreter t = new JDBCInterpreter(properties);
+    t.open();
+
+    InterpreterResult interpreterResult = t.interpret("CHECKPOINT SYNC",
+        new InterpreterContext("", "1", "", "", null, null, null, null, null, null, null));
+    assertEquals(InterpreterResult.Code.SUCCESS, interpreterResult.code());
+    assertEquals("Update Count\n0\n", interpreterResult.message());
+    t.close();
+  }
+
+  @Test
+  public void testConnectionPool() throws SQLException, IOException, ClassNotFoundException {
+    Properties properties = new Properties();
+    properties.setProperty("common.max_count", "1000");
+    properties.setProperty("default.driver", "org.h2.Driver");
+    properties.setProperty("default.url", getJdbcConnection());
+    properties.setProperty("default.user", "");
+    properties.setProperty("default.password", "");
+    properties.setProperty("default.pool.max_total", "1");
+    properties.setProperty("default.pool.max_wait", "100");
+    JDBCInterpreter t = new JDBCInterpreter(properties);
+    t.open();
+
+    // connection is returned to the pool after the paragraph
+    for (int i = 0; i < 3; i++) {
+      InterpreterResult interpreterResult = t.interpret("select * from test_table",
+          new InterpreterContext("", "1", "", "", null, null, null, null, null, null, null));
+      assertEquals(InterpreterResult.Code.SUCCESS, interpreterResult.code());
+    }
+
+    Connection connection = t.getConnection(DEFAULT_KEY);
+    try {
+      t.getConnection(DEFAULT_KEY);
+      fail("pool is exhausted");
+    } catch (SQLException e) {
+      // timeout waiting for a connection
+    }
+
+    connection.close();
+    assertTrue(connection.isClosed());
+    t.getConnection(DEFAULT_KEY).close();
+    t.close();
+  }
+
+  @Test
+  public void testConnectionPoolValidation() throws SQLException, IOException,
+      ClassNotFoundException {
+    Properties properties = new Properties();
+    properties.setProperty("common.max_count", "1000");
+    properties.setProperty("default.driver", "org.h2.Driver");
+    properties.setProperty("default.url", getJdbcConnection());
+    properties.setProperty("default.user", "");
+    properties.setProperty("default.password", "");
+    properties.setProperty("default.pool.max_total", "1");
+    properties.setProperty("default.pool.validation_query", "select 1");
+    JDBCInterpreter t = new JDBCInterpreter(properties);
+    t.open();
+
+    // connection broken while it is idle in the pool is not given again
+    Connection connection = t.getConnection(DEFAULT_KEY);
+    Connection pooledConnection = connection.unwrap(Connection.class);
+    connection.close();
+    pooledConnection.close();
+
+    InterpreterResult interpreterResult = t.interpret("select * from test_table WHERE ID = 'c'",
+        new InterpreterContext("", "1", "", "", null, null, null, null, null, null, null));
+    assertEquals(InterpreterResult.Code.SUCCESS, interpreterResult.code());
+    assertEquals("ID\tNAME\nc\tnull\n", interpreterResult.message());
+    t.close();
+  }
+
+  @Test
+  public void testConnectionPoolRestoresState() throws SQLException, IOException,
+      ClassNotFoundException {
+    Properties properties = new Properties();
+    properties.setProperty("common.max_count", "1000");
+    properties.setProperty("default.driver", "org.h2.Driver");
+    properties.setProperty("default.url", getJdbcConnection());
+    properties.setProperty("default.user", "");
+    properties.setProperty("default.password", "");
+    properties.setProperty("default.pool.max_total", "1");
+    JDBCInterpreter t = new JDBCInterpreter(properties);
+    t.open();
+
+    Connection connection = t.getConnection(DEFAULT_KEY);
+    int isolation = connection.getTransactionIsolation();
+    connection.setAutoCommit(false);
+    connection.setReadOnly(true);
+    connection.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+    connection.close();
+
+    // next borrower of the same connection gets it as it was made
+    connection = t.getConnection(DEFAULT_KEY);
+    assertTrue(connection.getAutoCommit());
+    assertEquals(false, connection.isReadOnly());
+    assertEquals(isolation, connection.getTransactionIsolation());
+    connection.close();
+    t.close();
+  }
+
+  @Test
+  public void testScheduler() throws IOException {
+    Properties properties = new Properties();
+    properties.setProperty("default.driver", "org.h2.Driver");
+    properties.setProperty("default.url", getJdbcConnection());
+    properties.setProperty("hive.driver", "org.h2.Driver");
+    properties.setProperty("hive.url", getJdbcConnection());
+    properties.setProperty("hive.pool.max_total", "2");
+
+    assertTrue(new JDBCInterpreter(properties).getScheduler() instanceof FIFOScheduler);
+
+    properties.setProperty("common.parallel", "true");
+    JDBCInterpreter t = new JDBCInterpreter(properties);
+    assertTrue(t.getScheduler() instanceof ParallelScheduler);
+    // default pool size of default prefix and 2 of hive prefix
+    assertEquals(10, t.getMaxConcurrency());
+
+    properties.setProperty("common.max_concurrency", "3");
+    assertEquals(3, new JDBCInterpreter(properties).getMaxConcurrency());
+  }
+
+  @Test
+  public void testSqlCompletionLoadedInBackground() throws IOException, InterruptedException {
+    Path cacheDir = Files.createTempDirectory("jdbc-completer-");
+    Properties properties = new Properties();
+    properties.setProperty("common.max_count", "1000");
+    properties.setProperty("common.completer_cache_dir", cacheDir.toString());
+    properties.setProperty("default.driver", "org.h2.Driver");
+    properties.setProperty("default.url", getJdbcConnection());
+    properties.setProperty("default.user", "");
+    properties.setProperty("default.password", "");
+    JDBCInterpreter t = new JDBCInterpreter(properties);
+    t.open();
+
+    // keywords are completed without waiting for the metadata
+    assertEquals("SELECT ", t.completion("SELEC", 5).get(0));
+
+    // names are completed, and cached for the next open, once they are read
+    List<String> completions = t.completion("TEST_TAB", 8);
+    for (int i = 0; i < 100 && (completions.isEmpty() || cacheDir.toFile().list().length == 0);
+        i++) {
+      Thread.sleep(100);
+      completions = t.completion("TEST_TAB", 8);
+    }
+    assertEquals("TEST_TABLE ", completions.get(0));
+    assertEquals(1, cacheDir.toFile().list().length);
+    t.close();
+  }
 }
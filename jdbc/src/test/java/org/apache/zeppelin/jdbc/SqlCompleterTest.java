@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.zeppelin.jdbc;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class SqlCompleterTest {
+
+  private static Set<String> names(String... names) {
+    return new HashSet<>(Arrays.asList(names));
+  }
+
+  @Test
+  public void testUpdateSchemaCompletions() {
+    SqlCompleter completer = new SqlCompleter(names("SELECT", "order"), names());
+    completer.updateSchemaCompletions("sales", names("sales.", "orders", "order_id"));
+    completer.updateSchemaCompletions("hr", names("hr.", "orders", "employees"));
+    assertEquals(Arrays.asList("order", "order_id", "orders"), complete(completer, "ord"));
+
+    // names of other schemas and keywords are kept
+    completer.updateSchemaCompletions("sales", names("sales.", "customers"));
+    assertEquals(Arrays.asList("order", "orders"), complete(completer, "ord"));
+
+    completer.updateSchemaCompletions("hr", names());
+    assertEquals(Arrays.asList("order "), complete(completer, "ord"));
+    assertEquals(Arrays.asList("customers "), complete(completer, "cust"));
+  }
+
+  @Test
+  public void testMaxCandidates() {
+    Set<String> columns = new HashSet<>();
+    for (int i = 0; i < SqlCompleter.MAX_CANDIDATES * 2; i++) {
+      columns.add("col_" + i);
+    }
+    SqlCompleter completer = new SqlCompleter(names("SELECT"), names());
+    completer.updateSchemaCompletions(SqlCompleter.NO_SCHEMA, columns);
+
+    assertEquals(SqlCompleter.MAX_CANDIDATES, complete(completer, "col").size());
+    assertEquals(Arrays.asList("col_1999 "), complete(completer, "col_1999"));
+  }
+
+  @Test
+  public void testKeywordCompletions() {
+    SqlCompleter completer = new SqlCompleter(names("SELECT"), names());
+    completer.updateSchemaCompletions("sales", names("SELECTION"));
+    completer.setKeywordCompletions(names("SELECT", "SET"));
+    assertEquals(Arrays.asList("SELECT", "SELECTION"), complete(completer, "SEL"));
+    assertEquals(Arrays.asList("SET "), complete(completer, "SET"));
+
+    completer.setKeywordCompletions(names("SET"));
+    assertEquals(Arrays.asList("SELECTION "), complete(completer, "SEL"));
+  }
+
+  private static List<String> complete(SqlCompleter completer, String buffer) {
+    List<CharSequence> candidates = new ArrayList<>();
+    completer.complete(buffer, buffer.length(), candidates);
+    List<String> result = new ArrayList<>();
+    for (CharSequence candidate : candidates) {
+      result.add(candidate.toString());
+    }
+    return result;
+  }
+}
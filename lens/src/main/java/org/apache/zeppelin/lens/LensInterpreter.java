@@ -36,6 +36,7 @@ import org.apache.zeppelin.interpreter.InterpreterContext;
 import org.apache.zeppelin.interpreter.InterpreterPropertyBuilder;
 import org.apache.zeppelin.interpreter.InterpreterResult;
 import org.apache.zeppelin.interpreter.InterpreterResult.Code;
+import org.apache.zeppelin.scheduler.FairShare;
 import org.apache.zeppelin.scheduler.Scheduler;
 import org.apache.zeppelin.scheduler.SchedulerFactory;
 import org.slf4j.Logger;
@@ -444,7 +445,8 @@ public class LensInterpreter extends Interpreter {
   public Scheduler getScheduler() {
     if (concurrentRequests()) {
       return SchedulerFactory.singleton().createOrGetParallelScheduler(
-          LensInterpreter.class.getName() + this.hashCode(), m_maxThreads);
+          LensInterpreter.class.getName() + this.hashCode(), m_maxThreads,
+          FairShare.create(getProperty()));
     } else {
       return super.getScheduler();
     }
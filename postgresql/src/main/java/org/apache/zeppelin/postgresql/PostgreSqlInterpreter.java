@@ -16,6 +16,7 @@ package org.apache.zeppelin.postgresql;
 
 import static org.apache.commons.lang.StringUtils.containsIgnoreCase;
 
+import java.io.File;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.DriverManager;
@@ -24,15 +25,22 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
 
+import org.apache.zeppelin.completer.SchemaMetadataCache;
 import org.apache.zeppelin.interpreter.Interpreter;
 import org.apache.zeppelin.interpreter.InterpreterContext;
+import org.apache.zeppelin.interpreter.InterpreterOutput;
 import org.apache.zeppelin.interpreter.InterpreterPropertyBuilder;
 import org.apache.zeppelin.interpreter.InterpreterResult;
 import org.apache.zeppelin.interpreter.InterpreterResult.Code;
+import org.apache.zeppelin.scheduler.ExecutorFactory;
 import org.apache.zeppelin.scheduler.Scheduler;
 import org.apache.zeppelin.scheduler.SchedulerFactory;
 import org.slf4j.Logger;
@@ -40,8 +48,6 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
-import com.google.common.collect.Sets.SetView;
 
 /**
  * PostgreSQL interpreter for Zeppelin. This interpreter can also be used for accessing HAWQ and
@@ -53,6 +59,12 @@ import com.google.common.collect.Sets.SetView;
  * <li>{@code postgresql.password} - JDBC password..</li>
  * <li>{@code postgresql.driver.name} - JDBC driver name.</li>
  * <li>{@code postgresql.max.result} - Max number of SQL result to display.</li>
+ * <li>{@code postgresql.fetch.size} - Number of rows fetched at once. Rows are written to the
+ * paragraph output as they are fetched.</li>
+ * <li>{@code postgresql.completer.ttl} - Seconds after which table and column names of a schema
+ * are read again for completion.</li>
+ * <li>{@code postgresql.completer.cache.dir} - Directory of the table and column names cached
+ * for completion.</li>
  * </ul>
  * 
  * <p>
@@ -83,14 +95,25 @@ public class PostgreSqlInterpreter extends Interpreter {
   static final String DEFAULT_JDBC_USER_NAME = "gpadmin";
   static final String DEFAULT_JDBC_DRIVER_NAME = "org.postgresql.Driver";
   static final String DEFAULT_MAX_RESULT = "1000";
+  static final String DEFAULT_FETCH_SIZE = "100";
+  static final String DEFAULT_COMPLETER_TTL = "86400";
 
   static final String POSTGRESQL_SERVER_URL = "postgresql.url";
   static final String POSTGRESQL_SERVER_USER = "postgresql.user";
   static final String POSTGRESQL_SERVER_PASSWORD = "postgresql.password";
   static final String POSTGRESQL_SERVER_DRIVER_NAME = "postgresql.driver.name";
   static final String POSTGRESQL_SERVER_MAX_RESULT = "postgresql.max.result";
+  static final String POSTGRESQL_SERVER_FETCH_SIZE = "postgresql.fetch.size";
+  static final String POSTGRESQL_COMPLETER_TTL = "postgresql.completer.ttl";
+  static final String POSTGRESQL_COMPLETER_CACHE_DIR = "postgresql.completer.cache.dir";
   static final String EMPTY_COLUMN_VALUE = "";
 
+  private static final String COMPLETER_EXECUTOR = "PostgreSqlInterpreterCompleter";
+  // leading white spaces, comments and parentheses, then a keyword of a query
+  private static final Pattern QUERY_PATTERN = Pattern.compile(
+      "(\\s|\\(|--[^\\n]*(\\n|$)|/\\*.*?\\*/)*(SELECT|WITH|VALUES)\\b",
+      Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
   static {
     Interpreter.register(
         "sql",
@@ -103,15 +126,29 @@ public class PostgreSqlInterpreter extends Interpreter {
                 "The PostgreSQL user password")
             .add(POSTGRESQL_SERVER_DRIVER_NAME, DEFAULT_JDBC_DRIVER_NAME, "JDBC Driver Name")
             .add(POSTGRESQL_SERVER_MAX_RESULT, DEFAULT_MAX_RESULT,
-                "Max number of SQL result to display.").build());
+                "Max number of SQL result to display.")
+            .add(POSTGRESQL_SERVER_FETCH_SIZE, DEFAULT_FETCH_SIZE,
+                "Number of rows fetched at once. Rows are displayed as they are fetched.")
+            .add(POSTGRESQL_COMPLETER_TTL, DEFAULT_COMPLETER_TTL,
+                "Seconds after which table and column names are read again for completion.")
+            .add(POSTGRESQL_COMPLETER_CACHE_DIR, "",
+                "Directory of table and column names cached for completion. "
+                    + "conf/completer/psql of Zeppelin when empty.")
+            .build());
   }
 
   private Connection jdbcConnection;
   private Statement currentStatement;
   private Exception exceptionOnConnect;
   private int maxResult;
+  private int fetchSize;
+  // number of rows fetched by the running statement
+  private volatile int currentRowCount;
 
   private SqlCompleter sqlCompleter;
+  private SchemaMetadataCache schemaMetadataCache;
+  // background loading of table and column names for completion
+  private Future<?> completerLoader;
 
   private static final Function<CharSequence, String> sequenceToStringTransformer =
       new Function<CharSequence, String>() {
@@ -141,12 +178,17 @@ public class PostgreSqlInterpreter extends Interpreter {
       String user = getProperty(POSTGRESQL_SERVER_USER);
       String password = getProperty(POSTGRESQL_SERVER_PASSWORD);
       maxResult = Integer.valueOf(getProperty(POSTGRESQL_SERVER_MAX_RESULT));
+      fetchSize = Integer.valueOf(getProperty(POSTGRESQL_SERVER_FETCH_SIZE));
 
       Class.forName(driverName);
 
       jdbcConnection = DriverManager.getConnection(url, user, password);
 
-      sqlCompleter = createSqlCompleter(jdbcConnection);
+      // keywords are completed right away. table and column names as they are read
+      sqlCompleter = createSqlCompleter();
+      schemaMetadataCache = new SchemaMetadataCache(getCompleterCacheDir(), url, user,
+          getCompleterTtl() * 1000);
+      loadSqlCompleter(false);
 
       exceptionOnConnect = null;
       logger.info("Successfully created psql connection");
@@ -158,15 +200,12 @@ public class PostgreSqlInterpreter extends Interpreter {
     }
   }
 
-  private SqlCompleter createSqlCompleter(Connection jdbcConnection) {
+  private SqlCompleter createSqlCompleter() {
 
     SqlCompleter completer = null;
     try {
-      Set<String> keywordsCompletions = SqlCompleter.getSqlKeywordsCompletions(jdbcConnection);
-      Set<String> dataModelCompletions =
-          SqlCompleter.getDataModelMetadataCompletions(jdbcConnection);
-      SetView<String> allCompletions = Sets.union(keywordsCompletions, dataModelCompletions);
-      completer = new SqlCompleter(allCompletions, dataModelCompletions);
+      Set<String> keywordsCompletions = SqlCompleter.getSqlKeywordsCompletions(null);
+      completer = new SqlCompleter(keywordsCompletions, new HashSet<String>());
 
     } catch (IOException | SQLException e) {
       logger.error("Cannot create SQL completer", e);
@@ -175,11 +214,84 @@ public class PostgreSqlInterpreter extends Interpreter {
     return completer;
   }
 
+  /**
+   * Read keywords of the driver and table and column names in the background, with a
+   * connection of its own so paragraphs don't wait for it.
+   * @param refresh read all schemas again, instead of only the schemas expired in the cache
+   */
+  private synchronized void loadSqlCompleter(final boolean refresh) {
+    if (sqlCompleter == null) {
+      return;
+    }
+    if (completerLoader != null) {
+      completerLoader.cancel(true);
+    }
+
+    final SqlCompleter completer = sqlCompleter;
+    final SchemaMetadataCache cache = schemaMetadataCache;
+    final String url = getProperty(POSTGRESQL_SERVER_URL);
+    final String user = getProperty(POSTGRESQL_SERVER_USER);
+    final String password = getProperty(POSTGRESQL_SERVER_PASSWORD);
+
+    completerLoader = ExecutorFactory.singleton().createOrGet(COMPLETER_EXECUTOR, 1)
+        .submit(new Runnable() {
+          @Override
+          public void run() {
+            if (refresh) {
+              cache.expireAll();
+            } else {
+              cache.load();
+              for (Map.Entry<String, Set<String>> e : cache.getAll().entrySet()) {
+                completer.updateSchemaCompletions(e.getKey(), e.getValue());
+              }
+            }
+
+            try (Connection connection = DriverManager.getConnection(url, user, password)) {
+              completer.setKeywordCompletions(SqlCompleter.getSqlKeywordsCompletions(connection));
+              completer.updateDataModelMetaData(connection, cache);
+            } catch (IOException | SQLException e) {
+              logger.error("Cannot load SQL completions", e);
+            }
+          }
+        });
+  }
+
+  long getCompleterTtl() {
+    String ttl = getProperty(POSTGRESQL_COMPLETER_TTL);
+    try {
+      return Long.parseLong(ttl == null ? DEFAULT_COMPLETER_TTL : ttl.trim());
+    } catch (NumberFormatException e) {
+      logger.error("Invalid " + POSTGRESQL_COMPLETER_TTL, e);
+      return Long.parseLong(DEFAULT_COMPLETER_TTL);
+    }
+  }
+
+  /**
+   * @return null when names are not cached on disk
+   */
+  File getCompleterCacheDir() {
+    if (getCompleterTtl() <= 0) {
+      return null;
+    }
+    String dir = getProperty(POSTGRESQL_COMPLETER_CACHE_DIR);
+    if (dir == null || dir.trim().isEmpty()) {
+      return SchemaMetadataCache.getDefaultDir("psql");
+    }
+    return new File(dir.trim());
+  }
+
   @Override
   public void close() {
 
     logger.info("Close psql connection!");
 
+    synchronized (this) {
+      if (completerLoader != null) {
+        completerLoader.cancel(true);
+        completerLoader = null;
+      }
+    }
+
     try {
       if (getJdbcConnection() != null) {
         getJdbcConnection().close();
@@ -191,17 +303,13 @@ public class PostgreSqlInterpreter extends Interpreter {
     }
   }
 
-  private InterpreterResult executeSql(String sql) {
+  private InterpreterResult executeSql(String sql, InterpreterContext context) {
     try {
 
       if (exceptionOnConnect != null) {
         return new InterpreterResult(Code.ERROR, exceptionOnConnect.getMessage());
       }
 
-      currentStatement = getJdbcConnection().createStatement();
-
-      currentStatement.setMaxRows(maxResult);
-
       StringBuilder msg = null;
       boolean isTableType = false;
 
@@ -212,35 +320,30 @@ public class PostgreSqlInterpreter extends Interpreter {
         isTableType = true;
       }
 
+      currentStatement = getJdbcConnection().createStatement();
+      boolean fetchInTransaction = false;
       ResultSet resultSet = null;
       try {
+        currentStatement.setMaxRows(maxResult);
+        if (getFetchSize() > 0) {
+          currentStatement.setFetchSize(getFetchSize());
+        }
+
+        // PostgreSQL fetches rows in batches only when auto-commit is off. Other statements
+        // than queries run with auto-commit, as some of them, e.g. VACUUM, can't run in a
+        // transaction.
+        fetchInTransaction = getFetchSize() > 0 && isQuery(sql)
+            && getJdbcConnection().getAutoCommit();
+        if (fetchInTransaction) {
+          getJdbcConnection().setAutoCommit(false);
+        }
 
         boolean isResultSetAvailable = currentStatement.execute(sql);
 
         if (isResultSetAvailable) {
           resultSet = currentStatement.getResultSet();
-
-          ResultSetMetaData md = resultSet.getMetaData();
-
-          for (int i = 1; i < md.getColumnCount() + 1; i++) {
-            if (i > 1) {
-              msg.append(TAB);
-            }
-            msg.append(replaceReservedChars(isTableType, md.getColumnName(i)));
-          }
-          msg.append(NEWLINE);
-
-          int displayRowCount = 0;
-          while (resultSet.next() && displayRowCount < getMaxResult()) {
-            for (int i = 1; i < md.getColumnCount() + 1; i++) {
-              msg.append(replaceReservedChars(isTableType, resultSet.getString(i)));
-              if (i != md.getColumnCount()) {
-                msg.append(TAB);
-              }
-            }
-            msg.append(NEWLINE);
-            displayRowCount++;
-          }
+          msg = writeResultSet(resultSet, isTableType, msg,
+              context == null ? null : context.out);
         } else {
           // Response contains either an update count or there are no results.
           int updateCount = currentStatement.getUpdateCount();
@@ -248,12 +351,16 @@ public class PostgreSqlInterpreter extends Interpreter {
           msg.append(updateCount).append(NEWLINE);
 
           // In case of update event (e.g. isResultSetAvailable = false) update the completion
-          // meta-data.
-          if (sqlCompleter != null) {
-            sqlCompleter.updateDataModelMetaData(getJdbcConnection());
-          }
+          // meta-data, in the background.
+          loadSqlCompleter(true);
+        }
+        if (fetchInTransaction) {
+          getJdbcConnection().commit();
+          fetchInTransaction = false;
+          getJdbcConnection().setAutoCommit(true);
         }
       } finally {
+        currentRowCount = 0;
         try {
           if (resultSet != null) {
             resultSet.close();
@@ -261,31 +368,96 @@ public class PostgreSqlInterpreter extends Interpreter {
           currentStatement.close();
         } finally {
           currentStatement = null;
+          if (fetchInTransaction) {
+            getJdbcConnection().rollback();
+            getJdbcConnection().setAutoCommit(true);
+          }
         }
       }
 
       return new InterpreterResult(Code.SUCCESS, msg.toString());
 
-    } catch (SQLException ex) {
+    } catch (SQLException | IOException ex) {
       logger.error("Cannot run " + sql, ex);
       return new InterpreterResult(Code.ERROR, ex.getMessage());
     }
   }
 
+  /**
+   * @return true when sql is a query, i.e. starts with SELECT, WITH or VALUES
+   */
+  static boolean isQuery(String sql) {
+    return QUERY_PATTERN.matcher(sql).lookingAt();
+  }
+
+  /**
+   * Write rows while they are fetched, a batch of fetch size rows at a time, to out.
+   * Rows are kept in msg only when there is no output stream.
+   * @return rest of the result, to return as InterpreterResult
+   */
+  private StringBuilder writeResultSet(ResultSet resultSet, boolean isTableType,
+      StringBuilder msg, InterpreterOutput out) throws SQLException, IOException {
+    int batchSize = getFetchSize() > 0 ? getFetchSize() : Integer.valueOf(DEFAULT_FETCH_SIZE);
+    int maxResult = getMaxResult();
+
+    ResultSetMetaData md = resultSet.getMetaData();
+    int columnCount = md.getColumnCount();
+    for (int i = 1; i < columnCount + 1; i++) {
+      if (i > 1) {
+        msg.append(TAB);
+      }
+      appendReservedCharsReplaced(msg, isTableType, md.getColumnName(i));
+    }
+    msg.append(NEWLINE);
+
+    int displayRowCount = 0;
+    while (displayRowCount < maxResult && resultSet.next()) {
+      for (int i = 1; i < columnCount + 1; i++) {
+        if (i > 1) {
+          msg.append(TAB);
+        }
+        appendReservedCharsReplaced(msg, isTableType, resultSet.getString(i));
+      }
+      msg.append(NEWLINE);
+      displayRowCount++;
+
+      if (displayRowCount % batchSize == 0) {
+        currentRowCount = displayRowCount;
+        if (out != null) {
+          out.write(msg.toString());
+          msg.setLength(0);
+        }
+      }
+    }
+
+    if (out != null) {
+      out.write(msg.toString());
+      return new StringBuilder();
+    }
+    return msg;
+  }
+
   /**
    * For %table response replace Tab and Newline characters from the content.
    */
-  private String replaceReservedChars(boolean isTableResponseType, String str) {
+  private void appendReservedCharsReplaced(StringBuilder sb, boolean isTableResponseType,
+      String str) {
     if (str == null) {
-      return EMPTY_COLUMN_VALUE;
+      sb.append(EMPTY_COLUMN_VALUE);
+    } else if (!isTableResponseType) {
+      sb.append(str);
+    } else {
+      for (int i = 0; i < str.length(); i++) {
+        char c = str.charAt(i);
+        sb.append(c == TAB || c == NEWLINE ? WhITESPACE : c);
+      }
     }
-    return (!isTableResponseType) ? str : str.replace(TAB, WhITESPACE).replace(NEWLINE, WhITESPACE);
   }
 
   @Override
   public InterpreterResult interpret(String cmd, InterpreterContext contextInterpreter) {
     logger.info("Run SQL command '{}'", cmd);
-    return executeSql(cmd);
+    return executeSql(cmd, contextInterpreter);
   }
 
   @Override
@@ -309,9 +481,12 @@ public class PostgreSqlInterpreter extends Interpreter {
     return FormType.SIMPLE;
   }
 
+  /**
+   * Progress is the number of rows fetched, out of postgresql.max.result.
+   */
   @Override
   public int getProgress(InterpreterContext context) {
-    return 0;
+    return (int) Math.min(99, currentRowCount * 100L / Math.max(1, getMaxResult()));
   }
 
   @Override
@@ -335,6 +510,10 @@ public class PostgreSqlInterpreter extends Interpreter {
     return maxResult;
   }
 
+  public int getFetchSize() {
+    return fetchSize;
+  }
+
   // Test only method
   protected Connection getJdbcConnection() {
     return jdbcConnection;
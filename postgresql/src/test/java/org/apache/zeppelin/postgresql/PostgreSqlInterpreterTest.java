@@ -26,14 +26,21 @@ import static org.apache.zeppelin.postgresql.PostgreSqlInterpreter.POSTGRESQL_SE
 import static org.apache.zeppelin.postgresql.PostgreSqlInterpreter.POSTGRESQL_SERVER_USER;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Properties;
 
+import org.apache.zeppelin.interpreter.InterpreterContext;
+import org.apache.zeppelin.interpreter.InterpreterOutput;
+import org.apache.zeppelin.interpreter.InterpreterOutputListener;
 import org.apache.zeppelin.interpreter.InterpreterResult;
 import org.junit.Before;
 import org.junit.Test;
@@ -168,6 +175,41 @@ public class PostgreSqlInterpreterTest extends BasicJDBCTestCaseAdapter {
     verifyAllStatementsClosed();
   }
 
+  @Test
+  public void testSelectQueryStreamedToOutput() throws SQLException {
+
+    when(psqlInterpreter.getMaxResult()).thenReturn(1000);
+    when(psqlInterpreter.getFetchSize()).thenReturn(1);
+
+    String sqlQuery = "select * from t";
+
+    result.addColumn("col1", new String[] {"val11", "val12"});
+    result.addColumn("col2", new String[] {"val21", "val22"});
+
+    final List<String> appended = new LinkedList<>();
+    InterpreterOutput out = new InterpreterOutput(new InterpreterOutputListener() {
+      @Override
+      public void onAppend(InterpreterOutput out, byte[] line) {
+        appended.add(new String(line));
+      }
+
+      @Override
+      public void onUpdate(InterpreterOutput out, byte[] output) {
+      }
+    });
+    InterpreterContext context = new InterpreterContext("", "1", "", "", null, null, null, null,
+        null, null, out);
+
+    InterpreterResult interpreterResult = psqlInterpreter.interpret(sqlQuery, context);
+
+    // rows are pushed from the output a batch at a time, as they are fetched
+    assertEquals(InterpreterResult.Code.SUCCESS, interpreterResult.code());
+    assertEquals("", interpreterResult.message());
+    assertEquals(InterpreterResult.Type.TABLE, out.getType());
+    assertEquals("col1\tcol2\nval11\tval21\nval12\tval22\n", new String(out.toByteArray()));
+    assertEquals(Arrays.asList("col1\tcol2\n", "val11\tval21\n", "val12\tval22\n"), appended);
+  }
+
   @Test
   public void testSelectQueryMaxResult() throws SQLException {
 
@@ -250,6 +292,42 @@ public class PostgreSqlInterpreterTest extends BasicJDBCTestCaseAdapter {
     verifyAllStatementsClosed();
   }
 
+  @Test
+  public void testQueryFetchedInTransaction() throws SQLException {
+
+    when(psqlInterpreter.getMaxResult()).thenReturn(1000);
+    when(psqlInterpreter.getFetchSize()).thenReturn(100);
+
+    String sqlQuery = "select * from t";
+
+    result.addColumn("col1", new String[] {"val11", "val12"});
+
+    InterpreterResult interpreterResult = psqlInterpreter.interpret(sqlQuery, null);
+
+    assertEquals(InterpreterResult.Code.SUCCESS, interpreterResult.code());
+    verifySQLStatementExecuted(sqlQuery);
+    verifyCommitted();
+    assertTrue(psqlInterpreter.getJdbcConnection().getAutoCommit());
+  }
+
+  @Test
+  public void testNonQueryRunsWithAutoCommit() throws SQLException {
+
+    when(psqlInterpreter.getMaxResult()).thenReturn(1000);
+    when(psqlInterpreter.getFetchSize()).thenReturn(100);
+
+    // VACUUM can't run in a transaction
+    String sqlQuery = "vacuum t";
+
+    InterpreterResult interpreterResult = psqlInterpreter.interpret(sqlQuery, null);
+
+    assertEquals(InterpreterResult.Code.SUCCESS, interpreterResult.code());
+    verifySQLStatementExecuted(sqlQuery);
+    verifyNotCommitted();
+    verifyNotRolledBack();
+    assertTrue(psqlInterpreter.getJdbcConnection().getAutoCommit());
+  }
+
   @Test
   public void testAutoCompletion() throws SQLException {
     psqlInterpreter.open();
@@ -108,6 +108,20 @@ public class SqlCompleterTest extends BasicJDBCTestCaseAdapter {
     tester.buffer(buffer).from(16).to(17).expect(EMPTY).test();
   }
 
+  @Test
+  public void testUpdateSchemaCompletions() {
+    sqlCompleter.updateSchemaCompletions("sales", newHashSet("sales.", "orders", "order_id"));
+    sqlCompleter.updateSchemaCompletions("hr", newHashSet("hr.", "orders"));
+    String buffer = "  orde";
+    tester.buffer(buffer).from(6).to(6).expect(newHashSet("order", "order_id", "orders")).test();
+
+    // names of other schemas and keywords are kept
+    sqlCompleter.updateSchemaCompletions("sales", newHashSet("sales."));
+    tester.buffer(buffer).from(6).to(6).expect(newHashSet("order", "orders")).test();
+    sqlCompleter.updateSchemaCompletions("hr", EMPTY);
+    tester.buffer(buffer).from(6).to(6).expect(newHashSet("order ")).test();
+  }
+
   @Test
   public void testSqlDelimiterCharacters() {
     assertTrue(sqlCompleter.getSqlDelimiter().isDelimiterChar("r.", 1));
@@ -32,6 +32,7 @@ import org.apache.zeppelin.interpreter.InterpreterContext;
 import org.apache.zeppelin.interpreter.InterpreterPropertyBuilder;
 import org.apache.zeppelin.interpreter.InterpreterResult;
 import org.apache.zeppelin.interpreter.InterpreterResult.Code;
+import org.apache.zeppelin.scheduler.FairShare;
 import org.apache.zeppelin.scheduler.Job;
 import org.apache.zeppelin.scheduler.Scheduler;
 import org.apache.zeppelin.scheduler.SchedulerFactory;
@@ -89,7 +90,7 @@ public class ShellInterpreter extends Interpreter {
       int exitVal = executor.execute(cmdLine);
       logger.info("Paragraph " + contextInterpreter.getParagraphId()
           + "return with exit value: " + exitVal);
-      return new InterpreterResult(InterpreterResult.Code.SUCCESS, null);
+      return new InterpreterResult(InterpreterResult.Code.SUCCESS, (String) null);
     } catch (ExecuteException e) {
       int exitValue = e.getExitValue();
       logger.error("Can not run " + cmd, e);
@@ -146,7 +147,7 @@ public class ShellInterpreter extends Interpreter {
   @Override
   public Scheduler getScheduler() {
     return SchedulerFactory.singleton().createOrGetParallelScheduler(
-        ShellInterpreter.class.getName() + this.hashCode(), 10);
+        ShellInterpreter.class.getName() + this.hashCode(), 10, FairShare.create(getProperty()));
   }
 
   @Override
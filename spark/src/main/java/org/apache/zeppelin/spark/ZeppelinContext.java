@@ -38,6 +38,8 @@ import org.apache.zeppelin.display.AngularObjectRegistry;
 import org.apache.zeppelin.display.AngularObjectWatcher;
 import org.apache.zeppelin.display.GUI;
 import org.apache.zeppelin.display.Input.ParamOption;
+import org.apache.zeppelin.interpreter.ColumnarTable;
+import org.apache.zeppelin.interpreter.ColumnarTable.ColumnType;
 import org.apache.zeppelin.interpreter.InterpreterContext;
 import org.apache.zeppelin.interpreter.InterpreterContextRunner;
 import org.apache.zeppelin.interpreter.InterpreterException;
@@ -146,6 +148,10 @@ public class ZeppelinContext {
     this.maxResult = maxResult;
   }
 
+  public int getMaxResult() {
+    return maxResult;
+  }
+
   /**
    * show DataFrame or SchemaRDD
    * @param o DataFrame or SchemaRDD object
@@ -183,7 +189,7 @@ public class ZeppelinContext {
 
     try {
       if (cls.isInstance(o)) {
-        interpreterContext.out.write(showDF(sc, interpreterContext, o, maxResult));
+        interpreterContext.out.write(toTable(sc, interpreterContext, o, maxResult));
       } else {
         interpreterContext.out.write(o.toString());
       }
@@ -192,13 +198,39 @@ public class ZeppelinContext {
     }
   }
 
+  /**
+   * Show a table sent from python, e.g. a pandas DataFrame.
+   * @param table bytes of ColumnarTable.toBytes()
+   */
+  public void showTable(byte[] table) {
+    try {
+      interpreterContext.out.write(ColumnarTable.fromBytes(table));
+    } catch (IOException e) {
+      throw new InterpreterException(e);
+    }
+  }
+
   public static String showDF(ZeppelinContext z, Object df) {
     return showDF(z.sc, z.interpreterContext, df, z.maxResult);
   }
 
+  /**
+   * @return %table text of DataFrame or SchemaRDD
+   */
   public static String showDF(SparkContext sc,
       InterpreterContext interpreterContext,
       Object df, int maxResult) {
+    return "%table " + toTable(sc, interpreterContext, df, maxResult).toText();
+  }
+
+  /**
+   * Collect rows of DataFrame or SchemaRDD into typed columns.
+   * Integral, floating point and boolean columns keep their types, and the others
+   * are strings.
+   */
+  public static ColumnarTable toTable(SparkContext sc,
+      InterpreterContext interpreterContext,
+      Object df, int maxResult) {
     Object[] rows = null;
     Method take;
     String jobGroup = "zeppelin-" + interpreterContext.getParagraphId();
@@ -230,36 +262,42 @@ public class ZeppelinContext {
       throw new InterpreterException(e);
     }
 
-    StringBuilder msg = new StringBuilder();
-    msg.append("%table ");
-    for (Attribute col : columns) {
-      msg.append(col.name() + "\t");
+    ColumnarTable.Builder builder = new ColumnarTable.Builder();
+    ColumnType[] types = new ColumnType[columns.size()];
+    try {
+      for (int i = 0; i < columns.size(); i++) {
+        Attribute col = columns.get(i);
+        // package of DataType changes from
+        // Spark <1.3 org.apache.spark.sql.catalyst.types
+        // Spark 1.3> org.apache.spark.sql.types
+        types[i] = getColumnType(col.getClass().getMethod("dataType").invoke(col));
+        builder.addColumn(col.name(), types[i]);
+      }
+    } catch (NoSuchMethodException | SecurityException | IllegalAccessException
+        | IllegalArgumentException | InvocationTargetException e) {
+      throw new InterpreterException(e);
     }
-    String trim = msg.toString().trim();
-    msg = new StringBuilder(trim);
-    msg.append("\n");
-
-    // ArrayType, BinaryType, BooleanType, ByteType, DecimalType, DoubleType, DynamicType,
-    // FloatType, FractionalType, IntegerType, IntegralType, LongType, MapType, NativeType,
-    // NullType, NumericType, ShortType, StringType, StructType
 
     try {
+      // look up the methods once per class of row, not for each row
+      Class<?> rowClass = null;
+      Method isNullAt = null;
+      Method apply = null;
       for (int r = 0; r < maxResult && r < rows.length; r++) {
         Object row = rows[r];
-        Method isNullAt = row.getClass().getMethod("isNullAt", int.class);
-        Method apply = row.getClass().getMethod("apply", int.class);
+        if (row.getClass() != rowClass) {
+          rowClass = row.getClass();
+          isNullAt = rowClass.getMethod("isNullAt", int.class);
+          apply = rowClass.getMethod("apply", int.class);
+        }
 
-        for (int i = 0; i < columns.size(); i++) {
+        Object[] values = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
           if (!(Boolean) isNullAt.invoke(row, i)) {
-            msg.append(apply.invoke(row, i).toString());
-          } else {
-            msg.append("null");
-          }
-          if (i != columns.size() - 1) {
-            msg.append("\t");
+            values[i] = toValue(apply.invoke(row, i));
           }
         }
-        msg.append("\n");
+        builder.addRow(values);
       }
     } catch (NoSuchMethodException | SecurityException | IllegalAccessException
         | IllegalArgumentException | InvocationTargetException e) {
@@ -267,10 +305,37 @@ public class ZeppelinContext {
     }
 
     if (rows.length > maxResult) {
-      msg.append("\n<font color=red>Results are limited by " + maxResult + ".</font>");
+      builder.setComment("<font color=red>Results are limited by " + maxResult + ".</font>");
     }
     sc.clearJobGroup();
-    return msg.toString();
+    return builder.build();
+  }
+
+  private static ColumnType getColumnType(Object dataType) {
+    // name of the case object, e.g. IntegerType$
+    String name = dataType.getClass().getSimpleName().replace("$", "");
+    switch (name) {
+        case "ByteType":
+        case "ShortType":
+        case "IntegerType":
+        case "LongType":
+          return ColumnType.LONG;
+        case "FloatType":
+        case "DoubleType":
+          return ColumnType.DOUBLE;
+        case "BooleanType":
+          return ColumnType.BOOLEAN;
+        default:
+          return ColumnType.STRING;
+    }
+  }
+
+  private static Object toValue(Object value) {
+    if (value instanceof Float) {
+      // keep the digits float prints, not the widened double
+      return Double.valueOf(value.toString());
+    }
+    return value;
   }
 
   /**
@@ -15,7 +15,7 @@
 # limitations under the License.
 #
 
-import sys, getopt, traceback, json, re
+import sys, getopt, traceback, json, re, struct
 
 from py4j.java_gateway import java_import, JavaGateway, GatewayClient
 from py4j.protocol import Py4JJavaError
@@ -52,7 +52,10 @@ class PyZeppelinContext(dict):
   def show(self, obj):
     from pyspark.sql import DataFrame
     if isinstance(obj, DataFrame):
-      print(gateway.jvm.org.apache.zeppelin.spark.ZeppelinContext.showDF(self.z, obj._jdf))
+      self.z.show(obj._jdf)
+    elif isPandasDataFrame(obj):
+      # whole table is sent at once, instead of cell by cell through py4j
+      self.z.showTable(ColumnarTableWriter(self.z.getMaxResult()).write(obj))
     else:
       print(str(obj))
 
@@ -104,6 +107,127 @@ class PyZeppelinContext(dict):
       raise IndexError("options must be a list of tuple of 2")
 
 
+def isPandasDataFrame(obj):
+  try:
+    import pandas
+  except ImportError:
+    return False
+  return isinstance(obj, pandas.DataFrame)
+
+
+if sys.version_info[0] >= 3:
+  textType = str
+else:
+  textType = unicode
+
+
+class ColumnarTableWriter(object):
+  """Writes a pandas DataFrame in the binary form of
+  org.apache.zeppelin.interpreter.ColumnarTable, a vector of typed values per column
+  for each chunk of rows.
+  """
+  # column types and vector encodings of ColumnarTable
+  STRING, LONG, DOUBLE, BOOLEAN = 0, 1, 2, 3
+  LONGS, DOUBLES, BOOLEANS, STRINGS = 0, 1, 2, 3
+
+  CHUNK_SIZE = 10000
+  # javascript numbers represent longs exactly up to 2^53
+  MAX_EXACT_LONG = 1 << 53
+
+  def __init__(self, maxResult):
+    self.maxResult = maxResult
+    self.out = bytearray()
+
+  def write(self, df):
+    rowCount = min(len(df), self.maxResult)
+    columns = [df.iloc[:rowCount, i] for i in range(len(df.columns))]
+    columnTypes = [self.getColumnType(column) for column in columns]
+
+    self.out.extend(b'ZCT1')
+    self.writeVarint(len(columns))
+    for name, columnType in zip(df.columns, columnTypes):
+      self.writeString(name)
+      self.out.append(columnType)
+
+    starts = list(range(0, rowCount, self.CHUNK_SIZE))
+    self.writeVarint(len(starts))
+    for start in starts:
+      end = min(start + self.CHUNK_SIZE, rowCount)
+      self.writeVarint(end - start)
+      for column, columnType in zip(columns, columnTypes):
+        chunk = column.iloc[start:end]
+        self.writeVector(chunk.tolist(), chunk.isnull().tolist(), columnType)
+
+    if len(df) > self.maxResult:
+      self.writeString("<font color=red>Results are limited by %d.</font>" % self.maxResult)
+    else:
+      self.writeString(None)
+    return self.out
+
+  def getColumnType(self, column):
+    kind = column.dtype.kind
+    if kind in "iu":
+      return self.LONG
+    elif kind == "f":
+      return self.DOUBLE
+    elif kind == "b":
+      return self.BOOLEAN
+    else:
+      return self.STRING
+
+  def writeVector(self, values, nulls, columnType):
+    nullRows = [row for row, isNull in enumerate(nulls) if isNull]
+    self.writeVarint(len(nullRows))
+    previous = 0
+    for row in nullRows:
+      self.writeVarint(row - previous)
+      previous = row
+
+    values = [None if isNull else value for value, isNull in zip(values, nulls)]
+    present = [value for value in values if value is not None]
+    if columnType == self.LONG and all(abs(v) <= self.MAX_EXACT_LONG for v in present):
+      self.out.append(self.LONGS)
+      for v in values:
+        v = int(v or 0)
+        self.writeVarint((v << 1) ^ (v >> 63))
+    elif columnType == self.DOUBLE and all(abs(v) != float("inf") for v in present):
+      self.out.append(self.DOUBLES)
+      self.out.extend(struct.pack(">%dd" % len(values), *[v or 0.0 for v in values]))
+    elif columnType == self.BOOLEAN:
+      self.out.append(self.BOOLEANS)
+      for i in range(0, len(values), 8):
+        b = 0
+        for j, v in enumerate(values[i:i + 8]):
+          if v:
+            b |= 1 << j
+        self.out.append(b)
+    else:
+      # strings, or values that don't fit the column type
+      self.out.append(self.STRINGS)
+      for v in values:
+        self.writeString(v)
+
+  def writeVarint(self, v):
+    while v > 0x7f:
+      self.out.append((v & 0x7f) | 0x80)
+      v >>= 7
+    self.out.append(v)
+
+  # length + 1, so 0 is null
+  def writeString(self, s):
+    if s is None:
+      self.writeVarint(0)
+      return
+    if isinstance(s, bytes):
+      encoded = s
+    else:
+      if not isinstance(s, textType):
+        s = textType(s)
+      encoded = s.encode("utf-8")
+    self.writeVarint(len(encoded) + 1)
+    self.out.extend(encoded)
+
+
 class SparkVersion(object):
   SPARK_1_4_0 = 140
   SPARK_1_3_0 = 130
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.spark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.apache.zeppelin.interpreter.ColumnarTable;
+import org.apache.zeppelin.interpreter.ColumnarTable.ColumnType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Decode tables encoded by ColumnarTableWriter of zeppelin_pyspark.py.
+ * Skipped when python is not installed.
+ */
+public class PySparkColumnarTableTest {
+  private File tmpDir;
+
+  @Before
+  public void setUp() throws IOException {
+    tmpDir = Files.createTempDirectory("PySparkColumnarTableTest").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    for (File f : tmpDir.listFiles()) {
+      f.delete();
+    }
+    tmpDir.delete();
+  }
+
+  private File copyResource(String name) throws IOException {
+    File file = new File(tmpDir, new File(name).getName());
+    try (InputStream in = getClass().getClassLoader().getResourceAsStream(name)) {
+      Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    return file;
+  }
+
+  private ColumnarTable encode() throws IOException, InterruptedException {
+    File script = copyResource("python/zeppelin_pyspark.py");
+    File encoder = copyResource("python/encode_columnar_table.py");
+    File out = new File(tmpDir, "table");
+
+    Process process;
+    try {
+      process = new ProcessBuilder(System.getProperty("zeppelin.pyspark.python", "python"),
+          encoder.getAbsolutePath(), script.getAbsolutePath(), out.getAbsolutePath())
+          .redirectErrorStream(true)
+          .redirectOutput(new File(tmpDir, "log"))
+          .start();
+    } catch (IOException e) {
+      assumeTrue("python is not installed", false);
+      return null;
+    }
+    assertEquals(new String(Files.readAllBytes(new File(tmpDir, "log").toPath())),
+        0, process.waitFor());
+    return ColumnarTable.fromBytes(Files.readAllBytes(out.toPath()));
+  }
+
+  @Test
+  public void testDecodeTable() throws IOException, InterruptedException {
+    ColumnarTable table = encode();
+
+    assertEquals(6, table.getColumns().size());
+    assertEquals("id", table.getColumns().get(0).getName());
+    assertEquals(ColumnType.LONG, table.getColumns().get(0).getType());
+    assertEquals(ColumnType.LONG, table.getColumns().get(1).getType());
+    assertEquals(ColumnType.DOUBLE, table.getColumns().get(2).getType());
+    assertEquals(ColumnType.DOUBLE, table.getColumns().get(3).getType());
+    assertEquals(ColumnType.BOOLEAN, table.getColumns().get(4).getType());
+    assertEquals(ColumnType.STRING, table.getColumns().get(5).getType());
+    // limited by maxResult
+    assertEquals(4, table.getRowCount());
+
+    // zigzag encoded longs
+    assertEquals(1L, table.getValue(0, 0));
+    assertEquals(-2L, table.getValue(1, 0));
+    assertNull(table.getValue(2, 0));
+    assertEquals(-(1L << 40), table.getValue(3, 0));
+
+    assertEquals(0.5, table.getValue(0, 2));
+    assertNull(table.getValue(1, 2));
+    assertEquals(-1.25, table.getValue(2, 2));
+
+    assertEquals(true, table.getValue(0, 4));
+    assertEquals(false, table.getValue(1, 4));
+    assertNull(table.getValue(2, 4));
+
+    assertEquals("a\u00e9", table.getValue(0, 5));
+    assertNull(table.getValue(1, 5));
+    assertEquals("c", table.getValue(2, 5));
+  }
+
+  @Test
+  public void testDecodeValuesNotFitColumnType() throws IOException, InterruptedException {
+    ColumnarTable table = encode();
+
+    // longs javascript can't represent exactly fall back to strings
+    assertEquals(String.valueOf(1L << 60), table.getValue(0, 1));
+    assertEquals("0", table.getValue(1, 1));
+
+    // so do infinite doubles
+    assertEquals("inf", table.getValue(0, 3));
+    assertEquals("1.5", table.getValue(1, 3));
+    assertNull(table.getValue(2, 3));
+    assertEquals("-inf", table.getValue(3, 3));
+  }
+
+  @Test
+  public void testDecodeComment() throws IOException, InterruptedException {
+    assertEquals("<font color=red>Results are limited by 4.</font>", encode().getComment());
+  }
+}
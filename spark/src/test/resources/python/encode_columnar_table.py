@@ -0,0 +1,101 @@
+#
+# Licensed to the Apache Software Foundation (ASF) under one or more
+# contributor license agreements.  See the NOTICE file distributed with
+# this work for additional information regarding copyright ownership.
+# The ASF licenses this file to You under the Apache License, Version 2.0
+# (the "License"); you may not use this file except in compliance with
+# the License.  You may obtain a copy of the License at
+#
+#    http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+
+# Encodes a table with ColumnarTableWriter of zeppelin_pyspark.py, for PySparkColumnarTableTest.
+# usage: encode_columnar_table.py <zeppelin_pyspark.py> <output file>
+#
+# zeppelin_pyspark.py connects to the interpreter when it's run, so only the writer is taken from
+# it. The table is a minimal stand-in for the part of pandas DataFrame the writer uses, so
+# pandas is not needed to run the test.
+
+import sys, struct
+
+if sys.version_info[0] >= 3:
+  textType = str
+else:
+  textType = unicode
+
+
+def loadWriter(path):
+  with open(path) as f:
+    source = f.read()
+  start = source.index("class ColumnarTableWriter")
+  end = source.index("\nclass ", start)
+  scope = {"struct": struct, "textType": textType}
+  exec(source[start:end], scope)
+  return scope["ColumnarTableWriter"]
+
+
+class Values(object):
+  def __init__(self, values):
+    self.values = values
+
+  def tolist(self):
+    return list(self.values)
+
+
+class Series(object):
+  class DType(object):
+    def __init__(self, kind):
+      self.kind = kind
+
+  def __init__(self, values, kind):
+    self.values = values
+    self.dtype = Series.DType(kind)
+
+  @property
+  def iloc(self):
+    return self
+
+  def __getitem__(self, rows):
+    return Series(self.values[rows], self.dtype.kind)
+
+  def tolist(self):
+    return list(self.values)
+
+  def isnull(self):
+    return Values([v is None or v != v for v in self.values])
+
+
+class DataFrame(object):
+  def __init__(self, columns):
+    self.columns = [name for name, kind, values in columns]
+    self.series = [Series(values, kind) for name, kind, values in columns]
+
+  def __len__(self):
+    return len(self.series[0].values)
+
+  @property
+  def iloc(self):
+    return self
+
+  def __getitem__(self, key):
+    rows, column = key
+    return self.series[column][rows]
+
+
+ColumnarTableWriter = loadWriter(sys.argv[1])
+df = DataFrame([
+    ("id", "i", [1, -2, None, -(1 << 40), 5]),
+    ("big", "i", [1 << 60, 0, 1, 2, 3]),
+    ("value", "f", [0.5, float("nan"), -1.25, 0.0, 1.0]),
+    ("ratio", "f", [float("inf"), 1.5, None, float("-inf"), 2.0]),
+    ("flag", "b", [True, False, None, True, False]),
+    ("name", "O", [u"a\u00e9", None, "c", "d", "e"])])
+
+with open(sys.argv[2], "wb") as out:
+  out.write(ColumnarTableWriter(4).write(df))
@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.completer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Table and column names of each schema of a database, kept in a file per JDBC URL and user.
+ * SQL completers complete the cached names right away when the interpreter opens, and read
+ * from the database only the schemas that are not cached or older than the TTL.
+ *
+ * The URL may contain a password. Only a digest of the URL and user is written, and files are
+ * readable by the owner only.
+ */
+public class SchemaMetadataCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(SchemaMetadataCache.class);
+
+  private static final int VERSION = 2;
+  private static final String FILE_SUFFIX = ".cache";
+  private static final String CACHE_DIR = "completer";
+
+  private final File file;
+  private final String keyDigest;
+  private final long ttlMs;
+  private final Map<String, Entry> schemas = new HashMap<String, Entry>();
+  private boolean dirty;
+
+  /**
+   * @param dir directory of cache files. Nothing is kept on disk when null
+   * @param url JDBC URL of the database
+   * @param user user of the connection. Users may see different schemas
+   * @param ttlMs milliseconds after which names of a schema are read again from the database
+   */
+  public SchemaMetadataCache(File dir, String url, String user, long ttlMs) {
+    this.keyDigest = digest(url + "\n" + (user == null ? "" : user));
+    this.file = dir == null ? null : new File(dir, keyDigest + FILE_SUFFIX);
+    this.ttlMs = ttlMs;
+  }
+
+  /**
+   * Default directory of cache files of an interpreter, under the conf directory of Zeppelin.
+   * @param name name of the interpreter, e.g. jdbc
+   */
+  public static File getDefaultDir(String name) {
+    String confDir = System.getenv("ZEPPELIN_CONF_DIR");
+    if (confDir == null) {
+      String home = System.getenv("ZEPPELIN_HOME");
+      if (home == null) {
+        home = System.getProperty("zeppelin.home");
+      }
+      confDir = home == null ? null : home + "/conf";
+    }
+    if (confDir == null) {
+      // not run by Zeppelin, e.g. in tests
+      return new File(System.getProperty("java.io.tmpdir"),
+          "zeppelin-" + CACHE_DIR + "-" + System.getProperty("user.name") + "/" + name);
+    }
+    return new File(new File(confDir, CACHE_DIR), name);
+  }
+
+  private static String digest(String key) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256")
+          .digest(key.getBytes(StandardCharsets.UTF_8));
+      StringBuilder sb = new StringBuilder();
+      for (byte b : hash) {
+        sb.append(String.format("%02x", b));
+      }
+      return sb.toString();
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform supports SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  File getFile() {
+    return file;
+  }
+
+  /**
+   * Read the cache file. Schemas cached for another URL or by another version are ignored.
+   */
+  public synchronized void load() {
+    schemas.clear();
+    dirty = false;
+    if (file == null || !file.isFile()) {
+      return;
+    }
+
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+        new GZIPInputStream(new FileInputStream(file))))) {
+      if (in.readInt() != VERSION || !keyDigest.equals(in.readUTF())) {
+        return;
+      }
+      int schemaCount = in.readInt();
+      for (int i = 0; i < schemaCount; i++) {
+        String schema = in.readUTF();
+        long updated = in.readLong();
+        int nameCount = in.readInt();
+        Set<String> names = new HashSet<String>(nameCount * 2);
+        for (int j = 0; j < nameCount; j++) {
+          names.add(in.readUTF());
+        }
+        schemas.put(schema, new Entry(updated, Collections.unmodifiableSet(names)));
+      }
+      logger.info("{} schemas read from {}", schemaCount, file);
+    } catch (IOException e) {
+      logger.warn("Can't read schema metadata cache " + file, e);
+      schemas.clear();
+    }
+  }
+
+  /**
+   * Write the cache file, when schemas changed after the last load or save.
+   */
+  public synchronized void save() {
+    if (file == null || !dirty) {
+      return;
+    }
+
+    File dir = file.getParentFile();
+    if (!dir.isDirectory()) {
+      if (!dir.mkdirs()) {
+        logger.warn("Can't create schema metadata cache directory {}", dir);
+        return;
+      }
+      restrictToOwner(dir, true);
+    }
+
+    // write to a temporary file and rename it, so readers never see a partial file
+    File tmp = new File(dir, file.getName() + ".tmp");
+    try {
+      createOwnerOnlyFile(tmp);
+    } catch (IOException e) {
+      logger.warn("Can't write schema metadata cache " + file, e);
+      return;
+    }
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+        new GZIPOutputStream(new FileOutputStream(tmp))))) {
+      out.writeInt(VERSION);
+      out.writeUTF(keyDigest);
+      out.writeInt(schemas.size());
+      for (Map.Entry<String, Entry> e : schemas.entrySet()) {
+        out.writeUTF(e.getKey());
+        out.writeLong(e.getValue().updated);
+        out.writeInt(e.getValue().names.size());
+        for (String name : e.getValue().names) {
+          out.writeUTF(name);
+        }
+      }
+    } catch (IOException e) {
+      logger.warn("Can't write schema metadata cache " + file, e);
+      tmp.delete();
+      return;
+    }
+
+    if (!tmp.renameTo(file)) {
+      // rename doesn't replace an existing file on some platforms
+      file.delete();
+      if (!tmp.renameTo(file)) {
+        logger.warn("Can't write schema metadata cache {}", file);
+        tmp.delete();
+        return;
+      }
+    }
+    dirty = false;
+  }
+
+  /**
+   * Create an empty file, readable and writable by the owner only.
+   */
+  private static void createOwnerOnlyFile(File file) throws IOException {
+    Path path = file.toPath();
+    Files.deleteIfExists(path);
+    if (Files.getFileAttributeView(path.getParent(), PosixFileAttributeView.class) != null) {
+      Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-------");
+      Files.createFile(path, PosixFilePermissions.asFileAttribute(permissions));
+    } else {
+      Files.createFile(path);
+      restrictToOwner(file, false);
+    }
+  }
+
+  private static void restrictToOwner(File file, boolean directory) {
+    Path path = file.toPath();
+    try {
+      if (Files.getFileAttributeView(path, PosixFileAttributeView.class) != null) {
+        Files.setPosixFilePermissions(path,
+            PosixFilePermissions.fromString(directory ? "rwx------" : "rw-------"));
+        return;
+      }
+    } catch (IOException e) {
+      logger.warn("Can't restrict permissions of " + file, e);
+    }
+    file.setReadable(false, false);
+    file.setReadable(true, true);
+    file.setWritable(false, false);
+    file.setWritable(true, true);
+    if (directory) {
+      file.setExecutable(false, false);
+      file.setExecutable(true, true);
+    }
+  }
+
+  /**
+   * @return names of each cached schema, including expired schemas
+   */
+  public synchronized Map<String, Set<String>> getAll() {
+    Map<String, Set<String>> all = new HashMap<String, Set<String>>();
+    for (Map.Entry<String, Entry> e : schemas.entrySet()) {
+      all.put(e.getKey(), e.getValue().names);
+    }
+    return all;
+  }
+
+  /**
+   * @return true when the schema is not cached, or cached longer than the TTL ago
+   */
+  public synchronized boolean isExpired(String schema) {
+    Entry entry = schemas.get(schema);
+    return entry == null || System.currentTimeMillis() - entry.updated >= ttlMs;
+  }
+
+  public synchronized void put(String schema, Set<String> names) {
+    schemas.put(schema, new Entry(System.currentTimeMillis(),
+        Collections.unmodifiableSet(new HashSet<String>(names))));
+    dirty = true;
+  }
+
+  public synchronized void remove(String schema) {
+    if (schemas.remove(schema) != null) {
+      dirty = true;
+    }
+  }
+
+  /**
+   * Expire all schemas, so they are read again from the database.
+   */
+  public synchronized void expireAll() {
+    for (Map.Entry<String, Entry> e : schemas.entrySet()) {
+      e.setValue(new Entry(0, e.getValue().names));
+    }
+  }
+
+  private static class Entry {
+    final long updated;
+    final Set<String> names;
+
+    Entry(long updated, Set<String> names) {
+      this.updated = updated;
+      this.names = names;
+    }
+  }
+}
@@ -0,0 +1,680 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.interpreter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed table result, kept column by column.
+ *
+ * Rows are split into chunks. Each chunk has a vector of values per column: longs, doubles,
+ * booleans, strings, or strings encoded as codes into a dictionary of distinct values.
+ * A vector falls back to strings when its values don't fit the column type, e.g. a long the
+ * browser can't represent exactly. Null values are kept as row indexes of the chunk.
+ *
+ * The table travels as bytes of toBytes() between the interpreter process and the server,
+ * and is stored in the note as it is. toText() is the text of %table result.
+ */
+public class ColumnarTable implements Serializable {
+
+  /**
+   * Type of column.
+   */
+  public static enum ColumnType {
+    STRING,
+    LONG,
+    DOUBLE,
+    BOOLEAN
+  }
+
+  public static final int DEFAULT_CHUNK_SIZE = 10000;
+
+  // javascript numbers represent longs exactly up to 2^53
+  private static final long MAX_EXACT_LONG = 1L << 53;
+
+  private static final byte[] MAGIC = {'Z', 'C', 'T', '1'};
+
+  private static final int LONGS = 0;
+  private static final int DOUBLES = 1;
+  private static final int BOOLEANS = 2;
+  private static final int STRINGS = 3;
+  private static final int DICTIONARY = 4;
+
+  private static final char TAB = '\t';
+  private static final char NEWLINE = '\n';
+  private static final char WHITESPACE = ' ';
+
+  /**
+   * Name and type of column.
+   */
+  public static class Column implements Serializable {
+    String name;
+    ColumnType type;
+
+    public Column(String name, ColumnType type) {
+      this.name = name;
+      this.type = type;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public ColumnType getType() {
+      return type;
+    }
+  }
+
+  /**
+   * Values of a column in a chunk. Only one of longs, doubles, booleans, strings and
+   * dictionary with codes is set.
+   */
+  public static class Vector implements Serializable {
+    long[] longs;
+    double[] doubles;
+    boolean[] booleans;
+    String[] strings;
+    String[] dictionary;
+    int[] codes;
+    // sorted row indexes of null values
+    int[] nulls;
+
+    boolean isNull(int row) {
+      return nulls != null && Arrays.binarySearch(nulls, row) >= 0;
+    }
+
+    Object get(int row) {
+      if (isNull(row)) {
+        return null;
+      } else if (longs != null) {
+        return longs[row];
+      } else if (doubles != null) {
+        return doubles[row];
+      } else if (booleans != null) {
+        return booleans[row];
+      } else if (strings != null) {
+        return strings[row];
+      } else {
+        return dictionary[codes[row]];
+      }
+    }
+  }
+
+  /**
+   * Rows of the table, a vector per column.
+   */
+  public static class Chunk implements Serializable {
+    int rowCount;
+    List<Vector> vectors;
+
+    Chunk(int rowCount, List<Vector> vectors) {
+      this.rowCount = rowCount;
+      this.vectors = vectors;
+    }
+
+    public int getRowCount() {
+      return rowCount;
+    }
+  }
+
+  List<Column> columns;
+  List<Chunk> chunks;
+  // html shown below the table, e.g. that rows are limited
+  String comment;
+
+  ColumnarTable(List<Column> columns, List<Chunk> chunks, String comment) {
+    this.columns = columns;
+    this.chunks = chunks;
+    this.comment = comment;
+  }
+
+  public List<Column> getColumns() {
+    return Collections.unmodifiableList(columns);
+  }
+
+  public List<Chunk> getChunks() {
+    return Collections.unmodifiableList(chunks);
+  }
+
+  public String getComment() {
+    return comment;
+  }
+
+  public int getRowCount() {
+    int count = 0;
+    for (Chunk chunk : chunks) {
+      count += chunk.rowCount;
+    }
+    return count;
+  }
+
+  /**
+   * @return Long, Double, Boolean or String value, or null. A value of a vector that fell
+   * back to strings is a String whatever the column type is
+   */
+  public Object getValue(int row, int column) {
+    for (Chunk chunk : chunks) {
+      if (row < chunk.rowCount) {
+        return chunk.vectors.get(column).get(row);
+      }
+      row -= chunk.rowCount;
+    }
+    throw new IndexOutOfBoundsException("row " + row);
+  }
+
+  /**
+   * @return tab separated column names and rows, as in %table result. Tab and newline
+   * in names and values are replaced by a space, and null values are "null".
+   * The comment follows an empty line after the rows
+   */
+  public String toText() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < columns.size(); i++) {
+      if (i > 0) {
+        sb.append(TAB);
+      }
+      appendReplaced(sb, columns.get(i).name);
+    }
+    sb.append(NEWLINE);
+
+    for (Chunk chunk : chunks) {
+      for (int row = 0; row < chunk.rowCount; row++) {
+        for (int i = 0; i < chunk.vectors.size(); i++) {
+          if (i > 0) {
+            sb.append(TAB);
+          }
+          appendReplaced(sb, format(chunk.vectors.get(i).get(row)));
+        }
+        sb.append(NEWLINE);
+      }
+    }
+    if (comment != null) {
+      sb.append(NEWLINE).append(comment);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * @return text of a value in toText()
+   */
+  public static String format(Object value) {
+    return value == null ? "null" : value.toString();
+  }
+
+  private static void appendReplaced(StringBuilder sb, String str) {
+    if (str == null) {
+      return;
+    }
+    for (int i = 0; i < str.length(); i++) {
+      char c = str.charAt(i);
+      sb.append(c == TAB || c == NEWLINE ? WHITESPACE : c);
+    }
+  }
+
+  /**
+   * Build a table row by row. Values are converted to vectors every chunkSize rows.
+   */
+  public static class Builder {
+    private final int chunkSize;
+    private final List<Column> columns = new ArrayList<Column>();
+    private final List<Chunk> chunks = new ArrayList<Chunk>();
+    private Object[][] rows;
+    private int rowCount;
+    private String comment;
+
+    public Builder() {
+      this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public Builder(int chunkSize) {
+      if (chunkSize <= 0) {
+        throw new IllegalArgumentException("chunkSize " + chunkSize);
+      }
+      this.chunkSize = chunkSize;
+    }
+
+    public Builder addColumn(String name, ColumnType type) {
+      if (rows != null) {
+        throw new IllegalStateException("Columns can't be added after rows");
+      }
+      columns.add(new Column(name, type));
+      return this;
+    }
+
+    public int getColumnCount() {
+      return columns.size();
+    }
+
+    /**
+     * @param comment html shown below the table
+     */
+    public Builder setComment(String comment) {
+      this.comment = comment;
+      return this;
+    }
+
+    /**
+     * Add a row. Values are Number for LONG and DOUBLE, Boolean for BOOLEAN, any object
+     * for STRING, or null.
+     */
+    public Builder addRow(Object... values) {
+      if (values.length != columns.size()) {
+        throw new IllegalArgumentException(
+            values.length + " values for " + columns.size() + " columns");
+      }
+      if (rows == null) {
+        rows = new Object[chunkSize][];
+      }
+      rows[rowCount++] = values;
+      if (rowCount == chunkSize) {
+        cutChunk();
+      }
+      return this;
+    }
+
+    public ColumnarTable build() {
+      cutChunk();
+      return new ColumnarTable(new ArrayList<Column>(columns), new ArrayList<Chunk>(chunks),
+          comment);
+    }
+
+    private void cutChunk() {
+      if (rowCount == 0) {
+        return;
+      }
+      List<Vector> vectors = new ArrayList<Vector>(columns.size());
+      for (int i = 0; i < columns.size(); i++) {
+        vectors.add(toVector(columns.get(i).type, i));
+      }
+      chunks.add(new Chunk(rowCount, vectors));
+      Arrays.fill(rows, 0, rowCount, null);
+      rowCount = 0;
+    }
+
+    private Vector toVector(ColumnType type, int column) {
+      Vector vector = new Vector();
+      int nullCount = 0;
+      for (int row = 0; row < rowCount; row++) {
+        if (rows[row][column] == null) {
+          nullCount++;
+        }
+      }
+      if (nullCount > 0) {
+        vector.nulls = new int[nullCount];
+        for (int row = 0, n = 0; row < rowCount; row++) {
+          if (rows[row][column] == null) {
+            vector.nulls[n++] = row;
+          }
+        }
+      }
+
+      switch (type) {
+          case LONG:
+            vector.longs = toLongs(column);
+            break;
+          case DOUBLE:
+            vector.doubles = toDoubles(column);
+            break;
+          case BOOLEAN:
+            vector.booleans = toBooleans(column);
+            break;
+          default:
+            break;
+      }
+      if (vector.longs == null && vector.doubles == null && vector.booleans == null) {
+        toStrings(vector, column);
+      }
+      return vector;
+    }
+
+    private long[] toLongs(int column) {
+      long[] longs = new long[rowCount];
+      for (int row = 0; row < rowCount; row++) {
+        Object value = rows[row][column];
+        if (value == null) {
+          continue;
+        }
+        if (!(value instanceof Long || value instanceof Integer
+            || value instanceof Short || value instanceof Byte)) {
+          return null;
+        }
+        long v = ((Number) value).longValue();
+        if (v > MAX_EXACT_LONG || v < -MAX_EXACT_LONG) {
+          return null;
+        }
+        longs[row] = v;
+      }
+      return longs;
+    }
+
+    private double[] toDoubles(int column) {
+      double[] doubles = new double[rowCount];
+      for (int row = 0; row < rowCount; row++) {
+        Object value = rows[row][column];
+        if (value == null) {
+          continue;
+        }
+        if (!(value instanceof Double || value instanceof Float)) {
+          return null;
+        }
+        double v = ((Number) value).doubleValue();
+        // json has no NaN and Infinity
+        if (Double.isNaN(v) || Double.isInfinite(v)) {
+          return null;
+        }
+        doubles[row] = v;
+      }
+      return doubles;
+    }
+
+    private boolean[] toBooleans(int column) {
+      boolean[] booleans = new boolean[rowCount];
+      for (int row = 0; row < rowCount; row++) {
+        Object value = rows[row][column];
+        if (value == null) {
+          continue;
+        }
+        if (!(value instanceof Boolean)) {
+          return null;
+        }
+        booleans[row] = (Boolean) value;
+      }
+      return booleans;
+    }
+
+    /**
+     * Strings are encoded with a dictionary when at least half of them are repeated.
+     */
+    private void toStrings(Vector vector, int column) {
+      String[] strings = new String[rowCount];
+      Map<String, Integer> distinct = new HashMap<String, Integer>();
+      for (int row = 0; row < rowCount; row++) {
+        Object value = rows[row][column];
+        if (value == null) {
+          continue;
+        }
+        strings[row] = value.toString();
+        if (!distinct.containsKey(strings[row])) {
+          distinct.put(strings[row], distinct.size());
+        }
+      }
+
+      if (distinct.size() > rowCount / 2) {
+        vector.strings = strings;
+        return;
+      }
+      vector.dictionary = new String[distinct.size()];
+      for (Map.Entry<String, Integer> e : distinct.entrySet()) {
+        vector.dictionary[e.getValue()] = e.getKey();
+      }
+      vector.codes = new int[rowCount];
+      for (int row = 0; row < rowCount; row++) {
+        if (strings[row] != null) {
+          vector.codes[row] = distinct.get(strings[row]);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return compact binary form of the table
+   */
+  public byte[] toBytes() {
+    Writer w = new Writer();
+    w.out.write(MAGIC, 0, MAGIC.length);
+    w.writeVarint(columns.size());
+    for (Column column : columns) {
+      w.writeString(column.name);
+      w.out.write(column.type.ordinal());
+    }
+
+    w.writeVarint(chunks.size());
+    for (Chunk chunk : chunks) {
+      w.writeVarint(chunk.rowCount);
+      for (Vector vector : chunk.vectors) {
+        writeVector(w, vector, chunk.rowCount);
+      }
+    }
+    w.writeString(comment);
+    return w.out.toByteArray();
+  }
+
+  private static void writeVector(Writer w, Vector vector, int rowCount) {
+    int[] nulls = vector.nulls == null ? new int[0] : vector.nulls;
+    w.writeVarint(nulls.length);
+    int previous = 0;
+    for (int row : nulls) {
+      w.writeVarint(row - previous);
+      previous = row;
+    }
+
+    if (vector.longs != null) {
+      w.out.write(LONGS);
+      for (long v : vector.longs) {
+        w.writeVarlong((v << 1) ^ (v >> 63));
+      }
+    } else if (vector.doubles != null) {
+      w.out.write(DOUBLES);
+      for (double v : vector.doubles) {
+        long bits = Double.doubleToLongBits(v);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+          w.out.write((int) (bits >>> shift));
+        }
+      }
+    } else if (vector.booleans != null) {
+      w.out.write(BOOLEANS);
+      for (int i = 0; i < rowCount; i += 8) {
+        int b = 0;
+        for (int j = 0; j < 8 && i + j < rowCount; j++) {
+          if (vector.booleans[i + j]) {
+            b |= 1 << j;
+          }
+        }
+        w.out.write(b);
+      }
+    } else if (vector.strings != null) {
+      w.out.write(STRINGS);
+      for (String v : vector.strings) {
+        w.writeString(v);
+      }
+    } else {
+      w.out.write(DICTIONARY);
+      w.writeVarint(vector.dictionary.length);
+      for (String v : vector.dictionary) {
+        w.writeString(v);
+      }
+      for (int code : vector.codes) {
+        w.writeVarint(code);
+      }
+    }
+  }
+
+  /**
+   * @param bytes bytes of toBytes()
+   * @throws IllegalArgumentException when bytes are not a table
+   */
+  public static ColumnarTable fromBytes(byte[] bytes) {
+    Reader r = new Reader(bytes);
+    try {
+      for (byte b : MAGIC) {
+        if (r.read() != b) {
+          throw new IllegalArgumentException("Not a columnar table");
+        }
+      }
+      int columnCount = r.readVarint();
+      List<Column> columns = new ArrayList<Column>(columnCount);
+      for (int i = 0; i < columnCount; i++) {
+        String name = r.readString();
+        columns.add(new Column(name, ColumnType.values()[r.read()]));
+      }
+
+      int chunkCount = r.readVarint();
+      List<Chunk> chunks = new ArrayList<Chunk>(chunkCount);
+      for (int i = 0; i < chunkCount; i++) {
+        int rowCount = r.readVarint();
+        List<Vector> vectors = new ArrayList<Vector>(columnCount);
+        for (int j = 0; j < columnCount; j++) {
+          vectors.add(readVector(r, rowCount));
+        }
+        chunks.add(new Chunk(rowCount, vectors));
+      }
+      return new ColumnarTable(columns, chunks, r.readString());
+    } catch (ArrayIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Broken columnar table", e);
+    }
+  }
+
+  private static Vector readVector(Reader r, int rowCount) {
+    Vector vector = new Vector();
+    int nullCount = r.readVarint();
+    if (nullCount > 0) {
+      vector.nulls = new int[nullCount];
+      int previous = 0;
+      for (int i = 0; i < nullCount; i++) {
+        previous += r.readVarint();
+        vector.nulls[i] = previous;
+      }
+    }
+
+    int encoding = r.read();
+    switch (encoding) {
+        case LONGS:
+          vector.longs = new long[rowCount];
+          for (int i = 0; i < rowCount; i++) {
+            long v = r.readVarlong();
+            vector.longs[i] = (v >>> 1) ^ -(v & 1);
+          }
+          break;
+        case DOUBLES:
+          vector.doubles = new double[rowCount];
+          for (int i = 0; i < rowCount; i++) {
+            long bits = 0;
+            for (int j = 0; j < 8; j++) {
+              bits = (bits << 8) | r.read();
+            }
+            vector.doubles[i] = Double.longBitsToDouble(bits);
+          }
+          break;
+        case BOOLEANS:
+          vector.booleans = new boolean[rowCount];
+          for (int i = 0; i < rowCount; i += 8) {
+            int b = r.read();
+            for (int j = 0; j < 8 && i + j < rowCount; j++) {
+              vector.booleans[i + j] = (b & (1 << j)) != 0;
+            }
+          }
+          break;
+        case STRINGS:
+          vector.strings = new String[rowCount];
+          for (int i = 0; i < rowCount; i++) {
+            vector.strings[i] = r.readString();
+          }
+          break;
+        case DICTIONARY:
+          vector.dictionary = new String[r.readVarint()];
+          for (int i = 0; i < vector.dictionary.length; i++) {
+            vector.dictionary[i] = r.readString();
+          }
+          vector.codes = new int[rowCount];
+          for (int i = 0; i < rowCount; i++) {
+            vector.codes[i] = r.readVarint();
+          }
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown vector encoding " + encoding);
+    }
+    return vector;
+  }
+
+  private static class Writer {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    void writeVarint(int v) {
+      writeVarlong(v & 0xffffffffL);
+    }
+
+    void writeVarlong(long v) {
+      while ((v & ~0x7fL) != 0) {
+        out.write((int) ((v & 0x7f) | 0x80));
+        v >>>= 7;
+      }
+      out.write((int) v);
+    }
+
+    // length + 1, so 0 is null
+    void writeString(String s) {
+      if (s == null) {
+        writeVarint(0);
+        return;
+      }
+      byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+      writeVarint(bytes.length + 1);
+      out.write(bytes, 0, bytes.length);
+    }
+  }
+
+  private static class Reader {
+    final byte[] bytes;
+    int pos;
+
+    Reader(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    int read() {
+      return bytes[pos++] & 0xff;
+    }
+
+    int readVarint() {
+      return (int) readVarlong();
+    }
+
+    long readVarlong() {
+      long v = 0;
+      int shift = 0;
+      int b;
+      do {
+        b = read();
+        v |= (long) (b & 0x7f) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      return v;
+    }
+
+    String readString() {
+      int length = readVarint() - 1;
+      if (length < 0) {
+        return null;
+      }
+      if (pos + length > bytes.length) {
+        throw new ArrayIndexOutOfBoundsException(pos + length);
+      }
+      String s = new String(bytes, pos, length, StandardCharsets.UTF_8);
+      pos += length;
+      return s;
+    }
+  }
+}
@@ -28,4 +28,48 @@ public class Constants {
 
   public static final String EXISTING_PROCESS = "existing_process";
 
+  public static final String ZEPPELIN_INTERPRETER_OUTPUT_APPEND_WINDOW =
+      "zeppelin.interpreter.output.append.window.ms";
+
+  public static final String ZEPPELIN_INTERPRETER_OUTPUT_APPEND_MAX_SIZE =
+      "zeppelin.interpreter.output.append.max.size";
+
+  public static final String ZEPPELIN_INTERPRETER_OUTPUT_LIMIT =
+      "zeppelin.interpreter.output.limit";
+
+  public static final String ZEPPELIN_INTERPRETER_RESOURCE_REQUEST_TIMEOUT =
+      "zeppelin.interpreter.resource.request.timeout.ms";
+
+  public static final String ZEPPELIN_INTERPRETER_THRIFT_SERVER =
+      "zeppelin.interpreter.thrift.server";
+
+  public static final String ZEPPELIN_INTERPRETER_THRIFT_SELECTOR_THREADS =
+      "zeppelin.interpreter.thrift.selector.threads";
+
+  public static final String ZEPPELIN_INTERPRETER_CLIENT_POOL_MAX =
+      "zeppelin.interpreter.client.pool.max";
+
+  public static final String ZEPPELIN_INTERPRETER_CLIENT_POOL_MAX_IDLE =
+      "zeppelin.interpreter.client.pool.max.idle";
+
+  public static final String ZEPPELIN_INTERPRETER_CLIENT_POOL_MIN_IDLE =
+      "zeppelin.interpreter.client.pool.min.idle";
+
+  public static final String ZEPPELIN_INTERPRETER_CLIENT_POOL_IDLE_TIMEOUT =
+      "zeppelin.interpreter.client.pool.idle.timeout.ms";
+
+  public static final String ZEPPELIN_INTERPRETER_CLIENT_POOL_MAX_WAIT =
+      "zeppelin.interpreter.client.pool.max.wait.ms";
+
+  public static final String ZEPPELIN_INTERPRETER_CLIENT_POOL_VALIDATE =
+      "zeppelin.interpreter.client.pool.validate";
+
+  public static final String ZEPPELIN_SCHEDULER_FAIR_SHARE = "zeppelin.scheduler.fairShare";
+
+  public static final String ZEPPELIN_SCHEDULER_FAIR_SHARE_WEIGHTS =
+      "zeppelin.scheduler.fairShare.weights";
+
+  public static final String ZEPPELIN_SCHEDULER_FAIR_SHARE_MAX_CONCURRENCY =
+      "zeppelin.scheduler.fairShare.maxConcurrencyPerUser";
+
 }
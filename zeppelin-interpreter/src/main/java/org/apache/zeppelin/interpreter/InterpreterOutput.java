@@ -22,6 +22,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -32,14 +33,28 @@ import java.util.List;
 public class InterpreterOutput extends OutputStream {
   Logger logger = LoggerFactory.getLogger(InterpreterOutput.class);
   private final int NEW_LINE_CHAR = '\n';
+  // lines are accumulated into chunks of this size instead of one byte[] per line
+  private static final int CHUNK_SIZE = 64 * 1024;
+  // unfinished line is flushed once it reaches this size, at a UTF-8 character boundary
+  private static final int MAX_LINE_SIZE = CHUNK_SIZE;
+  public static final int DEFAULT_LIMIT = 100 * 1024 * 1024;
 
   ByteArrayOutputStream buffer = new ByteArrayOutputStream();
 
   private final List<Object> outList = new LinkedList<Object>();
+  // number of bytes kept in outList
+  private int size = 0;
+  // output beyond this number of bytes is dropped
+  private int limit = DEFAULT_LIMIT;
+  private boolean truncated = false;
   private InterpreterOutputChangeWatcher watcher;
   private final InterpreterOutputListener flushListener;
   private InterpreterResult.Type type = InterpreterResult.Type.TEXT;
   private boolean firstWrite = true;
+  // next flushed bytes start a line, so they may have a type directive
+  private boolean atLineStart = true;
+  // table written by write(ColumnarTable)
+  private ColumnarTable table;
 
   public InterpreterOutput(InterpreterOutputListener flushListener) {
     this.flushListener = flushListener;
@@ -61,16 +76,39 @@ public class InterpreterOutput extends OutputStream {
   public void setType(InterpreterResult.Type type) {
     if (this.type != type) {
       clear();
-      flushListener.onUpdate(this, new byte[]{});
       this.type = type;
+      // the gui replaces its output with the directive of the type, e.g. "%table\n", and shows
+      // appended output as that type
+      flushListener.onUpdate(this, type == InterpreterResult.Type.TEXT ? new byte[]{}
+          : ('%' + type.name().toLowerCase() + "\n").getBytes(StandardCharsets.UTF_8));
     }
   }
 
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Set maximum number of bytes this output keeps.
+   * Output exceeding the limit is dropped and replaced by a truncation message.
+   */
+  public void setLimit(int limit) {
+    this.limit = limit;
+  }
+
+  public boolean isTruncated() {
+    return truncated;
+  }
+
   public void clear() {
     synchronized (outList) {
       type = InterpreterResult.Type.TEXT;
+      table = null;
       buffer.reset();
       outList.clear();
+      size = 0;
+      truncated = false;
+      atLineStart = true;
       if (watcher != null) {
         watcher.clear();
       }
@@ -82,21 +120,60 @@ public class InterpreterOutput extends OutputStream {
     synchronized (outList) {
       buffer.write(b);
       if (b == NEW_LINE_CHAR) {
-        // first time use of this outputstream.
-        if (firstWrite) {
-          // clear the output on gui
-          flushListener.onUpdate(this, new byte[]{});
-          firstWrite = false;
-        }
+        onNewLine();
+      } else if (buffer.size() >= MAX_LINE_SIZE) {
+        onLineSizeLimit();
+      }
+    }
+  }
 
-        flush();
+  private void onNewLine() throws IOException {
+    onFirstWrite();
+    flush();
+  }
+
+  /**
+   * Flush an unfinished line that reached MAX_LINE_SIZE, except a character it ends in the
+   * middle of.
+   */
+  private void onLineSizeLimit() throws IOException {
+    onFirstWrite();
+    byte[] bytes = buffer.toByteArray();
+    int end = lastCharBoundary(bytes);
+    buffer.reset();
+    buffer.write(bytes, 0, end);
+    flush();
+    buffer.write(bytes, end, bytes.length - end);
+  }
+
+  private void onFirstWrite() {
+    // first time use of this outputstream.
+    if (firstWrite) {
+      // clear the output on gui
+      flushListener.onUpdate(this, new byte[]{});
+      firstWrite = false;
+    }
+  }
+
+  /**
+   * @return index after the last complete UTF-8 character of bytes
+   */
+  static int lastCharBoundary(byte[] bytes) {
+    // a character is at most 4 bytes. find the first byte of the last one
+    for (int i = bytes.length - 1; i >= 0 && i >= bytes.length - 4; i--) {
+      int b = bytes[i] & 0xff;
+      if ((b & 0xc0) != 0x80) {
+        int charLength = b >= 0xf0 ? 4 : b >= 0xe0 ? 3 : b >= 0xc0 ? 2 : 1;
+        return i + charLength <= bytes.length ? bytes.length : i;
       }
     }
+    // not UTF-8
+    return bytes.length;
   }
 
   private byte [] detectTypeFromLine(byte [] byteArray) {
     // check output type directive
-    String line = new String(byteArray);
+    String line = new String(byteArray, StandardCharsets.UTF_8);
     for (InterpreterResult.Type t : InterpreterResult.Type.values()) {
       String typeString = '%' + t.name().toLowerCase();
       if ((typeString + "\n").equals(line)) {
@@ -105,7 +182,7 @@ public class InterpreterOutput extends OutputStream {
         break;
       } else if (line.startsWith(typeString + " ")) {
         setType(t);
-        byteArray = line.substring(typeString.length() + 1).getBytes();
+        byteArray = line.substring(typeString.length() + 1).getBytes(StandardCharsets.UTF_8);
         break;
       }
     }
@@ -121,8 +198,24 @@ public class InterpreterOutput extends OutputStream {
   @Override
   public void write(byte [] b, int off, int len) throws IOException {
     synchronized (outList) {
-      for (int i = off; i < len; i++) {
-        write(b[i]);
+      int end = off + len;
+      int lineStart = off;
+      for (int i = off; i < end; i++) {
+        if (b[i] == NEW_LINE_CHAR) {
+          buffer.write(b, lineStart, i + 1 - lineStart);
+          lineStart = i + 1;
+          onNewLine();
+        }
+      }
+
+      // output without newline is flushed in pieces of up to MAX_LINE_SIZE
+      while (lineStart < end) {
+        int n = Math.min(end - lineStart, MAX_LINE_SIZE - buffer.size());
+        buffer.write(b, lineStart, n);
+        lineStart += n;
+        if (buffer.size() >= MAX_LINE_SIZE) {
+          onLineSizeLimit();
+        }
       }
     }
   }
@@ -133,6 +226,9 @@ public class InterpreterOutput extends OutputStream {
    * @throws IOException
    */
   public void write(File file) throws IOException {
+    synchronized (outList) {
+      writeTableAsText();
+    }
     outList.add(file);
     if (watcher != null) {
       watcher.watch(file);
@@ -140,7 +236,55 @@ public class InterpreterOutput extends OutputStream {
   }
 
   public void write(String string) throws IOException {
-    write(string.getBytes());
+    write(string.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Show a table as typed columns, instead of writing its %table text.
+   * Like a %table directive, the table replaces output written before it. When more output
+   * follows, e.g. text or another table, the output falls back to text and every table is
+   * written as its text, so nothing after the first table is lost.
+   */
+  public void write(ColumnarTable table) throws IOException {
+    synchronized (outList) {
+      flush();
+      if (this.table == null && type != InterpreterResult.Type.TABLE) {
+        setType(InterpreterResult.Type.TABLE);
+        this.table = table;
+      } else {
+        writeTableAsText();
+        append(toTextBytes(table));
+      }
+    }
+  }
+
+  /**
+   * Write the table kept typed by write(ColumnarTable) as text, as something else is written.
+   */
+  private void writeTableAsText() {
+    if (table != null) {
+      ColumnarTable typed = table;
+      table = null;
+      // the table is all of the output, so there's nothing to clear
+      type = InterpreterResult.Type.TEXT;
+      flushListener.onUpdate(this, new byte[]{});
+      append(toTextBytes(typed));
+    }
+  }
+
+  private static byte[] toTextBytes(ColumnarTable table) {
+    String text = table.toText();
+    // output written after the table starts on a new line
+    return (text.endsWith("\n") ? text : text + "\n").getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * @return table written by write(ColumnarTable) when nothing else follows it, or null
+   */
+  public ColumnarTable getTable() {
+    synchronized (outList) {
+      return table;
+    }
   }
 
   /**
@@ -152,6 +296,9 @@ public class InterpreterOutput extends OutputStream {
     if ("file".equals(url.getProtocol())) {
       write(new File(url.getPath()));
     } else {
+      synchronized (outList) {
+        writeTableAsText();
+      }
       outList.add(url);
     }
   }
@@ -179,7 +326,7 @@ public class InterpreterOutput extends OutputStream {
   }
 
   public byte[] toByteArray() throws IOException {
-    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ByteArrayOutputStream out = new ByteArrayOutputStream(size);
     List<Object> all = new LinkedList<Object>();
 
     synchronized (outList) {
@@ -192,6 +339,8 @@ public class InterpreterOutput extends OutputStream {
         FileInputStream fin = new FileInputStream(f);
         copyStream(fin, out);
         fin.close();
+      } else if (o instanceof ByteArrayOutputStream) {
+        ((ByteArrayOutputStream) o).writeTo(out);
       } else if (o instanceof byte[]) {
         out.write((byte[]) o);
       } else if (o instanceof Integer) {
@@ -212,15 +361,54 @@ public class InterpreterOutput extends OutputStream {
     synchronized (outList) {
       buffer.flush();
       byte[] bytes = buffer.toByteArray();
-      bytes = detectTypeFromLine(bytes);
-      if (bytes != null) {
-        outList.add(bytes);
-        if (type == InterpreterResult.Type.TEXT) {
-          flushListener.onAppend(this, bytes);
-        }
+      if (bytes.length == 0) {
+        return;
       }
       buffer.reset();
+      boolean lineEnd = bytes[bytes.length - 1] == NEW_LINE_CHAR;
+      // a piece of an unfinished line is not a directive
+      if (atLineStart) {
+        bytes = detectTypeFromLine(bytes);
+      }
+      atLineStart = lineEnd;
+      if (bytes != null && bytes.length > 0) {
+        writeTableAsText();
+      }
+      if (bytes != null) {
+        append(bytes);
+      }
+    }
+  }
+
+  private void append(byte[] bytes) {
+    if (truncated) {
+      return;
+    }
+    if (size + bytes.length > limit) {
+      truncated = true;
+      bytes = ("\nOutput exceeds " + limit + " bytes. Truncated.\n").getBytes();
+    }
+    if (bytes.length > 0) {
+      appendToChunk(bytes);
+    }
+    // rows of a table are streamed like text. other types are shown with the complete result
+    if (type == InterpreterResult.Type.TEXT || type == InterpreterResult.Type.TABLE) {
+      flushListener.onAppend(this, bytes);
+    }
+  }
+
+  private void appendToChunk(byte[] bytes) {
+    Object last = outList.isEmpty() ? null : outList.get(outList.size() - 1);
+    ByteArrayOutputStream chunk;
+    if (last instanceof ByteArrayOutputStream
+        && ((ByteArrayOutputStream) last).size() + bytes.length <= CHUNK_SIZE) {
+      chunk = (ByteArrayOutputStream) last;
+    } else {
+      chunk = new ByteArrayOutputStream(Math.max(CHUNK_SIZE, bytes.length));
+      outList.add(chunk);
     }
+    chunk.write(bytes, 0, bytes.length);
+    size += bytes.length;
   }
 
   private void copyStream(InputStream in, OutputStream out) throws IOException {
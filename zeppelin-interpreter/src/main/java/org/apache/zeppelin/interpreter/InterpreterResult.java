@@ -52,6 +52,7 @@ public class InterpreterResult implements Serializable {
   Code code;
   Type type;
   String msg;
+  ColumnarTable table;
 
   public InterpreterResult(Code code) {
     this.code = code;
@@ -71,6 +72,16 @@ public class InterpreterResult implements Serializable {
     this.type = type;
   }
 
+  /**
+   * TABLE result kept as typed columns. The message is the %table text of the table, for
+   * clients that don't read the columns.
+   */
+  public static InterpreterResult fromTable(Code code, ColumnarTable table) {
+    InterpreterResult result = new InterpreterResult(code, Type.TABLE, table.toText());
+    result.table = table;
+    return result;
+  }
+
   /**
    * Magic is like %html %text.
    *
@@ -138,6 +149,13 @@ public class InterpreterResult implements Serializable {
     return msg;
   }
 
+  /**
+   * @return table of TABLE result, or null when the table is in message()
+   */
+  public ColumnarTable table() {
+    return table;
+  }
+
   public Type type() {
     return type;
   }
@@ -148,6 +166,6 @@ public class InterpreterResult implements Serializable {
   }
 
   public String toString() {
-    return "%" + type.name().toLowerCase() + " " + msg;
+    return "%" + type.name().toLowerCase() + " " + message();
   }
 }
@@ -23,9 +23,12 @@ import java.util.Map;
 import org.apache.commons.pool2.BasePooledObjectFactory;
 import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.transport.TFramedTransport;
 import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransport;
 import org.apache.thrift.transport.TTransportException;
 import org.apache.zeppelin.interpreter.InterpreterException;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterService;
@@ -37,16 +40,39 @@ import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterService.Client;
 public class ClientFactory extends BasePooledObjectFactory<Client>{
   private String host;
   private int port;
-  Map<Client, TSocket> clientSocketMap = new HashMap<Client, TSocket>();
+  private boolean framed;
+  private int timeoutMs;
+  Map<Client, TTransport> clientSocketMap = new HashMap<Client, TTransport>();
 
   public ClientFactory(String host, int port) {
+    this(host, port, false);
+  }
+
+  /**
+   * @param framed use framed transport, required by non-blocking thrift server
+   */
+  public ClientFactory(String host, int port, boolean framed) {
+    this(host, port, framed, 0);
+  }
+
+  /**
+   * @param framed use framed transport, required by non-blocking thrift server
+   * @param timeoutMs connect and read timeout of the socket. 0 for no timeout
+   */
+  public ClientFactory(String host, int port, boolean framed, int timeoutMs) {
     this.host = host;
     this.port = port;
+    this.framed = framed;
+    this.timeoutMs = timeoutMs;
   }
 
   @Override
   public Client create() throws Exception {
-    TSocket transport = new TSocket(host, port);
+    TTransport transport = new TSocket(host, port, timeoutMs);
+    if (framed) {
+      // same max frame length as the server, default 16MB is smaller than the output limit
+      transport = new TFramedTransport(transport, RemoteInterpreterServer.MAX_FRAME_LENGTH);
+    }
     try {
       transport.open();
     } catch (TTransportException e) {
@@ -67,12 +93,25 @@ public class ClientFactory extends BasePooledObjectFactory<Client>{
     return new DefaultPooledObject<Client>(client);
   }
 
+  /**
+   * Called when validation is enabled in the pool.
+   */
+  @Override
+  public boolean validateObject(PooledObject<Client> p) {
+    try {
+      p.getObject().ping();
+      return true;
+    } catch (TException e) {
+      return false;
+    }
+  }
+
   @Override
   public void destroyObject(PooledObject<Client> p) {
     synchronized (clientSocketMap) {
-      if (clientSocketMap.containsKey(p)) {
-        clientSocketMap.get(p).close();
-        clientSocketMap.remove(p);
+      TTransport transport = clientSocketMap.remove(p.getObject());
+      if (transport != null) {
+        transport.close();
       }
     }
   }
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.interpreter.remote;
+
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterService.Client;
+
+/**
+ * Snapshot of thrift client pool statistics of a RemoteInterpreterProcess
+ */
+public class ClientPoolStats {
+  private int maxTotal;
+  private int numActive;
+  private int numIdle;
+  private int numWaiters;
+  private long meanBorrowWaitTimeMs;
+  private long maxBorrowWaitTimeMs;
+  private long numBorrowed;
+  private long numCreated;
+  private long numDestroyed;
+  // released as broken after a failed call
+  private long numInvalidated;
+  // failed validation on borrow
+  private long numValidationFailed;
+
+  ClientPoolStats(GenericObjectPool<Client> pool, long numInvalidated) {
+    maxTotal = pool.getMaxTotal();
+    numActive = pool.getNumActive();
+    numIdle = pool.getNumIdle();
+    numWaiters = pool.getNumWaiters();
+    meanBorrowWaitTimeMs = pool.getMeanBorrowWaitTimeMillis();
+    maxBorrowWaitTimeMs = pool.getMaxBorrowWaitTimeMillis();
+    numBorrowed = pool.getBorrowedCount();
+    numCreated = pool.getCreatedCount();
+    numDestroyed = pool.getDestroyedCount();
+    this.numInvalidated = numInvalidated;
+    numValidationFailed = pool.getDestroyedByBorrowValidationCount();
+  }
+
+  public int getMaxTotal() {
+    return maxTotal;
+  }
+
+  public int getNumActive() {
+    return numActive;
+  }
+
+  public int getNumIdle() {
+    return numIdle;
+  }
+
+  public int getNumWaiters() {
+    return numWaiters;
+  }
+
+  public long getMeanBorrowWaitTimeMs() {
+    return meanBorrowWaitTimeMs;
+  }
+
+  public long getMaxBorrowWaitTimeMs() {
+    return maxBorrowWaitTimeMs;
+  }
+
+  public long getNumBorrowed() {
+    return numBorrowed;
+  }
+
+  public long getNumCreated() {
+    return numCreated;
+  }
+
+  public long getNumDestroyed() {
+    return numDestroyed;
+  }
+
+  public long getNumInvalidated() {
+    return numInvalidated;
+  }
+
+  public long getNumValidationFailed() {
+    return numValidationFailed;
+  }
+}
@@ -29,6 +29,7 @@ import org.apache.zeppelin.interpreter.InterpreterResult.Type;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterContext;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterResult;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterService.Client;
+import org.apache.zeppelin.scheduler.FairShare;
 import org.apache.zeppelin.scheduler.Scheduler;
 import org.apache.zeppelin.scheduler.SchedulerFactory;
 import org.slf4j.Logger;
@@ -41,6 +42,8 @@ import com.google.gson.reflect.TypeToken;
  * Proxy for Interpreter instance that runs on separate process
  */
 public class RemoteInterpreter extends Interpreter {
+  // how often a submitted job is checked when no ready event arrives
+  static final long RESULT_CHECK_INTERVAL_MSEC = 5 * 1000;
   private final RemoteInterpreterProcessListener remoteInterpreterProcessListener;
   Logger logger = LoggerFactory.getLogger(RemoteInterpreter.class);
   Gson gson = new Gson();
@@ -262,42 +265,94 @@ public class RemoteInterpreter extends Interpreter {
     }
 
     boolean broken = false;
+    String jobId;
     try {
-
-      final GUI currentGUI = context.getGui();
-      RemoteInterpreterResult remoteResult = client.interpret(
-          noteId, className, st, convert(context));
-
-      Map<String, Object> remoteConfig = (Map<String, Object>) gson.fromJson(
-          remoteResult.getConfig(), new TypeToken<Map<String, Object>>() {
-          }.getType());
-      context.getConfig().clear();
-      context.getConfig().putAll(remoteConfig);
-
-
-      if (form == FormType.NATIVE) {
-        GUI remoteGui = gson.fromJson(remoteResult.getGui(), GUI.class);
-        currentGUI.clear();
-        currentGUI.setParams(remoteGui.getParams());
-        currentGUI.setForms(remoteGui.getForms());
-      } else if (form == FormType.SIMPLE) {
-        final Map<String, Input> currentForms = currentGUI.getForms();
-        final Map<String, Object> currentParams = currentGUI.getParams();
-        final GUI remoteGUI = gson.fromJson(remoteResult.getGui(), GUI.class);
-        final Map<String, Input> remoteForms = remoteGUI.getForms();
-        final Map<String, Object> remoteParams = remoteGUI.getParams();
-        currentForms.putAll(remoteForms);
-        currentParams.putAll(remoteParams);
-      }
-
-      InterpreterResult result = convert(remoteResult);
-      return result;
+      // connection is released while the job runs
+      jobId = client.submit(noteId, className, st, convert(context));
     } catch (TException e) {
       broken = true;
       throw new InterpreterException(e);
     } finally {
       interpreterProcess.releaseClient(client, broken);
     }
+
+    final GUI currentGUI = context.getGui();
+    RemoteInterpreterResult remoteResult;
+    interpreterProcess.addProgressJob(context.getParagraphId(), jobId);
+    try {
+      remoteResult = awaitResult(interpreterProcess, jobId);
+      interpreterProcess.onResultTaken(noteId, context.getParagraphId());
+    } catch (InterruptedException e) {
+      throw new InterpreterException(e);
+    } finally {
+      interpreterProcess.removeProgressJob(context.getParagraphId());
+    }
+
+    Map<String, Object> remoteConfig = (Map<String, Object>) gson.fromJson(
+        remoteResult.getConfig(), new TypeToken<Map<String, Object>>() {
+        }.getType());
+    context.getConfig().clear();
+    context.getConfig().putAll(remoteConfig);
+
+
+    if (form == FormType.NATIVE) {
+      GUI remoteGui = gson.fromJson(remoteResult.getGui(), GUI.class);
+      currentGUI.clear();
+      currentGUI.setParams(remoteGui.getParams());
+      currentGUI.setForms(remoteGui.getForms());
+    } else if (form == FormType.SIMPLE) {
+      final Map<String, Input> currentForms = currentGUI.getForms();
+      final Map<String, Object> currentParams = currentGUI.getParams();
+      final GUI remoteGUI = gson.fromJson(remoteResult.getGui(), GUI.class);
+      final Map<String, Input> remoteForms = remoteGUI.getForms();
+      final Map<String, Object> remoteParams = remoteGUI.getParams();
+      currentForms.putAll(remoteForms);
+      currentParams.putAll(remoteParams);
+    }
+
+    InterpreterResult result = convert(remoteResult);
+    return result;
+  }
+
+  /**
+   * Wait for the result of a submitted job.
+   * Client is borrowed only to take the result, once the remote process tells it's ready.
+   */
+  private RemoteInterpreterResult awaitResult(RemoteInterpreterProcess interpreterProcess,
+      String jobId) {
+    // ready event of a job that finishes before this point is not missed, as the result is
+    // checked once before waiting for the event
+    interpreterProcess.addInterpretResultReady(jobId);
+    try {
+      while (true) {
+        Client client = null;
+        try {
+          client = interpreterProcess.getClient();
+        } catch (Exception e1) {
+          throw new InterpreterException(e1);
+        }
+
+        boolean broken = false;
+        try {
+          List<RemoteInterpreterResult> result = client.awaitResult(jobId, 0);
+          if (!result.isEmpty()) {
+            return result.get(0);
+          }
+        } catch (TException e) {
+          broken = true;
+          throw new InterpreterException(e);
+        } finally {
+          interpreterProcess.releaseClient(client, broken);
+        }
+
+        // check the job also on timeout, in case the ready event is missed
+        interpreterProcess.waitInterpretResultReady(jobId, RESULT_CHECK_INTERVAL_MSEC);
+      }
+    } catch (InterruptedException e) {
+      throw new InterpreterException(e);
+    } finally {
+      interpreterProcess.removeInterpretResultReady(jobId);
+    }
   }
 
   @Override
@@ -357,6 +412,12 @@ public class RemoteInterpreter extends Interpreter {
       return 0;
     }
 
+    // fetched in batch with other running paragraphs of the process
+    Integer progress = interpreterProcess.getProgress(context.getParagraphId());
+    if (progress != null) {
+      return progress;
+    }
+
     Client client = null;
     try {
       client = interpreterProcess.getClient();
@@ -408,7 +469,8 @@ public class RemoteInterpreter extends Interpreter {
           RemoteInterpreter.class.getName() + noteId + interpreterProcess.hashCode(),
           noteId,
           interpreterProcess,
-          maxConcurrency);
+          maxConcurrency,
+          FairShare.create(getProperty()));
     }
   }
 
@@ -429,6 +491,11 @@ public class RemoteInterpreter extends Interpreter {
   }
 
   private InterpreterResult convert(RemoteInterpreterResult result) {
+    if (result.isSetTable()) {
+      return InterpreterResult.fromTable(
+          InterpreterResult.Code.valueOf(result.getCode()),
+          ColumnarTable.fromBytes(result.getTable()));
+    }
     return new InterpreterResult(
         InterpreterResult.Code.valueOf(result.getCode()),
         Type.valueOf(result.getType()),
@@ -17,20 +17,36 @@
 package org.apache.zeppelin.interpreter.remote;
 
 import com.google.gson.Gson;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.apache.thrift.TException;
 import org.apache.zeppelin.display.AngularObject;
 import org.apache.zeppelin.interpreter.InterpreterContextRunner;
+import org.apache.zeppelin.interpreter.InterpreterException;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterEvent;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterEventType;
+import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterService.Client;
 import org.apache.zeppelin.resource.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Thread connection ZeppelinServer -> RemoteInterpreterServer does not provide
@@ -41,11 +57,33 @@ import java.util.Map;
  *
  * RemoteInterpreterEventPoller is counter part in ZeppelinServer
  */
-public class RemoteInterpreterEventClient implements ResourcePoolConnector {
+public class RemoteInterpreterEventClient implements ResourcePoolConnector,
+    ResourcePoolListener {
+  public static final long DEFAULT_OUTPUT_APPEND_WINDOW_MS = 50;
+  public static final int DEFAULT_OUTPUT_APPEND_MAX_SIZE = 64 * 1024;
+  public static final long DEFAULT_REQUEST_TIMEOUT_MS = 60 * 1000;
+
   private final Logger logger = LoggerFactory.getLogger(RemoteInterpreterEvent.class);
-  private final List<RemoteInterpreterEvent> eventQueue = new LinkedList<RemoteInterpreterEvent>();
-  private final List<ResourceSet> getAllResourceResponse = new LinkedList<ResourceSet>();
-  private final Map<ResourceId, Object> getResourceResponse = new HashMap<ResourceId, Object>();
+  private final Deque<RemoteInterpreterEvent> eventQueue = new ArrayDeque<RemoteInterpreterEvent>();
+  // appended output not sent yet, per paragraph. guarded by eventQueue
+  private final Map<String, OutputAppendBuffer> outputAppendBuffers =
+      new LinkedHashMap<String, OutputAppendBuffer>();
+  private long outputAppendWindowMs = DEFAULT_OUTPUT_APPEND_WINDOW_MS;
+  private int outputAppendMaxSize = DEFAULT_OUTPUT_APPEND_MAX_SIZE;
+  // requests waiting for resources from ZeppelinServer, keyed by request id
+  private final ConcurrentMap<String, PendingResponse<ResourceSet>> pendingResourceSets =
+      new ConcurrentHashMap<String, PendingResponse<ResourceSet>>();
+  // requests reading value of a resource from ZeppelinServer, keyed by request id
+  private final ConcurrentMap<String, ChunkedResourceStream> pendingResourceReads =
+      new ConcurrentHashMap<String, ChunkedResourceStream>();
+  private final AtomicLong requestSeq = new AtomicLong();
+  private volatile long requestTimeoutMs = DEFAULT_REQUEST_TIMEOUT_MS;
+  // where resource pools of other interpreter processes are, keyed by resource pool id
+  private final Map<String, ResourceLocation> resourceLocations =
+      new ConcurrentHashMap<String, ResourceLocation>();
+  // clients to other interpreter processes, to read resources directly
+  private final Map<ResourceLocation, GenericObjectPool<Client>> peerClientPools =
+      new HashMap<ResourceLocation, GenericObjectPool<Client>>();
   private final Gson gson = new Gson();
 
   /**
@@ -89,105 +127,313 @@ public class RemoteInterpreterEventClient implements ResourcePoolConnector {
   }
 
 
+  /**
+   * @param timeoutMs maximum time to wait for a response of ZeppelinServer,
+   *                  or for the next chunk of a resource
+   */
+  public void setRequestTimeout(long timeoutMs) {
+    this.requestTimeoutMs = timeoutMs;
+  }
+
   /**
    * Get all resources except for specific resourcePool
    * @return
    */
   @Override
   public ResourceSet getAllResources() {
-    // request
-    sendEvent(new RemoteInterpreterEvent(RemoteInterpreterEventType.RESOURCE_POOL_GET_ALL, null));
-
-    synchronized (getAllResourceResponse) {
-      while (getAllResourceResponse.isEmpty()) {
-        try {
-          getAllResourceResponse.wait();
-        } catch (InterruptedException e) {
-          logger.warn(e.getMessage(), e);
-        }
-      }
-      ResourceSet resourceSet = getAllResourceResponse.remove(0);
-      return resourceSet;
-    }
+    return requestResources(RemoteInterpreterEventType.RESOURCE_POOL_GET_ALL, null);
   }
 
+  /**
+   * Find resources through the resource directory of ZeppelinServer, and remember location of
+   * interpreter processes holding them.
+   */
   @Override
-  public Object readResource(ResourceId resourceId) {
-    logger.debug("Request Read Resource {} from ZeppelinServer", resourceId.getName());
-    synchronized (getResourceResponse) {
-      // wait for previous response consumed
-      while (getResourceResponse.containsKey(resourceId)) {
-        try {
-          getResourceResponse.wait();
-        } catch (InterruptedException e) {
-          logger.warn(e.getMessage(), e);
-        }
-      }
+  public ResourceSet lookupResources(String noteId, String paragraphId, String name) {
+    Map<String, String> lookup = new HashMap<String, String>();
+    lookup.put("noteId", noteId);
+    lookup.put("paragraphId", paragraphId);
+    lookup.put("name", name);
+    return requestResources(RemoteInterpreterEventType.RESOURCE_LOOKUP, gson.toJson(lookup));
+  }
 
-      // send request
-      Gson gson = new Gson();
-      sendEvent(new RemoteInterpreterEvent(
-          RemoteInterpreterEventType.RESOURCE_GET,
-          gson.toJson(resourceId)));
-
-      // wait for response
-      while (!getResourceResponse.containsKey(resourceId)) {
-        try {
-          getResourceResponse.wait();
-        } catch (InterruptedException e) {
-          logger.warn(e.getMessage(), e);
-        }
+  /**
+   * Send a request and wait for its response. Other requests are not blocked meanwhile.
+   * @return resources found. empty when nothing is found
+   * @throws InterpreterException when response does not arrive in time, or interrupted
+   */
+  private ResourceSet requestResources(RemoteInterpreterEventType type, String data) {
+    String requestId = nextRequestId();
+    PendingResponse<ResourceSet> response = new PendingResponse<ResourceSet>();
+    pendingResourceSets.put(requestId, response);
+    try {
+      sendEvent(new RemoteInterpreterEvent(type, data).setRequestId(requestId));
+      ResourceSet resourceSet = response.get(requestTimeoutMs);
+      if (resourceSet == null) {
+        logger.error("No response of {} {} in {} ms", type, requestId, requestTimeoutMs);
+        throw new InterpreterException(
+            "No response of " + type + " from ZeppelinServer in " + requestTimeoutMs + " ms");
       }
-      Object o = getResourceResponse.remove(resourceId);
-      getResourceResponse.notifyAll();
-      return o;
+      return resourceSet;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterpreterException(e);
+    } finally {
+      pendingResourceSets.remove(requestId);
     }
   }
 
+  private String nextRequestId() {
+    return Long.toString(requestSeq.incrementAndGet());
+  }
+
   /**
    * Supposed to call from RemoteInterpreterEventPoller
+   * @param resources json serialized resources
+   * @param locations json serialized ResourceLocation keyed by resource pool id
    */
-  public void putResponseGetAllResources(List<String> resources) {
-    logger.debug("ResourceSet from ZeppelinServer");
-    ResourceSet resourceSet = new ResourceSet();
+  public void putResponseResources(String requestId, List<String> resources,
+      Map<String, String> locations) {
+    for (Map.Entry<String, String> location : locations.entrySet()) {
+      resourceLocations.put(location.getKey(),
+          gson.fromJson(location.getValue(), ResourceLocation.class));
+    }
 
+    PendingResponse<ResourceSet> response = pendingResourceSets.get(requestId);
+    if (response == null) {
+      logger.warn("Response of request {} arrived after timeout", requestId);
+      return;
+    }
+
+    ResourceSet resourceSet = new ResourceSet();
     for (String res : resources) {
       RemoteResource resource = gson.fromJson(res, RemoteResource.class);
       resource.setResourcePoolConnector(this);
       resourceSet.add(resource);
     }
+    response.set(resourceSet);
+  }
+
+  @Override
+  public void onResourceAdded(Resource resource) {
+    sendEvent(new RemoteInterpreterEvent(
+        RemoteInterpreterEventType.RESOURCE_POOL_ADD, gson.toJson(resource)));
+  }
+
+  @Override
+  public void onResourceRemoved(ResourceId resourceId) {
+    sendEvent(new RemoteInterpreterEvent(
+        RemoteInterpreterEventType.RESOURCE_POOL_REMOVE, gson.toJson(resourceId)));
+  }
+
+  /**
+   * Read the resource directly from the interpreter process holding it when its location is
+   * known. Otherwise, or when it fails, read it through ZeppelinServer.
+   * @return null when resource is not available
+   * @throws InterpreterException when the resource is available but can't be read
+   */
+  @Override
+  public Object readResource(ResourceId resourceId) {
+    ResourceLocation location = resourceLocations.get(resourceId.getResourcePoolId());
+    if (location != null) {
+      try {
+        return readResource(location, resourceId);
+      } catch (Exception e) {
+        logger.warn("Can't read resource " + resourceId.getName() + " from " + location +
+            ", read through ZeppelinServer", e);
+        resourceLocations.remove(resourceId.getResourcePoolId());
+        closePeerClientPool(location);
+      }
+    }
+    return readResourceFromServer(resourceId);
+  }
+
+  private Object readResource(ResourceLocation location, ResourceId resourceId)
+      throws Exception {
+    logger.debug("Read Resource {} from {}", resourceId.getName(), location);
+    GenericObjectPool<Client> pool = getPeerClientPool(location);
+    final Client client = pool.borrowObject();
+    boolean broken = false;
+    try {
+      final String streamId = client.resourceStreamOpen(
+          resourceId.getNoteId(), resourceId.getParagraphId(), resourceId.getName());
+      if (streamId.isEmpty()) {
+        return null;
+      }
 
-    synchronized (getAllResourceResponse) {
-      getAllResourceResponse.add(resourceSet);
-      getAllResourceResponse.notify();
+      InputStream in = new InputStream() {
+        private ByteBuffer chunk = ByteBuffer.allocate(0);
+        private boolean end = false;
+
+        private boolean next() throws IOException {
+          while (!end && !chunk.hasRemaining()) {
+            try {
+              chunk = client.resourceStreamRead(streamId);
+            } catch (TException e) {
+              throw new IOException(e);
+            }
+            end = !chunk.hasRemaining();
+          }
+          return !end;
+        }
+
+        @Override
+        public int read() throws IOException {
+          return next() ? chunk.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+          if (len == 0) {
+            return 0;
+          }
+          if (!next()) {
+            return -1;
+          }
+          len = Math.min(len, chunk.remaining());
+          chunk.get(b, off, len);
+          return len;
+        }
+      };
+      Object o = ResourceSerializers.singleton().deserialize(in);
+      // read to the end, so the stream is released
+      byte[] rest = new byte[1024];
+      int n;
+      do {
+        n = in.read(rest);
+      } while (n != -1);
+      return o;
+    } catch (Exception e) {
+      broken = true;
+      throw e;
+    } finally {
+      if (broken) {
+        pool.invalidateObject(client);
+      } else {
+        pool.returnObject(client);
+      }
+    }
+  }
+
+  private GenericObjectPool<Client> getPeerClientPool(ResourceLocation location) {
+    synchronized (peerClientPools) {
+      GenericObjectPool<Client> pool = peerClientPools.get(location);
+      if (pool == null) {
+        // a busy or hanging peer fails the read in time, then it is read through ZeppelinServer
+        GenericObjectPoolConfig config = new GenericObjectPoolConfig();
+        config.setMaxWaitMillis(requestTimeoutMs);
+        pool = new GenericObjectPool<Client>(new ClientFactory(
+            location.getHost(), location.getPort(), location.isFramed(), (int) requestTimeoutMs),
+            config);
+        peerClientPools.put(location, pool);
+      }
+      return pool;
+    }
+  }
+
+  private void closePeerClientPool(ResourceLocation location) {
+    GenericObjectPool<Client> pool;
+    synchronized (peerClientPools) {
+      pool = peerClientPools.remove(location);
+    }
+    if (pool != null) {
+      pool.close();
     }
   }
 
   /**
-   * Supposed to call from RemoteInterpreterEventPoller
-   * @param resourceId json serialized ResourceId
-   * @param object java serialized of the object
+   * Close connections to other interpreter processes
    */
-  public void putResponseGetResource(String resourceId, ByteBuffer object) {
-    ResourceId rid = gson.fromJson(resourceId, ResourceId.class);
+  public void close() {
+    synchronized (peerClientPools) {
+      for (GenericObjectPool<Client> pool : peerClientPools.values()) {
+        pool.close();
+      }
+      peerClientPools.clear();
+    }
+  }
 
-    logger.debug("Response resource {} from RemoteInterpreter", rid.getName());
+  /**
+   * Request the resource and deserialize it while ZeppelinServer sends it in chunks.
+   * @return null when resource is not available
+   * @throws InterpreterException when the resource is available but can't be read
+   */
+  private Object readResourceFromServer(ResourceId resourceId) {
+    logger.debug("Request Read Resource {} from ZeppelinServer", resourceId.getName());
+    String requestId = nextRequestId();
+    ChunkedResourceStream stream = new ChunkedResourceStream(
+        ChunkedResourceStream.DEFAULT_CHUNK_SIZE,
+        ChunkedResourceStream.DEFAULT_MAX_CHUNKS,
+        requestTimeoutMs);
+    pendingResourceReads.put(requestId, stream);
 
-    Object o = null;
     try {
-      o = Resource.deserializeObject(object);
-    } catch (IOException e) {
-      logger.error(e.getMessage(), e);
-    } catch (ClassNotFoundException e) {
-      logger.error(e.getMessage(), e);
-    }
+      sendEvent(new RemoteInterpreterEvent(
+          RemoteInterpreterEventType.RESOURCE_GET,
+          gson.toJson(resourceId)).setRequestId(requestId));
 
-    synchronized (getResourceResponse) {
-      getResourceResponse.put(rid, o);
-      getResourceResponse.notifyAll();
+      PushbackInputStream in = new PushbackInputStream(stream.getInputStream());
+      int b = in.read();
+      if (b == -1) {
+        return null;
+      }
+      in.unread(b);
+      return ResourceSerializers.singleton().deserialize(in);
+    } catch (IOException | ClassNotFoundException e) {
+      logger.error("Can't read resource " + resourceId.getName(), e);
+      throw new InterpreterException(e);
+    } finally {
+      pendingResourceReads.remove(requestId);
+      stream.close();
     }
   }
 
+  /**
+   * Response of a request without request id. Requests always have a request id,
+   * so there is nothing waiting for it.
+   */
+  public void putResponseGetAllResources(List<String> resources) {
+    logger.warn("Ignore resources from ZeppelinServer without request id");
+  }
+
+  /**
+   * Response of a request without request id. Requests always have a request id,
+   * so there is nothing waiting for it.
+   */
+  public void putResponseGetResource(String resourceId, ByteBuffer object) {
+    logger.warn("Ignore resource {} from ZeppelinServer without request id", resourceId);
+  }
+
+  /**
+   * Supposed to call from RemoteInterpreterEventPoller.
+   * Waits while the reader of the resource is behind.
+   * @param error set with the last chunk when ZeppelinServer could not send the whole resource
+   */
+  public void putResponseGetResourceChunk(String requestId, ByteBuffer chunk, boolean last,
+      String error) {
+    ChunkedResourceStream stream = pendingResourceReads.get(requestId);
+    if (stream == null) {
+      logger.warn("Resource of request {} is not being read", requestId);
+      return;
+    }
+
+    try {
+      if (chunk != null && chunk.hasRemaining()) {
+        // thrift may reuse the buffer of the chunk for the next call
+        ByteBuffer copy = ByteBuffer.allocate(chunk.remaining());
+        copy.put(chunk);
+        copy.flip();
+        stream.writeChunk(copy);
+      }
+      if (last && error != null) {
+        stream.fail(error);
+      } else if (last) {
+        stream.end();
+      }
+    } catch (IOException e) {
+      logger.error("Can't receive resource of request " + requestId, e);
+    }
+  }
 
   /**
    * Supposed to call from RemoteInterpreterEventPoller
@@ -195,45 +441,185 @@ public class RemoteInterpreterEventClient implements ResourcePoolConnector {
    */
   public RemoteInterpreterEvent pollEvent() {
     synchronized (eventQueue) {
-      if (eventQueue.isEmpty()) {
-        try {
-          eventQueue.wait(1000);
-        } catch (InterruptedException e) {
-        }
-      }
+      waitForEvent(1000);
 
       if (eventQueue.isEmpty()) {
         return new RemoteInterpreterEvent(RemoteInterpreterEventType.NO_OP, "");
       } else {
-        RemoteInterpreterEvent event = eventQueue.remove(0);
+        RemoteInterpreterEvent event = eventQueue.poll();
         logger.debug("Send event {}", event.getType());
         return event;
       }
     }
   }
 
+  /**
+   * Supposed to call from RemoteInterpreterEventPoller.
+   * Waits up to maxWaitMs for the first event and then drains whatever else is queued,
+   * so a single round trip carries all events produced in the meantime.
+   * @param maxBatch maximum number of events to return
+   * @param maxWaitMs maximum time to wait when no event is queued
+   * @return available events. empty list when nothing arrived within maxWaitMs
+   */
+  public List<RemoteInterpreterEvent> pollEvents(int maxBatch, long maxWaitMs) {
+    synchronized (eventQueue) {
+      waitForEvent(maxWaitMs);
+
+      int size = Math.min(Math.max(maxBatch, 1), eventQueue.size());
+      List<RemoteInterpreterEvent> events = new ArrayList<RemoteInterpreterEvent>(size);
+      while (events.size() < size) {
+        events.add(eventQueue.poll());
+      }
+      logger.debug("Send {} events", events.size());
+      return events;
+    }
+  }
+
+  /**
+   * Wait until an event is queued or maxWaitMs elapsed.
+   * Coalesced output appends whose window expires in the meantime are queued as events.
+   * Caller should hold eventQueue monitor.
+   */
+  private void waitForEvent(long maxWaitMs) {
+    long deadline = System.currentTimeMillis() + maxWaitMs;
+    while (true) {
+      long now = System.currentTimeMillis();
+      long nextFlush = flushExpiredOutputAppend(now);
+      if (!eventQueue.isEmpty() || now >= deadline) {
+        return;
+      }
+
+      try {
+        eventQueue.wait(Math.min(deadline, nextFlush) - now);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Queue OUTPUT_APPEND event for buffers that are open longer than outputAppendWindowMs.
+   * Caller should hold eventQueue monitor.
+   * @return time when the next buffer expires. Long.MAX_VALUE if there's no buffer
+   */
+  private long flushExpiredOutputAppend(long now) {
+    long nextFlush = Long.MAX_VALUE;
+    Iterator<OutputAppendBuffer> it = outputAppendBuffers.values().iterator();
+    while (it.hasNext()) {
+      OutputAppendBuffer buffer = it.next();
+      if (buffer.flushTime <= now) {
+        it.remove();
+        queueOutputAppend(buffer.noteId, buffer.paragraphId, buffer.output.toString());
+      } else {
+        nextFlush = Math.min(nextFlush, buffer.flushTime);
+      }
+    }
+    return nextFlush;
+  }
+
+  /**
+   * Configure coalescing of output appended by interpreters.
+   * @param windowMs appends of a paragraph within this period are sent as a single event.
+   *                 0 or negative disables coalescing
+   * @param maxSize buffered output of a paragraph is sent immediately once it reaches this size
+   */
+  public void setOutputAppendCoalescing(long windowMs, int maxSize) {
+    synchronized (eventQueue) {
+      this.outputAppendWindowMs = windowMs;
+      this.outputAppendMaxSize = maxSize;
+    }
+  }
+
+  /**
+   * Send buffered output of the paragraph without waiting for the coalescing window.
+   */
+  public void flushOutputAppend(String noteId, String paragraphId) {
+    synchronized (eventQueue) {
+      OutputAppendBuffer buffer = outputAppendBuffers.remove(outputKey(noteId, paragraphId));
+      if (buffer != null) {
+        queueOutputAppend(noteId, paragraphId, buffer.output.toString());
+        eventQueue.notifyAll();
+      }
+    }
+  }
+
   public void onInterpreterOutputAppend(String noteId, String paragraphId, String output) {
+    synchronized (eventQueue) {
+      if (outputAppendWindowMs <= 0) {
+        queueOutputAppend(noteId, paragraphId, output);
+        eventQueue.notifyAll();
+        return;
+      }
+
+      String key = outputKey(noteId, paragraphId);
+      OutputAppendBuffer buffer = outputAppendBuffers.get(key);
+      if (buffer == null) {
+        buffer = new OutputAppendBuffer(noteId, paragraphId,
+            System.currentTimeMillis() + outputAppendWindowMs);
+        outputAppendBuffers.put(key, buffer);
+      }
+      buffer.output.append(output);
+
+      if (buffer.output.length() >= outputAppendMaxSize) {
+        outputAppendBuffers.remove(key);
+        queueOutputAppend(noteId, paragraphId, buffer.output.toString());
+      }
+      // wake up poller to either send the event or to reschedule its wait
+      eventQueue.notifyAll();
+    }
+  }
+
+  public void onInterpreterOutputUpdate(String noteId, String paragraphId, String output) {
     Map<String, String> appendOutput = new HashMap<String, String>();
     appendOutput.put("noteId", noteId);
     appendOutput.put("paragraphId", paragraphId);
     appendOutput.put("data", output);
 
+    synchronized (eventQueue) {
+      // update replaces whole output of the paragraph. pending appends are obsolete.
+      outputAppendBuffers.remove(outputKey(noteId, paragraphId));
+      sendEvent(new RemoteInterpreterEvent(
+          RemoteInterpreterEventType.OUTPUT_UPDATE,
+          gson.toJson(appendOutput)));
+    }
+  }
+
+  /**
+   * notify the result of a submitted job can be taken
+   * @param jobId id returned by RemoteInterpreterServer.submit()
+   */
+  public void onInterpretResultReady(String jobId) {
     sendEvent(new RemoteInterpreterEvent(
-        RemoteInterpreterEventType.OUTPUT_APPEND,
-        gson.toJson(appendOutput)));
+        RemoteInterpreterEventType.INTERPRET_RESULT_READY, jobId));
   }
 
-  public void onInterpreterOutputUpdate(String noteId, String paragraphId, String output) {
+  /**
+   * notify status change of a job in the interpreter process
+   */
+  public void onJobStatusChange(String noteId, String jobId, String status) {
+    Map<String, String> jobStatus = new HashMap<String, String>();
+    jobStatus.put("noteId", noteId);
+    jobStatus.put("jobId", jobId);
+    jobStatus.put("status", status);
+    sendEvent(new RemoteInterpreterEvent(
+        RemoteInterpreterEventType.JOB_STATUS_CHANGE, gson.toJson(jobStatus)));
+  }
+
+  private void queueOutputAppend(String noteId, String paragraphId, String output) {
     Map<String, String> appendOutput = new HashMap<String, String>();
     appendOutput.put("noteId", noteId);
     appendOutput.put("paragraphId", paragraphId);
     appendOutput.put("data", output);
 
-    sendEvent(new RemoteInterpreterEvent(
-        RemoteInterpreterEventType.OUTPUT_UPDATE,
+    eventQueue.add(new RemoteInterpreterEvent(
+        RemoteInterpreterEventType.OUTPUT_APPEND,
         gson.toJson(appendOutput)));
   }
 
+  private String outputKey(String noteId, String paragraphId) {
+    return noteId + "_" + paragraphId;
+  }
 
   private void sendEvent(RemoteInterpreterEvent event) {
     synchronized (eventQueue) {
@@ -242,4 +628,40 @@ public class RemoteInterpreterEventClient implements ResourcePoolConnector {
     }
   }
 
+  /**
+   * Output of a paragraph collected during the coalescing window
+   */
+  private static class OutputAppendBuffer {
+    final String noteId;
+    final String paragraphId;
+    final long flushTime;
+    final StringBuilder output = new StringBuilder();
+
+    OutputAppendBuffer(String noteId, String paragraphId, long flushTime) {
+      this.noteId = noteId;
+      this.paragraphId = paragraphId;
+      this.flushTime = flushTime;
+    }
+  }
+
+  /**
+   * Response of a request, completed by the thread receiving it from ZeppelinServer.
+   */
+  private static class PendingResponse<T> {
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile T value;
+
+    public void set(T value) {
+      this.value = value;
+      done.countDown();
+    }
+
+    /**
+     * @return null when response does not arrive in time
+     */
+    public T get(long timeoutMs) throws InterruptedException {
+      done.await(timeoutMs, TimeUnit.MILLISECONDS);
+      return value;
+    }
+  }
 }
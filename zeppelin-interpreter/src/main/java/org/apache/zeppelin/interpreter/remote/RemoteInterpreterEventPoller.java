@@ -28,15 +28,24 @@ import org.apache.zeppelin.interpreter.InterpreterOutputListener;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterEvent;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterEventType;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterService.Client;
+import org.apache.zeppelin.resource.ChunkOutputStream;
+import org.apache.zeppelin.resource.ChunkedResourceStream;
 import org.apache.zeppelin.resource.Resource;
+import org.apache.zeppelin.resource.ResourceDirectory;
 import org.apache.zeppelin.resource.ResourceId;
+import org.apache.zeppelin.resource.ResourceLocation;
 import org.apache.zeppelin.resource.ResourcePool;
+import org.apache.zeppelin.resource.ResourceSerializers;
 import org.apache.zeppelin.resource.ResourceSet;
+import org.apache.zeppelin.scheduler.ExecutorFactory;
+import org.apache.zeppelin.scheduler.Job.Status;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -46,6 +55,11 @@ import java.util.Map;
  */
 public class RemoteInterpreterEventPoller extends Thread {
   private static final Logger logger = LoggerFactory.getLogger(RemoteInterpreterEventPoller.class);
+  private static final String RESOURCE_REQUEST_EXECUTOR = "resourceRequest";
+  // max number of events fetched in a single getEvents() call
+  static final int EVENT_BATCH_SIZE = 1000;
+  // how long the remote process holds getEvents() open when there's no event
+  static final int EVENT_WAIT_MSEC = 1000;
   private final RemoteInterpreterProcessListener listener;
 
   private volatile boolean shutdown;
@@ -69,6 +83,7 @@ public class RemoteInterpreterEventPoller extends Thread {
   @Override
   public void run() {
     Client client = null;
+    int consecutiveErrors = 0;
 
     while (!shutdown && interpreterProcess.isRunning()) {
       try {
@@ -79,108 +94,141 @@ public class RemoteInterpreterEventPoller extends Thread {
         continue;
       }
 
-      RemoteInterpreterEvent event = null;
+      List<RemoteInterpreterEvent> events = null;
       boolean broken = false;
       try {
-        event = client.getEvent();
+        events = client.getEvents(EVENT_BATCH_SIZE, EVENT_WAIT_MSEC);
+        consecutiveErrors = 0;
       } catch (TException e) {
         broken = true;
         logger.error("Can't get RemoteInterpreterEvent", e);
-        waitQuietly();
+        // retry right away with a fresh connection, back off only when it keeps failing
+        if (++consecutiveErrors > 1) {
+          waitQuietly();
+        }
         continue;
       } finally {
         interpreterProcess.releaseClient(client, broken);
       }
 
-      Gson gson = new Gson();
+      for (RemoteInterpreterEvent event : events) {
+        handleEvent(event);
+      }
+    }
+  }
 
-      AngularObjectRegistry angularObjectRegistry = interpreterGroup.getAngularObjectRegistry();
+  private void handleEvent(RemoteInterpreterEvent event) {
+    Gson gson = new Gson();
 
-      try {
-        if (event.getType() == RemoteInterpreterEventType.NO_OP) {
-          continue;
-        } else if (event.getType() == RemoteInterpreterEventType.ANGULAR_OBJECT_ADD) {
-          AngularObject angularObject = gson.fromJson(event.getData(), AngularObject.class);
-          angularObjectRegistry.add(angularObject.getName(),
-              angularObject.get(), angularObject.getNoteId(), angularObject.getParagraphId());
-        } else if (event.getType() == RemoteInterpreterEventType.ANGULAR_OBJECT_UPDATE) {
-          AngularObject angularObject = gson.fromJson(event.getData(),
-              AngularObject.class);
-          AngularObject localAngularObject = angularObjectRegistry.get(
-              angularObject.getName(), angularObject.getNoteId(), angularObject.getParagraphId());
-          if (localAngularObject instanceof RemoteAngularObject) {
-            // to avoid ping-pong loop
-            ((RemoteAngularObject) localAngularObject).set(
-                angularObject.get(), true, false);
-          } else {
-            localAngularObject.set(angularObject.get());
-          }
-        } else if (event.getType() == RemoteInterpreterEventType.ANGULAR_OBJECT_REMOVE) {
-          AngularObject angularObject = gson.fromJson(event.getData(), AngularObject.class);
-          angularObjectRegistry.remove(angularObject.getName(), angularObject.getNoteId(),
-                  angularObject.getParagraphId());
-        } else if (event.getType() == RemoteInterpreterEventType.RUN_INTERPRETER_CONTEXT_RUNNER) {
-          InterpreterContextRunner runnerFromRemote = gson.fromJson(
-              event.getData(), RemoteInterpreterContextRunner.class);
+    AngularObjectRegistry angularObjectRegistry = interpreterGroup.getAngularObjectRegistry();
+
+    try {
+      if (event.getType() == RemoteInterpreterEventType.NO_OP) {
+        return;
+      } else if (event.getType() == RemoteInterpreterEventType.ANGULAR_OBJECT_ADD) {
+        AngularObject angularObject = gson.fromJson(event.getData(), AngularObject.class);
+        angularObjectRegistry.add(angularObject.getName(),
+            angularObject.get(), angularObject.getNoteId(), angularObject.getParagraphId());
+      } else if (event.getType() == RemoteInterpreterEventType.ANGULAR_OBJECT_UPDATE) {
+        AngularObject angularObject = gson.fromJson(event.getData(),
+            AngularObject.class);
+        AngularObject localAngularObject = angularObjectRegistry.get(
+            angularObject.getName(), angularObject.getNoteId(), angularObject.getParagraphId());
+        if (localAngularObject instanceof RemoteAngularObject) {
+          // to avoid ping-pong loop
+          ((RemoteAngularObject) localAngularObject).set(
+              angularObject.get(), true, false);
+        } else {
+          localAngularObject.set(angularObject.get());
+        }
+      } else if (event.getType() == RemoteInterpreterEventType.ANGULAR_OBJECT_REMOVE) {
+        AngularObject angularObject = gson.fromJson(event.getData(), AngularObject.class);
+        angularObjectRegistry.remove(angularObject.getName(), angularObject.getNoteId(),
+                angularObject.getParagraphId());
+      } else if (event.getType() == RemoteInterpreterEventType.RUN_INTERPRETER_CONTEXT_RUNNER) {
+        InterpreterContextRunner runnerFromRemote = gson.fromJson(
+            event.getData(), RemoteInterpreterContextRunner.class);
 
-          interpreterProcess.getInterpreterContextRunnerPool().run(
-              runnerFromRemote.getNoteId(), runnerFromRemote.getParagraphId());
-        } else if (event.getType() == RemoteInterpreterEventType.RESOURCE_POOL_GET_ALL) {
-          ResourceSet resourceSet = getAllResourcePoolExcept();
-          sendResourcePoolResponseGetAll(resourceSet);
-        } else if (event.getType() == RemoteInterpreterEventType.RESOURCE_GET) {
-          String resourceIdString = event.getData();
-          ResourceId resourceId = gson.fromJson(resourceIdString, ResourceId.class);
-          logger.debug("RESOURCE_GET {} {}", resourceId.getResourcePoolId(), resourceId.getName());
-          Object o = getResource(resourceId);
-          sendResourceResponseGet(resourceId, o);
-        } else if (event.getType() == RemoteInterpreterEventType.OUTPUT_APPEND) {
-          // on output append
-          Map<String, String> outputAppend = gson.fromJson(
-                  event.getData(), new TypeToken<Map<String, String>>() {}.getType());
-          String noteId = outputAppend.get("noteId");
-          String paragraphId = outputAppend.get("paragraphId");
-          String outputToAppend = outputAppend.get("data");
+        interpreterProcess.getInterpreterContextRunnerPool().run(
+            runnerFromRemote.getNoteId(), runnerFromRemote.getParagraphId());
+      } else if (event.getType() == RemoteInterpreterEventType.RESOURCE_POOL_GET_ALL ||
+          event.getType() == RemoteInterpreterEventType.RESOURCE_GET ||
+          event.getType() == RemoteInterpreterEventType.RESOURCE_LOOKUP) {
+        // response is sent from another thread, not to block other events while transferring
+        final RemoteInterpreterEvent request = event;
+        ExecutorFactory.singleton().createOrGet(RESOURCE_REQUEST_EXECUTOR, 20).execute(
+            new Runnable() {
+              @Override
+              public void run() {
+                handleResourceRequest(request);
+              }
+            });
+      } else if (event.getType() == RemoteInterpreterEventType.OUTPUT_APPEND) {
+        // on output append
+        Map<String, String> outputAppend = gson.fromJson(
+                event.getData(), new TypeToken<Map<String, String>>() {}.getType());
+        String noteId = outputAppend.get("noteId");
+        String paragraphId = outputAppend.get("paragraphId");
+        String outputToAppend = outputAppend.get("data");
 
-          listener.onOutputAppend(noteId, paragraphId, outputToAppend);
-        } else if (event.getType() == RemoteInterpreterEventType.OUTPUT_UPDATE) {
-          // on output update
-          Map<String, String> outputAppend = gson.fromJson(
-                  event.getData(), new TypeToken<Map<String, String>>() {}.getType());
-          String noteId = outputAppend.get("noteId");
-          String paragraphId = outputAppend.get("paragraphId");
-          String outputToUpdate = outputAppend.get("data");
+        listener.onOutputAppend(noteId, paragraphId, outputToAppend);
+      } else if (event.getType() == RemoteInterpreterEventType.OUTPUT_UPDATE) {
+        // on output update
+        Map<String, String> outputAppend = gson.fromJson(
+                event.getData(), new TypeToken<Map<String, String>>() {}.getType());
+        String noteId = outputAppend.get("noteId");
+        String paragraphId = outputAppend.get("paragraphId");
+        String outputToUpdate = outputAppend.get("data");
 
-          listener.onOutputUpdated(noteId, paragraphId, outputToUpdate);
-        }
-        logger.debug("Event from remoteproceess {}", event.getType());
-      } catch (Exception e) {
-        logger.error("Can't handle event " + event, e);
+        listener.onOutputUpdated(noteId, paragraphId, outputToUpdate);
+      } else if (event.getType() == RemoteInterpreterEventType.INTERPRET_RESULT_READY) {
+        interpreterProcess.onInterpretResultReady(event.getData());
+      } else if (event.getType() == RemoteInterpreterEventType.JOB_STATUS_CHANGE) {
+        Map<String, String> jobStatus = gson.fromJson(
+            event.getData(), new TypeToken<Map<String, String>>() {}.getType());
+        interpreterProcess.onJobStatusChange(jobStatus.get("noteId"), jobStatus.get("jobId"),
+            Status.valueOf(jobStatus.get("status")));
+      } else if (event.getType() == RemoteInterpreterEventType.RESOURCE_POOL_ADD) {
+        ResourceDirectory.singleton().add(gson.fromJson(event.getData(), Resource.class));
+      } else if (event.getType() == RemoteInterpreterEventType.RESOURCE_POOL_REMOVE) {
+        ResourceDirectory.singleton().remove(gson.fromJson(event.getData(), ResourceId.class));
       }
+      logger.debug("Event from remoteproceess {}", event.getType());
+    } catch (Exception e) {
+      logger.error("Can't handle event " + event, e);
     }
   }
 
-  private void sendResourcePoolResponseGetAll(ResourceSet resourceSet) {
-    Client client = null;
-    boolean broken = false;
+  private void handleResourceRequest(RemoteInterpreterEvent event) {
+    String requestId = event.getRequestId();
+    if (requestId == null) {
+      logger.warn("Ignore {} without request id", event.getType());
+      return;
+    }
+
+    Gson gson = new Gson();
     try {
-      client = interpreterProcess.getClient();
-      List<String> resourceList = new LinkedList<String>();
-      Gson gson = new Gson();
-      for (Resource r : resourceSet) {
-        resourceList.add(gson.toJson(r));
+      if (event.getType() == RemoteInterpreterEventType.RESOURCE_POOL_GET_ALL) {
+        sendResourceResponse(requestId, getAllResourcePoolExcept());
+      } else if (event.getType() == RemoteInterpreterEventType.RESOURCE_GET) {
+        ResourceId resourceId = gson.fromJson(event.getData(), ResourceId.class);
+        logger.debug("RESOURCE_GET {} {}", resourceId.getResourcePoolId(), resourceId.getName());
+        sendResourceResponseGet(requestId, resourceId);
+      } else if (event.getType() == RemoteInterpreterEventType.RESOURCE_LOOKUP) {
+        Map<String, String> lookup = gson.fromJson(
+            event.getData(), new TypeToken<Map<String, String>>() {}.getType());
+        sendResourceResponse(requestId, lookupResources(
+            lookup.get("noteId"), lookup.get("paragraphId"), lookup.get("name")));
       }
-      client.resourcePoolResponseGetAll(resourceList);
     } catch (Exception e) {
-      logger.error(e.getMessage(), e);
-      broken = true;
-    } finally {
-      if (client != null) {
-        interpreterProcess.releaseClient(client, broken);
-      }
+      logger.error("Can't handle event " + event, e);
     }
   }
 
+  /**
+   * Resources of other interpreter processes are taken from ResourceDirectory,
+   * without asking each interpreter process.
+   */
   private ResourceSet getAllResourcePoolExcept() {
     ResourceSet resourceSet = new ResourceSet();
     for (InterpreterGroup intpGroup : InterpreterGroup.getAll()) {
@@ -188,51 +236,102 @@ public class RemoteInterpreterEventPoller extends Thread {
         continue;
       }
 
-      RemoteInterpreterProcess remoteInterpreterProcess = intpGroup.getRemoteInterpreterProcess();
-      if (remoteInterpreterProcess == null) {
+      if (intpGroup.getRemoteInterpreterProcess() == null) {
         ResourcePool localPool = intpGroup.getResourcePool();
         if (localPool != null) {
           resourceSet.addAll(localPool.getAll());
         }
-      } else if (interpreterProcess.isRunning()) {
-        Client client = null;
-        boolean broken = false;
-        try {
-          client = remoteInterpreterProcess.getClient();
-          List<String> resourceList = client.resourcePoolGetAll();
-          Gson gson = new Gson();
-          for (String res : resourceList) {
-            resourceSet.add(gson.fromJson(res, Resource.class));
-          }
-        } catch (Exception e) {
-          logger.error(e.getMessage(), e);
-          broken = true;
-        } finally {
-          if (client != null) {
-            intpGroup.getRemoteInterpreterProcess().releaseClient(client, broken);
-          }
-        }
       }
     }
+    resourceSet.addAll(ResourceDirectory.singleton().getAll(interpreterGroup.getId()));
     return resourceSet;
   }
 
+  private ResourceSet lookupResources(String noteId, String paragraphId, String name) {
+    ResourceSet resourceSet = new ResourceSet();
+    for (InterpreterGroup intpGroup : InterpreterGroup.getAll()) {
+      if (intpGroup.getId().equals(interpreterGroup.getId())) {
+        continue;
+      }
 
+      if (intpGroup.getRemoteInterpreterProcess() == null) {
+        ResourcePool localPool = intpGroup.getResourcePool();
+        if (localPool != null) {
+          Resource resource = noteId == null && paragraphId == null ?
+              localPool.get(name) : localPool.get(noteId, paragraphId, name);
+          if (resource != null) {
+            resourceSet.add(resource);
+          }
+        }
+      }
+    }
+    resourceSet.addAll(ResourceDirectory.singleton().lookup(
+        noteId, paragraphId, name, interpreterGroup.getId()));
+    return resourceSet;
+  }
 
-  private void sendResourceResponseGet(ResourceId resourceId, Object o) {
+  /**
+   * Send resources found, with location of interpreter processes holding them,
+   * so the interpreter process can read them directly.
+   */
+  private void sendResourceResponse(String requestId, ResourceSet resourceSet) {
     Client client = null;
     boolean broken = false;
     try {
       client = interpreterProcess.getClient();
+      List<String> resourceList = new LinkedList<String>();
+      Map<String, String> locations = new HashMap<String, String>();
       Gson gson = new Gson();
-      String rid = gson.toJson(resourceId);
-      ByteBuffer obj;
-      if (o == null) {
-        obj = ByteBuffer.allocate(0);
-      } else {
-        obj = Resource.serializeObject(o);
+      for (Resource r : resourceSet) {
+        resourceList.add(gson.toJson(r));
+        String resourcePoolId = r.getResourceId().getResourcePoolId();
+        InterpreterGroup intpGroup = InterpreterGroup.getByInterpreterGroupId(resourcePoolId);
+        RemoteInterpreterProcess process =
+            intpGroup == null ? null : intpGroup.getRemoteInterpreterProcess();
+        if (process != null && process.isRunning()) {
+          locations.put(resourcePoolId, gson.toJson(new ResourceLocation(
+              process.getHost(), process.getPort(), process.isFramedTransport())));
+        }
+      }
+      client.resourceResponseLookup(requestId, resourceList, locations);
+    } catch (Exception e) {
+      logger.error(e.getMessage(), e);
+      broken = true;
+    } finally {
+      if (client != null) {
+        interpreterProcess.releaseClient(client, broken);
+      }
+    }
+  }
+
+  /**
+   * Send the resource to the interpreter process in chunks.
+   * Resource of another interpreter process is relayed chunk by chunk, without deserializing it.
+   */
+  private void sendResourceResponseGet(final String requestId, ResourceId resourceId) {
+    Client client = null;
+    boolean broken = false;
+    try {
+      client = interpreterProcess.getClient();
+      final Client responseClient = client;
+      String error = null;
+      try {
+        sendResource(resourceId, new ChunkOutputStream(ChunkedResourceStream.DEFAULT_CHUNK_SIZE) {
+          @Override
+          protected void writeChunk(ByteBuffer chunk) throws IOException {
+            try {
+              responseClient.resourceResponseGetChunk(requestId, chunk, false, null);
+            } catch (TException e) {
+              throw new IOException(e);
+            }
+          }
+        });
+      } catch (Exception e) {
+        logger.error("Can't send resource " + resourceId.getName(), e);
+        error = "Can't send resource " + resourceId.getName() + ": " + e.getMessage();
       }
-      client.resourceResponseGet(rid, obj);
+      // the requesting process fails instead of reading a truncated resource, when error is set
+      client.resourceResponseGetChunk(requestId, ByteBuffer.allocate(0), true, error);
     } catch (Exception e) {
       logger.error(e.getMessage(), e);
       broken = true;
@@ -243,39 +342,54 @@ public class RemoteInterpreterEventPoller extends Thread {
     }
   }
 
-  private Object getResource(ResourceId resourceId) {
+  private void sendResource(ResourceId resourceId, ChunkOutputStream out) throws IOException {
     InterpreterGroup intpGroup = InterpreterGroup.getByInterpreterGroupId(
         resourceId.getResourcePoolId());
     if (intpGroup == null) {
-      return null;
+      return;
     }
     RemoteInterpreterProcess remoteInterpreterProcess = intpGroup.getRemoteInterpreterProcess();
     if (remoteInterpreterProcess == null) {
       ResourcePool localPool = intpGroup.getResourcePool();
       if (localPool != null) {
-        return localPool.get(resourceId.getName());
+        Resource resource = localPool.get(resourceId.getName());
+        if (resource != null && resource.isSerializable()) {
+          ResourceSerializers.singleton().serialize(resource.get(), out);
+          out.close();
+        }
       }
-    } else if (interpreterProcess.isRunning()) {
+    } else if (remoteInterpreterProcess.isRunning()) {
       Client client = null;
       boolean broken = false;
       try {
         client = remoteInterpreterProcess.getClient();
-        ByteBuffer res = client.resourceGet(
+      } catch (Exception e) {
+        throw new IOException(e);
+      }
+      try {
+        String streamId = client.resourceStreamOpen(
             resourceId.getNoteId(),
             resourceId.getParagraphId(),
             resourceId.getName());
-        Object o = Resource.deserializeObject(res);
-        return o;
-      } catch (Exception e) {
-        logger.error(e.getMessage(), e);
+        if (streamId.isEmpty()) {
+          return;
+        }
+        while (true) {
+          ByteBuffer chunk = client.resourceStreamRead(streamId);
+          if (!chunk.hasRemaining()) {
+            break;
+          }
+          out.transferChunk(chunk);
+        }
+      } catch (TException e) {
         broken = true;
+        throw new IOException(e);
       } finally {
         if (client != null) {
-          intpGroup.getRemoteInterpreterProcess().releaseClient(client, broken);
+          remoteInterpreterProcess.releaseClient(client, broken);
         }
       }
     }
-    return null;
   }
 
   private void waitQuietly() {
@@ -290,6 +404,9 @@ public class RemoteInterpreterEventPoller extends Thread {
 
   public void shutdown() {
     shutdown = true;
+    if (interpreterGroup != null) {
+      ResourceDirectory.singleton().removeResourcePool(interpreterGroup.getId());
+    }
     synchronized (this) {
       notify();
     }
@@ -21,17 +21,31 @@ import com.google.gson.Gson;
 import org.apache.commons.exec.*;
 import org.apache.commons.exec.environment.EnvironmentUtils;
 import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.apache.thrift.TException;
 import org.apache.zeppelin.interpreter.Constants;
 import org.apache.zeppelin.interpreter.InterpreterException;
 import org.apache.zeppelin.interpreter.InterpreterGroup;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterService.Client;
+import org.apache.zeppelin.scheduler.Job;
+import org.apache.zeppelin.scheduler.Job.Status;
+import org.apache.zeppelin.scheduler.JobListener;
+import org.apache.zeppelin.scheduler.JobProgressService;
+import org.apache.zeppelin.scheduler.JobProgressService.ProgressPrefetcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.Properties;
 
 /**
@@ -39,6 +53,8 @@ import java.util.Properties;
  */
 public class RemoteInterpreterProcess implements ExecuteResultHandler {
   private static final Logger logger = LoggerFactory.getLogger(RemoteInterpreterProcess.class);
+  // max time to wait for a client to fetch progress, when all clients are in use
+  private static final long PROGRESS_CLIENT_WAIT_MS = 1000;
   private final AtomicInteger referenceCount;
   private DefaultExecutor executor;
   private ExecuteWatchdog watchdog;
@@ -49,11 +65,41 @@ public class RemoteInterpreterProcess implements ExecuteResultHandler {
   private final String localRepoDir;
 
   private GenericObjectPool<Client> clientPool;
+  // max pool size set by interpreter setting. overrides setMaxPoolSize()
+  private boolean maxPoolSizeConfigured = false;
+  private final AtomicLong numInvalidatedClient = new AtomicLong();
   private Map<String, String> env;
   private final RemoteInterpreterEventPoller remoteInterpreterEventPoller;
   private final InterpreterContextRunnerPool interpreterContextRunnerPool;
+  // released when result of the submitted job is ready. key is job id
+  private final ConcurrentMap<String, CountDownLatch> interpretResultReady =
+      new ConcurrentHashMap<String, CountDownLatch>();
+  // listeners of jobs submitted to the interpreter process. key is noteId and job id
+  private final ConcurrentMap<String, RemoteJob> remoteJobs =
+      new ConcurrentHashMap<String, RemoteJob>();
+  // jobs submitted to the interpreter process, to fetch their progress in batch.
+  // key is paragraph id, value is job id
+  private final Map<String, String> progressJobs = new HashMap<String, String>();
+  // last fetched progress. key is paragraph id
+  private final ConcurrentMap<String, Integer> jobProgress =
+      new ConcurrentHashMap<String, Integer>();
+  private final ProgressPrefetcher progressPrefetcher = new ProgressPrefetcher() {
+    @Override
+    public boolean ownsJob(Job job) {
+      synchronized (progressJobs) {
+        return progressJobs.containsKey(job.getId());
+      }
+    }
+
+    @Override
+    public void prefetchProgress() {
+      fetchJobProgress();
+    }
+  };
   private int connectTimeout;
   String host = "localhost";
+  // thrift server of the process requires framed transport
+  private boolean framedTransport = false;
   boolean isInterpreterAlreadyExecuting = false;
 
   public RemoteInterpreterProcess(String intpRunner,
@@ -91,6 +137,14 @@ public class RemoteInterpreterProcess implements ExecuteResultHandler {
     return port;
   }
 
+  public String getHost() {
+    return host;
+  }
+
+  public boolean isFramedTransport() {
+    return framedTransport;
+  }
+
   public int reference(InterpreterGroup interpreterGroup) {
     synchronized (referenceCount) {
       if (executor == null) {
@@ -116,6 +170,13 @@ public class RemoteInterpreterProcess implements ExecuteResultHandler {
           running = true;
         }
 
+        Properties intpProperties = interpreterGroup.getProperty();
+        String thriftServer = intpProperties.getProperty(
+            Constants.ZEPPELIN_INTERPRETER_THRIFT_SERVER,
+            RemoteInterpreterServer.THRIFT_SERVER_THREADPOOL);
+        String selectorThreads = intpProperties.getProperty(
+            Constants.ZEPPELIN_INTERPRETER_THRIFT_SELECTOR_THREADS);
+
         if (!isInterpreterAlreadyExecuting) {
           try {
             port = RemoteInterpreterUtils.findRandomAvailablePortOnAllLocalInterfaces();
@@ -139,6 +200,10 @@ public class RemoteInterpreterProcess implements ExecuteResultHandler {
           try {
             Map procEnv = EnvironmentUtils.getProcEnvironment();
             procEnv.putAll(env);
+            procEnv.put(RemoteInterpreterServer.ENV_THRIFT_SERVER, thriftServer);
+            if (selectorThreads != null) {
+              procEnv.put(RemoteInterpreterServer.ENV_THRIFT_SELECTOR_THREADS, selectorThreads);
+            }
 
             logger.info("Run interpreter process {}", cmdLine);
             executor.execute(cmdLine, procEnv, this);
@@ -167,7 +232,12 @@ public class RemoteInterpreterProcess implements ExecuteResultHandler {
           }
         }
 
-        clientPool = new GenericObjectPool<Client>(new ClientFactory(host, port));
+        framedTransport = RemoteInterpreterServer.THRIFT_SERVER_SELECTOR.equals(thriftServer);
+        clientPool = new GenericObjectPool<Client>(new ClientFactory(host, port, framedTransport),
+            createClientPoolConfig(intpProperties));
+        maxPoolSizeConfigured =
+            intpProperties.containsKey(Constants.ZEPPELIN_INTERPRETER_CLIENT_POOL_MAX);
+        prepareClientPool();
 
         remoteInterpreterEventPoller.setInterpreterGroup(interpreterGroup);
         remoteInterpreterEventPoller.setInterpreterProcess(this);
@@ -184,6 +254,16 @@ public class RemoteInterpreterProcess implements ExecuteResultHandler {
     return clientPool.borrowObject();
   }
 
+  /**
+   * @param maxWaitMs max time to wait for a client when all clients are in use
+   */
+  Client getClient(long maxWaitMs) throws Exception {
+    if (clientPool == null || clientPool.isClosed()) {
+      return null;
+    }
+    return clientPool.borrowObject(maxWaitMs);
+  }
+
   public void releaseClient(Client client) {
     releaseClient(client, false);
   }
@@ -201,6 +281,7 @@ public class RemoteInterpreterProcess implements ExecuteResultHandler {
   }
 
   public void releaseBrokenClient(Client client) {
+    numInvalidatedClient.incrementAndGet();
     try {
       clientPool.invalidateObject(client);
     } catch (Exception e) {
@@ -305,12 +386,77 @@ public class RemoteInterpreterProcess implements ExecuteResultHandler {
   }
 
   public void setMaxPoolSize(int size) {
-    if (clientPool != null) {
+    if (clientPool != null && !maxPoolSizeConfigured) {
       //Size + 2 for progress poller , cancel operation
       clientPool.setMaxTotal(size + 2);
     }
   }
 
+  /**
+   * @return statistics of the thrift client pool. null if the process is not started
+   */
+  public ClientPoolStats getClientPoolStats() {
+    GenericObjectPool<Client> pool = clientPool;
+    if (pool == null) {
+      return null;
+    }
+    return new ClientPoolStats(pool, numInvalidatedClient.get());
+  }
+
+  static GenericObjectPoolConfig createClientPoolConfig(Properties properties) {
+    GenericObjectPoolConfig config = new GenericObjectPoolConfig();
+    config.setMaxTotal(getIntProperty(properties,
+        Constants.ZEPPELIN_INTERPRETER_CLIENT_POOL_MAX, config.getMaxTotal()));
+    config.setMaxIdle(getIntProperty(properties,
+        Constants.ZEPPELIN_INTERPRETER_CLIENT_POOL_MAX_IDLE, config.getMaxIdle()));
+    config.setMinIdle(getIntProperty(properties,
+        Constants.ZEPPELIN_INTERPRETER_CLIENT_POOL_MIN_IDLE, config.getMinIdle()));
+    config.setMaxWaitMillis(getIntProperty(properties,
+        Constants.ZEPPELIN_INTERPRETER_CLIENT_POOL_MAX_WAIT, (int) config.getMaxWaitMillis()));
+
+    int idleTimeout = getIntProperty(properties,
+        Constants.ZEPPELIN_INTERPRETER_CLIENT_POOL_IDLE_TIMEOUT, -1);
+    if (idleTimeout > 0) {
+      // evictor also keeps min idle connections
+      config.setMinEvictableIdleTimeMillis(idleTimeout);
+      config.setTimeBetweenEvictionRunsMillis(idleTimeout);
+    }
+
+    boolean validate = Boolean.parseBoolean(properties.getProperty(
+        Constants.ZEPPELIN_INTERPRETER_CLIENT_POOL_VALIDATE, "false"));
+    config.setTestOnBorrow(validate);
+    config.setTestWhileIdle(validate);
+    return config;
+  }
+
+  private static int getIntProperty(Properties properties, String key, int defaultValue) {
+    String value = properties.getProperty(key);
+    if (value == null || value.trim().isEmpty()) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      logger.warn("Invalid value {} of {}. Use {}", value, key, defaultValue);
+      return defaultValue;
+    }
+  }
+
+  /**
+   * Open min idle connections in advance, so first paragraphs do not wait for connecting.
+   */
+  private void prepareClientPool() {
+    int numToCreate = clientPool.getMinIdle() - clientPool.getNumIdle();
+    for (int i = 0; i < numToCreate; i++) {
+      try {
+        clientPool.addObject();
+      } catch (Exception e) {
+        logger.warn("Can't open connection to interpreter process", e);
+        break;
+      }
+    }
+  }
+
   public int getMaxPoolSize() {
     if (clientPool != null) {
       return clientPool.getMaxTotal();
@@ -358,4 +504,181 @@ public class RemoteInterpreterProcess implements ExecuteResultHandler {
   public InterpreterContextRunnerPool getInterpreterContextRunnerPool() {
     return interpreterContextRunnerPool;
   }
+
+  /**
+   * Start tracking a submitted job, before its result is checked for the first time.
+   */
+  void addInterpretResultReady(String jobId) {
+    interpretResultReady.put(jobId, new CountDownLatch(1));
+  }
+
+  /**
+   * Called by RemoteInterpreterEventPoller when the result of a submitted job is ready.
+   * Jobs no one waits for any more are ignored.
+   */
+  void onInterpretResultReady(String jobId) {
+    CountDownLatch latch = interpretResultReady.get(jobId);
+    if (latch != null) {
+      latch.countDown();
+    }
+  }
+
+  /**
+   * Wait for the result of a submitted job to be ready, without holding a client.
+   * @return true if the result is ready. false on timeout
+   */
+  boolean waitInterpretResultReady(String jobId, long timeoutMs) throws InterruptedException {
+    CountDownLatch latch = interpretResultReady.get(jobId);
+    if (latch == null) {
+      throw new IllegalStateException("Job " + jobId + " is not tracked");
+    }
+    return latch.await(timeoutMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stop tracking the submitted job after its result is taken.
+   */
+  void removeInterpretResultReady(String jobId) {
+    interpretResultReady.remove(jobId);
+  }
+
+  /**
+   * Listen to status changes of the job in the interpreter process, pushed through events.
+   * @param noteId noteId the job is submitted with
+   */
+  public void addJobStatusListener(String noteId, Job job, RemoteJobListener listener) {
+    remoteJobs.put(remoteJobKey(noteId, job.getId()), new RemoteJob(job, listener));
+  }
+
+  public void removeJobStatusListener(String noteId, Job job) {
+    remoteJobs.remove(remoteJobKey(noteId, job.getId()));
+  }
+
+  /**
+   * Called by RemoteInterpreterEventPoller when status of a job is changed in the process.
+   */
+  void onJobStatusChange(String noteId, String jobId, Status status) {
+    RemoteJob remoteJob = remoteJobs.get(remoteJobKey(noteId, jobId));
+    if (remoteJob != null) {
+      remoteJob.listener.afterStatusChange(remoteJob.job, null, status);
+    }
+  }
+
+  /**
+   * Called by RemoteInterpreter in the thread running the job, when its result is taken.
+   */
+  void onResultTaken(String noteId, String jobId) throws InterruptedException {
+    RemoteJob remoteJob = remoteJobs.get(remoteJobKey(noteId, jobId));
+    if (remoteJob != null) {
+      remoteJob.listener.onResultTaken(remoteJob.job);
+    }
+  }
+
+  private String remoteJobKey(String noteId, String jobId) {
+    return noteId + "/" + jobId;
+  }
+
+  /**
+   * Fetch progress of the job together with other running jobs of this process,
+   * once per tick of JobProgressService, until removeProgressJob() is called.
+   * @param paragraphId paragraph the job is submitted for
+   * @param jobId id returned by submit()
+   */
+  public void addProgressJob(String paragraphId, String jobId) {
+    synchronized (progressJobs) {
+      if (progressJobs.isEmpty()) {
+        JobProgressService.singleton().addPrefetcher(progressPrefetcher);
+      }
+      progressJobs.put(paragraphId, jobId);
+    }
+  }
+
+  public void removeProgressJob(String paragraphId) {
+    synchronized (progressJobs) {
+      progressJobs.remove(paragraphId);
+      jobProgress.remove(paragraphId);
+      if (progressJobs.isEmpty()) {
+        JobProgressService.singleton().removePrefetcher(progressPrefetcher);
+      }
+    }
+  }
+
+  /**
+   * @return last fetched progress of the paragraph. null if no job is submitted for it
+   */
+  public Integer getProgress(String paragraphId) {
+    synchronized (progressJobs) {
+      if (!progressJobs.containsKey(paragraphId)) {
+        return null;
+      }
+    }
+    Integer progress = jobProgress.get(paragraphId);
+    return progress == null ? 0 : progress;
+  }
+
+  void fetchJobProgress() {
+    Map<String, String> jobs;
+    synchronized (progressJobs) {
+      jobs = new HashMap<String, String>(progressJobs);
+    }
+    if (jobs.isEmpty() || !isRunning()) {
+      return;
+    }
+
+    Client client;
+    try {
+      // do not wait long for a client while all of them are busy, progress is fetched again
+      client = getClient(PROGRESS_CLIENT_WAIT_MS);
+    } catch (Exception e) {
+      logger.error("Can't get progress of running jobs", e);
+      return;
+    }
+    if (client == null) {
+      return;
+    }
+
+    boolean broken = false;
+    Map<String, Integer> progress;
+    try {
+      List<String> jobIds = new LinkedList<String>(jobs.values());
+      progress = client.getProgressBatch(jobIds);
+    } catch (TException e) {
+      broken = true;
+      logger.error("Can't get progress of running jobs", e);
+      return;
+    } finally {
+      releaseClient(client, broken);
+    }
+
+    synchronized (progressJobs) {
+      for (Map.Entry<String, String> job : jobs.entrySet()) {
+        Integer p = progress.get(job.getValue());
+        // skip jobs finished while fetching
+        if (p != null && job.getValue().equals(progressJobs.get(job.getKey()))) {
+          jobProgress.put(job.getKey(), p);
+        }
+      }
+    }
+  }
+
+  /**
+   * Listens to a job running in the interpreter process.
+   */
+  public interface RemoteJobListener extends JobListener {
+    /**
+     * Called in the thread running the job, after the result of the job is taken from the
+     * process and before interpret() returns it.
+     */
+    void onResultTaken(Job job) throws InterruptedException;
+  }
+
+  private static class RemoteJob {
+    final Job job;
+    final RemoteJobListener listener;
+
+    RemoteJob(Job job, RemoteJobListener listener) {
+      this.job = job;
+      this.listener = listener;
+    }
+  }
 }
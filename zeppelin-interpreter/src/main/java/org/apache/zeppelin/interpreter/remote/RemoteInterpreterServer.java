@@ -19,14 +19,28 @@ package org.apache.zeppelin.interpreter.remote;
 
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.thrift.TException;
+import org.apache.thrift.server.TServer;
 import org.apache.thrift.server.TThreadPoolServer;
+import org.apache.thrift.server.TThreadedSelectorServer;
+import org.apache.thrift.transport.TNonblockingServerSocket;
 import org.apache.thrift.transport.TServerSocket;
 import org.apache.thrift.transport.TTransportException;
 import org.apache.zeppelin.display.*;
@@ -37,10 +51,10 @@ import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterEvent;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterResult;
 import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterService;
 import org.apache.zeppelin.resource.*;
+import org.apache.zeppelin.scheduler.ExecutorFactory;
 import org.apache.zeppelin.scheduler.Job;
 import org.apache.zeppelin.scheduler.Job.Status;
 import org.apache.zeppelin.scheduler.JobListener;
-import org.apache.zeppelin.scheduler.JobProgressPoller;
 import org.apache.zeppelin.scheduler.Scheduler;
 import org.apache.zeppelin.user.AuthenticationInfo;
 import org.slf4j.Logger;
@@ -57,6 +71,22 @@ public class RemoteInterpreterServer
   extends Thread
   implements RemoteInterpreterService.Iface, AngularObjectRegistryListener {
   Logger logger = LoggerFactory.getLogger(RemoteInterpreterServer.class);
+  // values of Constants.ZEPPELIN_INTERPRETER_THRIFT_SERVER
+  public static final String THRIFT_SERVER_THREADPOOL = "threadpool";
+  public static final String THRIFT_SERVER_SELECTOR = "selector";
+  // environment variables passing thrift server options to the interpreter process
+  static final String ENV_THRIFT_SERVER = "ZEPPELIN_INTERPRETER_THRIFT_SERVER";
+  static final String ENV_THRIFT_SELECTOR_THREADS = "ZEPPELIN_INTERPRETER_THRIFT_SELECTOR_THREADS";
+  // max size of a frame the framed clients read.
+  // results are bounded by the output limit, which is kept below a half of it
+  public static final int MAX_FRAME_LENGTH = 256 * 1024 * 1024;
+  // max bytes the selector server buffers for requests of all connections.
+  // requests are small, resources come in chunks of ChunkedResourceStream.
+  // a larger request closes its connection, others wait until buffers are freed
+  static final long SELECTOR_MAX_READ_BUFFER_BYTES = 64 * 1024 * 1024;
+  // number of threads the selector server keeps for running calls
+  static final int SELECTOR_WORKER_THREADS = 64;
+  private static final long SELECTOR_WORKER_KEEP_ALIVE_MS = 60 * 1000;
 
   InterpreterGroup interpreterGroup;
   AngularObjectRegistry angularObjectRegistry;
@@ -66,17 +96,87 @@ public class RemoteInterpreterServer
   RemoteInterpreterService.Processor<RemoteInterpreterServer> processor;
   RemoteInterpreterServer handler;
   private int port;
-  private TThreadPoolServer server;
+  private TServer server;
+  private ExecutorService workerExecutor;
 
   RemoteInterpreterEventClient eventClient = new RemoteInterpreterEventClient();
+  private volatile int outputLimit = InterpreterOutput.DEFAULT_LIMIT;
+
+  // result of a terminated job is dropped when it's not taken within this time
+  public static final long DEFAULT_RESULT_EXPIRE_MS = 10 * 60 * 1000;
+  // result of a cancelled job is dropped sooner, once the client had time to take the abort
+  static final long CANCELLED_RESULT_EXPIRE_MS = 10 * 1000;
+  private static final long RESULT_EXPIRE_CHECK_MS = 10 * 1000;
+
+  // jobs submitted and their result not taken yet
+  private final Map<String, InterpretJob> submittedJobs =
+      new ConcurrentHashMap<String, InterpretJob>();
+  private final AtomicLong submitSeq = new AtomicLong();
+  private volatile long resultExpireMs = DEFAULT_RESULT_EXPIRE_MS;
+  private final ScheduledExecutorService resultExpireExecutor;
+
+  // resource streams opened and not read to the end yet
+  private final Map<String, ChunkedResourceStream> resourceStreams =
+      new ConcurrentHashMap<String, ChunkedResourceStream>();
+  private final AtomicLong resourceStreamSeq = new AtomicLong();
+  private volatile long resourceStreamTimeoutMs = ChunkedResourceStream.DEFAULT_TIMEOUT_MSEC;
 
   public RemoteInterpreterServer(int port) throws TTransportException {
+    this(port, THRIFT_SERVER_THREADPOOL, 0);
+  }
+
+  /**
+   * @param thriftServer THRIFT_SERVER_THREADPOOL or THRIFT_SERVER_SELECTOR
+   * @param selectorThreads number of selector threads. 0 for default
+   */
+  public RemoteInterpreterServer(int port, String thriftServer, int selectorThreads)
+      throws TTransportException {
     this.port = port;
 
+    // drop results and resource streams that nobody takes, e.g. when ZeppelinServer gave up
+    // waiting or restarted
+    resultExpireExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread t = new Thread(r, "RemoteInterpreterServer-resultExpire");
+        t.setDaemon(true);
+        return t;
+      }
+    });
+    resultExpireExecutor.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        expireResults();
+        expireResourceStreams();
+      }
+    }, RESULT_EXPIRE_CHECK_MS, RESULT_EXPIRE_CHECK_MS, TimeUnit.MILLISECONDS);
+
     processor = new RemoteInterpreterService.Processor<RemoteInterpreterServer>(this);
-    TServerSocket serverTransport = new TServerSocket(port);
-    server = new TThreadPoolServer(
-        new TThreadPoolServer.Args(serverTransport).processor(processor));
+    if (THRIFT_SERVER_SELECTOR.equals(thriftServer)) {
+      TNonblockingServerSocket serverTransport = new TNonblockingServerSocket(port);
+      TThreadedSelectorServer.Args args = new TThreadedSelectorServer.Args(serverTransport)
+          .processor(processor);
+      if (selectorThreads > 0) {
+        args.selectorThreads(selectorThreads);
+      }
+      args.maxReadBufferBytes = SELECTOR_MAX_READ_BUFFER_BYTES;
+      // calls like getEvents() and resourceStreamRead() block for a while, so calls are never
+      // queued behind them. a call gets an idle worker thread or a new one, like each connection
+      // gets its own thread on the threadpool server. running calls are bounded by the number of
+      // connections of the client pool, and idle threads exit
+      ThreadPoolExecutor executor = new ThreadPoolExecutor(
+          SELECTOR_WORKER_THREADS, Integer.MAX_VALUE,
+          SELECTOR_WORKER_KEEP_ALIVE_MS, TimeUnit.MILLISECONDS,
+          new SynchronousQueue<Runnable>());
+      executor.allowCoreThreadTimeOut(true);
+      workerExecutor = executor;
+      args.executorService(workerExecutor);
+      server = new TThreadedSelectorServer(args);
+    } else {
+      TServerSocket serverTransport = new TServerSocket(port);
+      server = new TThreadPoolServer(
+          new TThreadPoolServer.Args(serverTransport).processor(processor));
+    }
   }
 
   @Override
@@ -92,7 +192,12 @@ public class RemoteInterpreterServer
       interpreterGroup.destroy();
     }
 
+    eventClient.close();
+    resultExpireExecutor.shutdownNow();
     server.stop();
+    if (workerExecutor != null) {
+      workerExecutor.shutdownNow();
+    }
 
     // server.stop() does not always finish server.serve() loop
     // sometimes server.serve() is hanging even after server.stop() call.
@@ -128,7 +233,11 @@ public class RemoteInterpreterServer
   public static void main(String[] args)
       throws TTransportException, InterruptedException {
     int port = Integer.parseInt(args[0]);
-    RemoteInterpreterServer remoteInterpreterServer = new RemoteInterpreterServer(port);
+    String thriftServer = System.getenv(ENV_THRIFT_SERVER);
+    String selectorThreads = System.getenv(ENV_THRIFT_SELECTOR_THREADS);
+    RemoteInterpreterServer remoteInterpreterServer = new RemoteInterpreterServer(port,
+        thriftServer,
+        selectorThreads == null ? 0 : Integer.parseInt(selectorThreads));
     remoteInterpreterServer.start();
     remoteInterpreterServer.join();
     System.exit(0);
@@ -143,10 +252,15 @@ public class RemoteInterpreterServer
       interpreterGroup = new InterpreterGroup(interpreterGroupId);
       angularObjectRegistry = new AngularObjectRegistry(interpreterGroup.getId(), this);
       resourcePool = new DistributedResourcePool(interpreterGroup.getId(), eventClient);
+      resourcePool.setResourcePoolListener(eventClient);
       interpreterGroup.setAngularObjectRegistry(angularObjectRegistry);
       interpreterGroup.setResourcePool(resourcePool);
     }
 
+    configureOutputAppendCoalescing(properties);
+    configureOutputLimit(properties);
+    configureResourceRequestTimeout(properties);
+
     try {
       Class<Interpreter> replClass = (Class<Interpreter>) Object.class.forName(className);
       Properties p = new Properties();
@@ -180,6 +294,57 @@ public class RemoteInterpreterServer
     }
   }
 
+  private void configureOutputAppendCoalescing(Map<String, String> properties) {
+    String window = properties.get(Constants.ZEPPELIN_INTERPRETER_OUTPUT_APPEND_WINDOW);
+    String maxSize = properties.get(Constants.ZEPPELIN_INTERPRETER_OUTPUT_APPEND_MAX_SIZE);
+    if (window == null && maxSize == null) {
+      return;
+    }
+
+    try {
+      eventClient.setOutputAppendCoalescing(
+          window == null ?
+              RemoteInterpreterEventClient.DEFAULT_OUTPUT_APPEND_WINDOW_MS :
+              Long.parseLong(window.trim()),
+          maxSize == null ?
+              RemoteInterpreterEventClient.DEFAULT_OUTPUT_APPEND_MAX_SIZE :
+              Integer.parseInt(maxSize.trim()));
+    } catch (NumberFormatException e) {
+      logger.error("Invalid output append coalescing configuration", e);
+    }
+  }
+
+  private void configureOutputLimit(Map<String, String> properties) {
+    String limit = properties.get(Constants.ZEPPELIN_INTERPRETER_OUTPUT_LIMIT);
+    if (limit == null) {
+      return;
+    }
+
+    try {
+      int value = Integer.parseInt(limit.trim());
+      if (value > MAX_FRAME_LENGTH / 2) {
+        logger.warn("Output limit {} is larger than the max, use {}", value, MAX_FRAME_LENGTH / 2);
+        value = MAX_FRAME_LENGTH / 2;
+      }
+      outputLimit = value;
+    } catch (NumberFormatException e) {
+      logger.error("Invalid output limit configuration", e);
+    }
+  }
+
+  private void configureResourceRequestTimeout(Map<String, String> properties) {
+    String timeout = properties.get(Constants.ZEPPELIN_INTERPRETER_RESOURCE_REQUEST_TIMEOUT);
+    if (timeout == null) {
+      return;
+    }
+
+    try {
+      eventClient.setRequestTimeout(Long.parseLong(timeout.trim()));
+    } catch (NumberFormatException e) {
+      logger.error("Invalid resource request timeout configuration", e);
+    }
+  }
+
   private void setSystemProperty(Properties properties) {
     for (Object key : properties.keySet()) {
       if (!RemoteInterpreter.isEnvString((String) key)) {
@@ -242,33 +407,80 @@ public class RemoteInterpreterServer
   @Override
   public RemoteInterpreterResult interpret(String noteId, String className, String st,
       RemoteInterpreterContext interpreterContext) throws TException {
+    String jobId = submit(noteId, className, st, interpreterContext);
+
+    List<RemoteInterpreterResult> result;
+    do {
+      result = awaitResult(jobId, 1000);
+    } while (result.isEmpty());
+    return result.get(0);
+  }
+
+  /**
+   * Submit a paragraph to the scheduler of the interpreter and return without waiting.
+   * INTERPRET_RESULT_READY event is sent when the result can be taken by awaitResult().
+   * @return id of the submitted job
+   */
+  @Override
+  public String submit(String noteId, String className, String st,
+      RemoteInterpreterContext interpreterContext) throws TException {
     logger.debug("st: {}", st);
     Interpreter intp = getInterpreter(noteId, className);
     InterpreterContext context = convert(interpreterContext);
 
+    String jobId = interpreterContext.getParagraphId() + "_" + submitSeq.incrementAndGet();
     Scheduler scheduler = intp.getScheduler();
-    InterpretJobListener jobListener = new InterpretJobListener();
+    InterpretJobListener jobListener = new InterpretJobListener(noteId, jobId);
     InterpretJob job = new InterpretJob(
         interpreterContext.getParagraphId(),
         "remoteInterpretJob_" + System.currentTimeMillis(),
         jobListener,
-        JobProgressPoller.DEFAULT_INTERVAL_MSEC,
+        // progress is pulled by the client through getProgressBatch()
+        -1,
         intp,
         st,
         context);
 
+    submittedJobs.put(jobId, job);
     scheduler.submit(job);
+    return jobId;
+  }
+
+  /**
+   * Wait for the result of a submitted job. The job is forgotten once its result is returned.
+   * @param jobId id returned by submit()
+   * @param timeoutMs maximum time to wait for the job to finish
+   * @return result of the job. empty list when the job is not finished within timeoutMs
+   */
+  @Override
+  public List<RemoteInterpreterResult> awaitResult(String jobId, int timeoutMs)
+      throws TException {
+    InterpretJob job = submittedJobs.get(jobId);
+    if (job == null) {
+      return Arrays.asList(convert(
+          new InterpreterResult(Code.ERROR, "Unknown job " + jobId),
+          new HashMap<String, Object>(), new GUI()));
+    }
 
-    while (!job.isTerminated()) {
-      synchronized (jobListener) {
+    JobListener jobListener = job.getListener();
+    long deadline = System.currentTimeMillis() + timeoutMs;
+    synchronized (jobListener) {
+      long waitMs;
+      while (!job.isTerminated() && (waitMs = deadline - System.currentTimeMillis()) > 0) {
         try {
-          jobListener.wait(1000);
+          jobListener.wait(waitMs);
         } catch (InterruptedException e) {
-          logger.info("Exception in RemoteInterpreterServer while interpret, jobListener.wait", e);
+          logger.info("Exception in RemoteInterpreterServer while awaitResult, " +
+              "jobListener.wait", e);
+          break;
         }
       }
     }
 
+    if (!job.isTerminated() || submittedJobs.remove(jobId) == null) {
+      return new LinkedList<>();
+    }
+
     InterpreterResult result;
     if (job.getStatus() == Status.ERROR) {
       result = new InterpreterResult(Code.ERROR, Job.getStack(job.getException()));
@@ -280,13 +492,77 @@ public class RemoteInterpreterServer
         result = new InterpreterResult(Code.KEEP_PREVIOUS_RESULT);
       }
     }
-    return convert(result,
-        context.getConfig(),
-        context.getGui());
+    return Arrays.asList(convert(result,
+        job.context.getConfig(),
+        job.context.getGui()));
+  }
+
+
+  void setResultExpireMs(long resultExpireMs) {
+    this.resultExpireMs = resultExpireMs;
+  }
+
+  int getNumSubmittedJobs() {
+    return submittedJobs.size();
+  }
+
+  /**
+   * Forget terminated jobs whose result is not taken in time.
+   */
+  void expireResults() {
+    long now = System.currentTimeMillis();
+    Iterator<Map.Entry<String, InterpretJob>> it = submittedJobs.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<String, InterpretJob> entry = it.next();
+      InterpretJob job = entry.getValue();
+      long terminatedTime = job.terminatedTime;
+      if (terminatedTime == 0) {
+        continue;
+      }
+
+      long expireMs = job.cancelled ?
+          Math.min(resultExpireMs, CANCELLED_RESULT_EXPIRE_MS) : resultExpireMs;
+      if (now - terminatedTime >= expireMs) {
+        logger.warn("Result of job {} is not taken in {} ms. Drop", entry.getKey(), expireMs);
+        it.remove();
+      }
+    }
   }
 
+  void setResourceStreamTimeoutMs(long resourceStreamTimeoutMs) {
+    this.resourceStreamTimeoutMs = resourceStreamTimeoutMs;
+  }
+
+  int getNumResourceStreams() {
+    return resourceStreams.size();
+  }
+
+  /**
+   * Drop resource streams not read for longer than their timeout, e.g. when the reader gave up
+   * after the writer wrote the last chunks.
+   */
+  void expireResourceStreams() {
+    long now = System.currentTimeMillis();
+    Iterator<Map.Entry<String, ChunkedResourceStream>> it =
+        resourceStreams.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<String, ChunkedResourceStream> entry = it.next();
+      if (entry.getValue().isExpired(now)) {
+        logger.warn("Resource stream {} is not read in time. Drop", entry.getKey());
+        it.remove();
+        entry.getValue().close();
+      }
+    }
+  }
 
   class InterpretJobListener implements JobListener {
+    private final String noteId;
+    private final String submittedJobId;
+
+    InterpretJobListener(String noteId, String submittedJobId) {
+      this.noteId = noteId;
+      this.submittedJobId = submittedJobId;
+    }
 
     @Override
     public void onProgressUpdate(Job job, int progress) {
@@ -298,9 +574,17 @@ public class RemoteInterpreterServer
 
     @Override
     public void afterStatusChange(Job job, Status before, Status after) {
+      if (job.isTerminated()) {
+        ((InterpretJob) job).terminatedTime = System.currentTimeMillis();
+      }
       synchronized (this) {
         notifyAll();
       }
+      // RemoteScheduler in ZeppelinServer follows the status
+      eventClient.onJobStatusChange(noteId, job.getId(), after.name());
+      if (job.isTerminated()) {
+        eventClient.onInterpretResultReady(submittedJobId);
+      }
     }
   }
 
@@ -310,6 +594,9 @@ public class RemoteInterpreterServer
     private String script;
     private InterpreterContext context;
     private Map<String, Object> infos;
+    // when the job is terminated. 0 while it's not terminated
+    volatile long terminatedTime;
+    volatile boolean cancelled;
 
     public InterpretJob(
         String jobId,
@@ -323,6 +610,9 @@ public class RemoteInterpreterServer
       this.interpreter = interpreter;
       this.script = script;
       this.context = context;
+      if (context.getAuthenticationInfo() != null) {
+        setShare(context.getAuthenticationInfo().getUser());
+      }
     }
 
     @Override
@@ -348,18 +638,35 @@ public class RemoteInterpreterServer
         String message = "";
 
         context.out.flush();
+        // deliver output still waiting in the coalescing window before the result
+        eventClient.flushOutputAppend(context.getNoteId(), context.getParagraphId());
         InterpreterResult.Type outputType = context.out.getType();
         byte[] interpreterOutput = context.out.toByteArray();
+        ColumnarTable outputTable = context.out.getTable();
         context.out.clear();
 
         if (interpreterOutput != null && interpreterOutput.length > 0) {
-          message = new String(interpreterOutput);
+          message = new String(interpreterOutput, StandardCharsets.UTF_8);
         }
 
+        // context.out has a table only when nothing else follows it
         String interpreterResultMessage = result.message();
-
+        boolean emptyResult = interpreterResultMessage == null
+            || interpreterResultMessage.isEmpty();
         InterpreterResult combinedResult;
-        if (interpreterResultMessage != null && !interpreterResultMessage.isEmpty()) {
+        if (outputTable != null && emptyResult) {
+          // table shown by the interpreter, e.g. z.show()
+          combinedResult = InterpreterResult.fromTable(result.code(), outputTable);
+        } else if (result.table() != null && message.isEmpty()) {
+          combinedResult = result;
+        } else if (outputTable != null || result.table() != null) {
+          // a table with other output. keep all of it, tables as text
+          if (outputTable != null) {
+            message += outputTable.toText();
+          }
+          combinedResult = new InterpreterResult(result.code(), InterpreterResult.Type.TEXT,
+              message + interpreterResultMessage);
+        } else if (!emptyResult) {
           message += interpreterResultMessage;
           combinedResult = new InterpreterResult(result.code(), result.type(), message);
         } else {
@@ -391,6 +698,12 @@ public class RemoteInterpreterServer
     logger.info("cancel {} {}", className, interpreterContext.getParagraphId());
     Interpreter intp = getInterpreter(noteId, className);
     String jobId = interpreterContext.getParagraphId();
+    // result of the cancelled jobs is dropped shortly after they terminate
+    for (InterpretJob submitted : submittedJobs.values()) {
+      if (submitted.getId().equals(jobId)) {
+        submitted.cancelled = true;
+      }
+    }
     Job job = intp.getScheduler().removeFromWaitingQueue(jobId);
 
     if (job != null) {
@@ -448,17 +761,21 @@ public class RemoteInterpreterServer
 
 
   private InterpreterOutput createInterpreterOutput(final String noteId, final String paragraphId) {
-    return new InterpreterOutput(new InterpreterOutputListener() {
+    InterpreterOutput output = new InterpreterOutput(new InterpreterOutputListener() {
       @Override
       public void onAppend(InterpreterOutput out, byte[] line) {
-        eventClient.onInterpreterOutputAppend(noteId, paragraphId, new String(line));
+        eventClient.onInterpreterOutputAppend(noteId, paragraphId,
+            new String(line, StandardCharsets.UTF_8));
       }
 
       @Override
       public void onUpdate(InterpreterOutput out, byte[] output) {
-        eventClient.onInterpreterOutputUpdate(noteId, paragraphId, new String(output));
+        eventClient.onInterpreterOutputUpdate(noteId, paragraphId,
+            new String(output, StandardCharsets.UTF_8));
       }
     });
+    output.setLimit(outputLimit);
+    return output;
   }
 
 
@@ -479,6 +796,17 @@ public class RemoteInterpreterServer
 
   private RemoteInterpreterResult convert(InterpreterResult result,
       Map<String, Object> config, GUI gui) {
+    if (result.table() != null) {
+      // send the table as bytes, not as its text
+      RemoteInterpreterResult remoteResult = new RemoteInterpreterResult(
+          result.code().name(),
+          result.type().name(),
+          "",
+          gson.toJson(config),
+          gson.toJson(gui));
+      remoteResult.setTable(result.table().toBytes());
+      return remoteResult;
+    }
     return new RemoteInterpreterResult(
         result.code().name(),
         result.type().name(),
@@ -545,6 +873,18 @@ public class RemoteInterpreterServer
     return eventClient.pollEvent();
   }
 
+  /**
+   * Poll a batch of events from RemoteInterpreterEventPoller
+   * @param maxBatch maximum number of events to return
+   * @param maxWaitMs maximum time to wait for the first event
+   * @return
+   * @throws TException
+   */
+  @Override
+  public List<RemoteInterpreterEvent> getEvents(int maxBatch, int maxWaitMs) throws TException {
+    return eventClient.pollEvents(maxBatch, maxWaitMs);
+  }
+
   /**
    * called when object is updated in client (web) side.
    * @param name
@@ -699,6 +1039,103 @@ public class RemoteInterpreterServer
     }
   }
 
+  /**
+   * Serialize the resource in a separate thread, to be read in chunks with resourceStreamRead.
+   * At most ChunkedResourceStream.DEFAULT_MAX_CHUNKS chunks are kept in memory.
+   */
+  @Override
+  public String resourceStreamOpen(String noteId, String paragraphId, String resourceName)
+      throws TException {
+    logger.debug("Request resourceStreamOpen {} from ZeppelinServer", resourceName);
+    Resource resource = resourcePool.get(noteId, paragraphId, resourceName, false);
+    if (resource == null || resource.get() == null || !resource.isSerializable()) {
+      return "";
+    }
+
+    final Object value = resource.get();
+    final String streamId = resourceName + "_" + resourceStreamSeq.incrementAndGet();
+    final ChunkedResourceStream stream = new ChunkedResourceStream(
+        ChunkedResourceStream.DEFAULT_CHUNK_SIZE, ChunkedResourceStream.DEFAULT_MAX_CHUNKS,
+        resourceStreamTimeoutMs);
+    resourceStreams.put(streamId, stream);
+    ExecutorFactory.singleton().getDefaultExecutor().execute(new Runnable() {
+      @Override
+      public void run() {
+        OutputStream out = stream.getOutputStream();
+        try {
+          ResourceSerializers.singleton().serialize(value, out);
+          out.close();
+        } catch (Exception e) {
+          logger.error("Can't serialize resource " + streamId, e);
+          // reader fails at the end of the stream, instead of reading a truncated resource.
+          // a reader that reads after the stream is removed fails, too
+          stream.fail("Can't serialize resource " + streamId + ": " + e.getMessage());
+          resourceStreams.remove(streamId);
+        }
+      }
+    });
+    return streamId;
+  }
+
+  @Override
+  public ByteBuffer resourceStreamRead(String streamId) throws TException {
+    ChunkedResourceStream stream = resourceStreams.get(streamId);
+    if (stream == null) {
+      // an empty buffer would look like the end of the stream
+      throw new TException("Resource stream " + streamId + " is failed or expired");
+    }
+    try {
+      ByteBuffer chunk = stream.readChunk();
+      if (!chunk.hasRemaining()) {
+        resourceStreams.remove(streamId);
+      }
+      return chunk;
+    } catch (IOException e) {
+      logger.error("Can't read resource stream " + streamId, e);
+      resourceStreams.remove(streamId);
+      stream.close();
+      throw new TException(e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public void resourceResponseGetChunk(String requestId, ByteBuffer chunk, boolean last,
+      String error) throws TException {
+    eventClient.putResponseGetResourceChunk(requestId, chunk, last, error);
+  }
+
+  @Override
+  public void resourceResponseLookup(String requestId, List<String> resources,
+      Map<String, String> locations) throws TException {
+    eventClient.putResponseResources(requestId, resources, locations);
+  }
+
+  @Override
+  public void ping() throws TException {
+  }
+
+  /**
+   * Progress of submitted jobs, to update progress of many paragraphs in a single call.
+   * @param jobIds ids returned by submit()
+   * @return progress keyed by job id. Jobs that are not running are omitted
+   */
+  @Override
+  public Map<String, Integer> getProgressBatch(List<String> jobIds) throws TException {
+    Map<String, Integer> progress = new HashMap<String, Integer>();
+    for (String jobId : jobIds) {
+      InterpretJob job = submittedJobs.get(jobId);
+      if (job == null || !job.isRunning()) {
+        continue;
+      }
+      try {
+        progress.put(jobId, job.interpreter.getProgress(job.context));
+      } catch (Exception e) {
+        logger.error("Can not get progress of job " + jobId, e);
+      }
+    }
+    return progress;
+  }
+
   @Override
   public void angularRegistryPush(String registryAsString) throws TException {
     try {
@@ -40,6 +40,7 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
 
   private static final org.apache.thrift.protocol.TField TYPE_FIELD_DESC = new org.apache.thrift.protocol.TField("type", org.apache.thrift.protocol.TType.I32, (short)1);
   private static final org.apache.thrift.protocol.TField DATA_FIELD_DESC = new org.apache.thrift.protocol.TField("data", org.apache.thrift.protocol.TType.STRING, (short)2);
+  private static final org.apache.thrift.protocol.TField REQUEST_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("requestId", org.apache.thrift.protocol.TType.STRING, (short)3);
 
   private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
   static {
@@ -53,6 +54,7 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
    */
   public RemoteInterpreterEventType type; // required
   public String data; // required
+  public String requestId; // optional
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -61,7 +63,8 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
      * @see RemoteInterpreterEventType
      */
     TYPE((short)1, "type"),
-    DATA((short)2, "data");
+    DATA((short)2, "data"),
+    REQUEST_ID((short)3, "requestId");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -80,6 +83,8 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
           return TYPE;
         case 2: // DATA
           return DATA;
+        case 3: // REQUEST_ID
+          return REQUEST_ID;
         default:
           return null;
       }
@@ -120,6 +125,7 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
   }
 
   // isset id assignments
+  private static final _Fields optionals[] = {_Fields.REQUEST_ID};
   public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
     Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -127,6 +133,8 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
         new org.apache.thrift.meta_data.EnumMetaData(org.apache.thrift.protocol.TType.ENUM, RemoteInterpreterEventType.class)));
     tmpMap.put(_Fields.DATA, new org.apache.thrift.meta_data.FieldMetaData("data", org.apache.thrift.TFieldRequirementType.DEFAULT, 
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+    tmpMap.put(_Fields.REQUEST_ID, new org.apache.thrift.meta_data.FieldMetaData("requestId", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(RemoteInterpreterEvent.class, metaDataMap);
   }
@@ -153,6 +161,9 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
     if (other.isSetData()) {
       this.data = other.data;
     }
+    if (other.isSetRequestId()) {
+      this.requestId = other.requestId;
+    }
   }
 
   public RemoteInterpreterEvent deepCopy() {
@@ -163,6 +174,7 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
   public void clear() {
     this.type = null;
     this.data = null;
+    this.requestId = null;
   }
 
   /**
@@ -221,6 +233,30 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
     }
   }
 
+  public String getRequestId() {
+    return this.requestId;
+  }
+
+  public RemoteInterpreterEvent setRequestId(String requestId) {
+    this.requestId = requestId;
+    return this;
+  }
+
+  public void unsetRequestId() {
+    this.requestId = null;
+  }
+
+  /** Returns true if field requestId is set (has been assigned a value) and false otherwise */
+  public boolean isSetRequestId() {
+    return this.requestId != null;
+  }
+
+  public void setRequestIdIsSet(boolean value) {
+    if (!value) {
+      this.requestId = null;
+    }
+  }
+
   public void setFieldValue(_Fields field, Object value) {
     switch (field) {
     case TYPE:
@@ -239,6 +275,14 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
       }
       break;
 
+    case REQUEST_ID:
+      if (value == null) {
+        unsetRequestId();
+      } else {
+        setRequestId((String)value);
+      }
+      break;
+
     }
   }
 
@@ -250,6 +294,9 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
     case DATA:
       return getData();
 
+    case REQUEST_ID:
+      return getRequestId();
+
     }
     throw new IllegalStateException();
   }
@@ -265,6 +312,8 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
       return isSetType();
     case DATA:
       return isSetData();
+    case REQUEST_ID:
+      return isSetRequestId();
     }
     throw new IllegalStateException();
   }
@@ -300,6 +349,15 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
         return false;
     }
 
+    boolean this_present_requestId = true && this.isSetRequestId();
+    boolean that_present_requestId = true && that.isSetRequestId();
+    if (this_present_requestId || that_present_requestId) {
+      if (!(this_present_requestId && that_present_requestId))
+        return false;
+      if (!this.requestId.equals(that.requestId))
+        return false;
+    }
+
     return true;
   }
 
@@ -317,6 +375,11 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
     if (present_data)
       list.add(data);
 
+    boolean present_requestId = true && (isSetRequestId());
+    list.add(present_requestId);
+    if (present_requestId)
+      list.add(requestId);
+
     return list.hashCode();
   }
 
@@ -348,6 +411,16 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
         return lastComparison;
       }
     }
+    lastComparison = Boolean.valueOf(isSetRequestId()).compareTo(other.isSetRequestId());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetRequestId()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.requestId, other.requestId);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -383,6 +456,16 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
       sb.append(this.data);
     }
     first = false;
+    if (isSetRequestId()) {
+      if (!first) sb.append(", ");
+      sb.append("requestId:");
+      if (this.requestId == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.requestId);
+      }
+      first = false;
+    }
     sb.append(")");
     return sb.toString();
   }
@@ -442,6 +525,14 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 3: // REQUEST_ID
+            if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+              struct.requestId = iprot.readString();
+              struct.setRequestIdIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -467,6 +558,13 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
         oprot.writeString(struct.data);
         oprot.writeFieldEnd();
       }
+      if (struct.requestId != null) {
+        if (struct.isSetRequestId()) {
+          oprot.writeFieldBegin(REQUEST_ID_FIELD_DESC);
+          oprot.writeString(struct.requestId);
+          oprot.writeFieldEnd();
+        }
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -491,19 +589,25 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
       if (struct.isSetData()) {
         optionals.set(1);
       }
-      oprot.writeBitSet(optionals, 2);
+      if (struct.isSetRequestId()) {
+        optionals.set(2);
+      }
+      oprot.writeBitSet(optionals, 3);
       if (struct.isSetType()) {
         oprot.writeI32(struct.type.getValue());
       }
       if (struct.isSetData()) {
         oprot.writeString(struct.data);
       }
+      if (struct.isSetRequestId()) {
+        oprot.writeString(struct.requestId);
+      }
     }
 
     @Override
     public void read(org.apache.thrift.protocol.TProtocol prot, RemoteInterpreterEvent struct) throws org.apache.thrift.TException {
       TTupleProtocol iprot = (TTupleProtocol) prot;
-      BitSet incoming = iprot.readBitSet(2);
+      BitSet incoming = iprot.readBitSet(3);
       if (incoming.get(0)) {
         struct.type = org.apache.zeppelin.interpreter.thrift.RemoteInterpreterEventType.findByValue(iprot.readI32());
         struct.setTypeIsSet(true);
@@ -512,6 +616,10 @@ public class RemoteInterpreterEvent implements org.apache.thrift.TBase<RemoteInt
         struct.data = iprot.readString();
         struct.setDataIsSet(true);
       }
+      if (incoming.get(2)) {
+        struct.requestId = iprot.readString();
+        struct.setRequestIdIsSet(true);
+      }
     }
   }
 
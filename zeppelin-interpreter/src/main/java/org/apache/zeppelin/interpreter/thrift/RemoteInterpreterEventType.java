@@ -21,7 +21,12 @@ public enum RemoteInterpreterEventType implements org.apache.thrift.TEnum {
   RESOURCE_GET(7),
   OUTPUT_APPEND(8),
   OUTPUT_UPDATE(9),
-  ANGULAR_REGISTRY_PUSH(10);
+  ANGULAR_REGISTRY_PUSH(10),
+  INTERPRET_RESULT_READY(11),
+  JOB_STATUS_CHANGE(12),
+  RESOURCE_POOL_ADD(13),
+  RESOURCE_POOL_REMOVE(14),
+  RESOURCE_LOOKUP(15);
 
   private final int value;
 
@@ -62,6 +67,16 @@ public enum RemoteInterpreterEventType implements org.apache.thrift.TEnum {
         return OUTPUT_UPDATE;
       case 10:
         return ANGULAR_REGISTRY_PUSH;
+      case 11:
+        return INTERPRET_RESULT_READY;
+      case 12:
+        return JOB_STATUS_CHANGE;
+      case 13:
+        return RESOURCE_POOL_ADD;
+      case 14:
+        return RESOURCE_POOL_REMOVE;
+      case 15:
+        return RESOURCE_LOOKUP;
       default:
         return null;
     }
@@ -43,6 +43,7 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
   private static final org.apache.thrift.protocol.TField MSG_FIELD_DESC = new org.apache.thrift.protocol.TField("msg", org.apache.thrift.protocol.TType.STRING, (short)3);
   private static final org.apache.thrift.protocol.TField CONFIG_FIELD_DESC = new org.apache.thrift.protocol.TField("config", org.apache.thrift.protocol.TType.STRING, (short)4);
   private static final org.apache.thrift.protocol.TField GUI_FIELD_DESC = new org.apache.thrift.protocol.TField("gui", org.apache.thrift.protocol.TType.STRING, (short)5);
+  private static final org.apache.thrift.protocol.TField TABLE_FIELD_DESC = new org.apache.thrift.protocol.TField("table", org.apache.thrift.protocol.TType.STRING, (short)6);
 
   private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
   static {
@@ -55,6 +56,7 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
   public String msg; // required
   public String config; // required
   public String gui; // required
+  public ByteBuffer table; // optional
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -62,7 +64,8 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
     TYPE((short)2, "type"),
     MSG((short)3, "msg"),
     CONFIG((short)4, "config"),
-    GUI((short)5, "gui");
+    GUI((short)5, "gui"),
+    TABLE((short)6, "table");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -87,6 +90,8 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
           return CONFIG;
         case 5: // GUI
           return GUI;
+        case 6: // TABLE
+          return TABLE;
         default:
           return null;
       }
@@ -127,6 +132,7 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
   }
 
   // isset id assignments
+  private static final _Fields optionals[] = {_Fields.TABLE};
   public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
     Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -140,6 +146,8 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
     tmpMap.put(_Fields.GUI, new org.apache.thrift.meta_data.FieldMetaData("gui", org.apache.thrift.TFieldRequirementType.DEFAULT, 
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+    tmpMap.put(_Fields.TABLE, new org.apache.thrift.meta_data.FieldMetaData("table", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING        , true)));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(RemoteInterpreterResult.class, metaDataMap);
   }
@@ -181,6 +189,9 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
     if (other.isSetGui()) {
       this.gui = other.gui;
     }
+    if (other.isSetTable()) {
+      this.table = org.apache.thrift.TBaseHelper.copyBinary(other.table);
+    }
   }
 
   public RemoteInterpreterResult deepCopy() {
@@ -194,6 +205,7 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
     this.msg = null;
     this.config = null;
     this.gui = null;
+    this.table = null;
   }
 
   public String getCode() {
@@ -316,6 +328,40 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
     }
   }
 
+  public byte[] getTable() {
+    setTable(org.apache.thrift.TBaseHelper.rightSize(table));
+    return table == null ? null : table.array();
+  }
+
+  public ByteBuffer bufferForTable() {
+    return org.apache.thrift.TBaseHelper.copyBinary(table);
+  }
+
+  public RemoteInterpreterResult setTable(byte[] table) {
+    this.table = table == null ? (ByteBuffer)null : ByteBuffer.wrap(Arrays.copyOf(table, table.length));
+    return this;
+  }
+
+  public RemoteInterpreterResult setTable(ByteBuffer table) {
+    this.table = org.apache.thrift.TBaseHelper.copyBinary(table);
+    return this;
+  }
+
+  public void unsetTable() {
+    this.table = null;
+  }
+
+  /** Returns true if field table is set (has been assigned a value) and false otherwise */
+  public boolean isSetTable() {
+    return this.table != null;
+  }
+
+  public void setTableIsSet(boolean value) {
+    if (!value) {
+      this.table = null;
+    }
+  }
+
   public void setFieldValue(_Fields field, Object value) {
     switch (field) {
     case CODE:
@@ -358,6 +404,14 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
       }
       break;
 
+    case TABLE:
+      if (value == null) {
+        unsetTable();
+      } else {
+        setTable((ByteBuffer)value);
+      }
+      break;
+
     }
   }
 
@@ -378,6 +432,9 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
     case GUI:
       return getGui();
 
+    case TABLE:
+      return getTable();
+
     }
     throw new IllegalStateException();
   }
@@ -399,6 +456,8 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
       return isSetConfig();
     case GUI:
       return isSetGui();
+    case TABLE:
+      return isSetTable();
     }
     throw new IllegalStateException();
   }
@@ -461,6 +520,15 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
         return false;
     }
 
+    boolean this_present_table = true && this.isSetTable();
+    boolean that_present_table = true && that.isSetTable();
+    if (this_present_table || that_present_table) {
+      if (!(this_present_table && that_present_table))
+        return false;
+      if (!this.table.equals(that.table))
+        return false;
+    }
+
     return true;
   }
 
@@ -493,6 +561,11 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
     if (present_gui)
       list.add(gui);
 
+    boolean present_table = true && (isSetTable());
+    list.add(present_table);
+    if (present_table)
+      list.add(table);
+
     return list.hashCode();
   }
 
@@ -554,6 +627,16 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
         return lastComparison;
       }
     }
+    lastComparison = Boolean.valueOf(isSetTable()).compareTo(other.isSetTable());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetTable()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.table, other.table);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -613,6 +696,16 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
       sb.append(this.gui);
     }
     first = false;
+    if (isSetTable()) {
+      if (!first) sb.append(", ");
+      sb.append("table:");
+      if (this.table == null) {
+        sb.append("null");
+      } else {
+        org.apache.thrift.TBaseHelper.toString(this.table, sb);
+      }
+      first = false;
+    }
     sb.append(")");
     return sb.toString();
   }
@@ -696,6 +789,14 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 6: // TABLE
+            if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+              struct.table = iprot.readBinary();
+              struct.setTableIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -736,6 +837,13 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
         oprot.writeString(struct.gui);
         oprot.writeFieldEnd();
       }
+      if (struct.table != null) {
+        if (struct.isSetTable()) {
+          oprot.writeFieldBegin(TABLE_FIELD_DESC);
+          oprot.writeBinary(struct.table);
+          oprot.writeFieldEnd();
+        }
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -769,7 +877,10 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
       if (struct.isSetGui()) {
         optionals.set(4);
       }
-      oprot.writeBitSet(optionals, 5);
+      if (struct.isSetTable()) {
+        optionals.set(5);
+      }
+      oprot.writeBitSet(optionals, 6);
       if (struct.isSetCode()) {
         oprot.writeString(struct.code);
       }
@@ -785,12 +896,15 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
       if (struct.isSetGui()) {
         oprot.writeString(struct.gui);
       }
+      if (struct.isSetTable()) {
+        oprot.writeBinary(struct.table);
+      }
     }
 
     @Override
     public void read(org.apache.thrift.protocol.TProtocol prot, RemoteInterpreterResult struct) throws org.apache.thrift.TException {
       TTupleProtocol iprot = (TTupleProtocol) prot;
-      BitSet incoming = iprot.readBitSet(5);
+      BitSet incoming = iprot.readBitSet(6);
       if (incoming.get(0)) {
         struct.code = iprot.readString();
         struct.setCodeIsSet(true);
@@ -811,6 +925,10 @@ public class RemoteInterpreterResult implements org.apache.thrift.TBase<RemoteIn
         struct.gui = iprot.readString();
         struct.setGuiIsSet(true);
       }
+      if (incoming.get(5)) {
+        struct.table = iprot.readBinary();
+        struct.setTableIsSet(true);
+      }
     }
   }
 
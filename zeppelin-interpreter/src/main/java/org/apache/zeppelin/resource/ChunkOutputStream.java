@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.resource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * OutputStream that hands written bytes over in chunks of a fixed size.
+ * flush() does not make a chunk, so a serializer flushing often does not make small chunks.
+ * close() hands over the last, possibly smaller, chunk.
+ */
+public abstract class ChunkOutputStream extends OutputStream {
+  private final int chunkSize;
+  private byte[] buf;
+  private int count;
+  private boolean closed = false;
+
+  public ChunkOutputStream(int chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Called with each chunk. Chunk is not reused by this stream after the call.
+   */
+  protected abstract void writeChunk(ByteBuffer chunk) throws IOException;
+
+  @Override
+  public void write(int b) throws IOException {
+    ensureBuffer();
+    buf[count++] = (byte) b;
+    if (count == chunkSize) {
+      sendChunk();
+    }
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    while (len > 0) {
+      ensureBuffer();
+      int n = Math.min(len, chunkSize - count);
+      System.arraycopy(b, off, buf, count, n);
+      count += n;
+      off += n;
+      len -= n;
+      if (count == chunkSize) {
+        sendChunk();
+      }
+    }
+  }
+
+  /**
+   * Hand over a chunk made elsewhere, after the bytes written so far.
+   */
+  public void transferChunk(ByteBuffer chunk) throws IOException {
+    ensureBuffer();
+    if (count > 0) {
+      sendChunk();
+    }
+    writeChunk(chunk);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (count > 0) {
+      sendChunk();
+    }
+  }
+
+  private void ensureBuffer() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    if (buf == null) {
+      buf = new byte[chunkSize];
+    }
+  }
+
+  private void sendChunk() throws IOException {
+    ByteBuffer chunk = ByteBuffer.wrap(buf, 0, count);
+    buf = null;
+    count = 0;
+    writeChunk(chunk);
+  }
+}
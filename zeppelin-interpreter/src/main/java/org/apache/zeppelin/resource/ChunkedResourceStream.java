@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialized resource passed in chunks from a writer thread to a reader thread.
+ * At most maxChunks chunks are kept in memory. The writer waits while the reader is behind,
+ * so a large resource is transferred in bounded memory.
+ */
+public class ChunkedResourceStream {
+  public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+  public static final int DEFAULT_MAX_CHUNKS = 4;
+  public static final long DEFAULT_TIMEOUT_MSEC = 5 * 60 * 1000;
+
+  // marks end of the stream
+  private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+  private final BlockingQueue<ByteBuffer> chunks;
+  private final int chunkSize;
+  private final long timeoutMsec;
+  private volatile boolean ended = false;
+  private volatile boolean closed = false;
+  // why the writer failed. reader fails with it at the end of the stream
+  private volatile String error;
+  // last time a chunk is written or read
+  private volatile long lastAccessTime = System.currentTimeMillis();
+
+  public ChunkedResourceStream() {
+    this(DEFAULT_CHUNK_SIZE, DEFAULT_MAX_CHUNKS, DEFAULT_TIMEOUT_MSEC);
+  }
+
+  /**
+   * @param chunkSize size of chunks made by getOutputStream()
+   * @param maxChunks number of chunks the writer can be ahead of the reader
+   * @param timeoutMsec maximum time the writer waits for the reader, and the reader waits
+   *                    for the writer
+   */
+  public ChunkedResourceStream(int chunkSize, int maxChunks, long timeoutMsec) {
+    this.chunkSize = chunkSize;
+    this.chunks = new ArrayBlockingQueue<ByteBuffer>(maxChunks);
+    this.timeoutMsec = timeoutMsec;
+  }
+
+  /**
+   * Add a chunk. Waits while maxChunks chunks are not read yet.
+   * @throws IOException when the reader closed the stream or did not read in time
+   */
+  public void writeChunk(ByteBuffer chunk) throws IOException {
+    if (!chunk.hasRemaining()) {
+      return;
+    }
+    put(chunk);
+  }
+
+  /**
+   * Mark end of the stream. Reader reads remaining chunks, then the end.
+   */
+  public void end() throws IOException {
+    if (!ended) {
+      ended = true;
+      put(END);
+    }
+  }
+
+  /**
+   * Mark end of the stream, because the writer failed. Reader reads remaining chunks,
+   * then fails with the error instead of seeing a normal end of the stream.
+   * Does not wait for the reader. When the reader is behind, remaining chunks are dropped.
+   */
+  public void fail(String error) {
+    if (ended) {
+      return;
+    }
+    this.error = error;
+    ended = true;
+    while (!closed && !chunks.offer(END)) {
+      chunks.clear();
+    }
+  }
+
+  private void put(ByteBuffer chunk) throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed by reader");
+    }
+    try {
+      if (!chunks.offer(chunk, timeoutMsec, TimeUnit.MILLISECONDS)) {
+        throw new IOException("Timeout waiting for reader of the stream");
+      }
+    } catch (InterruptedException e) {
+      throw new IOException(e);
+    }
+    lastAccessTime = System.currentTimeMillis();
+    if (closed) {
+      chunks.clear();
+    }
+  }
+
+  /**
+   * Read next chunk.
+   * @return next chunk. Empty buffer at the end of the stream
+   * @throws IOException when the writer did not write in time, or failed
+   */
+  public ByteBuffer readChunk() throws IOException {
+    ByteBuffer chunk;
+    try {
+      chunk = chunks.poll(timeoutMsec, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      throw new IOException(e);
+    }
+    if (chunk == null) {
+      throw new IOException("Timeout waiting for writer of the stream");
+    }
+    lastAccessTime = System.currentTimeMillis();
+    if (chunk == END) {
+      // let following reads see the end, too
+      chunks.offer(END);
+      if (error != null) {
+        throw new IOException(error);
+      }
+    }
+    return chunk;
+  }
+
+  /**
+   * @return true when no chunk is written or read for longer than the timeout, e.g. the reader
+   * is gone after the writer wrote the last chunks
+   */
+  public boolean isExpired(long now) {
+    return now - lastAccessTime > timeoutMsec;
+  }
+
+  /**
+   * Reader does not read anymore. Pending chunks are dropped and the writer fails.
+   */
+  public void close() {
+    closed = true;
+    chunks.clear();
+  }
+
+  /**
+   * OutputStream that writes chunks to this stream. close() marks end of the stream.
+   */
+  public OutputStream getOutputStream() {
+    return new ChunkOutputStream(chunkSize) {
+      @Override
+      protected void writeChunk(ByteBuffer chunk) throws IOException {
+        ChunkedResourceStream.this.writeChunk(chunk);
+      }
+
+      @Override
+      public void close() throws IOException {
+        super.close();
+        end();
+      }
+    };
+  }
+
+  /**
+   * InputStream that reads chunks of this stream.
+   */
+  public InputStream getInputStream() {
+    return new InputStream() {
+      private ByteBuffer current = END;
+
+      private boolean next() throws IOException {
+        while (!current.hasRemaining()) {
+          current = readChunk();
+          if (current == END) {
+            return false;
+          }
+        }
+        return true;
+      }
+
+      @Override
+      public int read() throws IOException {
+        if (!next()) {
+          return -1;
+        }
+        return current.get() & 0xFF;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+          return 0;
+        }
+        if (!next()) {
+          return -1;
+        }
+        len = Math.min(len, current.remaining());
+        current.get(b, off, len);
+        return len;
+      }
+
+      @Override
+      public int available() {
+        return current.remaining();
+      }
+    };
+  }
+}
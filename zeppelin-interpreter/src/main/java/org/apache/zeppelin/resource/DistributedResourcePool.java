@@ -22,12 +22,20 @@ package org.apache.zeppelin.resource;
 public class DistributedResourcePool extends LocalResourcePool {
 
   private final ResourcePoolConnector connector;
+  private ResourcePoolListener listener;
 
   public DistributedResourcePool(String id, ResourcePoolConnector connector) {
     super(id);
     this.connector = connector;
   }
 
+  /**
+   * @param listener notified when resources are put or removed. null for none
+   */
+  public void setResourcePoolListener(ResourcePoolListener listener) {
+    this.listener = listener;
+  }
+
   @Override
   public Resource get(String name) {
     return get(name, true);
@@ -52,7 +60,7 @@ public class DistributedResourcePool extends LocalResourcePool {
     }
 
     if (remote) {
-      ResourceSet resources = connector.getAllResources().filterByName(name);
+      ResourceSet resources = connector.lookupResources(null, null, name);
       if (resources.isEmpty()) {
         return null;
       } else {
@@ -77,7 +85,7 @@ public class DistributedResourcePool extends LocalResourcePool {
     }
 
     if (remote) {
-      ResourceSet resources = connector.getAllResources()
+      ResourceSet resources = connector.lookupResources(noteId, paragraphId, name)
           .filterByNoteId(noteId)
           .filterByParagraphId(paragraphId)
           .filterByName(name);
@@ -109,4 +117,38 @@ public class DistributedResourcePool extends LocalResourcePool {
     }
     return all;
   }
+
+  @Override
+  public void put(String name, Object object) {
+    super.put(name, object);
+    if (listener != null) {
+      listener.onResourceAdded(super.get(name));
+    }
+  }
+
+  @Override
+  public void put(String noteId, String paragraphId, String name, Object object) {
+    super.put(noteId, paragraphId, name, object);
+    if (listener != null) {
+      listener.onResourceAdded(super.get(noteId, paragraphId, name));
+    }
+  }
+
+  @Override
+  public Resource remove(String name) {
+    Resource resource = super.remove(name);
+    if (resource != null && listener != null) {
+      listener.onResourceRemoved(resource.getResourceId());
+    }
+    return resource;
+  }
+
+  @Override
+  public Resource remove(String noteId, String paragraphId, String name) {
+    Resource resource = super.remove(noteId, paragraphId, name);
+    if (resource != null && listener != null) {
+      listener.onResourceRemoved(resource.getResourceId());
+    }
+    return resource;
+  }
 }
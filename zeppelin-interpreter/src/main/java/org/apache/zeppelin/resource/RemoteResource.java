@@ -20,7 +20,7 @@ package org.apache.zeppelin.resource;
  * Resource that can retrieve data from remote
  */
 public class RemoteResource extends Resource {
-  ResourcePoolConnector resourcePoolConnector;
+  transient ResourcePoolConnector resourcePoolConnector;
 
   RemoteResource(ResourceId resourceId, Object r) {
     super(resourceId, r);
@@ -19,10 +19,14 @@ package org.apache.zeppelin.resource;
 import java.io.*;
 import java.nio.ByteBuffer;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * Information and reference to the resource
  */
 public class Resource {
+  private static final Logger logger = LoggerFactory.getLogger(Resource.class);
   private final transient Object r;
   private final boolean serializable;
   private final ResourceId resourceId;
@@ -37,7 +41,7 @@ public class Resource {
   Resource(ResourceId resourceId, Object r) {
     this.r = r;
     this.resourceId = resourceId;
-    this.serializable = r instanceof Serializable;
+    this.serializable = ResourceSerializers.singleton().canSerialize(r);
     this.className = r.getClass().getName();
   }
 
@@ -94,39 +98,42 @@ public class Resource {
 
 
 
+  /**
+   * Serialize with ResourceSerializers.
+   * @return null when o is null or no serializer can serialize it
+   */
   public static ByteBuffer serializeObject(Object o) throws IOException {
-    if (o == null || !(o instanceof Serializable)) {
+    if (o == null) {
       return null;
     }
-
-    ByteArrayOutputStream out = new ByteArrayOutputStream();
-    try {
-      ObjectOutputStream oos;
-      oos = new ObjectOutputStream(out);
-      oos.writeObject(o);
-      oos.close();
-      out.close();
-    } catch (Exception e) {
-      e.printStackTrace();
+    ResourceSerializers serializers = ResourceSerializers.singleton();
+    if (!serializers.canSerialize(o)) {
+      logger.warn("No resource serializer for {}", o.getClass().getName());
+      return null;
     }
-    return ByteBuffer.wrap(out.toByteArray());
+
+    BufferOutputStream out = new BufferOutputStream();
+    serializers.serialize(o, out);
+    return out.toByteBuffer();
   }
 
+  /**
+   * @return null when buf is null or empty
+   */
   public static Object deserializeObject(ByteBuffer buf)
       throws IOException, ClassNotFoundException {
-    if (buf == null) {
+    if (buf == null || !buf.hasRemaining()) {
       return null;
     }
-    InputStream ins = ByteBufferInputStream.get(buf);
-    ObjectInputStream oin;
-    Object object = null;
-
-    oin = new ObjectInputStream(ins);
-    object = oin.readObject();
-    oin.close();
-    ins.close();
-
-    return object;
+    return ResourceSerializers.singleton().deserialize(ByteBufferInputStream.get(buf));
   }
 
+  /**
+   * ByteArrayOutputStream that returns its buffer without copy
+   */
+  private static class BufferOutputStream extends ByteArrayOutputStream {
+    ByteBuffer toByteBuffer() {
+      return ByteBuffer.wrap(buf, 0, count);
+    }
+  }
 }
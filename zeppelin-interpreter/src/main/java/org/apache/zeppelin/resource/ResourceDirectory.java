@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.resource;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Resources of all interpreter processes, kept in ZeppelinServer.
+ * Interpreter processes notify resources added and removed, so a resource can be found
+ * without asking every interpreter process.
+ */
+public class ResourceDirectory {
+  private static ResourceDirectory singletonInstance;
+
+  private final Map<ResourceId, Resource> resources = new HashMap<ResourceId, Resource>();
+
+  public static synchronized ResourceDirectory singleton() {
+    if (singletonInstance == null) {
+      singletonInstance = new ResourceDirectory();
+    }
+    return singletonInstance;
+  }
+
+  public synchronized void add(Resource resource) {
+    resources.put(resource.getResourceId(), resource);
+  }
+
+  public synchronized void remove(ResourceId resourceId) {
+    resources.remove(resourceId);
+  }
+
+  /**
+   * Remove all resources of the resource pool. e.g. when the interpreter process is stopped
+   */
+  public synchronized void removeResourcePool(String resourcePoolId) {
+    Iterator<ResourceId> it = resources.keySet().iterator();
+    while (it.hasNext()) {
+      if (it.next().getResourcePoolId().equals(resourcePoolId)) {
+        it.remove();
+      }
+    }
+  }
+
+  /**
+   * Find resources by name.
+   * @param noteId null to match resources of any note and paragraph
+   * @param paragraphId null to match resources of any note and paragraph
+   * @param exceptResourcePoolId resources of this pool are not returned. null for none
+   */
+  public synchronized ResourceSet lookup(String noteId, String paragraphId, String name,
+      String exceptResourcePoolId) {
+    boolean anyParagraph = noteId == null && paragraphId == null;
+    ResourceSet found = new ResourceSet();
+    for (Resource resource : resources.values()) {
+      ResourceId id = resource.getResourceId();
+      if (!id.getName().equals(name) ||
+          id.getResourcePoolId().equals(exceptResourcePoolId)) {
+        continue;
+      }
+      if (anyParagraph || (equals(id.getNoteId(), noteId) &&
+          equals(id.getParagraphId(), paragraphId))) {
+        found.add(resource);
+      }
+    }
+    return found;
+  }
+
+  /**
+   * @param exceptResourcePoolId resources of this pool are not returned. null for none
+   */
+  public synchronized ResourceSet getAll(String exceptResourcePoolId) {
+    ResourceSet all = new ResourceSet();
+    for (Resource resource : resources.values()) {
+      if (!resource.getResourceId().getResourcePoolId().equals(exceptResourcePoolId)) {
+        all.add(resource);
+      }
+    }
+    return all;
+  }
+
+  private boolean equals(String a, String b) {
+    return a == null ? b == null : a.equals(b);
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.resource;
+
+/**
+ * Thrift endpoint of the interpreter process holding a resource pool
+ */
+public class ResourceLocation {
+  private final String host;
+  private final int port;
+  private final boolean framed;
+
+  /**
+   * @param framed endpoint requires framed transport
+   */
+  public ResourceLocation(String host, int port, boolean framed) {
+    this.host = host;
+    this.port = port;
+    this.framed = framed;
+  }
+
+  public String getHost() {
+    return host;
+  }
+
+  public int getPort() {
+    return port;
+  }
+
+  public boolean isFramed() {
+    return framed;
+  }
+
+  @Override
+  public int hashCode() {
+    return (host + ":" + port + ":" + framed).hashCode();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof ResourceLocation) {
+      ResourceLocation l = (ResourceLocation) o;
+      return host.equals(l.host) && port == l.port && framed == l.framed;
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return host + ":" + port;
+  }
+}
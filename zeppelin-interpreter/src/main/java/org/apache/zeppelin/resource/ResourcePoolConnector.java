@@ -26,6 +26,14 @@ public interface ResourcePoolConnector {
    */
   public ResourceSet getAllResources();
 
+  /**
+   * Find resources of the name in all other resource pools in remote processes
+   * @param noteId null to find resources of any note and paragraph
+   * @param paragraphId null to find resources of any note and paragraph
+   * @return
+   */
+  public ResourceSet lookupResources(String noteId, String paragraphId, String name);
+
   /**
    * Read remote object
    * @return
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Serializes value of resources to transfer them between interpreter processes.
+ *
+ * Implementations are discovered with java.util.ServiceLoader, by listing them in
+ * META-INF/services/org.apache.zeppelin.resource.ResourceSerializer of a jar on the classpath
+ * of both Zeppelin server and interpreter processes. For example an interpreter can provide
+ * a Kryo serializer for objects that are not java.io.Serializable, or an Arrow IPC serializer
+ * for tables. Serializers write to and read from a stream, so a large resource does not need
+ * to fit in a single buffer.
+ */
+public interface ResourceSerializer {
+  /**
+   * Unique name of the serializer. Written ahead of serialized data, so the receiver picks
+   * the same serializer.
+   */
+  String getName();
+
+  /**
+   * @return true if this serializer can serialize the object
+   */
+  boolean canSerialize(Object o);
+
+  void serialize(Object o, OutputStream out) throws IOException;
+
+  Object deserialize(InputStream in) throws IOException, ClassNotFoundException;
+}
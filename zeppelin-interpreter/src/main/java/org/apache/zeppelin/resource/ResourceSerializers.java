@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.resource;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of ResourceSerializer.
+ *
+ * Serializers found by ServiceLoader are tried first, in classpath order. JavaResourceSerializer
+ * is tried last. Serialized data starts with the name of the serializer.
+ */
+public class ResourceSerializers {
+  private static final Logger logger = LoggerFactory.getLogger(ResourceSerializers.class);
+  private static ResourceSerializers singletonInstance;
+
+  private final List<ResourceSerializer> serializers = new LinkedList<ResourceSerializer>();
+
+  ResourceSerializers() {
+    serializers.add(new JavaResourceSerializer());
+  }
+
+  public static synchronized ResourceSerializers singleton() {
+    if (singletonInstance == null) {
+      singletonInstance = new ResourceSerializers();
+      singletonInstance.load(Thread.currentThread().getContextClassLoader());
+    }
+    return singletonInstance;
+  }
+
+  /**
+   * Register serializers found by ServiceLoader
+   */
+  public void load(ClassLoader classLoader) {
+    Iterator<ResourceSerializer> it =
+        ServiceLoader.load(ResourceSerializer.class, classLoader).iterator();
+    while (true) {
+      try {
+        if (!it.hasNext()) {
+          break;
+        }
+        register(it.next());
+      } catch (ServiceConfigurationError e) {
+        logger.error("Can't load resource serializer", e);
+      }
+    }
+  }
+
+  /**
+   * Register a serializer. It is tried before serializers registered earlier.
+   * A serializer replaces the serializer of the same name.
+   */
+  public synchronized void register(ResourceSerializer serializer) {
+    ResourceSerializer registered = find(serializer.getName());
+    if (registered != null) {
+      serializers.remove(registered);
+    }
+    logger.info("Register resource serializer {}", serializer.getName());
+    serializers.add(0, serializer);
+  }
+
+  /**
+   * @return serializer of the object. null if no serializer can serialize the object
+   */
+  public synchronized ResourceSerializer get(Object o) {
+    for (ResourceSerializer serializer : serializers) {
+      if (serializer.canSerialize(o)) {
+        return serializer;
+      }
+    }
+    return null;
+  }
+
+  public synchronized ResourceSerializer find(String name) {
+    for (ResourceSerializer serializer : serializers) {
+      if (serializer.getName().equals(name)) {
+        return serializer;
+      }
+    }
+    return null;
+  }
+
+  public boolean canSerialize(Object o) {
+    return o != null && get(o) != null;
+  }
+
+  /**
+   * Write the object to the stream. The stream is not closed.
+   * @throws IOException when no serializer can serialize the object
+   */
+  public void serialize(Object o, OutputStream out) throws IOException {
+    ResourceSerializer serializer = get(o);
+    if (serializer == null) {
+      throw new IOException("No resource serializer for " +
+          (o == null ? "null" : o.getClass().getName()));
+    }
+    DataOutputStream dout = new DataOutputStream(out);
+    dout.writeUTF(serializer.getName());
+    dout.flush();
+    serializer.serialize(o, out);
+    out.flush();
+  }
+
+  /**
+   * Read an object written by serialize(). The stream is not closed.
+   */
+  public Object deserialize(InputStream in) throws IOException, ClassNotFoundException {
+    String name = new DataInputStream(in).readUTF();
+    ResourceSerializer serializer = find(name);
+    if (serializer == null) {
+      throw new IOException("Resource serializer " + name + " is not available");
+    }
+    return serializer.deserialize(in);
+  }
+}
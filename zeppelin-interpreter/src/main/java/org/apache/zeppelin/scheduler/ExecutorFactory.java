@@ -16,19 +16,33 @@
  */
 package org.apache.zeppelin.scheduler;
 
+import java.lang.reflect.Method;
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
+ * Creates named executors and reports their statistics.
  *
+ * When virtual thread is enabled and the JVM supports it (JDK 21+), executors run each task
+ * in a new virtual thread instead of a bounded pool of platform threads.
  */
 public class ExecutorFactory {
+  private static final Logger logger = LoggerFactory.getLogger(ExecutorFactory.class);
   private static ExecutorFactory _executor;
   private static Long _executorLock = new Long(0);
 
-  Map<String, ExecutorService> executor = new HashMap<String, ExecutorService>();
+  Map<String, ThreadPoolExecutor> executor = new HashMap<String, ThreadPoolExecutor>();
+  private boolean virtualThread = false;
 
   public ExecutorFactory() {
 
@@ -45,6 +59,22 @@ public class ExecutorFactory {
     return _executor;
   }
 
+  /**
+   * Use virtual threads for executors created after this call, if the JVM supports it.
+   */
+  public void setVirtualThread(boolean virtualThread) {
+    if (virtualThread && !isVirtualThreadSupported()) {
+      logger.warn("Virtual thread is not supported by this JVM. Use platform threads");
+    }
+    synchronized (executor) {
+      this.virtualThread = virtualThread;
+    }
+  }
+
+  public static boolean isVirtualThreadSupported() {
+    return virtualThreadFactory("check") != null;
+  }
+
   public ExecutorService getDefaultExecutor() {
     return createOrGet("default");
   }
@@ -53,15 +83,39 @@ public class ExecutorFactory {
     return createOrGet(name, 100);
   }
 
+  /**
+   * @param numThread maximum number of platform threads. Ignored when virtual thread is used
+   */
   public ExecutorService createOrGet(String name, int numThread) {
     synchronized (executor) {
       if (!executor.containsKey(name)) {
-        executor.put(name, Executors.newScheduledThreadPool(numThread));
+        ThreadFactory threadFactory = virtualThread ? virtualThreadFactory(name) : null;
+        if (threadFactory != null) {
+          // no thread is kept. every task runs in a new virtual thread
+          executor.put(name, new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.SECONDS,
+              new SynchronousQueue<Runnable>(), threadFactory));
+        } else {
+          executor.put(name,
+              (ThreadPoolExecutor) Executors.newScheduledThreadPool(numThread));
+        }
       }
       return executor.get(name);
     }
   }
 
+  /**
+   * @return statistics of all executors, keyed by name
+   */
+  public Map<String, ExecutorStats> getStats() {
+    Map<String, ExecutorStats> stats = new HashMap<String, ExecutorStats>();
+    synchronized (executor) {
+      for (Map.Entry<String, ThreadPoolExecutor> e : executor.entrySet()) {
+        stats.put(e.getKey(), new ExecutorStats(e.getValue()));
+      }
+    }
+    return stats;
+  }
+
   public void shutdown(String name) {
     synchronized (executor) {
       if (executor.containsKey(name)) {
@@ -75,9 +129,26 @@ public class ExecutorFactory {
 
   public void shutdownAll() {
     synchronized (executor) {
-      for (String name : executor.keySet()){
+      for (String name : new LinkedList<String>(executor.keySet())) {
         shutdown(name);
       }
     }
   }
+
+  /**
+   * Thread.ofVirtual().name(name + "-", 0).factory(), through reflection to run on older JVMs.
+   * @return null when virtual thread is not supported
+   */
+  private static ThreadFactory virtualThreadFactory(String name) {
+    try {
+      Method ofVirtual = Thread.class.getMethod("ofVirtual");
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = ofVirtual.invoke(null);
+      builder = builderClass.getMethod("name", String.class, long.class)
+          .invoke(builder, name + "-", 0L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (Exception e) {
+      return null;
+    }
+  }
 }
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.scheduler;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Snapshot of statistics of an executor created by ExecutorFactory
+ */
+public class ExecutorStats {
+  private int poolSize;
+  private int maxPoolSize;
+  private int largestPoolSize;
+  private int activeCount;
+  private int queueSize;
+  private long completedTaskCount;
+
+  ExecutorStats(ThreadPoolExecutor executor) {
+    poolSize = executor.getPoolSize();
+    // scheduled thread pool does not grow beyond core pool size
+    maxPoolSize = executor instanceof ScheduledThreadPoolExecutor ?
+        executor.getCorePoolSize() : executor.getMaximumPoolSize();
+    largestPoolSize = executor.getLargestPoolSize();
+    activeCount = executor.getActiveCount();
+    queueSize = executor.getQueue().size();
+    completedTaskCount = executor.getCompletedTaskCount();
+  }
+
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  public int getMaxPoolSize() {
+    return maxPoolSize;
+  }
+
+  public int getLargestPoolSize() {
+    return largestPoolSize;
+  }
+
+  /**
+   * @return number of threads running a task
+   */
+  public int getActiveCount() {
+    return activeCount;
+  }
+
+  /**
+   * @return number of tasks waiting for a thread
+   */
+  public int getQueueSize() {
+    return queueSize;
+  }
+
+  public long getCompletedTaskCount() {
+    return completedTaskCount;
+  }
+}
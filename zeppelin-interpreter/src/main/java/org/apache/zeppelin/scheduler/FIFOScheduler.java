@@ -34,8 +34,8 @@ public class FIFOScheduler implements Scheduler {
   List<Job> queue = new LinkedList<Job>();
   private ExecutorService executor;
   private SchedulerListener listener;
-  boolean terminate = false;
-  Job runningJob = null;
+  volatile boolean terminate = false;
+  volatile Job runningJob = null;
   private String name;
 
   static Logger LOGGER = LoggerFactory.getLogger(FIFOScheduler.class);
@@ -81,7 +81,7 @@ public class FIFOScheduler implements Scheduler {
     job.setStatus(Status.PENDING);
     synchronized (queue) {
       queue.add(job);
-      queue.notify();
+      dispatch();
     }
   }
 
@@ -101,72 +101,79 @@ public class FIFOScheduler implements Scheduler {
     return null;
   }
 
+  /**
+   * Jobs are dispatched when they are submitted or when the running job finishes.
+   * Nothing to run in a separate thread.
+   */
   @Override
   public void run() {
-
     synchronized (queue) {
-      while (terminate == false) {
-        synchronized (queue) {
-          if (runningJob != null || queue.isEmpty() == true) {
-            try {
-              queue.wait(500);
-            } catch (InterruptedException e) {
-              LOGGER.error("Exception in FIFOScheduler while run queue.wait", e);
-            }
-            continue;
-          }
-
-          runningJob = queue.remove(0);
+      dispatch();
+    }
+  }
+
+  /**
+   * Run the next job, if no job is running. Caller holds the queue lock.
+   */
+  private void dispatch() {
+    if (terminate == true || runningJob != null || queue.isEmpty() == true) {
+      return;
+    }
+
+    final Job job = queue.remove(0);
+    runningJob = job;
+
+    this.executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        // next job runs even when the job or a listener throws
+        try {
+          runJob(job);
+        } finally {
+          jobDone();
         }
+      }
+    });
+  }
+
+  private void runJob(Job job) {
+    if (job.isAborted()) {
+      job.setStatus(Status.ABORT);
+      job.aborted = false;
+      return;
+    }
 
-        final Scheduler scheduler = this;
-        this.executor.execute(new Runnable() {
-          @Override
-          public void run() {
-            if (runningJob.isAborted()) {
-              runningJob.setStatus(Status.ABORT);
-              runningJob.aborted = false;
-              synchronized (queue) {
-                queue.notify();
-              }
-              return;
-            }
-
-            runningJob.setStatus(Status.RUNNING);
-            if (listener != null) {
-              listener.jobStarted(scheduler, runningJob);
-            }
-            runningJob.run();
-            if (runningJob.isAborted()) {
-              runningJob.setStatus(Status.ABORT);
-            } else {
-              if (runningJob.getException() != null) {
-                runningJob.setStatus(Status.ERROR);
-              } else {
-                runningJob.setStatus(Status.FINISHED);
-              }
-            }
-            if (listener != null) {
-              listener.jobFinished(scheduler, runningJob);
-            }
-            // reset aborted flag to allow retry
-            runningJob.aborted = false;
-            runningJob = null;
-            synchronized (queue) {
-              queue.notify();
-            }
-          }
-        });
+    job.setStatus(Status.RUNNING);
+    if (listener != null) {
+      listener.jobStarted(this, job);
+    }
+    job.run();
+    if (job.isAborted()) {
+      job.setStatus(Status.ABORT);
+    } else {
+      if (job.getException() != null) {
+        job.setStatus(Status.ERROR);
+      } else {
+        job.setStatus(Status.FINISHED);
       }
     }
+    if (listener != null) {
+      listener.jobFinished(this, job);
+    }
+    // reset aborted flag to allow retry
+    job.aborted = false;
+  }
+
+  private void jobDone() {
+    synchronized (queue) {
+      runningJob = null;
+      dispatch();
+    }
   }
 
   @Override
   public void stop() {
     terminate = true;
-    synchronized (queue) {
-      queue.notify();
-    }
   }
 
 }
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.scheduler;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.zeppelin.interpreter.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Picks the next job to run among waiting jobs of a scheduler, so one share (user) can not
+ * starve the others.
+ *
+ * Shares are picked by smooth weighted round-robin. Among the jobs of the picked share,
+ * the job of the highest priority runs first, then jobs run in submit order.
+ * Not thread safe. Scheduler calls it holding its queue lock.
+ */
+public class FairShare {
+  private static final Logger logger = LoggerFactory.getLogger(FairShare.class);
+  public static final int DEFAULT_WEIGHT = 1;
+  // share of jobs without share
+  private static final String DEFAULT_SHARE = "";
+
+  private final Map<String, Integer> weights;
+  private final int maxConcurrencyPerShare;
+  // current weight of smooth weighted round-robin. key is share
+  private final Map<String, Integer> currentWeights = new HashMap<String, Integer>();
+  // when the share was picked last time, to pick the least recently served share on a tie
+  private final Map<String, Long> lastServed = new HashMap<String, Long>();
+  private long numServed = 0;
+
+  /**
+   * @param weights weight of shares. DEFAULT_WEIGHT for shares not in the map
+   * @param maxConcurrencyPerShare maximum number of running jobs of a share. 0 for no limit
+   */
+  public FairShare(Map<String, Integer> weights, int maxConcurrencyPerShare) {
+    this.weights = new HashMap<String, Integer>(weights);
+    this.maxConcurrencyPerShare = maxConcurrencyPerShare;
+  }
+
+  /**
+   * Create from interpreter properties.
+   * @return null when fair-share scheduling is not enabled
+   */
+  public static FairShare create(Properties properties) {
+    if (!Boolean.parseBoolean(properties.getProperty(
+        Constants.ZEPPELIN_SCHEDULER_FAIR_SHARE, "false"))) {
+      return null;
+    }
+
+    Map<String, Integer> weights = new HashMap<String, Integer>();
+    String weightsValue = properties.getProperty(Constants.ZEPPELIN_SCHEDULER_FAIR_SHARE_WEIGHTS);
+    if (weightsValue != null) {
+      for (String shareWeight : weightsValue.split(",")) {
+        if (shareWeight.trim().isEmpty()) {
+          continue;
+        }
+        String[] kv = shareWeight.split(":");
+        try {
+          weights.put(kv[0].trim(), Math.max(1, Integer.parseInt(kv[1].trim())));
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+          logger.error("Invalid fair-share weight " + shareWeight, e);
+        }
+      }
+    }
+
+    int maxConcurrency = 0;
+    String maxConcurrencyValue = properties.getProperty(
+        Constants.ZEPPELIN_SCHEDULER_FAIR_SHARE_MAX_CONCURRENCY);
+    if (maxConcurrencyValue != null && !maxConcurrencyValue.trim().isEmpty()) {
+      try {
+        maxConcurrency = Integer.parseInt(maxConcurrencyValue.trim());
+      } catch (NumberFormatException e) {
+        logger.error("Invalid " + Constants.ZEPPELIN_SCHEDULER_FAIR_SHARE_MAX_CONCURRENCY, e);
+      }
+    }
+    return new FairShare(weights, maxConcurrency);
+  }
+
+  public int getWeight(String share) {
+    Integer weight = weights.get(share == null ? DEFAULT_SHARE : share);
+    return weight == null ? DEFAULT_WEIGHT : weight;
+  }
+
+  /**
+   * Remove the next job to run from waiting jobs.
+   * @param waiting waiting jobs in submit order
+   * @param running running jobs
+   * @return null when no waiting job can run, because of concurrency limit of shares
+   */
+  public Job next(List<Job> waiting, Collection<Job> running) {
+    Map<String, Integer> numRunning = new HashMap<String, Integer>();
+    for (Job job : running) {
+      String share = shareOf(job);
+      Integer n = numRunning.get(share);
+      numRunning.put(share, n == null ? 1 : n + 1);
+    }
+
+    // shares that can run a job, in the order of their first waiting job
+    Map<String, Job> candidates = new LinkedHashMap<String, Job>();
+    for (Job job : waiting) {
+      String share = shareOf(job);
+      Integer n = numRunning.get(share);
+      if (maxConcurrencyPerShare > 0 && n != null && n >= maxConcurrencyPerShare) {
+        continue;
+      }
+      Job candidate = candidates.get(share);
+      if (candidate == null || job.getPriority() > candidate.getPriority()) {
+        candidates.put(share, job);
+      }
+    }
+    if (candidates.isEmpty()) {
+      return null;
+    }
+
+    // forget shares that have nothing to run, so they don't come back with a burst
+    Iterator<String> it = currentWeights.keySet().iterator();
+    while (it.hasNext()) {
+      if (!candidates.containsKey(it.next())) {
+        it.remove();
+      }
+    }
+    it = lastServed.keySet().iterator();
+    while (it.hasNext()) {
+      String share = it.next();
+      if (!candidates.containsKey(share) && !numRunning.containsKey(share)) {
+        it.remove();
+      }
+    }
+
+    String picked = null;
+    int pickedWeight = 0;
+    int totalWeight = 0;
+    for (String share : candidates.keySet()) {
+      int weight = getWeight(share);
+      Integer current = currentWeights.get(share);
+      current = (current == null ? 0 : current) + weight;
+      currentWeights.put(share, current);
+      totalWeight += weight;
+      if (picked == null || current > pickedWeight
+          || (current == pickedWeight && servedAt(share) < servedAt(picked))) {
+        picked = share;
+        pickedWeight = current;
+      }
+    }
+    currentWeights.put(picked, pickedWeight - totalWeight);
+    lastServed.put(picked, ++numServed);
+
+    Job job = candidates.get(picked);
+    waiting.remove(job);
+    return job;
+  }
+
+  private long servedAt(String share) {
+    Long served = lastServed.get(share);
+    return served == null ? 0 : served;
+  }
+
+  private String shareOf(Job job) {
+    return job.getShare() == null ? DEFAULT_SHARE : job.getShare();
+  }
+}
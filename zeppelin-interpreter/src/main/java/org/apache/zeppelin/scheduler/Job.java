@@ -80,12 +80,20 @@ public abstract class Job {
 
   static Logger LOGGER = LoggerFactory.getLogger(Job.class);
 
+  public static final int PRIORITY_DEFAULT = 0;
+  // share of jobs run by cron
+  public static final String SHARE_CRON = "cron";
+
   transient boolean aborted = false;
 
   String errorMessage;
   private transient Throwable exception;
   private transient JobListener listener;
   private long progressUpdateIntervalMs;
+  // share of the job on fair-share scheduler. usually the user who runs the job
+  private transient String share;
+  // among the jobs of the same share, jobs of higher priority run first on fair-share scheduler
+  private transient int priority = PRIORITY_DEFAULT;
 
   public Job(String jobName, JobListener listener, long progressUpdateIntervalMs) {
     this.jobName = jobName;
@@ -100,11 +108,11 @@ public abstract class Job {
   }
 
   public Job(String jobName, JobListener listener) {
-    this(jobName, listener, JobProgressPoller.DEFAULT_INTERVAL_MSEC);
+    this(jobName, listener, JobProgressService.DEFAULT_INTERVAL_MSEC);
   }
 
   public Job(String jobId, String jobName, JobListener listener) {
-    this(jobId, jobName, listener, JobProgressPoller.DEFAULT_INTERVAL_MSEC);
+    this(jobId, jobName, listener, JobProgressService.DEFAULT_INTERVAL_MSEC);
   }
 
   public Job(String jobId, String jobName, JobListener listener, long progressUpdateIntervalMs) {
@@ -168,31 +176,28 @@ public abstract class Job {
   }
 
   public void run() {
-    JobProgressPoller progressUpdator = null;
+    JobProgressService progressService = JobProgressService.singleton();
     try {
-      progressUpdator = new JobProgressPoller(this, progressUpdateIntervalMs);
-      progressUpdator.start();
+      progressService.register(this, progressUpdateIntervalMs);
       dateStarted = new Date();
       result = jobRun();
       this.exception = null;
       errorMessage = null;
       dateFinished = new Date();
-      progressUpdator.terminate();
     } catch (NullPointerException e) {
       LOGGER.error("Job failed", e);
-      progressUpdator.terminate();
       this.exception = e;
       result = e.getMessage();
       errorMessage = getStack(e);
       dateFinished = new Date();
     } catch (Throwable e) {
       LOGGER.error("Job failed", e);
-      progressUpdator.terminate();
       this.exception = e;
       result = e.getMessage();
       errorMessage = getStack(e);
       dateFinished = new Date();
     } finally {
+      progressService.unregister(this);
       //aborted = false;
     }
   }
@@ -243,6 +248,26 @@ public abstract class Job {
     return aborted;
   }
 
+  public String getShare() {
+    return share;
+  }
+
+  /**
+   * @param share jobs are scheduled fairly across shares by fair-share scheduler.
+   *              null for the default share
+   */
+  public void setShare(String share) {
+    this.share = share;
+  }
+
+  public int getPriority() {
+    return priority;
+  }
+
+  public void setPriority(int priority) {
+    this.priority = priority;
+  }
+
   public Date getDateCreated() {
     return dateCreated;
   }
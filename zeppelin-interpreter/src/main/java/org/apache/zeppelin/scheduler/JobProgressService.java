@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.scheduler;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Polls progress of all running jobs from a single shared thread.
+ *
+ * Jobs are polled on ticks aligned to their interval, so jobs with the same interval are
+ * polled on the same tick and a ProgressPrefetcher can fetch progress of all of them
+ * in a single call. JobListener.onProgressUpdate() is called only when progress is changed.
+ * Prefetchers run asynchronously, so a slow one does not delay polling of the other jobs.
+ */
+public class JobProgressService {
+  public static final long DEFAULT_INTERVAL_MSEC = 500;
+  public static final long DEFAULT_TICK_MSEC = 100;
+  private static final int PREFETCH_THREADS = 10;
+  private static final Logger logger = LoggerFactory.getLogger(JobProgressService.class);
+  private static JobProgressService singleton;
+
+  /**
+   * Fetches progress of many jobs at once, before progress of each job is polled.
+   */
+  public interface ProgressPrefetcher {
+    /**
+     * @return true if progress of the job is fetched by this prefetcher
+     */
+    boolean ownsJob(Job job);
+
+    void prefetchProgress();
+  }
+
+  private final long tickMs;
+  private final Map<Job, PolledJob> jobs = new IdentityHashMap<Job, PolledJob>();
+  private final Set<ProgressPrefetcher> prefetchers =
+      Collections.newSetFromMap(new ConcurrentHashMap<ProgressPrefetcher, Boolean>());
+  // prefetchers running now. not started again until they finish
+  private final Set<ProgressPrefetcher> runningPrefetchers =
+      Collections.newSetFromMap(new ConcurrentHashMap<ProgressPrefetcher, Boolean>());
+  private final Executor prefetchExecutor;
+  private ScheduledExecutorService executor;
+  // accessed only from the executor thread
+  private long tick = 0;
+
+  public static synchronized JobProgressService singleton() {
+    if (singleton == null) {
+      singleton = new JobProgressService(DEFAULT_TICK_MSEC);
+    }
+    return singleton;
+  }
+
+  JobProgressService(long tickMs) {
+    this(tickMs,
+        ExecutorFactory.singleton().createOrGet("JobProgressService-prefetch", PREFETCH_THREADS));
+  }
+
+  JobProgressService(long tickMs, Executor prefetchExecutor) {
+    this.tickMs = tickMs;
+    this.prefetchExecutor = prefetchExecutor;
+  }
+
+  /**
+   * Poll progress of the job until unregister() is called.
+   * @param intervalMs polling interval. 0 for default interval, negative value to not poll
+   */
+  public void register(Job job, long intervalMs) {
+    if (intervalMs < 0) {
+      return;
+    } else if (intervalMs == 0) {
+      intervalMs = DEFAULT_INTERVAL_MSEC;
+    }
+
+    long ticks = Math.max(1, (intervalMs + tickMs - 1) / tickMs);
+    synchronized (jobs) {
+      jobs.put(job, new PolledJob(ticks));
+      if (executor == null) {
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+          @Override
+          public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "JobProgressService");
+            t.setDaemon(true);
+            return t;
+          }
+        });
+        executor.scheduleWithFixedDelay(new Runnable() {
+          @Override
+          public void run() {
+            tick();
+          }
+        }, tickMs, tickMs, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  public void unregister(Job job) {
+    synchronized (jobs) {
+      jobs.remove(job);
+    }
+  }
+
+  public void addPrefetcher(ProgressPrefetcher prefetcher) {
+    prefetchers.add(prefetcher);
+  }
+
+  public void removePrefetcher(ProgressPrefetcher prefetcher) {
+    prefetchers.remove(prefetcher);
+  }
+
+  public int getNumJobs() {
+    synchronized (jobs) {
+      return jobs.size();
+    }
+  }
+
+  void tick() {
+    tick++;
+    List<Map.Entry<Job, PolledJob>> due = new LinkedList<Map.Entry<Job, PolledJob>>();
+    synchronized (jobs) {
+      for (Map.Entry<Job, PolledJob> e : jobs.entrySet()) {
+        if (tick % e.getValue().ticks == 0) {
+          due.add(e);
+        }
+      }
+    }
+    if (due.isEmpty()) {
+      return;
+    }
+
+    for (ProgressPrefetcher prefetcher : prefetchers) {
+      if (ownsAnyJob(prefetcher, due)) {
+        prefetch(prefetcher);
+      }
+    }
+
+    for (Map.Entry<Job, PolledJob> e : due) {
+      Job job = e.getKey();
+      PolledJob polled = e.getValue();
+      JobListener listener = job.getListener();
+      if (listener == null || !job.isRunning()) {
+        continue;
+      }
+
+      try {
+        int progress = job.progress();
+        if (progress != polled.lastProgress) {
+          polled.lastProgress = progress;
+          listener.onProgressUpdate(job, progress);
+        }
+      } catch (Exception ex) {
+        logger.error("Can not get or update progress", ex);
+      }
+    }
+  }
+
+  private boolean ownsAnyJob(ProgressPrefetcher prefetcher, List<Map.Entry<Job, PolledJob>> due) {
+    for (Map.Entry<Job, PolledJob> e : due) {
+      if (prefetcher.ownsJob(e.getKey())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Progress fetched by the prefetcher is polled on the next due tick when it does not
+   * finish within this tick.
+   */
+  private void prefetch(final ProgressPrefetcher prefetcher) {
+    if (!runningPrefetchers.add(prefetcher)) {
+      logger.debug("Previous prefetch is not finished yet");
+      return;
+    }
+
+    try {
+      prefetchExecutor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            prefetcher.prefetchProgress();
+          } catch (Exception e) {
+            logger.error("Can not prefetch progress", e);
+          } finally {
+            runningPrefetchers.remove(prefetcher);
+          }
+        }
+      });
+    } catch (RuntimeException e) {
+      runningPrefetchers.remove(prefetcher);
+      logger.error("Can not prefetch progress", e);
+    }
+  }
+
+  private static class PolledJob {
+    final long ticks;
+    int lastProgress = -1;
+
+    PolledJob(long ticks) {
+      this.ticks = ticks;
+    }
+  }
+}
@@ -35,18 +35,29 @@ public class ParallelScheduler implements Scheduler {
   List<Job> running = new LinkedList<Job>();
   private ExecutorService executor;
   private SchedulerListener listener;
-  boolean terminate = false;
+  volatile boolean terminate = false;
   private String name;
   private int maxConcurrency;
+  // guarded by queue. null for FIFO
+  private FairShare fairShare;
 
   static Logger LOGGER = LoggerFactory.getLogger(ParallelScheduler.class);
 
   public ParallelScheduler(String name, ExecutorService executor, SchedulerListener listener,
       int maxConcurrency) {
+    this(name, executor, listener, maxConcurrency, null);
+  }
+
+  /**
+   * @param fairShare share waiting jobs fairly across users. null to run jobs in submit order
+   */
+  public ParallelScheduler(String name, ExecutorService executor, SchedulerListener listener,
+      int maxConcurrency, FairShare fairShare) {
     this.name = name;
     this.executor = executor;
     this.listener = listener;
     this.maxConcurrency = maxConcurrency;
+    this.fairShare = fairShare;
   }
 
   @Override
@@ -98,37 +109,41 @@ public class ParallelScheduler implements Scheduler {
     job.setStatus(Status.PENDING);
     synchronized (queue) {
       queue.add(job);
-      queue.notify();
+      dispatch();
     }
   }
 
+  /**
+   * Jobs are dispatched when they are submitted, when a running job finishes
+   * or when max concurrency is changed. Nothing to run in a separate thread.
+   */
   @Override
   public void run() {
-    while (terminate == false) {
-      Job job = null;
-      synchronized (queue) {
-        if (running.size() >= maxConcurrency || queue.isEmpty() == true) {
-          try {
-            queue.wait(500);
-          } catch (InterruptedException e) {
-            LOGGER.error("Exception in MockInterpreterAngular while interpret queue.wait", e);
-          }
-          continue;
-        }
+    synchronized (queue) {
+      dispatch();
+    }
+  }
 
-        job = queue.remove(0);
-        running.add(job);
+  /**
+   * Run waiting jobs up to max concurrency. Caller holds the queue lock.
+   */
+  private void dispatch() {
+    Scheduler scheduler = this;
+    while (terminate == false && running.size() < maxConcurrency && queue.isEmpty() == false) {
+      Job job = fairShare == null ? queue.remove(0) : fairShare.next(queue, running);
+      if (job == null) {
+        // all waiting jobs are of shares running max concurrent jobs
+        return;
       }
-      Scheduler scheduler = this;
-
+      running.add(job);
       executor.execute(new JobRunner(scheduler, job));
     }
   }
 
   public void setMaxConcurrency(int maxConcurrency) {
-    this.maxConcurrency = maxConcurrency;
     synchronized (queue) {
-      queue.notify();
+      this.maxConcurrency = maxConcurrency;
+      dispatch();
     }
   }
 
@@ -143,15 +158,21 @@ public class ParallelScheduler implements Scheduler {
 
     @Override
     public void run() {
-      if (job.isAborted()) {
-        job.setStatus(Status.ABORT);
-        job.aborted = false;
-
+      // next job runs even when the job or a listener throws
+      try {
+        runJob();
+      } finally {
         synchronized (queue) {
           running.remove(job);
-          queue.notify();
+          dispatch();
         }
+      }
+    }
 
+    private void runJob() {
+      if (job.isAborted()) {
+        job.setStatus(Status.ABORT);
+        job.aborted = false;
         return;
       }
 
@@ -176,10 +197,6 @@ public class ParallelScheduler implements Scheduler {
 
       // reset aborted flag to allow retry
       job.aborted = false;
-      synchronized (queue) {
-        running.remove(job);
-        queue.notify();
-      }
     }
   }
 
@@ -187,9 +204,6 @@ public class ParallelScheduler implements Scheduler {
   @Override
   public void stop() {
     terminate = true;
-    synchronized (queue) {
-      queue.notify();
-    }
   }
 
 }
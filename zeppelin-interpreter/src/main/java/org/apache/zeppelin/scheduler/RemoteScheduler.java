@@ -17,11 +17,10 @@
 
 package org.apache.zeppelin.scheduler;
 
-import org.apache.thrift.TException;
 import org.apache.zeppelin.interpreter.InterpreterResult;
 import org.apache.zeppelin.interpreter.InterpreterResult.Code;
 import org.apache.zeppelin.interpreter.remote.RemoteInterpreterProcess;
-import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterService.Client;
+import org.apache.zeppelin.interpreter.remote.RemoteInterpreterProcess.RemoteJobListener;
 import org.apache.zeppelin.scheduler.Job.Status;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,71 +29,86 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * RemoteScheduler runs in ZeppelinServer and proxies Scheduler running on RemoteInterpreter
  */
 public class RemoteScheduler implements Scheduler {
+  // how long a result waits for the event telling its job finished in the remote process
+  private static final long FINISH_EVENT_WAIT_MSEC = 5 * 1000;
+
   Logger logger = LoggerFactory.getLogger(RemoteScheduler.class);
 
   List<Job> queue = new LinkedList<Job>();
   List<Job> running = new LinkedList<Job>();
   private ExecutorService executor;
   private SchedulerListener listener;
-  boolean terminate = false;
+  volatile boolean terminate = false;
   private String name;
   private int maxConcurrency;
   private final String noteId;
   private RemoteInterpreterProcess interpreterProcess;
+  // guarded by queue
+  private JobRunner lastJobRunner;
+  // guarded by queue. null for FIFO
+  private FairShare fairShare;
 
   public RemoteScheduler(String name, ExecutorService executor, String noteId,
       RemoteInterpreterProcess interpreterProcess, SchedulerListener listener,
       int maxConcurrency) {
+    this(name, executor, noteId, interpreterProcess, listener, maxConcurrency, null);
+  }
+
+  /**
+   * @param fairShare share waiting jobs fairly across users. null to run jobs in submit order
+   */
+  public RemoteScheduler(String name, ExecutorService executor, String noteId,
+      RemoteInterpreterProcess interpreterProcess, SchedulerListener listener,
+      int maxConcurrency, FairShare fairShare) {
     this.name = name;
     this.executor = executor;
     this.listener = listener;
     this.noteId = noteId;
     this.interpreterProcess = interpreterProcess;
     this.maxConcurrency = maxConcurrency;
+    this.fairShare = fairShare;
   }
 
+  /**
+   * Jobs are dispatched when they are submitted, when the last dispatched job is submitted to
+   * the remote process, when a job finishes or when max concurrency is changed.
+   * Nothing to run in a separate thread.
+   */
   @Override
   public void run() {
-    while (terminate == false) {
-      Job job = null;
-
-      synchronized (queue) {
-        if (running.size() >= maxConcurrency || queue.isEmpty() == true) {
-          try {
-            queue.wait(500);
-          } catch (InterruptedException e) {
-            logger.error("Exception in RemoteScheduler while run queue.wait", e);
-          }
-          continue;
-        }
-
-        job = queue.remove(0);
-        running.add(job);
-      }
+    synchronized (queue) {
+      dispatch();
+    }
+  }
 
-      // run
-      Scheduler scheduler = this;
-      JobRunner jobRunner = new JobRunner(scheduler, job);
-      executor.execute(jobRunner);
+  /**
+   * Run the next job. The next job waits until the last one is submitted to the remote,
+   * to keep the order of jobs. Caller holds the queue lock.
+   */
+  private void dispatch() {
+    if (terminate == true || running.size() >= maxConcurrency || queue.isEmpty() == true
+        || (lastJobRunner != null && !lastJobRunner.isJobSubmittedInRemote())) {
+      return;
+    }
 
-      // wait until it is submitted to the remote
-      while (!jobRunner.isJobSubmittedInRemote()) {
-        synchronized (queue) {
-          try {
-            queue.wait(500);
-          } catch (InterruptedException e) {
-            logger.error("Exception in RemoteScheduler while jobRunner.isJobSubmittedInRemote " +
-                "queue.wait", e);
-          }
-        }
-      }
+    Job job = fairShare == null ? queue.remove(0) : fairShare.next(queue, running);
+    if (job == null) {
+      // all waiting jobs are of shares running max concurrent jobs
+      return;
     }
+    running.add(job);
+
+    Scheduler scheduler = this;
+    lastJobRunner = new JobRunner(scheduler, job, lastJobRunner);
+    executor.execute(lastJobRunner);
   }
 
   @Override
@@ -148,153 +162,36 @@ public class RemoteScheduler implements Scheduler {
 
     synchronized (queue) {
       queue.add(job);
-      queue.notify();
+      dispatch();
     }
   }
 
   public void setMaxConcurrency(int maxConcurrency) {
-    this.maxConcurrency = maxConcurrency;
     synchronized (queue) {
-      queue.notify();
+      this.maxConcurrency = maxConcurrency;
+      dispatch();
     }
   }
 
   /**
-   * Role of the class is get status info from remote process from PENDING to
-   * RUNNING status.
+   * Runs a job and follows its status in the remote process through events,
+   * from PENDING to RUNNING status.
    */
-  private class JobStatusPoller extends Thread {
-    private long initialPeriodMsec;
-    private long initialPeriodCheckIntervalMsec;
-    private long checkIntervalMsec;
-    private boolean terminate;
-    private JobListener listener;
-    private Job job;
-    Status lastStatus;
-
-    public JobStatusPoller(long initialPeriodMsec,
-        long initialPeriodCheckIntervalMsec, long checkIntervalMsec, Job job,
-        JobListener listener) {
-      this.initialPeriodMsec = initialPeriodMsec;
-      this.initialPeriodCheckIntervalMsec = initialPeriodCheckIntervalMsec;
-      this.checkIntervalMsec = checkIntervalMsec;
-      this.job = job;
-      this.listener = listener;
-      this.terminate = false;
-    }
-
-    @Override
-    public void run() {
-      long started = System.currentTimeMillis();
-      while (terminate == false) {
-        long current = System.currentTimeMillis();
-        long interval;
-        if (current - started < initialPeriodMsec) {
-          interval = initialPeriodCheckIntervalMsec;
-        } else {
-          interval = checkIntervalMsec;
-        }
-
-        synchronized (this) {
-          try {
-            this.wait(interval);
-          } catch (InterruptedException e) {
-            logger.error("Exception in RemoteScheduler while run this.wait", e);
-          }
-        }
-
-        if (terminate) {
-          // terminated by shutdown
-          break;
-        }
-
-        Status newStatus = getStatus();
-        if (newStatus == null) { // unknown
-          continue;
-        }
-
-        if (newStatus != Status.READY && newStatus != Status.PENDING) {
-          // we don't need more
-          break;
-        }
-      }
-      terminate = true;
-    }
-
-    public void shutdown() {
-      terminate = true;
-      synchronized (this) {
-        this.notify();
-      }
-    }
-
-
-    private Status getLastStatus() {
-      if (terminate == true) {
-        if (lastStatus != Status.FINISHED &&
-            lastStatus != Status.ERROR &&
-            lastStatus != Status.ABORT) {
-          return Status.FINISHED;
-        } else {
-          return (lastStatus == null) ? Status.FINISHED : lastStatus;
-        }
-      } else {
-        return (lastStatus == null) ? Status.FINISHED : lastStatus;
-      }
-    }
-
-    public synchronized Job.Status getStatus() {
-      if (interpreterProcess.referenceCount() <= 0) {
-        return getLastStatus();
-      }
-
-      Client client;
-      try {
-        client = interpreterProcess.getClient();
-      } catch (Exception e) {
-        logger.error("Can't get status information", e);
-        lastStatus = Status.ERROR;
-        return Status.ERROR;
-      }
-
-      boolean broken = false;
-      try {
-        String statusStr = client.getStatus(noteId, job.getId());
-        if ("Unknown".equals(statusStr)) {
-          // not found this job in the remote schedulers.
-          // maybe not submitted, maybe already finished
-          //Status status = getLastStatus();
-          listener.afterStatusChange(job, null, null);
-          return job.getStatus();
-        }
-        Status status = Status.valueOf(statusStr);
-        lastStatus = status;
-        listener.afterStatusChange(job, null, status);
-        return status;
-      } catch (TException e) {
-        broken = true;
-        logger.error("Can't get status information", e);
-        lastStatus = Status.ERROR;
-        return Status.ERROR;
-      } catch (Exception e) {
-        logger.error("Unknown status", e);
-        lastStatus = Status.ERROR;
-        return Status.ERROR;
-      } finally {
-        interpreterProcess.releaseClient(client, broken);
-      }
-    }
-  }
-
-  private class JobRunner implements Runnable, JobListener {
+  private class JobRunner implements Runnable, RemoteJobListener {
     private Scheduler scheduler;
     private Job job;
-    private boolean jobExecuted;
+    private volatile boolean jobExecuted;
+    // guarded by queue
     boolean jobSubmittedRemotely;
+    // job dispatched before this one. cleared once this job is done
+    private volatile JobRunner previous;
+    private final CountDownLatch finishedInRemote = new CountDownLatch(1);
+    private final CountDownLatch jobReturned = new CountDownLatch(1);
 
-    public JobRunner(Scheduler scheduler, Job job) {
+    public JobRunner(Scheduler scheduler, Job job, JobRunner previous) {
       this.scheduler = scheduler;
       this.job = job;
+      this.previous = previous;
       jobExecuted = false;
       jobSubmittedRemotely = false;
     }
@@ -303,47 +200,60 @@ public class RemoteScheduler implements Scheduler {
       return jobSubmittedRemotely;
     }
 
+    private void setJobSubmittedInRemote() {
+      synchronized (queue) {
+        jobSubmittedRemotely = true;
+        dispatch();
+      }
+    }
+
     @Override
     public void run() {
-      if (job.isAborted()) {
-        job.setStatus(Status.ABORT);
-        job.aborted = false;
-
+      // next job runs even when the job or a listener throws
+      try {
+        runJob();
+      } finally {
+        jobReturned.countDown();
+        previous = null;
         synchronized (queue) {
           running.remove(job);
-          queue.notify();
+          jobSubmittedRemotely = true;
+          dispatch();
         }
-        jobSubmittedRemotely = true;
-
-        return;
       }
+    }
 
-      JobStatusPoller jobStatusPoller = new JobStatusPoller(1500, 100, 500,
-          job, this);
-      jobStatusPoller.start();
-
-      if (listener != null) {
-        listener.jobStarted(scheduler, job);
+    private void runJob() {
+      if (job.isAborted()) {
+        job.setStatus(Status.ABORT);
+        job.aborted = false;
+        return;
       }
-      job.run();
 
-      jobExecuted = true;
-      jobSubmittedRemotely = true;
-
-      jobStatusPoller.shutdown();
+      interpreterProcess.addJobStatusListener(noteId, job, this);
       try {
-        jobStatusPoller.join();
-      } catch (InterruptedException e) {
-        logger.error("JobStatusPoller interrupted", e);
+        if (listener != null) {
+          listener.jobStarted(scheduler, job);
+        }
+        job.run();
+      } finally {
+        jobReturned.countDown();
+        interpreterProcess.removeJobStatusListener(noteId, job);
       }
+      jobExecuted = true;
 
       // set job status based on result.
-      Status lastStatus = jobStatusPoller.getStatus();
+      Status lastStatus;
       Object jobResult = job.getReturn();
-      if (jobResult != null && jobResult instanceof InterpreterResult) {
-        if (((InterpreterResult) jobResult).code() == Code.ERROR) {
-          lastStatus = Status.ERROR;
-        }
+      if (job.isAborted()) {
+        lastStatus = Status.ABORT;
+      } else if (job.getException() != null) {
+        lastStatus = Status.ERROR;
+      } else if (jobResult != null && jobResult instanceof InterpreterResult
+          && ((InterpreterResult) jobResult).code() == Code.ERROR) {
+        lastStatus = Status.ERROR;
+      } else {
+        lastStatus = Status.FINISHED;
       }
       job.setStatus(lastStatus);
 
@@ -353,10 +263,21 @@ public class RemoteScheduler implements Scheduler {
 
       // reset aborted flag to allow retry
       job.aborted = false;
+    }
 
-      synchronized (queue) {
-        running.remove(job);
-        queue.notify();
+    /**
+     * A job that finished in the remote process after the previous job returns after it, e.g.
+     * when the process runs jobs one by one. Jobs still running in the remote process are not
+     * waited for, so jobs of a parallel process return as they finish.
+     */
+    @Override
+    public void onResultTaken(Job job) throws InterruptedException {
+      // finish events arrive in the order jobs finish, and the result can be taken before
+      // the event of this job
+      finishedInRemote.await(FINISH_EVENT_WAIT_MSEC, TimeUnit.MILLISECONDS);
+      JobRunner previousRunner = previous;
+      if (previousRunner != null && previousRunner.finishedInRemote.getCount() == 0) {
+        previousRunner.jobReturned.await();
       }
     }
 
@@ -368,55 +289,31 @@ public class RemoteScheduler implements Scheduler {
     public void beforeStatusChange(Job job, Status before, Status after) {
     }
 
+    /**
+     * Status change of the job in the remote process
+     */
     @Override
     public void afterStatusChange(Job job, Status before, Status after) {
-      if (after == null) { // unknown. maybe before sumitted remotely, maybe already finished.
-        if (jobExecuted) {
-          jobSubmittedRemotely = true;
-          Object jobResult = job.getReturn();
-          if (job.isAborted()) {
-            job.setStatus(Status.ABORT);
-          } else if (job.getException() != null) {
-            job.setStatus(Status.ERROR);
-          } else if (jobResult != null && jobResult instanceof InterpreterResult
-              && ((InterpreterResult) jobResult).code() == Code.ERROR) {
-            job.setStatus(Status.ERROR);
-          } else {
-            job.setStatus(Status.FINISHED);
-          }
-        }
+      // PENDING in the remote scheduler is the same as local status.
+      // FINISHED, ABORT and ERROR are decided by the result, once job.run() returns.
+      if (after == Status.FINISHED || after == Status.ERROR || after == Status.ABORT) {
+        finishedInRemote.countDown();
         return;
       }
-
-
-      // Update remoteStatus
-      if (jobExecuted == false) {
-        if (after == Status.FINISHED || after == Status.ABORT
-            || after == Status.ERROR) {
-          // it can be status of last run.
-          // so not updating the remoteStatus
-          return;
-        } else if (after == Status.RUNNING) {
-          jobSubmittedRemotely = true;
-        }
-      } else {
-        jobSubmittedRemotely = true;
+      if (after != Status.RUNNING || jobExecuted) {
+        return;
       }
 
-      // status polled by status poller
       if (job.getStatus() != after) {
         job.setStatus(after);
       }
+      setJobSubmittedInRemote();
     }
   }
 
   @Override
   public void stop() {
     terminate = true;
-    synchronized (queue) {
-      queue.notify();
-    }
-
   }
 
 }
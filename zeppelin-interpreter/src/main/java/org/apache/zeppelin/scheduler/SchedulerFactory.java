@@ -29,7 +29,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * TODO(moon) : add description.
+ * Creates schedulers. Schedulers share one executor that runs their jobs.
+ * Schedulers dispatch jobs on events and hold no thread while they are idle.
  */
 public class SchedulerFactory implements SchedulerListener {
   private static final Logger logger = LoggerFactory.getLogger(SchedulerFactory.class);
@@ -67,18 +68,24 @@ public class SchedulerFactory implements SchedulerListener {
       if (schedulers.containsKey(name) == false) {
         Scheduler s = new FIFOScheduler(name, executor, this);
         schedulers.put(name, s);
-        executor.execute(s);
       }
       return schedulers.get(name);
     }
   }
 
   public Scheduler createOrGetParallelScheduler(String name, int maxConcurrency) {
+    return createOrGetParallelScheduler(name, maxConcurrency, null);
+  }
+
+  /**
+   * @param fairShare share waiting jobs fairly across users. null to run jobs in submit order
+   */
+  public Scheduler createOrGetParallelScheduler(String name, int maxConcurrency,
+      FairShare fairShare) {
     synchronized (schedulers) {
       if (schedulers.containsKey(name) == false) {
-        Scheduler s = new ParallelScheduler(name, executor, this, maxConcurrency);
+        Scheduler s = new ParallelScheduler(name, executor, this, maxConcurrency, fairShare);
         schedulers.put(name, s);
-        executor.execute(s);
       }
       return schedulers.get(name);
     }
@@ -89,6 +96,18 @@ public class SchedulerFactory implements SchedulerListener {
       String noteId,
       RemoteInterpreterProcess interpreterProcess,
       int maxConcurrency) {
+    return createOrGetRemoteScheduler(name, noteId, interpreterProcess, maxConcurrency, null);
+  }
+
+  /**
+   * @param fairShare share waiting jobs fairly across users. null to run jobs in submit order
+   */
+  public Scheduler createOrGetRemoteScheduler(
+      String name,
+      String noteId,
+      RemoteInterpreterProcess interpreterProcess,
+      int maxConcurrency,
+      FairShare fairShare) {
 
     synchronized (schedulers) {
       if (schedulers.containsKey(name) == false) {
@@ -98,9 +117,9 @@ public class SchedulerFactory implements SchedulerListener {
             noteId,
             interpreterProcess,
             this,
-            maxConcurrency);
+            maxConcurrency,
+            fairShare);
         schedulers.put(name, s);
-        executor.execute(s);
       }
       return schedulers.get(name);
     }
@@ -35,7 +35,8 @@ struct RemoteInterpreterResult {
   2: string type,
   3: string msg,
   4: string config,   // json serialized config
-  5: string gui       // json serialized gui
+  5: string gui,      // json serialized gui
+  6: optional binary table  // ColumnarTable of TABLE result. msg is empty when set
 }
 
 enum RemoteInterpreterEventType {
@@ -48,12 +49,19 @@ enum RemoteInterpreterEventType {
   RESOURCE_GET = 7
   OUTPUT_APPEND = 8,
   OUTPUT_UPDATE = 9,
-  ANGULAR_REGISTRY_PUSH=10
+  ANGULAR_REGISTRY_PUSH=10,
+  INTERPRET_RESULT_READY=11,
+  JOB_STATUS_CHANGE=12,
+  RESOURCE_POOL_ADD=13,
+  RESOURCE_POOL_REMOVE=14,
+  RESOURCE_LOOKUP=15
 }
 
 struct RemoteInterpreterEvent {
   1: RemoteInterpreterEventType type,
-  2: string data      // json serialized data
+  2: string data,     // json serialized data
+  // set on events that expect a response. the response carries the same id
+  3: optional string requestId
 }
 
 service RemoteInterpreterService {
@@ -88,4 +96,32 @@ service RemoteInterpreterService {
   void angularObjectAdd(1: string name, 2: string noteId, 3: string paragraphId, 4: string object);
   void angularObjectRemove(1: string name, 2: string noteId, 3: string paragraphId);
   void angularRegistryPush(1: string registry);
+
+  // drain up to maxBatch events, waiting at most maxWaitMs for the first one
+  list<RemoteInterpreterEvent> getEvents(1: i32 maxBatch, 2: i32 maxWaitMs);
+
+  // submit a paragraph and return the job id without waiting for the result
+  string submit(1: string noteId, 2: string className, 3: string st, 4: RemoteInterpreterContext interpreterContext);
+  // result of the submitted job. empty list when job is not finished within timeoutMs
+  list<RemoteInterpreterResult> awaitResult(1: string jobId, 2: i32 timeoutMs);
+
+  // check the connection
+  void ping();
+
+  // progress of submitted jobs, keyed by job id. jobs not running are omitted
+  map<string, i32> getProgressBatch(1: list<string> jobIds);
+
+  // open a stream of serialized value of resource. empty string when the resource is not found
+  // or can not be serialized
+  string resourceStreamOpen(1: string noteId, 2: string paragraphId, 3: string resourceName);
+  // next chunk of the stream. empty at the end of the stream.
+  // fails when the resource could not be serialized
+  binary resourceStreamRead(1: string streamId);
+  // as a response of RESOURCE_GET, ZeppelinServer send serialized value of resource in chunks.
+  // error is set on the last chunk when the resource could not be sent completely
+  void resourceResponseGetChunk(1: string requestId, 2: binary chunk, 3: bool last,
+      4: string error);
+  // as a response of RESOURCE_LOOKUP and RESOURCE_POOL_GET_ALL, ZeppelinServer send resources
+  // found and location of interpreter processes holding them, keyed by resource pool id
+  void resourceResponseLookup(1: string requestId, 2: list<string> resources, 3: map<string, string> locations);
 }
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.completer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SchemaMetadataCacheTest {
+
+  private static final String URL = "jdbc:postgresql://localhost/db?password=secret";
+
+  private File dir;
+
+  @Before
+  public void setUp() throws IOException {
+    dir = Files.createTempDirectory("schema-metadata-cache-").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    for (File file : dir.listFiles()) {
+      file.delete();
+    }
+    dir.delete();
+  }
+
+  private static Set<String> names(String... names) {
+    return new HashSet<String>(Arrays.asList(names));
+  }
+
+  @Test
+  public void testSaveAndLoad() {
+    SchemaMetadataCache cache = new SchemaMetadataCache(dir, URL, "user", 60 * 1000);
+    cache.put("sales", names("sales.", "orders", "order_id"));
+    cache.put("hr", names("hr.", "employees"));
+    cache.remove("hr");
+    cache.save();
+    assertTrue(cache.getFile().isFile());
+
+    SchemaMetadataCache loaded = new SchemaMetadataCache(dir, URL, "user", 60 * 1000);
+    loaded.load();
+    assertEquals(1, loaded.getAll().size());
+    assertEquals(names("sales.", "orders", "order_id"), loaded.getAll().get("sales"));
+    assertFalse(loaded.isExpired("sales"));
+    assertTrue(loaded.isExpired("hr"));
+  }
+
+  @Test
+  public void testCachePerUrlAndUser() {
+    SchemaMetadataCache cache = new SchemaMetadataCache(dir, URL, "user", 60 * 1000);
+    cache.put("sales", names("orders"));
+    cache.save();
+
+    SchemaMetadataCache otherUser = new SchemaMetadataCache(dir, URL, "other", 60 * 1000);
+    otherUser.load();
+    assertTrue(otherUser.getAll().isEmpty());
+
+    SchemaMetadataCache otherUrl = new SchemaMetadataCache(dir, URL + "2", "user", 60 * 1000);
+    otherUrl.load();
+    assertTrue(otherUrl.getAll().isEmpty());
+  }
+
+  @Test
+  public void testExpiredSchemaIsKept() {
+    SchemaMetadataCache cache = new SchemaMetadataCache(dir, URL, "user", 0);
+    cache.put("sales", names("orders"));
+    cache.save();
+
+    cache.load();
+    // expired names are still completed until the schema is read again
+    assertTrue(cache.isExpired("sales"));
+    assertEquals(names("orders"), cache.getAll().get("sales"));
+  }
+
+  @Test
+  public void testUrlNotWritten() throws IOException {
+    SchemaMetadataCache cache = new SchemaMetadataCache(dir, URL, "user", 60 * 1000);
+    cache.put("sales", names("orders"));
+    cache.save();
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (InputStream in = new GZIPInputStream(new FileInputStream(cache.getFile()))) {
+      IOUtils.copy(in, bytes);
+    }
+    String content = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    assertTrue(content.contains("orders"));
+    assertFalse(content.contains("secret"));
+    assertFalse(cache.getFile().getName().contains("secret"));
+  }
+
+  @Test
+  public void testReadableByOwnerOnly() throws IOException {
+    File cacheDir = new File(dir, "jdbc");
+    SchemaMetadataCache cache = new SchemaMetadataCache(cacheDir, URL, "user", 60 * 1000);
+    cache.put("sales", names("orders"));
+    cache.save();
+
+    if (Files.getFileAttributeView(dir.toPath(), PosixFileAttributeView.class) != null) {
+      assertEquals("rwx------", PosixFilePermissions.toString(
+          Files.getPosixFilePermissions(cacheDir.toPath())));
+      assertEquals("rw-------", PosixFilePermissions.toString(
+          Files.getPosixFilePermissions(cache.getFile().toPath())));
+    }
+    cache.getFile().delete();
+    cacheDir.delete();
+  }
+
+  @Test
+  public void testNoDirectory() {
+    SchemaMetadataCache cache = new SchemaMetadataCache(null, URL, "user", 60 * 1000);
+    cache.put("sales", names("orders"));
+    cache.save();
+    cache.load();
+    assertTrue(cache.getAll().isEmpty());
+    assertEquals(0, dir.listFiles().length);
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.interpreter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.zeppelin.interpreter.ColumnarTable.ColumnType;
+import org.apache.zeppelin.interpreter.ColumnarTable.Vector;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+public class ColumnarTableTest {
+
+  private ColumnarTable createTable(int chunkSize) {
+    return new ColumnarTable.Builder(chunkSize)
+        .addColumn("name", ColumnType.STRING)
+        .addColumn("count", ColumnType.LONG)
+        .addColumn("avg", ColumnType.DOUBLE)
+        .addColumn("valid", ColumnType.BOOLEAN)
+        .addRow("a", 1L, 1.5, true)
+        .addRow("b", null, 2.0, false)
+        .addRow(null, -3, null, null)
+        .build();
+  }
+
+  @Test
+  public void testBuildAndGet() {
+    ColumnarTable table = createTable(2);
+    assertEquals(3, table.getRowCount());
+    assertEquals(2, table.getChunks().size());
+    assertEquals("count", table.getColumns().get(1).getName());
+    assertEquals(ColumnType.LONG, table.getColumns().get(1).getType());
+
+    assertEquals("a", table.getValue(0, 0));
+    assertEquals(1L, table.getValue(0, 1));
+    assertEquals(1.5, table.getValue(0, 2));
+    assertEquals(true, table.getValue(0, 3));
+    assertNull(table.getValue(1, 1));
+    assertNull(table.getValue(2, 0));
+    assertEquals(-3L, table.getValue(2, 1));
+  }
+
+  @Test
+  public void testToText() {
+    ColumnarTable table = new ColumnarTable.Builder()
+        .addColumn("col\t1", ColumnType.STRING)
+        .addColumn("col2", ColumnType.LONG)
+        .addRow("multi\nline", 1L)
+        .addRow(null, null)
+        .build();
+    assertEquals("col 1\tcol2\nmulti line\t1\nnull\tnull\n", table.toText());
+  }
+
+  @Test
+  public void testComment() {
+    ColumnarTable table = new ColumnarTable.Builder()
+        .addColumn("col1", ColumnType.LONG)
+        .addRow(1L)
+        .setComment("<font color=red>Results are limited by 1.</font>")
+        .build();
+    assertEquals("col1\n1\n\n<font color=red>Results are limited by 1.</font>", table.toText());
+    assertEquals(table.getComment(), ColumnarTable.fromBytes(table.toBytes()).getComment());
+  }
+
+  @Test
+  public void testFallbackToStrings() {
+    ColumnarTable table = new ColumnarTable.Builder()
+        .addColumn("big", ColumnType.LONG)
+        .addColumn("nan", ColumnType.DOUBLE)
+        .addRow(Long.MAX_VALUE, Double.NaN)
+        .addRow(1L, 1.0)
+        .build();
+    Vector big = table.chunks.get(0).vectors.get(0);
+    assertNull(big.longs);
+    assertNotNull(big.strings);
+    assertEquals(String.valueOf(Long.MAX_VALUE), table.getValue(0, 0));
+    assertEquals("NaN", table.getValue(0, 1));
+    assertEquals("1", table.getValue(1, 0));
+
+    // all vectors can be written as json
+    new Gson().toJson(table);
+  }
+
+  @Test
+  public void testDictionary() {
+    ColumnarTable.Builder builder = new ColumnarTable.Builder()
+        .addColumn("country", ColumnType.STRING)
+        .addColumn("id", ColumnType.STRING);
+    for (int i = 0; i < 100; i++) {
+      builder.addRow(i % 3 == 0 ? "kr" : "us", "id" + i);
+    }
+    ColumnarTable table = builder.build();
+    Vector country = table.chunks.get(0).vectors.get(0);
+    assertEquals(2, country.dictionary.length);
+    assertNull(country.strings);
+    Vector id = table.chunks.get(0).vectors.get(1);
+    assertNull(id.dictionary);
+    assertEquals("kr", table.getValue(99, 0));
+    assertEquals("us", table.getValue(98, 0));
+  }
+
+  @Test
+  public void testBytes() {
+    ColumnarTable table = createTable(2);
+    byte[] bytes = table.toBytes();
+    ColumnarTable read = ColumnarTable.fromBytes(bytes);
+    assertEquals(table.toText(), read.toText());
+    assertEquals(ColumnType.BOOLEAN, read.getColumns().get(3).getType());
+    for (int row = 0; row < table.getRowCount(); row++) {
+      for (int col = 0; col < table.getColumns().size(); col++) {
+        assertEquals(table.getValue(row, col), read.getValue(row, col));
+      }
+    }
+    assertArrayEquals(bytes, read.toBytes());
+  }
+
+  @Test
+  public void testBytesSmallerThanText() {
+    ColumnarTable.Builder builder = new ColumnarTable.Builder()
+        .addColumn("id", ColumnType.LONG)
+        .addColumn("value", ColumnType.DOUBLE)
+        .addColumn("category", ColumnType.STRING);
+    for (int i = 0; i < 100000; i++) {
+      builder.addRow((long) i, i / 7.0, "category" + (i % 10));
+    }
+    ColumnarTable table = builder.build();
+    assertTrue(table.toBytes().length * 2 < table.toText().length());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFromBrokenBytes() {
+    byte[] bytes = createTable(10).toBytes();
+    byte[] broken = new byte[bytes.length / 2];
+    System.arraycopy(bytes, 0, broken, 0, broken.length);
+    ColumnarTable.fromBytes(broken);
+  }
+
+  @Test
+  public void testInterpreterResult() {
+    ColumnarTable table = createTable(10);
+    InterpreterResult result = InterpreterResult.fromTable(InterpreterResult.Code.SUCCESS, table);
+    assertEquals(InterpreterResult.Type.TABLE, result.type());
+    assertEquals(table.toText(), result.message());
+
+    Gson gson = new Gson();
+    // clients that don't read the columns render the message
+    assertEquals(table.toText(),
+        gson.toJsonTree(result).getAsJsonObject().get("msg").getAsString());
+    InterpreterResult read = gson.fromJson(gson.toJson(result), InterpreterResult.class);
+    assertEquals(InterpreterResult.Type.TABLE, read.type());
+    assertEquals(table.toText(), read.message());
+  }
+}
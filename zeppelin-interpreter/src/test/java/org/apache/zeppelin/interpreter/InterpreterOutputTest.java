@@ -19,6 +19,8 @@ package org.apache.zeppelin.interpreter;
 import static org.junit.Assert.*;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import org.junit.After;
 import org.junit.Before;
@@ -29,12 +31,15 @@ public class InterpreterOutputTest implements InterpreterOutputListener {
   private InterpreterOutput out;
   int numAppendEvent;
   int numUpdateEvent;
+  int appendedLength;
+  String lastUpdate;
 
   @Before
   public void setUp() {
     out = new InterpreterOutput(this);
     numAppendEvent = 0;
     numUpdateEvent = 0;
+    appendedLength = 0;
   }
 
   @After
@@ -109,19 +114,204 @@ public class InterpreterOutputTest implements InterpreterOutputListener {
     assertEquals("hello\n", new String(out.toByteArray()));
   }
 
+  @Test
+  public void testTableTypeStreamed() throws IOException {
+    out.write("%table col1\tcol2\n");
+    assertEquals(InterpreterResult.Type.TABLE, out.getType());
+    assertEquals(1, numAppendEvent);
+    // the gui is told to show the output as a table
+    assertEquals("%table\n", lastUpdate);
+
+    out.write("a\t1\nb\t2\n");
+    assertEquals(3, numAppendEvent);
+    assertEquals("col1\tcol2\na\t1\nb\t2\n", new String(out.toByteArray()));
+  }
+
   @Test
   public void testType2() throws IOException {
     out.write("%html\nHello");
     assertEquals(InterpreterResult.Type.HTML, out.getType());
   }
 
+  @Test
+  public void testWriteByteArrayWithOffset() throws IOException {
+    byte[] b = "skip:hello\nworld\n:skip".getBytes();
+    out.write(b, 5, 12);
+    assertEquals("hello\nworld\n", new String(out.toByteArray()));
+    assertEquals(2, numAppendEvent);
+    assertEquals(1, numUpdateEvent);
+  }
+
+  @Test
+  public void testLimit() throws IOException {
+    out.setLimit(10);
+    out.write("12345\n");
+    assertFalse(out.isTruncated());
+    out.write("6789012345\n");
+    assertTrue(out.isTruncated());
+    String output = new String(out.toByteArray());
+    assertTrue(output.startsWith("12345\n"));
+    assertTrue(output.contains("Truncated"));
+    assertEquals(2, numAppendEvent);
+
+    // output after truncation is dropped
+    out.write("more\n");
+    assertEquals(output, new String(out.toByteArray()));
+    assertEquals(2, numAppendEvent);
+
+    out.clear();
+    assertFalse(out.isTruncated());
+    out.write("hello\n");
+    assertEquals("hello\n", new String(out.toByteArray()));
+  }
+
+  @Test
+  public void testLongLineIsFlushed() throws IOException {
+    byte[] line = new byte[200 * 1024];
+    Arrays.fill(line, (byte) 'a');
+    out.write(line);
+    assertEquals(3, numAppendEvent);
+    assertEquals(3 * 64 * 1024, out.toByteArray().length);
+
+    for (int i = 0; i < 64 * 1024; i++) {
+      out.write('b');
+    }
+    assertEquals(4, numAppendEvent);
+    out.flush();
+    assertEquals(line.length + 64 * 1024, out.toByteArray().length);
+  }
+
+  @Test
+  public void testLongLineIsCutAtCharBoundary() throws IOException {
+    // a 2 bytes character crosses the size limit
+    byte[] a = new byte[64 * 1024 - 1];
+    Arrays.fill(a, (byte) 'a');
+    out.write(a);
+    out.write("\u00e9".getBytes(StandardCharsets.UTF_8));
+    assertEquals(1, numAppendEvent);
+    assertEquals(a.length, appendedLength);
+    out.write("\n");
+    assertEquals(2, numAppendEvent);
+    assertEquals(new String(a, StandardCharsets.UTF_8) + "\u00e9\n",
+        new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+    // byte by byte
+    out.clear();
+    appendedLength = 0;
+    for (byte b : a) {
+      out.write(b);
+    }
+    for (byte b : "\u20ac".getBytes(StandardCharsets.UTF_8)) {
+      out.write(b);
+    }
+    assertEquals(a.length, appendedLength);
+    out.flush();
+    assertEquals(new String(a, StandardCharsets.UTF_8) + "\u20ac",
+        new String(out.toByteArray(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testTypeDetectedOnlyAtLineStart() throws IOException {
+    byte[] a = new byte[64 * 1024];
+    Arrays.fill(a, (byte) 'a');
+    out.write(a);
+    // continues the line flushed at the size limit
+    out.write("%html <b>\n");
+    assertEquals(InterpreterResult.Type.TEXT, out.getType());
+    assertEquals(a.length + "%html <b>\n".length(), out.toByteArray().length);
+
+    out.write("%html <b>\n");
+    assertEquals(InterpreterResult.Type.HTML, out.getType());
+    assertEquals("<b>\n", new String(out.toByteArray()));
+  }
+
+  @Test
+  public void testLastCharBoundary() {
+    byte[] euro = "\u20ac".getBytes(StandardCharsets.UTF_8);
+    assertEquals(0, InterpreterOutput.lastCharBoundary(new byte[0]));
+    assertEquals(1, InterpreterOutput.lastCharBoundary("a".getBytes()));
+    assertEquals(3, InterpreterOutput.lastCharBoundary(euro));
+    assertEquals(1, InterpreterOutput.lastCharBoundary(new byte[]{'a', euro[0]}));
+    assertEquals(1, InterpreterOutput.lastCharBoundary(new byte[]{'a', euro[0], euro[1]}));
+  }
+
+  @Test
+  public void testWriteTable() throws IOException {
+    ColumnarTable table = new ColumnarTable.Builder()
+        .addColumn("col1", ColumnarTable.ColumnType.LONG)
+        .addRow(1L)
+        .build();
+    out.write(table);
+    assertEquals(InterpreterResult.Type.TABLE, out.getType());
+    assertSame(table, out.getTable());
+    assertEquals(0, out.toByteArray().length);
+
+    out.clear();
+    assertNull(out.getTable());
+    assertEquals(InterpreterResult.Type.TEXT, out.getType());
+  }
+
+  @Test
+  public void testWriteTableWithText() throws IOException {
+    ColumnarTable table = new ColumnarTable.Builder()
+        .addColumn("col1", ColumnarTable.ColumnType.LONG)
+        .addRow(1L)
+        .build();
+
+    // text written after a table is kept, and the table is written as text
+    out.clear();
+    out.write(table);
+    assertEquals("%table\n", lastUpdate);
+    out.write("bye\n");
+    assertEquals("", lastUpdate);
+    assertEquals(InterpreterResult.Type.TEXT, out.getType());
+    assertNull(out.getTable());
+    assertEquals("col1\n1\nbye\n", new String(out.toByteArray()));
+  }
+
+  @Test
+  public void testWriteTableAfterText() throws IOException {
+    ColumnarTable table = new ColumnarTable.Builder()
+        .addColumn("col1", ColumnarTable.ColumnType.LONG)
+        .addRow(1L)
+        .build();
+
+    // the table stays typed and replaces the text, as a %table directive does
+    out.write("hello\n");
+    out.write(table);
+    assertEquals(InterpreterResult.Type.TABLE, out.getType());
+    assertSame(table, out.getTable());
+    assertEquals(0, out.toByteArray().length);
+    // the text shown so far is cleared on the gui
+    assertEquals(2, numUpdateEvent);
+  }
+
+  @Test
+  public void testWriteTwoTables() throws IOException {
+    ColumnarTable table1 = new ColumnarTable.Builder()
+        .addColumn("col1", ColumnarTable.ColumnType.LONG)
+        .addRow(1L)
+        .build();
+    ColumnarTable table2 = new ColumnarTable.Builder()
+        .addColumn("col2", ColumnarTable.ColumnType.STRING)
+        .addRow("a")
+        .setComment("limited")
+        .build();
+    out.write(table1);
+    out.write(table2);
+    assertNull(out.getTable());
+    assertEquals("col1\n1\ncol2\na\n\nlimited\n", new String(out.toByteArray()));
+  }
+
   @Override
   public void onAppend(InterpreterOutput out, byte[] line) {
     numAppendEvent++;
+    appendedLength += line.length;
   }
 
   @Override
   public void onUpdate(InterpreterOutput out, byte[] output) {
     numUpdateEvent++;
+    lastUpdate = new String(output, StandardCharsets.UTF_8);
   }
 }
\ No newline at end of file
@@ -0,0 +1,296 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.interpreter.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.gson.Gson;
+import org.apache.zeppelin.interpreter.InterpreterException;
+import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterEvent;
+import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterEventType;
+import org.apache.zeppelin.resource.LocalResourcePool;
+import org.apache.zeppelin.resource.Resource;
+import org.apache.zeppelin.resource.ResourceLocation;
+import org.apache.zeppelin.resource.ResourceSerializers;
+import org.apache.zeppelin.resource.ResourceSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RemoteInterpreterEventClientTest {
+  private RemoteInterpreterEventClient eventClient;
+  private ExecutorService executor;
+  private Gson gson = new Gson();
+
+  @Before
+  public void setUp() {
+    eventClient = new RemoteInterpreterEventClient();
+    executor = Executors.newFixedThreadPool(2);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testPollEventsDrainsInBatch() {
+    for (int i = 0; i < 5; i++) {
+      eventClient.onInterpreterOutputUpdate("note", "p" + i, "output");
+    }
+
+    List<RemoteInterpreterEvent> events = eventClient.pollEvents(3, 1000);
+    assertEquals(3, events.size());
+    assertEquals(RemoteInterpreterEventType.OUTPUT_UPDATE, events.get(0).getType());
+    assertTrue(events.get(0).getData().contains("p0"));
+    assertTrue(events.get(2).getData().contains("p2"));
+
+    events = eventClient.pollEvents(3, 1000);
+    assertEquals(2, events.size());
+    assertTrue(events.get(1).getData().contains("p4"));
+  }
+
+  @Test
+  public void testPollEventsReturnsEmptyAfterWait() {
+    long start = System.currentTimeMillis();
+    List<RemoteInterpreterEvent> events = eventClient.pollEvents(10, 100);
+    assertEquals(0, events.size());
+    assertTrue(System.currentTimeMillis() - start >= 90);
+  }
+
+  @Test
+  public void testOutputAppendCoalescedWithinWindow() {
+    eventClient.setOutputAppendCoalescing(100, 1024);
+    eventClient.onInterpreterOutputAppend("note", "p1", "line1\n");
+    eventClient.onInterpreterOutputAppend("note", "p1", "line2\n");
+    eventClient.onInterpreterOutputAppend("note", "p2", "other\n");
+
+    // windows of p1 and p2 may expire in different polls
+    List<RemoteInterpreterEvent> events = eventClient.pollEvents(10, 1000);
+    if (events.size() < 2) {
+      events.addAll(eventClient.pollEvents(10, 1000));
+    }
+    assertEquals(2, events.size());
+    assertEquals(RemoteInterpreterEventType.OUTPUT_APPEND, events.get(0).getType());
+    assertTrue(events.get(0).getData().contains("line1\\nline2\\n"));
+    assertTrue(events.get(1).getData().contains("other"));
+  }
+
+  @Test
+  public void testOutputAppendSentWhenMaxSizeReached() {
+    eventClient.setOutputAppendCoalescing(60 * 1000, 10);
+    eventClient.onInterpreterOutputAppend("note", "p1", "01234\n");
+    eventClient.onInterpreterOutputAppend("note", "p1", "56789\n");
+
+    long start = System.currentTimeMillis();
+    List<RemoteInterpreterEvent> events = eventClient.pollEvents(10, 1000);
+    assertEquals(1, events.size());
+    assertTrue(System.currentTimeMillis() - start < 1000);
+  }
+
+  @Test
+  public void testOutputUpdateDiscardsPendingAppend() {
+    eventClient.setOutputAppendCoalescing(60 * 1000, 1024);
+    eventClient.onInterpreterOutputAppend("note", "p1", "stale\n");
+    eventClient.onInterpreterOutputUpdate("note", "p1", "fresh");
+    eventClient.flushOutputAppend("note", "p1");
+
+    List<RemoteInterpreterEvent> events = eventClient.pollEvents(10, 0);
+    assertEquals(1, events.size());
+    assertEquals(RemoteInterpreterEventType.OUTPUT_UPDATE, events.get(0).getType());
+  }
+
+  @Test
+  public void testResourceRequestsCompleteIndependently() throws Exception {
+    Future<ResourceSet> lookup1 = executor.submit(lookup("key1"));
+    RemoteInterpreterEvent request1 = pollEvent(RemoteInterpreterEventType.RESOURCE_LOOKUP);
+    Future<ResourceSet> lookup2 = executor.submit(lookup("key2"));
+    RemoteInterpreterEvent request2 = pollEvent(RemoteInterpreterEventType.RESOURCE_LOOKUP);
+    assertTrue(!request1.getRequestId().equals(request2.getRequestId()));
+
+    // respond in reverse order
+    LocalResourcePool pool = new LocalResourcePool("pool1");
+    pool.put("key1", "value1");
+    pool.put("key2", "value2");
+    respond(request2, pool.get("key2"));
+    assertEquals("key2", lookup2.get().get(0).getResourceId().getName());
+    assertTrue(!lookup1.isDone());
+
+    respond(request1, pool.get("key1"));
+    assertEquals("key1", lookup1.get().get(0).getResourceId().getName());
+  }
+
+  @Test
+  public void testResourceRequestTimeout() throws Exception {
+    eventClient.setRequestTimeout(100);
+    Future<ResourceSet> lookup = executor.submit(lookup("key1"));
+    RemoteInterpreterEvent request = pollEvent(RemoteInterpreterEventType.RESOURCE_LOOKUP);
+
+    try {
+      lookup.get();
+      fail("lookup should fail when response does not arrive in time");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof InterpreterException);
+    }
+    // late response is ignored
+    LocalResourcePool pool = new LocalResourcePool("pool1");
+    pool.put("key1", "value1");
+    respond(request, pool.get("key1"));
+  }
+
+  @Test
+  public void testInterruptedWhileWaitingResponse() throws Exception {
+    Thread.currentThread().interrupt();
+    try {
+      eventClient.lookupResources("note", "paragraph", "key1");
+      fail("lookup should fail when interrupted");
+    } catch (InterpreterException e) {
+      // interrupt status is kept for the caller
+      assertTrue(Thread.interrupted());
+    }
+  }
+
+  @Test
+  public void testReadResourcesConcurrently() throws Exception {
+    Future<Object> read1 = executor.submit(read("key1"));
+    RemoteInterpreterEvent request1 = pollEvent(RemoteInterpreterEventType.RESOURCE_GET);
+    Future<Object> read2 = executor.submit(read("key2"));
+    RemoteInterpreterEvent request2 = pollEvent(RemoteInterpreterEventType.RESOURCE_GET);
+
+    ByteBuffer value1 = serialize("value1");
+    ByteBuffer value2 = serialize("value2");
+    ByteBuffer firstHalf = value1.duplicate();
+    firstHalf.limit(value1.limit() / 2);
+    ByteBuffer secondHalf = value1.duplicate();
+    secondHalf.position(value1.limit() / 2);
+
+    // chunks of the two reads interleave
+    eventClient.putResponseGetResourceChunk(request1.getRequestId(), firstHalf, false, null);
+    eventClient.putResponseGetResourceChunk(request2.getRequestId(), value2, true, null);
+    assertEquals("value2", read2.get());
+    eventClient.putResponseGetResourceChunk(request1.getRequestId(), secondHalf, true, null);
+    assertEquals("value1", read1.get());
+  }
+
+  @Test
+  public void testReadResourceNotAvailable() throws Exception {
+    Future<Object> read = executor.submit(read("key1"));
+    RemoteInterpreterEvent request = pollEvent(RemoteInterpreterEventType.RESOURCE_GET);
+    eventClient.putResponseGetResourceChunk(
+        request.getRequestId(), ByteBuffer.allocate(0), true, null);
+    assertNull(read.get());
+  }
+
+  @Test
+  public void testReadResourceFailsWhenSendFailed() throws Exception {
+    Future<Object> read = executor.submit(read("key1"));
+    RemoteInterpreterEvent request = pollEvent(RemoteInterpreterEventType.RESOURCE_GET);
+    ByteBuffer value = serialize("value1");
+    value.limit(value.limit() / 2);
+    eventClient.putResponseGetResourceChunk(request.getRequestId(), value, false, null);
+    eventClient.putResponseGetResourceChunk(
+        request.getRequestId(), ByteBuffer.allocate(0), true, "can't serialize");
+    try {
+      read.get();
+      fail("read should fail when ZeppelinServer could not send the whole resource");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof InterpreterException);
+    }
+  }
+
+  @Test
+  public void testReadThroughServerWhenPeerHangs() throws Exception {
+    // accepts connections but never responds
+    ServerSocket peer = new ServerSocket(0);
+    try {
+      eventClient.setRequestTimeout(500);
+      Future<ResourceSet> lookup = executor.submit(lookup("key1"));
+      RemoteInterpreterEvent request = pollEvent(RemoteInterpreterEventType.RESOURCE_LOOKUP);
+      LocalResourcePool pool = new LocalResourcePool("pool1");
+      pool.put("key1", "value1");
+      eventClient.putResponseResources(request.getRequestId(),
+          Collections.singletonList(gson.toJson(pool.get("key1"))),
+          Collections.singletonMap("pool1",
+              gson.toJson(new ResourceLocation("localhost", peer.getLocalPort(), false))));
+      assertEquals(1, lookup.get().size());
+
+      Future<Object> read = executor.submit(read("key1"));
+      RemoteInterpreterEvent readRequest = pollEvent(RemoteInterpreterEventType.RESOURCE_GET);
+      eventClient.putResponseGetResourceChunk(
+          readRequest.getRequestId(), serialize("value1"), true, null);
+      assertEquals("value1", read.get());
+    } finally {
+      peer.close();
+    }
+  }
+
+  private Callable<ResourceSet> lookup(final String name) {
+    return new Callable<ResourceSet>() {
+      @Override
+      public ResourceSet call() throws Exception {
+        return eventClient.lookupResources("note", "paragraph", name);
+      }
+    };
+  }
+
+  private Callable<Object> read(final String name) {
+    return new Callable<Object>() {
+      @Override
+      public Object call() throws Exception {
+        LocalResourcePool pool = new LocalResourcePool("pool1");
+        pool.put(name, name);
+        return eventClient.readResource(pool.get(name).getResourceId());
+      }
+    };
+  }
+
+  private RemoteInterpreterEvent pollEvent(RemoteInterpreterEventType type) {
+    List<RemoteInterpreterEvent> events = eventClient.pollEvents(1, 10 * 1000);
+    assertEquals(1, events.size());
+    assertEquals(type, events.get(0).getType());
+    return events.get(0);
+  }
+
+  private void respond(RemoteInterpreterEvent request, Resource resource) {
+    List<String> resources = new LinkedList<String>();
+    resources.add(gson.toJson(resource));
+    eventClient.putResponseResources(request.getRequestId(), resources,
+        Collections.<String, String>emptyMap());
+  }
+
+  private ByteBuffer serialize(Object o) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ResourceSerializers.singleton().serialize(o, out);
+    return ByteBuffer.wrap(out.toByteArray());
+  }
+}
@@ -19,11 +19,14 @@ package org.apache.zeppelin.interpreter.remote;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 
 import java.util.HashMap;
 import java.util.Properties;
 
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.apache.thrift.TException;
 import org.apache.thrift.transport.TTransportException;
 import org.apache.zeppelin.interpreter.Constants;
@@ -103,4 +106,88 @@ public class RemoteInterpreterProcessTest {
     assertEquals(1, rip.reference(intpGroup));
     assertEquals(true, rip.isRunning());
   }
+
+  @Test
+  public void testClientPoolConfiguredByProperties() throws Exception {
+    int port = RemoteInterpreterUtils.findRandomAvailablePortOnAllLocalInterfaces();
+    RemoteInterpreterServer server = new RemoteInterpreterServer(port);
+    server.start();
+    long startTime = System.currentTimeMillis();
+    while (System.currentTimeMillis() - startTime < 10 * 1000 && !server.isRunning()) {
+      Thread.sleep(200);
+    }
+
+    Properties properties = new Properties();
+    properties.setProperty(Constants.ZEPPELIN_INTERPRETER_PORT, Integer.toString(port));
+    properties.setProperty(Constants.ZEPPELIN_INTERPRETER_HOST, "localhost");
+    properties.setProperty(Constants.ZEPPELIN_INTERPRETER_CLIENT_POOL_MAX, "5");
+    properties.setProperty(Constants.ZEPPELIN_INTERPRETER_CLIENT_POOL_MIN_IDLE, "2");
+    properties.setProperty(Constants.ZEPPELIN_INTERPRETER_CLIENT_POOL_VALIDATE, "true");
+    InterpreterGroup intpGroup = mock(InterpreterGroup.class);
+    when(intpGroup.getProperty()).thenReturn(properties);
+    when(intpGroup.containsKey(Constants.EXISTING_PROCESS)).thenReturn(true);
+    RemoteInterpreterProcess rip = new RemoteInterpreterProcess(INTERPRETER_SCRIPT, "nonexists",
+        "fakeRepo", new HashMap<String, String>(),
+        mock(RemoteInterpreterEventPoller.class), 10 * 1000);
+    rip.reference(intpGroup);
+
+    // pre-warmed
+    assertEquals(2, rip.getNumIdleClient());
+    ClientPoolStats stats = rip.getClientPoolStats();
+    assertEquals(2, stats.getNumCreated());
+
+    // configured size is kept
+    rip.setMaxPoolSize(20);
+    assertEquals(5, rip.getMaxPoolSize());
+
+    Client client = rip.getClient();
+    assertEquals(1, rip.getClientPoolStats().getNumActive());
+    rip.releaseClient(client, true);
+
+    stats = rip.getClientPoolStats();
+    assertEquals(0, stats.getNumActive());
+    assertEquals(1, stats.getNumInvalidated());
+    assertEquals(1, stats.getNumBorrowed());
+  }
+
+  @Test
+  public void testCreateClientPoolConfig() {
+    Properties properties = new Properties();
+    GenericObjectPoolConfig config = RemoteInterpreterProcess.createClientPoolConfig(properties);
+    assertFalse(config.getTestOnBorrow());
+    assertEquals(-1, config.getTimeBetweenEvictionRunsMillis());
+
+    properties.setProperty(Constants.ZEPPELIN_INTERPRETER_CLIENT_POOL_MAX_IDLE, "30");
+    properties.setProperty(Constants.ZEPPELIN_INTERPRETER_CLIENT_POOL_IDLE_TIMEOUT, "60000");
+    properties.setProperty(Constants.ZEPPELIN_INTERPRETER_CLIENT_POOL_MAX_WAIT, "3000");
+    properties.setProperty(Constants.ZEPPELIN_INTERPRETER_CLIENT_POOL_MIN_IDLE, "not a number");
+    config = RemoteInterpreterProcess.createClientPoolConfig(properties);
+    assertEquals(30, config.getMaxIdle());
+    assertEquals(60000, config.getMinEvictableIdleTimeMillis());
+    assertEquals(60000, config.getTimeBetweenEvictionRunsMillis());
+    assertEquals(3000, config.getMaxWaitMillis());
+    assertEquals(0, config.getMinIdle());
+  }
+
+  @Test
+  public void testInterpretResultReadyOfUntrackedJobIgnored() throws InterruptedException {
+    RemoteInterpreterProcess rip = new RemoteInterpreterProcess(
+        INTERPRETER_SCRIPT, "nonexists", "fakeRepo", new HashMap<String, String>(),
+        10 * 1000, null);
+
+    rip.addInterpretResultReady("job1");
+    assertFalse(rip.waitInterpretResultReady("job1", 0));
+    rip.onInterpretResultReady("job1");
+    assertTrue(rip.waitInterpretResultReady("job1", 0));
+    rip.removeInterpretResultReady("job1");
+
+    // ready event arriving after the result is taken doesn't start tracking the job again
+    rip.onInterpretResultReady("job1");
+    try {
+      rip.waitInterpretResultReady("job1", 0);
+      fail("job1 should not be tracked");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+  }
 }
@@ -18,16 +18,32 @@
 package org.apache.zeppelin.interpreter.remote;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
 
 import org.apache.thrift.TException;
+import org.apache.zeppelin.display.GUI;
+import org.apache.zeppelin.interpreter.remote.mock.MockInterpreterA;
+import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterContext;
+import org.apache.zeppelin.interpreter.thrift.RemoteInterpreterService.Client;
 import org.apache.zeppelin.interpreter.remote.RemoteInterpreterServer;
 import org.apache.zeppelin.interpreter.remote.RemoteInterpreterUtils;
+import org.apache.zeppelin.resource.Resource;
+import org.apache.zeppelin.user.AuthenticationInfo;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.gson.Gson;
+
 public class RemoteInterpreterServerTest {
   @Before
   public void setUp() throws Exception {
@@ -72,5 +88,201 @@ public class RemoteInterpreterServerTest {
     assertEquals(false, running);
   }
 
+  @Test
+  public void testSelectorServerWithFramedClient() throws Exception {
+    RemoteInterpreterServer server = new RemoteInterpreterServer(
+        RemoteInterpreterUtils.findRandomAvailablePortOnAllLocalInterfaces(),
+        RemoteInterpreterServer.THRIFT_SERVER_SELECTOR, 1);
+    server.start();
+    long startTime = System.currentTimeMillis();
+    while (System.currentTimeMillis() - startTime < 10 * 1000 && !server.isRunning()) {
+      Thread.sleep(200);
+    }
+    assertEquals(true, server.isRunning());
+
+    ClientFactory clientFactory = new ClientFactory("localhost", server.getPort(), true);
+    Client client = clientFactory.create();
+    assertEquals(0, client.getEvents(10, 0).size());
+    assertEquals("Unknown", client.getStatus("note", "job"));
+    clientFactory.destroyObject(clientFactory.wrap(client));
+
+    server.shutdown();
+  }
+
+  @Test
+  public void testSelectorServerCallNotQueuedBehindBlockingCalls() throws Exception {
+    RemoteInterpreterServer server = new RemoteInterpreterServer(
+        RemoteInterpreterUtils.findRandomAvailablePortOnAllLocalInterfaces(),
+        RemoteInterpreterServer.THRIFT_SERVER_SELECTOR, 1);
+    server.start();
+    long startTime = System.currentTimeMillis();
+    while (System.currentTimeMillis() - startTime < 10 * 1000 && !server.isRunning()) {
+      Thread.sleep(200);
+    }
+    assertEquals(true, server.isRunning());
+
+    final ClientFactory clientFactory = new ClientFactory("localhost", server.getPort(), true);
+    // more long polls than the worker threads kept by the server
+    List<Thread> pollers = new LinkedList<Thread>();
+    for (int i = 0; i < RemoteInterpreterServer.SELECTOR_WORKER_THREADS + 1; i++) {
+      final Client client = clientFactory.create();
+      Thread poller = new Thread() {
+        public void run() {
+          try {
+            client.getEvents(10, 5000);
+            clientFactory.destroyObject(clientFactory.wrap(client));
+          } catch (Exception e) {
+            throw new RuntimeException(e);
+          }
+        }
+      };
+      poller.start();
+      pollers.add(poller);
+    }
+    Thread.sleep(500);
+
+    Client client = clientFactory.create();
+    long callStart = System.currentTimeMillis();
+    assertEquals("Unknown", client.getStatus("note", "job"));
+    assertTrue(System.currentTimeMillis() - callStart < 3000);
+    clientFactory.destroyObject(clientFactory.wrap(client));
+
+    for (Thread poller : pollers) {
+      poller.join();
+    }
+    server.shutdown();
+  }
+
+  @Test
+  public void testSelectorServerFrameLargerThanDefault() throws Exception {
+    RemoteInterpreterServer server = new RemoteInterpreterServer(
+        RemoteInterpreterUtils.findRandomAvailablePortOnAllLocalInterfaces(),
+        RemoteInterpreterServer.THRIFT_SERVER_SELECTOR, 1);
+    server.createInterpreter("group", "note", MockInterpreterA.class.getName(),
+        new HashMap<String, String>());
+    // larger than default max frame length of TFramedTransport, 16MB
+    server.resourcePool.put("note", "p1", "large", new byte[20 * 1024 * 1024]);
+    server.start();
+    long startTime = System.currentTimeMillis();
+    while (System.currentTimeMillis() - startTime < 10 * 1000 && !server.isRunning()) {
+      Thread.sleep(200);
+    }
+    assertEquals(true, server.isRunning());
+
+    ClientFactory clientFactory = new ClientFactory("localhost", server.getPort(), true);
+    Client client = clientFactory.create();
+    ByteBuffer buffer = client.resourceGet("note", "p1", "large");
+    assertEquals(20 * 1024 * 1024, ((byte[]) Resource.deserializeObject(buffer)).length);
+    clientFactory.destroyObject(clientFactory.wrap(client));
+
+    server.shutdown();
+  }
+
+  @Test
+  public void testResourceStreamFailsWhenSerializationFails() throws Exception {
+    RemoteInterpreterServer server = new RemoteInterpreterServer(
+        RemoteInterpreterUtils.findRandomAvailablePortOnAllLocalInterfaces());
+    server.createInterpreter("group", "note", MockInterpreterA.class.getName(),
+        new HashMap<String, String>());
+    server.resourcePool.put("note", "p1", "unserializable", new UnserializableValue());
+
+    String streamId = server.resourceStreamOpen("note", "p1", "unserializable");
+    try {
+      while (server.resourceStreamRead(streamId).hasRemaining()) {
+      }
+      fail("reading a resource that failed to serialize should fail");
+    } catch (TException e) {
+      // expected
+    }
+    server.shutdown();
+  }
+
+  @Test
+  public void testResourceStreamRemovedWhenWriterTimesOut() throws Exception {
+    RemoteInterpreterServer server = new RemoteInterpreterServer(
+        RemoteInterpreterUtils.findRandomAvailablePortOnAllLocalInterfaces());
+    server.setResourceStreamTimeoutMs(200);
+    server.createInterpreter("group", "note", MockInterpreterA.class.getName(),
+        new HashMap<String, String>());
+    // more chunks than the stream keeps in memory
+    server.resourcePool.put("note", "p1", "large", new byte[10 * 1024 * 1024]);
+
+    String streamId = server.resourceStreamOpen("note", "p1", "large");
+    assertEquals(1, server.getNumResourceStreams());
+    server.resourceStreamRead(streamId);
 
+    // reader gave up. writer times out and removes the stream
+    long start = System.currentTimeMillis();
+    while (server.getNumResourceStreams() > 0 && System.currentTimeMillis() - start < 10 * 1000) {
+      Thread.sleep(100);
+    }
+    assertEquals(0, server.getNumResourceStreams());
+    server.shutdown();
+  }
+
+  @Test
+  public void testResourceStreamExpiredWhenNotRead() throws Exception {
+    RemoteInterpreterServer server = new RemoteInterpreterServer(
+        RemoteInterpreterUtils.findRandomAvailablePortOnAllLocalInterfaces());
+    server.setResourceStreamTimeoutMs(200);
+    server.createInterpreter("group", "note", MockInterpreterA.class.getName(),
+        new HashMap<String, String>());
+    server.resourcePool.put("note", "p1", "small", "value");
+
+    // written to the end, but never read
+    String streamId = server.resourceStreamOpen("note", "p1", "small");
+    Thread.sleep(500);
+    server.expireResourceStreams();
+    assertEquals(0, server.getNumResourceStreams());
+    try {
+      server.resourceStreamRead(streamId);
+      fail("reading an expired stream should fail");
+    } catch (TException e) {
+      // expected
+    }
+    server.shutdown();
+  }
+
+  /**
+   * Serializable by its type, but fails while being serialized.
+   */
+  private static class UnserializableValue implements Serializable {
+    private void writeObject(ObjectOutputStream out) throws IOException {
+      throw new IOException("can't serialize");
+    }
+  }
+
+  private RemoteInterpreterContext createContext(String paragraphId) {
+    Gson gson = new Gson();
+    return new RemoteInterpreterContext("note", paragraphId, "title", "text",
+        gson.toJson(new AuthenticationInfo()), "{}", gson.toJson(new GUI()), "[]");
+  }
+
+  @Test
+  public void testExpireResultNotTaken() throws Exception {
+    RemoteInterpreterServer server = new RemoteInterpreterServer(
+        RemoteInterpreterUtils.findRandomAvailablePortOnAllLocalInterfaces());
+    String className = MockInterpreterA.class.getName();
+    server.createInterpreter("group", "note", className, new HashMap<String, String>());
+
+    String job1 = server.submit("note", className, "10", createContext("p1"));
+    server.submit("note", className, "10", createContext("p2"));
+    assertEquals("10", server.awaitResult(job1, 10 * 1000).get(0).getMsg());
+    assertEquals(1, server.getNumSubmittedJobs());
+
+    // result of the second job is not taken
+    Thread.sleep(200);
+    server.expireResults();
+    assertEquals(1, server.getNumSubmittedJobs());
+
+    server.setResultExpireMs(0);
+    long startTime = System.currentTimeMillis();
+    while (System.currentTimeMillis() - startTime < 10 * 1000
+        && server.getNumSubmittedJobs() > 0) {
+      server.expireResults();
+      Thread.sleep(100);
+    }
+    assertEquals(0, server.getNumSubmittedJobs());
+    server.shutdown();
+  }
 }
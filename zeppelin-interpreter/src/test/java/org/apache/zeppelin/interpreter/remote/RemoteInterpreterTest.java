@@ -191,7 +191,80 @@ public class RemoteInterpreterTest {
   }
 
   @Test
-  public void testRemoteSchedulerSharing() throws TTransportException, IOException {
+  public void testRemoteInterpreterCallWithSelectorServer() {
+    Properties p = new Properties();
+    p.put(Constants.ZEPPELIN_INTERPRETER_THRIFT_SERVER,
+        RemoteInterpreterServer.THRIFT_SERVER_SELECTOR);
+
+    RemoteInterpreter intpA = createMockInterpreterA(p);
+
+    intpGroup.put("note", new LinkedList<Interpreter>());
+    intpGroup.get("note").add(intpA);
+    intpA.setInterpreterGroup(intpGroup);
+
+    intpA.open();
+    InterpreterResult ret = intpA.interpret("1",
+        new InterpreterContext(
+            "note",
+            "id",
+            "title",
+            "text",
+            new AuthenticationInfo(),
+            new HashMap<String, Object>(),
+            new GUI(),
+            new AngularObjectRegistry(intpGroup.getId(), null),
+            new LocalResourcePool("pool1"),
+            new LinkedList<InterpreterContextRunner>(), null));
+
+    assertEquals(Code.SUCCESS, ret.code());
+    assertEquals("1", ret.message());
+  }
+
+  @Test
+  public void testClientNotHeldWhileInterpreting() throws Exception {
+    Properties p = new Properties();
+
+    final RemoteInterpreter intpA = createMockInterpreterA(p);
+
+    intpGroup.put("note", new LinkedList<Interpreter>());
+    intpGroup.get("note").add(intpA);
+    intpA.setInterpreterGroup(intpGroup);
+
+    intpA.open();
+    RemoteInterpreterProcess process = intpA.getInterpreterProcess();
+
+    final InterpreterResult[] ret = new InterpreterResult[1];
+    Thread thread = new Thread() {
+      @Override
+      public void run() {
+        ret[0] = intpA.interpret("2000",
+            new InterpreterContext(
+                "note",
+                "id",
+                "title",
+                "text",
+                new AuthenticationInfo(),
+                new HashMap<String, Object>(),
+                new GUI(),
+                new AngularObjectRegistry(intpGroup.getId(), null),
+                new LocalResourcePool("pool1"),
+                new LinkedList<InterpreterContextRunner>(), null));
+      }
+    };
+    thread.start();
+    Thread.sleep(1000);
+
+    // only the event poller can hold a client while the paragraph is running
+    assertTrue(thread.isAlive());
+    assertTrue(process.getNumActiveClient() <= 1);
+
+    thread.join();
+    assertEquals(Code.SUCCESS, ret[0].code());
+    assertEquals("2000", ret[0].message());
+  }
+
+  @Test
+  public void testRemoteSchedulerSharing()throws TTransportException, IOException {
     Properties p = new Properties();
     intpGroup.put("note", new LinkedList<Interpreter>());
 
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ChunkedResourceStreamTest {
+
+  @Test
+  public void testSerializeInChunks() throws Exception {
+    final ChunkedResourceStream stream = new ChunkedResourceStream(1024, 2, 10 * 1000);
+    final byte[] value = new byte[100 * 1024];
+    new Random().nextBytes(value);
+
+    Thread writer = new Thread() {
+      @Override
+      public void run() {
+        OutputStream out = stream.getOutputStream();
+        try {
+          ResourceSerializers.singleton().serialize(value, out);
+          out.close();
+        } catch (IOException e) {
+          fail(e.getMessage());
+        }
+      }
+    };
+    writer.start();
+
+    InputStream in = stream.getInputStream();
+    byte[] read = (byte[]) ResourceSerializers.singleton().deserialize(in);
+    assertTrue(Arrays.equals(value, read));
+    assertEquals(-1, in.read());
+    writer.join();
+  }
+
+  @Test
+  public void testWriterWaitsForReader() throws Exception {
+    final ChunkedResourceStream stream = new ChunkedResourceStream(1024, 2, 10 * 1000);
+    final OutputStream out = stream.getOutputStream();
+    final boolean[] done = new boolean[1];
+    Thread writer = new Thread() {
+      @Override
+      public void run() {
+        try {
+          out.write(new byte[10 * 1024]);
+          out.close();
+          done[0] = true;
+        } catch (IOException e) {
+          // expected, reader closed the stream
+        }
+      }
+    };
+    writer.start();
+
+    // writer can't be more than 2 chunks ahead
+    writer.join(500);
+    assertTrue(writer.isAlive());
+    assertEquals(1024, stream.readChunk().remaining());
+
+    // closing the stream releases the writer
+    stream.close();
+    writer.join(10 * 1000);
+    assertFalse(writer.isAlive());
+    assertFalse(done[0]);
+  }
+
+  @Test
+  public void testReaderFailsWhenWriterFailed() throws IOException {
+    ChunkedResourceStream stream = new ChunkedResourceStream(1024, 2, 10 * 1000);
+    stream.writeChunk(ByteBuffer.wrap(new byte[10]));
+    stream.fail("serialization failed");
+
+    assertEquals(10, stream.readChunk().remaining());
+    try {
+      stream.readChunk();
+      fail("reader should fail instead of seeing end of the stream");
+    } catch (IOException e) {
+      assertEquals("serialization failed", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testFailDoesNotWaitForReader() throws IOException {
+    ChunkedResourceStream stream = new ChunkedResourceStream(1024, 2, 10 * 1000);
+    stream.writeChunk(ByteBuffer.wrap(new byte[10]));
+    stream.writeChunk(ByteBuffer.wrap(new byte[10]));
+
+    // reader is 2 chunks behind. pending chunks are dropped instead of waiting for it
+    long start = System.currentTimeMillis();
+    stream.fail("serialization failed");
+    assertTrue(System.currentTimeMillis() - start < 5 * 1000);
+    try {
+      stream.readChunk();
+      fail("reader should fail instead of seeing end of the stream");
+    } catch (IOException e) {
+      assertEquals("serialization failed", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testExpired() throws IOException, InterruptedException {
+    ChunkedResourceStream stream = new ChunkedResourceStream(1024, 2, 100);
+    stream.writeChunk(ByteBuffer.wrap(new byte[10]));
+    assertFalse(stream.isExpired(System.currentTimeMillis()));
+
+    Thread.sleep(200);
+    assertTrue(stream.isExpired(System.currentTimeMillis()));
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadTimeout() throws IOException {
+    new ChunkedResourceStream(1024, 2, 100).readChunk();
+  }
+}
@@ -30,6 +30,7 @@ import org.junit.Test;
 import java.io.File;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
@@ -176,6 +177,11 @@ public class DistributedResourcePoolTest {
         return remoteSet;
       }
 
+      @Override
+      public ResourceSet lookupResources(String noteId, String paragraphId, String name) {
+        return getAllResources().filterByName(name);
+      }
+
       @Override
       public Object readResource(ResourceId id) {
         if (id.getResourcePoolId().equals(pool2.id())) {
@@ -207,6 +213,38 @@ public class DistributedResourcePoolTest {
     assertEquals("value2", pool1.getAll().get(1).get());
   }
 
+  @Test
+  public void testResourcePoolListener() {
+    final ResourceSet added = new ResourceSet();
+    final List<ResourceId> removed = new LinkedList<ResourceId>();
+    DistributedResourcePool pool = new DistributedResourcePool("pool1", null);
+    pool.setResourcePoolListener(new ResourcePoolListener() {
+      @Override
+      public void onResourceAdded(Resource resource) {
+        added.add(resource);
+      }
+
+      @Override
+      public void onResourceRemoved(ResourceId resourceId) {
+        removed.add(resourceId);
+      }
+    });
+
+    pool.put("object1", "value1");
+    pool.put("note1", "paragraph1", "object2", "value2");
+    assertEquals(2, added.size());
+    assertEquals("object1", added.get(0).getResourceId().getName());
+    assertEquals("paragraph1", added.get(1).getResourceId().getParagraphId());
+
+    pool.remove("object1");
+    pool.remove("note1", "paragraph1", "object2");
+    // not in the pool
+    pool.remove("object3");
+    assertEquals(2, removed.size());
+    assertEquals(added.get(0).getResourceId(), removed.get(0));
+    assertEquals(added.get(1).getResourceId(), removed.get(1));
+  }
+
   @Test
   public void testResourcePoolUtils() {
     Gson gson = new Gson();
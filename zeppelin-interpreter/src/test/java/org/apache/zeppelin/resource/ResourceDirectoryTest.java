@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.resource;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class ResourceDirectoryTest {
+
+  @Test
+  public void testLookup() {
+    ResourceDirectory directory = new ResourceDirectory();
+    directory.add(new Resource(new ResourceId("pool1", "key1"), "value"));
+    directory.add(new Resource(new ResourceId("pool2", "note1", "paragraph1", "key1"), "value"));
+    directory.add(new Resource(new ResourceId("pool2", "note1", "paragraph2", "key2"), "value"));
+
+    assertEquals(2, directory.lookup(null, null, "key1", null).size());
+    assertEquals(1, directory.lookup(null, null, "key1", "pool1").size());
+    assertEquals("pool2", directory.lookup(null, null, "key1", "pool1").get(0)
+        .getResourceId().getResourcePoolId());
+    assertEquals(1, directory.lookup("note1", "paragraph1", "key1", null).size());
+    assertEquals(0, directory.lookup("note1", "paragraph2", "key1", null).size());
+    assertEquals(0, directory.lookup(null, null, "key3", null).size());
+    assertEquals(2, directory.getAll("pool1").size());
+  }
+
+  @Test
+  public void testRemove() {
+    ResourceDirectory directory = new ResourceDirectory();
+    ResourceId id1 = new ResourceId("pool1", "key1");
+    directory.add(new Resource(id1, "value"));
+    directory.add(new Resource(new ResourceId("pool2", "key1"), "value"));
+    directory.add(new Resource(new ResourceId("pool2", "key2"), "value"));
+
+    directory.remove(id1);
+    assertEquals(2, directory.getAll(null).size());
+
+    directory.removeResourcePool("pool2");
+    assertEquals(0, directory.getAll(null).size());
+  }
+}
@@ -18,10 +18,19 @@ package org.apache.zeppelin.resource;
 
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Test for Resource
@@ -32,4 +41,89 @@ public class ResourceTest {
     ByteBuffer buffer = Resource.serializeObject("hello");
     assertEquals("hello", Resource.deserializeObject(buffer));
   }
+
+  @Test
+  public void testSerializeNotSerializable() throws IOException, ClassNotFoundException {
+    assertNull(Resource.serializeObject(new Object()));
+    assertNull(Resource.deserializeObject(ByteBuffer.allocate(0)));
+  }
+
+  @Test
+  public void testDeserializeSlice() throws IOException, ClassNotFoundException {
+    ByteBuffer buffer = Resource.serializeObject("hello");
+    ByteBuffer padded = ByteBuffer.allocate(buffer.remaining() + 10);
+    padded.position(5);
+    padded.put(buffer);
+    padded.position(5);
+    padded.limit(padded.limit() - 5);
+    assertEquals("hello", Resource.deserializeObject(padded.slice()));
+  }
+
+  @Test
+  public void testPluggableSerializer() throws IOException, ClassNotFoundException {
+    ResourceSerializers serializers = new ResourceSerializers();
+    Point p = new Point(1, 2);
+    assertFalse(serializers.canSerialize(p));
+
+    serializers.register(new PointSerializer());
+    assertTrue(serializers.canSerialize(p));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    serializers.serialize(p, out);
+    Point read = (Point) serializers.deserialize(new ByteArrayInputStream(out.toByteArray()));
+    assertEquals(1, read.x);
+    assertEquals(2, read.y);
+
+    // java serializer still serializes other objects
+    out = new ByteArrayOutputStream();
+    serializers.serialize("hello", out);
+    assertEquals("hello", serializers.deserialize(new ByteArrayInputStream(out.toByteArray())));
+  }
+
+  @Test(expected = IOException.class)
+  public void testDeserializeUnknownSerializer() throws IOException, ClassNotFoundException {
+    ResourceSerializers serializers = new ResourceSerializers();
+    serializers.register(new PointSerializer());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    serializers.serialize(new Point(1, 2), out);
+    new ResourceSerializers().deserialize(new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  /**
+   * Not java.io.Serializable
+   */
+  static class Point {
+    final int x;
+    final int y;
+
+    Point(int x, int y) {
+      this.x = x;
+      this.y = y;
+    }
+  }
+
+  static class PointSerializer implements ResourceSerializer {
+    @Override
+    public String getName() {
+      return "point";
+    }
+
+    @Override
+    public boolean canSerialize(Object o) {
+      return o instanceof Point;
+    }
+
+    @Override
+    public void serialize(Object o, OutputStream out) throws IOException {
+      DataOutputStream dout = new DataOutputStream(out);
+      dout.writeInt(((Point) o).x);
+      dout.writeInt(((Point) o).y);
+      dout.flush();
+    }
+
+    @Override
+    public Object deserialize(InputStream in) throws IOException {
+      DataInputStream din = new DataInputStream(in);
+      return new Point(din.readInt(), din.readInt());
+    }
+  }
 }
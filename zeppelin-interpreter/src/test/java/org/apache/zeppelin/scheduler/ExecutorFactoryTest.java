@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.zeppelin.scheduler.Job.Status;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExecutorFactoryTest {
+  private ExecutorFactory executorFactory;
+
+  @Before
+  public void setUp() {
+    executorFactory = new ExecutorFactory();
+  }
+
+  @After
+  public void tearDown() {
+    executorFactory.shutdownAll();
+  }
+
+  @Test
+  public void testStats() throws InterruptedException {
+    ExecutorService executor = executorFactory.createOrGet("test", 2);
+    final CountDownLatch started = new CountDownLatch(2);
+    final CountDownLatch release = new CountDownLatch(1);
+    for (int i = 0; i < 3; i++) {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          started.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+          }
+        }
+      });
+    }
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+
+    ExecutorStats stats = executorFactory.getStats().get("test");
+    assertEquals(2, stats.getActiveCount());
+    assertEquals(1, stats.getQueueSize());
+    assertEquals(2, stats.getMaxPoolSize());
+
+    release.countDown();
+  }
+
+  @Test
+  public void testVirtualThread() throws InterruptedException {
+    executorFactory.setVirtualThread(true);
+    ExecutorService executor = executorFactory.createOrGet("virtual", 1);
+
+    final AtomicReference<String> threadName = new AtomicReference<String>();
+    final CountDownLatch done = new CountDownLatch(1);
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        threadName.set(Thread.currentThread().getName());
+        done.countDown();
+      }
+    });
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+
+    ExecutorStats stats = executorFactory.getStats().get("virtual");
+    if (ExecutorFactory.isVirtualThreadSupported()) {
+      assertTrue(threadName.get().startsWith("virtual-"));
+      assertEquals(Integer.MAX_VALUE, stats.getMaxPoolSize());
+    } else {
+      // falls back to platform threads
+      assertEquals(1, stats.getMaxPoolSize());
+    }
+  }
+
+  @Test
+  public void testIdleSchedulerHoldsNoThread() throws Exception {
+    ExecutorService executor = executorFactory.createOrGet("scheduler", 10);
+    Scheduler fifo = null;
+    for (int i = 0; i < 200; i++) {
+      fifo = new FIFOScheduler("fifo_" + i, executor, null);
+      new ParallelScheduler("parallel_" + i, executor, null, 10);
+    }
+
+    ExecutorStats stats = executorFactory.getStats().get("scheduler");
+    assertEquals(0, stats.getActiveCount());
+    assertEquals(0, stats.getPoolSize());
+
+    // schedulers still run jobs
+    Job job = new SleepingJob("job1", null, 100);
+    fifo.submit(job);
+    while (!job.isTerminated()) {
+      Thread.sleep(10);
+    }
+    assertEquals(Status.FINISHED, job.getStatus());
+  }
+}
@@ -114,4 +114,28 @@ public class FIFOSchedulerTest extends TestCase {
 	    assertTrue((500 > (Long)job1.getReturn()));
 	    assertEquals(null, job2.getReturn());
 	  }
-}
\ No newline at end of file
+
+	public void testNextJobRunsWhenListenerThrows() throws InterruptedException{
+		Scheduler s = new FIFOScheduler("test", ExecutorFactory.singleton().createOrGet("test"),
+				new SchedulerListener() {
+			@Override
+			public void jobStarted(Scheduler scheduler, Job job) {
+			}
+
+			@Override
+			public void jobFinished(Scheduler scheduler, Job job) {
+				throw new RuntimeException("listener failed");
+			}
+		});
+
+		Job job1 = new SleepingJob("job1", null, 100);
+		Job job2 = new SleepingJob("job2", null, 100);
+		s.submit(job1);
+		s.submit(job2);
+
+		Thread.sleep(500);
+		assertEquals(Status.FINISHED, job1.getStatus());
+		assertEquals(Status.FINISHED, job2.getStatus());
+		assertEquals(0, s.getJobsRunning().size());
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.zeppelin.interpreter.Constants;
+import org.apache.zeppelin.scheduler.Job.Status;
+import org.junit.Test;
+
+public class FairShareTest {
+
+  @Test
+  public void testRoundRobin() {
+    FairShare fairShare = new FairShare(new HashMap<String, Integer>(), 0);
+    List<Job> waiting = new LinkedList<Job>();
+    // user1 runs all before user2 submits
+    for (int i = 0; i < 5; i++) {
+      waiting.add(job("user1", "a" + i));
+    }
+    waiting.add(job("user2", "b0"));
+    waiting.add(job("user2", "b1"));
+
+    List<Job> running = new LinkedList<Job>();
+    assertEquals("a0", fairShare.next(waiting, running).getJobName());
+    assertEquals("b0", fairShare.next(waiting, running).getJobName());
+    assertEquals("a1", fairShare.next(waiting, running).getJobName());
+    assertEquals("b1", fairShare.next(waiting, running).getJobName());
+    assertEquals("a2", fairShare.next(waiting, running).getJobName());
+    assertEquals("a3", fairShare.next(waiting, running).getJobName());
+    assertEquals("a4", fairShare.next(waiting, running).getJobName());
+    assertNull(fairShare.next(waiting, running));
+  }
+
+  @Test
+  public void testWeight() {
+    Map<String, Integer> weights = new HashMap<String, Integer>();
+    weights.put("user1", 2);
+    FairShare fairShare = new FairShare(weights, 0);
+    List<Job> waiting = new LinkedList<Job>();
+    for (int i = 0; i < 4; i++) {
+      waiting.add(job("user1", "a" + i));
+      waiting.add(job("user2", "b" + i));
+    }
+
+    List<Job> running = Collections.emptyList();
+    StringBuilder order = new StringBuilder();
+    for (int i = 0; i < 6; i++) {
+      order.append(fairShare.next(waiting, running).getJobName());
+    }
+    assertEquals("a0b0a1a2b1a3", order.toString());
+  }
+
+  @Test
+  public void testPriorityAndConcurrencyLimit() {
+    FairShare fairShare = new FairShare(new HashMap<String, Integer>(), 1);
+    List<Job> waiting = new LinkedList<Job>();
+    waiting.add(job("user1", "a0"));
+    Job urgent = job("user1", "a1");
+    urgent.setPriority(10);
+    waiting.add(urgent);
+    waiting.add(job(Job.SHARE_CRON, "c0"));
+
+    List<Job> running = new LinkedList<Job>();
+    running.add(fairShare.next(waiting, running));
+    assertEquals("a1", running.get(0).getJobName());
+    running.add(fairShare.next(waiting, running));
+    assertEquals("c0", running.get(1).getJobName());
+    // user1 is running max concurrent jobs
+    assertNull(fairShare.next(waiting, running));
+
+    running.remove(0);
+    assertEquals("a0", fairShare.next(waiting, running).getJobName());
+  }
+
+  @Test
+  public void testCreate() {
+    Properties p = new Properties();
+    assertNull(FairShare.create(p));
+
+    p.setProperty(Constants.ZEPPELIN_SCHEDULER_FAIR_SHARE, "true");
+    p.setProperty(Constants.ZEPPELIN_SCHEDULER_FAIR_SHARE_WEIGHTS, "user1:3, cron:2,invalid");
+    FairShare fairShare = FairShare.create(p);
+    assertEquals(3, fairShare.getWeight("user1"));
+    assertEquals(2, fairShare.getWeight(Job.SHARE_CRON));
+    assertEquals(FairShare.DEFAULT_WEIGHT, fairShare.getWeight("user2"));
+    assertEquals(FairShare.DEFAULT_WEIGHT, fairShare.getWeight(null));
+  }
+
+  @Test
+  public void testParallelScheduler() throws InterruptedException {
+    SchedulerFactory schedulerSvc = SchedulerFactory.singleton();
+    Scheduler s = schedulerSvc.createOrGetParallelScheduler("fairShareTest", 1,
+        new FairShare(new HashMap<String, Integer>(), 0));
+
+    final List<String> order = new LinkedList<String>();
+    JobListener listener = new JobListener() {
+      @Override
+      public void onProgressUpdate(Job job, int progress) {
+      }
+
+      @Override
+      public void beforeStatusChange(Job job, Status before, Status after) {
+      }
+
+      @Override
+      public void afterStatusChange(Job job, Status before, Status after) {
+        if (after == Status.RUNNING) {
+          synchronized (order) {
+            order.add(job.getJobName());
+          }
+        }
+      }
+    };
+
+    Job last = null;
+    for (int i = 0; i < 3; i++) {
+      Job job = new SleepingJob("a" + i, listener, 50);
+      job.setShare("user1");
+      s.submit(job);
+    }
+    last = new SleepingJob("b0", listener, 50);
+    last.setShare("user2");
+    s.submit(last);
+
+    while (!last.isTerminated()) {
+      Thread.sleep(10);
+    }
+    // b0 runs once a0 finishes, before the rest of user1's jobs
+    synchronized (order) {
+      assertEquals("a0", order.get(0));
+      assertEquals("b0", order.get(1));
+    }
+    schedulerSvc.removeScheduler("fairShareTest");
+  }
+
+  private Job job(String share, String name) {
+    Job job = new SleepingJob(name, null, 0);
+    job.setShare(share);
+    return job;
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.scheduler;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.zeppelin.scheduler.Job.Status;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JobProgressServiceTest {
+  // long enough to never tick by itself while testing
+  private static final long TICK_MSEC = 60 * 1000;
+
+  private JobProgressService service;
+  private List<Integer> updates;
+  private JobListener listener;
+
+  @Before
+  public void setUp() {
+    // run prefetchers in the ticking thread
+    service = new JobProgressService(TICK_MSEC, new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        command.run();
+      }
+    });
+    updates = new LinkedList<Integer>();
+    listener = new JobListener() {
+      @Override
+      public void onProgressUpdate(Job job, int progress) {
+        updates.add(progress);
+      }
+
+      @Override
+      public void beforeStatusChange(Job job, Status before, Status after) {
+      }
+
+      @Override
+      public void afterStatusChange(Job job, Status before, Status after) {
+      }
+    };
+  }
+
+  @Test
+  public void testUpdateOnlyWhenChanged() {
+    ProgressJob job = new ProgressJob("job1", listener);
+    job.setStatus(Status.RUNNING);
+    service.register(job, TICK_MSEC);
+
+    service.tick();
+    service.tick();
+    job.progress = 10;
+    service.tick();
+    service.tick();
+
+    assertEquals(2, updates.size());
+    assertEquals(0, (int) updates.get(0));
+    assertEquals(10, (int) updates.get(1));
+
+    service.unregister(job);
+    job.progress = 20;
+    service.tick();
+    assertEquals(2, updates.size());
+    assertEquals(0, service.getNumJobs());
+  }
+
+  @Test
+  public void testPrefetchOncePerTick() {
+    final AtomicInteger numPrefetch = new AtomicInteger();
+    service.addPrefetcher(new JobProgressService.ProgressPrefetcher() {
+      @Override
+      public boolean ownsJob(Job job) {
+        return true;
+      }
+
+      @Override
+      public void prefetchProgress() {
+        numPrefetch.incrementAndGet();
+      }
+    });
+
+    ProgressJob job1 = new ProgressJob("job1", listener);
+    ProgressJob job2 = new ProgressJob("job2", listener);
+    job1.setStatus(Status.RUNNING);
+    job2.setStatus(Status.RUNNING);
+    // polled every second tick
+    service.register(job1, TICK_MSEC * 2);
+    service.register(job2, TICK_MSEC * 2);
+
+    service.tick();
+    assertEquals(0, numPrefetch.get());
+    service.tick();
+    assertEquals(1, numPrefetch.get());
+    assertEquals(2, updates.size());
+  }
+
+  @Test
+  public void testPrefetchOnlyOwnerOfDueJobs() {
+    final AtomicInteger numPrefetch = new AtomicInteger();
+    service.addPrefetcher(new JobProgressService.ProgressPrefetcher() {
+      @Override
+      public boolean ownsJob(Job job) {
+        return "job1".equals(job.getJobName());
+      }
+
+      @Override
+      public void prefetchProgress() {
+        numPrefetch.incrementAndGet();
+      }
+    });
+
+    ProgressJob job1 = new ProgressJob("job1", listener);
+    ProgressJob job2 = new ProgressJob("job2", listener);
+    job1.setStatus(Status.RUNNING);
+    job2.setStatus(Status.RUNNING);
+    service.register(job1, TICK_MSEC * 2);
+    service.register(job2, TICK_MSEC);
+
+    // only job2 is due
+    service.tick();
+    assertEquals(0, numPrefetch.get());
+    service.tick();
+    assertEquals(1, numPrefetch.get());
+  }
+
+  @Test
+  public void testNotPolled() {
+    ProgressJob job = new ProgressJob("job1", listener);
+    service.register(job, -1);
+    assertEquals(0, service.getNumJobs());
+
+    // not running
+    service.register(job, TICK_MSEC);
+    service.tick();
+    assertEquals(0, updates.size());
+  }
+
+  private static class ProgressJob extends Job {
+    volatile int progress = 0;
+
+    ProgressJob(String jobName, JobListener listener) {
+      super(jobName, listener);
+    }
+
+    @Override
+    public int progress() {
+      return progress;
+    }
+
+    @Override
+    public Map<String, Object> info() {
+      return null;
+    }
+
+    @Override
+    protected Object jobRun() throws Throwable {
+      return null;
+    }
+
+    @Override
+    protected boolean jobAbort() {
+      return false;
+    }
+  }
+}
@@ -68,4 +68,28 @@ public class ParallelSchedulerTest extends TestCase {
 
 	}
 
+	public void testNextJobRunsWhenListenerThrows() throws InterruptedException{
+		Scheduler s = new ParallelScheduler("test", ExecutorFactory.singleton().createOrGet("test"),
+				new SchedulerListener() {
+			@Override
+			public void jobStarted(Scheduler scheduler, Job job) {
+			}
+
+			@Override
+			public void jobFinished(Scheduler scheduler, Job job) {
+				throw new RuntimeException("listener failed");
+			}
+		}, 1);
+
+		Job job1 = new SleepingJob("job1", null, 100);
+		Job job2 = new SleepingJob("job2", null, 100);
+		s.submit(job1);
+		s.submit(job2);
+
+		Thread.sleep(500);
+		assertEquals(Status.FINISHED, job1.getStatus());
+		assertEquals(Status.FINISHED, job2.getStatus());
+		assertEquals(0, s.getJobsRunning().size());
+	}
+
 }
@@ -178,7 +178,7 @@ public class RemoteSchedulerTest implements RemoteInterpreterProcessListener {
 
     Scheduler scheduler = schedulerSvc.createOrGetRemoteScheduler("test", "note",
         intpA.getInterpreterProcess(),
-        10);
+        1);
 
     Job job1 = new Job("jobId1", "jobName1", null, 200) {
       InterpreterContext context = new InterpreterContext(
@@ -278,6 +278,12 @@ public class RemoteSchedulerTest implements RemoteInterpreterProcessListener {
       cycles++;
     }
 
+    cycles = 0;
+    while (!job2.isTerminated() && cycles < MAX_WAIT_CYCLES) {
+      Thread.sleep(TICK_WAIT);
+      cycles++;
+    }
+
     assertNotNull(job1.getDateFinished());
     assertTrue(job1.isTerminated());
     assertNull(job2.getDateFinished());
@@ -288,6 +294,61 @@ public class RemoteSchedulerTest implements RemoteInterpreterProcessListener {
     schedulerSvc.removeScheduler("test");
   }
 
+  @Test
+  public void testNextJobRunsWhenListenerThrows() throws Exception {
+    Properties p = new Properties();
+    final InterpreterGroup intpGroup = new InterpreterGroup();
+    Map<String, String> env = new HashMap<String, String>();
+    env.put("ZEPPELIN_CLASSPATH", new File("./target/test-classes").getAbsolutePath());
+
+    final RemoteInterpreter intpA = new RemoteInterpreter(
+        p,
+        "note",
+        MockInterpreterA.class.getName(),
+        new File(INTERPRETER_SCRIPT).getAbsolutePath(),
+        "fake",
+        "fakeRepo",
+        env,
+        10 * 1000,
+        this);
+
+    intpGroup.put("note", new LinkedList<Interpreter>());
+    intpGroup.get("note").add(intpA);
+    intpA.setInterpreterGroup(intpGroup);
+
+    intpA.open();
+
+    Scheduler scheduler = new RemoteScheduler("test",
+        ExecutorFactory.singleton().createOrGet("test"), "note", intpA.getInterpreterProcess(),
+        new SchedulerListener() {
+          @Override
+          public void jobStarted(Scheduler scheduler, Job job) {
+          }
+
+          @Override
+          public void jobFinished(Scheduler scheduler, Job job) {
+            throw new RuntimeException("listener failed");
+          }
+        }, 1);
+
+    Job job1 = new SleepingJob("job1", null, 100);
+    Job job2 = new SleepingJob("job2", null, 100);
+    scheduler.submit(job1);
+    scheduler.submit(job2);
+
+    int cycles = 0;
+    while (!job2.isTerminated() && cycles < MAX_WAIT_CYCLES) {
+      Thread.sleep(TICK_WAIT);
+      cycles++;
+    }
+
+    assertEquals(Status.FINISHED, job1.getStatus());
+    assertEquals(Status.FINISHED, job2.getStatus());
+    assertEquals(0, scheduler.getJobsRunning().size());
+
+    intpA.close();
+  }
+
   @Override
   public void onOutputAppend(String noteId, String paragraphId, String output) {
 
@@ -182,6 +182,20 @@ public class InterpreterRestApi {
     return new JsonResponse(Status.OK, "", setting).build();
   }
 
+  /**
+   * Thrift client pool statistics of the interpreter setting's processes
+   */
+  @GET
+  @Path("setting/pool/{settingId}")
+  @ZeppelinApi
+  public Response getClientPoolStats(@PathParam("settingId") String settingId) {
+    InterpreterSetting setting = interpreterFactory.get(settingId);
+    if (setting == null) {
+      return new JsonResponse(Status.NOT_FOUND, "", settingId).build();
+    }
+    return new JsonResponse(Status.OK, "", setting.getClientPoolStats()).build();
+  }
+
   /**
    * List all available interpreters by group
    */
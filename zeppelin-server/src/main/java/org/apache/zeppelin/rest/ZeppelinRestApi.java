@@ -18,6 +18,7 @@
 package org.apache.zeppelin.rest;
 
 import org.apache.zeppelin.annotation.ZeppelinApi;
+import org.apache.zeppelin.scheduler.ExecutorFactory;
 import org.apache.zeppelin.server.JsonResponse;
 import org.apache.zeppelin.util.Util;
 
@@ -52,4 +53,17 @@ public class ZeppelinRestApi {
   public Response getVersion() {
     return new JsonResponse<>(Response.Status.OK, "Zeppelin version", Util.getVersion()).build();
   }
+
+  /**
+   * Get statistics of executors running jobs of Zeppelin server, keyed by executor name.
+   *
+   * @return 200 response
+   */
+  @GET
+  @Path("executors")
+  @ZeppelinApi
+  public Response getExecutorStats() {
+    return new JsonResponse<>(Response.Status.OK, "Executor statistics",
+        ExecutorFactory.singleton().getStats()).build();
+  }
 }
@@ -24,6 +24,7 @@ import javax.ws.rs.core.Response.ResponseBuilder;
 
 import org.apache.zeppelin.interpreter.Interpreter;
 import org.apache.zeppelin.interpreter.InterpreterInfoSerializer;
+import org.apache.zeppelin.notebook.NoteSerializer;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -101,7 +102,8 @@ public class JsonResponse<T> {
   public String toString() {
     GsonBuilder gsonBuilder = new GsonBuilder().registerTypeAdapter(
         InterpreterSetting.InterpreterInfo.class,
-        new InterpreterInfoSerializer());
+        new InterpreterInfoSerializer())
+        .registerTypeAdapterFactory(NoteSerializer.INLINE_RESULTS);
     if (pretty) {
       gsonBuilder.setPrettyPrinting();
     }
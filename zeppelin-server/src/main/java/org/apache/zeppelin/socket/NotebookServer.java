@@ -20,7 +20,10 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.UnknownHostException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -64,7 +67,7 @@ public class NotebookServer extends WebSocketServlet implements
   private static final Logger LOG = LoggerFactory.getLogger(NotebookServer.class);
   Gson gson = new GsonBuilder()
           .setDateFormat("yyyy-MM-dd'T'HH:mm:ssZ").create();
-  final Map<String, List<NotebookSocket>> noteSocketMap = new HashMap<>();
+  final ConcurrentMap<String, List<NotebookSocket>> noteSocketMap = new ConcurrentHashMap<>();
   final Queue<NotebookSocket> connectedSockets = new ConcurrentLinkedQueue<>();
 
   private Notebook notebook() {
@@ -88,7 +91,8 @@ public class NotebookServer extends WebSocketServlet implements
   }
 
   public NotebookSocket doWebSocketConnect(HttpServletRequest req, String protocol) {
-    return new NotebookSocket(req, protocol, this);
+    return new NotebookSocket(req, protocol, this,
+        ZeppelinConfiguration.create().getWebsocketSendQueueSize());
   }
 
   @Override
@@ -180,6 +184,9 @@ public class NotebookServer extends WebSocketServlet implements
           case PARAGRAPH_CLEAR_OUTPUT:
             clearParagraphOutput(conn, userAndRoles, notebook, messagereceived);
             break;
+          case GET_PARAGRAPH_RESULT:
+            sendParagraphResult(conn, userAndRoles, notebook, messagereceived);
+            break;
           case NOTE_UPDATE:
             updateNote(conn, userAndRoles, notebook, messagereceived);
             break;
@@ -228,53 +235,43 @@ public class NotebookServer extends WebSocketServlet implements
   }
 
   private void addConnectionToNote(String noteId, NotebookSocket socket) {
-    synchronized (noteSocketMap) {
-      removeConnectionFromAllNote(socket); // make sure a socket relates only a
-      // single note.
-      List<NotebookSocket> socketList = noteSocketMap.get(noteId);
-      if (socketList == null) {
-        socketList = new LinkedList<>();
-        noteSocketMap.put(noteId, socketList);
-      }
-      if (!socketList.contains(socket)) {
-        socketList.add(socket);
+    removeConnectionFromAllNote(socket); // make sure a socket relates only a
+    // single note.
+    List<NotebookSocket> socketList = noteSocketMap.get(noteId);
+    if (socketList == null) {
+      socketList = new CopyOnWriteArrayList<>();
+      List<NotebookSocket> existing = noteSocketMap.putIfAbsent(noteId, socketList);
+      if (existing != null) {
+        socketList = existing;
       }
     }
+    if (!socketList.contains(socket)) {
+      socketList.add(socket);
+    }
   }
 
   private void removeConnectionFromNote(String noteId, NotebookSocket socket) {
-    synchronized (noteSocketMap) {
-      List<NotebookSocket> socketList = noteSocketMap.get(noteId);
-      if (socketList != null) {
-        socketList.remove(socket);
-      }
+    List<NotebookSocket> socketList = noteSocketMap.get(noteId);
+    if (socketList != null) {
+      socketList.remove(socket);
     }
   }
 
   private void removeNote(String noteId) {
-    synchronized (noteSocketMap) {
-      List<NotebookSocket> socketList = noteSocketMap.remove(noteId);
-    }
+    noteSocketMap.remove(noteId);
   }
 
   private void removeConnectionFromAllNote(NotebookSocket socket) {
-    synchronized (noteSocketMap) {
-      Set<String> keys = noteSocketMap.keySet();
-      for (String noteId : keys) {
-        removeConnectionFromNote(noteId, socket);
-      }
+    for (String noteId : noteSocketMap.keySet()) {
+      removeConnectionFromNote(noteId, socket);
     }
   }
 
   private String getOpenNoteId(NotebookSocket socket) {
     String id = null;
-    synchronized (noteSocketMap) {
-      Set<String> keys = noteSocketMap.keySet();
-      for (String noteId : keys) {
-        List<NotebookSocket> sockets = noteSocketMap.get(noteId);
-        if (sockets.contains(socket)) {
-          id = noteId;
-        }
+    for (Map.Entry<String, List<NotebookSocket>> entry : noteSocketMap.entrySet()) {
+      if (entry.getValue().contains(socket)) {
+        id = entry.getKey();
       }
     }
 
@@ -284,64 +281,84 @@ public class NotebookServer extends WebSocketServlet implements
   private void broadcastToNoteBindedInterpreter(String interpreterGroupId,
       Message m) {
     Notebook notebook = notebook();
-    List<Note> notes = notebook.getAllNotes();
-    for (Note note : notes) {
-      List<String> ids = note.getNoteReplLoader().getInterpreters();
+    List<NoteInfo> notes = notebook.getAllNoteInfos();
+    for (NoteInfo note : notes) {
+      List<String> ids = notebook.getBindedInterpreterSettingsIds(note.getId());
       for (String id : ids) {
         if (id.equals(interpreterGroupId)) {
-          broadcast(note.id(), m);
+          broadcast(note.getId(), m);
         }
       }
     }
   }
 
   private void broadcast(String noteId, Message m) {
-    synchronized (noteSocketMap) {
-      List<NotebookSocket> socketLists = noteSocketMap.get(noteId);
-      if (socketLists == null || socketLists.size() == 0) {
-        return;
-      }
-      LOG.debug("SEND >> " + m.op);
-      for (NotebookSocket conn : socketLists) {
-        try {
-          conn.send(serializeMessage(m));
-        } catch (IOException e) {
-          LOG.error("socket error", e);
-        }
-      }
-    }
+    broadcastExcept(noteId, m, null);
   }
 
   private void broadcastExcept(String noteId, Message m, NotebookSocket exclude) {
-    synchronized (noteSocketMap) {
-      List<NotebookSocket> socketLists = noteSocketMap.get(noteId);
-      if (socketLists == null || socketLists.size() == 0) {
-        return;
-      }
-      LOG.debug("SEND >> " + m.op);
-      for (NotebookSocket conn : socketLists) {
-        if (exclude.equals(conn)) {
-          continue;
-        }
-        try {
-          conn.send(serializeMessage(m));
-        } catch (IOException e) {
-          LOG.error("socket error", e);
-        }
+    List<NotebookSocket> socketLists = noteSocketMap.get(noteId);
+    if (socketLists == null || socketLists.size() == 0) {
+      return;
+    }
+    LOG.debug("SEND >> " + m.op);
+    String serialized = serializeMessage(m);
+    String key = sendQueueKey(m);
+    boolean supersede = supersedesQueuedMessage(m);
+    for (NotebookSocket conn : socketLists) {
+      if (conn.equals(exclude)) {
+        continue;
       }
+      send(conn, serialized, key, supersede);
     }
   }
 
   private void broadcastAll(Message m) {
+    String serialized = serializeMessage(m);
+    String key = sendQueueKey(m);
+    boolean supersede = supersedesQueuedMessage(m);
     for (NotebookSocket conn : connectedSockets) {
-      try {
-        conn.send(serializeMessage(m));
-      } catch (IOException e) {
-        LOG.error("socket error", e);
+      send(conn, serialized, key, supersede);
+    }
+  }
+
+  private void send(NotebookSocket conn, String serialized, String key, boolean supersede) {
+    try {
+      if (key == null) {
+        conn.send(serialized);
+      } else {
+        conn.send(serialized, key, supersede);
       }
+    } catch (IOException e) {
+      LOG.error("socket error", e);
     }
   }
 
+  /**
+   * Messages with the same key in a socket's send queue describe the same thing,
+   * so an older one can be dropped when a superseding message is queued.
+   * @return key or null if the message can't be superseded
+   */
+  static String sendQueueKey(Message m) {
+    switch (m.op) {
+        case PROGRESS:
+          return "progress:" + m.get("id");
+        case PARAGRAPH_APPEND_OUTPUT:
+        case PARAGRAPH_UPDATE_OUTPUT:
+          return "output:" + m.get("noteId") + ":" + m.get("paragraphId");
+        default:
+          return null;
+    }
+  }
+
+  /**
+   * Progress and the whole output replace the previous ones.
+   * Appended output does not replace anything.
+   */
+  static boolean supersedesQueuedMessage(Message m) {
+    return m.op == OP.PROGRESS || m.op == OP.PARAGRAPH_UPDATE_OUTPUT;
+  }
+
   private void unicast(Message m, NotebookSocket conn) {
     try {
       conn.send(serializeMessage(m));
@@ -366,16 +383,16 @@ public class NotebookServer extends WebSocketServlet implements
       }
     }
 
-    List<Note> notes = notebook.getAllNotes();
+    List<NoteInfo> notes = notebook.getAllNoteInfos();
     List<Map<String, String>> notesInfo = new LinkedList<>();
-    for (Note note : notes) {
+    for (NoteInfo note : notes) {
       Map<String, String> info = new HashMap<>();
 
-      if (hideHomeScreenNotebookFromList && note.id().equals(homescreenNotebookId)) {
+      if (hideHomeScreenNotebookFromList && note.getId().equals(homescreenNotebookId)) {
         continue;
       }
 
-      info.put("id", note.id());
+      info.put("id", note.getId());
       info.put("name", note.getName());
       notesInfo.add(info);
     }
@@ -384,7 +401,21 @@ public class NotebookServer extends WebSocketServlet implements
   }
 
   public void broadcastNote(Note note) {
-    broadcast(note.id(), new Message(OP.NOTE).put("note", note));
+    synchronized (note.getVersionLock()) {
+      broadcast(note.id(), new Message(OP.NOTE).put("note", note)
+          .put("noteVersion", note.incrementVersion()));
+    }
+  }
+
+  /**
+   * Send a single paragraph instead of the whole note, when only the paragraph is changed.
+   */
+  public void broadcastParagraph(Note note, Paragraph p) {
+    synchronized (note.getVersionLock()) {
+      broadcast(note.id(), new Message(OP.PARAGRAPH).put("paragraph", p)
+          .put("noteId", note.id())
+          .put("noteVersion", note.incrementVersion()));
+    }
   }
 
   public void broadcastNoteList() {
@@ -435,12 +466,22 @@ public class NotebookServer extends WebSocketServlet implements
         permissionError(conn, "read", userAndRoles, notebookAuthorization.getReaders(noteId));
         return;
       }
-      addConnectionToNote(note.id(), conn);
-      conn.send(serializeMessage(new Message(OP.NOTE).put("note", note)));
+      sendNote(conn, note);
       sendAllAngularObjects(note, conn);
     }
   }
 
+  /**
+   * Add the connection to the note and send the note with its current version.
+   */
+  private void sendNote(NotebookSocket conn, Note note) throws IOException {
+    synchronized (note.getVersionLock()) {
+      addConnectionToNote(note.id(), conn);
+      conn.send(serializeMessage(new Message(OP.NOTE).put("note", note)
+          .put("noteVersion", note.getVersion())));
+    }
+  }
+
   private void sendHomeNote(NotebookSocket conn, HashSet<String> userAndRoles,
                             Notebook notebook) throws IOException {
     String noteId = notebook.getConf().getString(ConfVars.ZEPPELIN_NOTEBOOK_HOMESCREEN);
@@ -456,8 +497,7 @@ public class NotebookServer extends WebSocketServlet implements
         permissionError(conn, "read", userAndRoles, notebookAuthorization.getReaders(noteId));
         return;
       }
-      addConnectionToNote(note.id(), conn);
-      conn.send(serializeMessage(new Message(OP.NOTE).put("note", note)));
+      sendNote(conn, note);
       sendAllAngularObjects(note, conn);
     } else {
       removeConnectionFromAllNote(conn);
@@ -578,7 +618,7 @@ public class NotebookServer extends WebSocketServlet implements
     p.setTitle((String) fromMessage.get("title"));
     p.setText((String) fromMessage.get("paragraph"));
     note.persist();
-    broadcast(note.id(), new Message(OP.PARAGRAPH).put("paragraph", p));
+    broadcastParagraph(note, p);
   }
 
   private void cloneNote(NotebookSocket conn, HashSet<String> userAndRoles,
@@ -647,6 +687,38 @@ public class NotebookServer extends WebSocketServlet implements
     broadcastNote(note);
   }
 
+  /**
+   * Send result of the paragraph that is not sent with the note, because it's stored out of
+   * note.json and not loaded.
+   */
+  private void sendParagraphResult(NotebookSocket conn, HashSet<String> userAndRoles,
+                                   Notebook notebook, Message fromMessage) throws IOException {
+    final String paragraphId = (String) fromMessage.get("id");
+    if (paragraphId == null) {
+      return;
+    }
+    String noteId = getOpenNoteId(conn);
+    final Note note = notebook.getNote(noteId);
+    if (note == null) {
+      return;
+    }
+    NotebookAuthorization notebookAuthorization = notebook.getNotebookAuthorization();
+    if (!notebookAuthorization.isReader(noteId, userAndRoles)) {
+      permissionError(conn, "read", userAndRoles, notebookAuthorization.getReaders(noteId));
+      return;
+    }
+
+    Paragraph p = note.getParagraph(paragraphId);
+    if (p == null) {
+      return;
+    }
+    conn.send(serializeMessage(new Message(OP.PARAGRAPH_RESULT)
+        .put("noteId", noteId)
+        .put("paragraphId", paragraphId)
+        .put("resultRef", p.getResultRef())
+        .put("result", p.getReturn())));
+  }
+
   private void completion(NotebookSocket conn, HashSet<String> userAndRoles, Notebook notebook,
       Message fromMessage) throws IOException {
     String paragraphId = (String) fromMessage.get("id");
@@ -723,21 +795,21 @@ public class NotebookServer extends WebSocketServlet implements
 
     if (global) { // broadcast change to all web session that uses related
       // interpreter.
-      for (Note n : notebook.getAllNotes()) {
+      for (NoteInfo n : notebook.getAllNoteInfos()) {
         List<InterpreterSetting> settings = note.getNoteReplLoader()
             .getInterpreterSettings();
         for (InterpreterSetting setting : settings) {
-          if (setting.getInterpreterGroup(n.id()) == null) {
+          if (setting.getInterpreterGroup(n.getId()) == null) {
             continue;
           }
-          if (interpreterGroupId.equals(setting.getInterpreterGroup(n.id()).getId())) {
+          if (interpreterGroupId.equals(setting.getInterpreterGroup(n.getId()).getId())) {
             AngularObjectRegistry angularObjectRegistry = setting
-                .getInterpreterGroup(n.id()).getAngularObjectRegistry();
+                .getInterpreterGroup(n.getId()).getAngularObjectRegistry();
             this.broadcastExcept(
-                n.id(),
+                n.getId(),
                 new Message(OP.ANGULAR_OBJECT_UPDATE).put("angularObject", ao)
                     .put("interpreterGroupId", interpreterGroupId)
-                    .put("noteId", n.id())
+                    .put("noteId", n.getId())
                     .put("paragraphId", ao.getParagraphId()),
                 conn);
           }
@@ -1005,7 +1077,7 @@ public class NotebookServer extends WebSocketServlet implements
       note.addParagraph();
     }
 
-    note.persist();
+    note.persistLater();
     try {
       note.run(paragraphId);
     } catch (Exception ex) {
@@ -1015,7 +1087,7 @@ public class NotebookServer extends WebSocketServlet implements
             new InterpreterResult(InterpreterResult.Code.ERROR, ex.getMessage()),
             ex);
         p.setStatus(Status.ERROR);
-        broadcast(note.id(), new Message(OP.PARAGRAPH).put("paragraph", p));
+        broadcastParagraph(note, p);
       }
     }
   }
@@ -1096,8 +1168,7 @@ public class NotebookServer extends WebSocketServlet implements
     public void onProgressUpdate(Job job, int progress) {
       notebookServer.broadcast(
           note.id(),
-          new Message(OP.PROGRESS).put("id", job.getId()).put("progress",
-              job.progress()));
+          new Message(OP.PROGRESS).put("id", job.getId()).put("progress", progress));
     }
 
     @Override
@@ -1114,13 +1185,14 @@ public class NotebookServer extends WebSocketServlet implements
 
       if (job.isTerminated()) {
         LOG.info("Job {} is finished", job.getId());
-        try {
-          note.persist();
-        } catch (IOException e) {
-          LOG.error(e.toString(), e);
-        }
+        note.persistLater();
+      }
+
+      if (job instanceof Paragraph) {
+        notebookServer.broadcastParagraph(note, (Paragraph) job);
+      } else {
+        notebookServer.broadcastNote(note);
       }
-      notebookServer.broadcastNote(note);
     }
 
     /**
@@ -1196,24 +1268,24 @@ public class NotebookServer extends WebSocketServlet implements
       return;
     }
 
-    List<Note> notes = notebook.getAllNotes();
-    for (Note note : notes) {
-      if (object.getNoteId() != null && !note.id().equals(object.getNoteId())) {
+    List<NoteInfo> notes = notebook.getAllNoteInfos();
+    for (NoteInfo note : notes) {
+      if (object.getNoteId() != null && !note.getId().equals(object.getNoteId())) {
         continue;
       }
 
-      List<InterpreterSetting> intpSettings = note.getNoteReplLoader()
-          .getInterpreterSettings();
+      List<InterpreterSetting> intpSettings =
+          notebook.getBindedInterpreterSettings(note.getId());
       if (intpSettings.isEmpty())
         continue;
       for (InterpreterSetting setting : intpSettings) {
-        if (setting.getInterpreterGroup(note.id()).getId().equals(interpreterGroupId)) {
+        if (setting.getInterpreterGroup(note.getId()).getId().equals(interpreterGroupId)) {
           broadcast(
-              note.id(),
+              note.getId(),
               new Message(OP.ANGULAR_OBJECT_UPDATE)
                   .put("angularObject", object)
                   .put("interpreterGroupId", interpreterGroupId)
-                  .put("noteId", note.id())
+                  .put("noteId", note.getId())
                   .put("paragraphId", object.getParagraphId()));
         }
       }
@@ -1223,17 +1295,17 @@ public class NotebookServer extends WebSocketServlet implements
   @Override
   public void onRemove(String interpreterGroupId, String name, String noteId, String paragraphId) {
     Notebook notebook = notebook();
-    List<Note> notes = notebook.getAllNotes();
-    for (Note note : notes) {
-      if (noteId != null && !note.id().equals(noteId)) {
+    List<NoteInfo> notes = notebook.getAllNoteInfos();
+    for (NoteInfo note : notes) {
+      if (noteId != null && !note.getId().equals(noteId)) {
         continue;
       }
 
-      List<String> ids = note.getNoteReplLoader().getInterpreters();
+      List<String> ids = notebook.getBindedInterpreterSettingsIds(note.getId());
       for (String id : ids) {
         if (id.equals(interpreterGroupId)) {
           broadcast(
-              note.id(),
+              note.getId(),
               new Message(OP.ANGULAR_OBJECT_REMOVE).put("name", name).put(
                       "noteId", noteId).put("paragraphId", paragraphId));
         }
@@ -17,31 +17,57 @@
 package org.apache.zeppelin.socket;
 
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedList;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
 import org.eclipse.jetty.websocket.api.WebSocketAdapter;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Notebook websocket
+ *
+ * Outgoing messages are queued and written asynchronously one at a time,
+ * so a slow client does not block the thread that sends the message.
  */
 public class NotebookSocket extends WebSocketAdapter {
+  private static final Logger LOG = LoggerFactory.getLogger(NotebookSocket.class);
+  public static final int DEFAULT_SEND_QUEUE_SIZE = 10000;
 
   private Session connection;
   private NotebookSocketListener listener;
   private HttpServletRequest request;
   private String protocol;
 
+  private final LinkedList<OutgoingMessage> sendQueue = new LinkedList<>();
+  private final int sendQueueSize;
+  private boolean sending = false;
+  // queue overflowed and the connection is being closed
+  private boolean overflowed = false;
+
   public NotebookSocket(HttpServletRequest req, String protocol,
       NotebookSocketListener listener) {
+    this(req, protocol, listener, DEFAULT_SEND_QUEUE_SIZE);
+  }
+
+  public NotebookSocket(HttpServletRequest req, String protocol,
+      NotebookSocketListener listener, int sendQueueSize) {
     this.listener = listener;
     this.request = req;
     this.protocol = protocol;
+    this.sendQueueSize = sendQueueSize;
   }
 
   @Override
   public void onWebSocketClose(int closeCode, String message) {
+    synchronized (sendQueue) {
+      sendQueue.clear();
+    }
     listener.onClose(this, closeCode, message);
   }
 
@@ -66,7 +92,139 @@ public class NotebookSocket extends WebSocketAdapter {
   }
 
   public void send(String serializeMessage) throws IOException {
-    connection.getRemote().sendString(serializeMessage);
+    send(serializeMessage, null, false);
+  }
+
+  /**
+   * Queue a message to send.
+   * @param serializeMessage serialized message
+   * @param key messages about the same target (e.g. output of a paragraph) share a key.
+   *            null when the message can't be superseded
+   * @param supersede remove queued messages with the same key, because this message
+   *                  makes them obsolete
+   */
+  public void send(String serializeMessage, String key, boolean supersede) throws IOException {
+    boolean close = false;
+    synchronized (sendQueue) {
+      if (overflowed) {
+        return;
+      }
+
+      if (supersede && key != null) {
+        Iterator<OutgoingMessage> it = sendQueue.iterator();
+        while (it.hasNext()) {
+          if (key.equals(it.next().key)) {
+            it.remove();
+          }
+        }
+      }
+
+      if (sendQueue.size() >= sendQueueSize) {
+        // dropping a message would leave the client with stale state.
+        // close the connection instead, so the client reconnects and reloads the note
+        LOG.warn("Send queue of {} : {} is full. Close connection",
+            request.getRemoteAddr(), request.getRemotePort());
+        overflowed = true;
+        sendQueue.clear();
+        close = true;
+      } else {
+        sendQueue.add(new OutgoingMessage(serializeMessage, key));
+        if (sending) {
+          return;
+        }
+        sending = true;
+      }
+    }
+
+    if (close) {
+      connection.close(StatusCode.TRY_AGAIN_LATER, "Send queue is full");
+    } else {
+      sendNext();
+    }
+  }
+
+  int getSendQueueLength() {
+    synchronized (sendQueue) {
+      return sendQueue.size();
+    }
+  }
+
+  /**
+   * Write queued messages until the queue is empty or a write does not complete immediately.
+   * In the latter case, write callback continues from the next message.
+   */
+  private void sendNext() {
+    while (true) {
+      OutgoingMessage message;
+      synchronized (sendQueue) {
+        message = sendQueue.poll();
+        if (message == null) {
+          sending = false;
+          return;
+        }
+      }
+
+      SendCallback callback = new SendCallback();
+      try {
+        connection.getRemote().sendString(message.data, callback);
+      } catch (RuntimeException e) {
+        callback.writeFailed(e);
+      }
+
+      if (!callback.returned()) {
+        return;
+      }
+    }
+  }
+
+  private static class OutgoingMessage {
+    final String data;
+    final String key;
+
+    OutgoingMessage(String data, String key) {
+      this.data = data;
+      this.key = key;
+    }
+  }
+
+  private class SendCallback implements WriteCallback {
+    private boolean returned = false;
+    private boolean completed = false;
+
+    /**
+     * Called after sendString() returns.
+     * @return true if the write is already completed
+     */
+    synchronized boolean returned() {
+      returned = true;
+      return completed;
+    }
+
+    /**
+     * @return true if sendString() already returned
+     */
+    private synchronized boolean complete() {
+      completed = true;
+      return returned;
+    }
+
+    @Override
+    public void writeFailed(Throwable e) {
+      LOG.error("socket error", e);
+      synchronized (sendQueue) {
+        sendQueue.clear();
+      }
+      if (complete()) {
+        sendNext();
+      }
+    }
+
+    @Override
+    public void writeSuccess() {
+      if (complete()) {
+        sendNext();
+      }
+    }
   }
 
 }
@@ -182,6 +182,45 @@ public class InterpreterRestApiTest extends AbstractTestRestApi {
     ZeppelinServer.notebook.removeNote(note.getId());
   }
 
+  @Test
+  public void testClientPoolStats() throws IOException, InterruptedException {
+    // run markdown paragraph to start the interpreter process
+    Note note = ZeppelinServer.notebook.createNote();
+    Paragraph p = note.addParagraph();
+    Map config = p.getConfig();
+    config.put("enabled", true);
+    p.setConfig(config);
+    p.setText("%md markdown");
+    note.run(p.getId());
+    while (p.getStatus() != Status.FINISHED) {
+      Thread.sleep(100);
+    }
+
+    for (InterpreterSetting setting : note.getNoteReplLoader().getInterpreterSettings()) {
+      if (setting.getName().equals("md")) {
+        GetMethod get = httpGet("/interpreter/setting/pool/" + setting.id());
+        assertThat("test client pool stats:", get, isAllowed());
+        Map<String, Object> resp = gson.fromJson(get.getResponseBodyAsString(),
+            new TypeToken<Map<String, Object>>() {}.getType());
+        Map<String, Map<String, Object>> body =
+            (Map<String, Map<String, Object>>) resp.get("body");
+        assertEquals(1, body.size());
+        Map<String, Object> stats = body.values().iterator().next();
+        assertTrue(((Double) stats.get("numBorrowed")) > 0);
+        assertTrue(stats.containsKey("meanBorrowWaitTimeMs"));
+        get.releaseConnection();
+        break;
+      }
+    }
+
+    GetMethod get = httpGet("/interpreter/setting/pool/nonexists");
+    assertThat(get, isNotFound());
+    get.releaseConnection();
+
+    //cleanup
+    ZeppelinServer.notebook.removeNote(note.getId());
+  }
+
   @Test
   public void testListRepository() throws IOException {
     GetMethod get = httpGet("/interpreter/repository");
@@ -30,6 +30,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.zeppelin.interpreter.InterpreterSetting;
 import org.apache.zeppelin.notebook.Note;
 import org.apache.zeppelin.notebook.Paragraph;
+import org.apache.zeppelin.scheduler.ExecutorFactory;
 import org.apache.zeppelin.scheduler.Job.Status;
 import org.apache.zeppelin.server.ZeppelinServer;
 import org.junit.AfterClass;
@@ -73,6 +74,21 @@ public class ZeppelinRestApiTest extends AbstractTestRestApi {
     httpGetRoot.releaseConnection();
   }
 
+  @Test
+  public void testGetExecutorStats() throws IOException {
+    // make sure at least one executor exists
+    ExecutorFactory.singleton().getDefaultExecutor();
+    GetMethod get = httpGet("/executors");
+    assertThat(get, isAllowed());
+    Map<String, Object> resp = gson.fromJson(get.getResponseBodyAsString(),
+        new TypeToken<Map<String, Object>>() {}.getType());
+    Map<String, Object> body = (Map<String, Object>) resp.get("body");
+    Map<String, Object> stats = (Map<String, Object>) body.get("default");
+    assertNotNull(stats);
+    assertTrue(stats.containsKey("activeCount"));
+    get.releaseConnection();
+  }
+
   @Test
   public void testGetNotebookInfo() throws IOException {
     LOG.info("testGetNotebookInfo");
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.zeppelin.socket;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.zeppelin.notebook.socket.Message;
+import org.apache.zeppelin.notebook.socket.Message.OP;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class NotebookSocketTest {
+  private NotebookSocket socket;
+  private RemoteEndpoint remote;
+  private Session session;
+  private List<String> sent;
+  private List<WriteCallback> callbacks;
+
+  @Before
+  public void setUp() {
+    sent = new LinkedList<>();
+    callbacks = new LinkedList<>();
+
+    remote = mock(RemoteEndpoint.class);
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        // keep the write pending until the test completes it
+        sent.add((String) invocation.getArguments()[0]);
+        callbacks.add((WriteCallback) invocation.getArguments()[1]);
+        return null;
+      }
+    }).when(remote).sendString(anyString(), any(WriteCallback.class));
+    session = mock(Session.class);
+    when(session.getRemote()).thenReturn(remote);
+
+    socket = new NotebookSocket(mock(HttpServletRequest.class), "",
+        mock(NotebookSocketListener.class), 3);
+    socket.onWebSocketConnect(session);
+  }
+
+  private void completeWrite() {
+    callbacks.remove(0).writeSuccess();
+  }
+
+  @Test
+  public void testSendOneMessageAtATime() throws IOException {
+    socket.send("m1");
+    socket.send("m2");
+    assertEquals(1, sent.size());
+    assertEquals(1, socket.getSendQueueLength());
+
+    completeWrite();
+    assertEquals(2, sent.size());
+    assertEquals("m2", sent.get(1));
+    assertEquals(0, socket.getSendQueueLength());
+  }
+
+  @Test
+  public void testSupersedeQueuedMessages() throws IOException {
+    socket.send("inflight");
+
+    Message append = new Message(OP.PARAGRAPH_APPEND_OUTPUT)
+        .put("noteId", "note").put("paragraphId", "p1");
+    Message update = new Message(OP.PARAGRAPH_UPDATE_OUTPUT)
+        .put("noteId", "note").put("paragraphId", "p1");
+    socket.send("append", NotebookServer.sendQueueKey(append),
+        NotebookServer.supersedesQueuedMessage(append));
+    socket.send("other", null, false);
+    socket.send("update", NotebookServer.sendQueueKey(update),
+        NotebookServer.supersedesQueuedMessage(update));
+    assertEquals(2, socket.getSendQueueLength());
+
+    completeWrite();
+    completeWrite();
+    assertEquals("other", sent.get(1));
+    assertEquals("update", sent.get(2));
+  }
+
+  @Test
+  public void testCloseWhenQueueIsFull() throws IOException {
+    socket.send("inflight");
+    for (int i = 0; i < 3; i++) {
+      socket.send("m" + i);
+    }
+    assertEquals(3, socket.getSendQueueLength());
+    verify(session, never()).close(anyInt(), anyString());
+
+    // message is not dropped silently. client reconnects and reloads the note
+    socket.send("m3");
+    assertEquals(0, socket.getSendQueueLength());
+    verify(session).close(eq(StatusCode.TRY_AGAIN_LATER), anyString());
+
+    socket.send("m4");
+    assertEquals(0, socket.getSendQueueLength());
+    verify(session, times(1)).close(anyInt(), anyString());
+  }
+
+  @Test
+  public void testContinueWhenWriteCompletesImmediately() throws IOException {
+    socket.send("m1");
+    socket.send("m2");
+    socket.send("m3");
+    // write completes while sendString() is running
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        sent.add((String) invocation.getArguments()[0]);
+        ((WriteCallback) invocation.getArguments()[1]).writeSuccess();
+        return null;
+      }
+    }).when(remote).sendString(anyString(), any(WriteCallback.class));
+
+    completeWrite();
+    assertEquals(3, sent.size());
+    assertEquals(0, socket.getSendQueueLength());
+  }
+}
@@ -105,7 +105,11 @@ angular.module('zeppelinWebApp')
     }
 
     initializeDefault();
+    renderResult();
+    loadResultIfStored();
+  };
 
+  var renderResult = function() {
     if ($scope.getResultType() === 'TABLE') {
       $scope.loadTableData($scope.paragraph.result);
       $scope.setGraphMode($scope.getGraphMode(), false, false);
@@ -118,6 +122,21 @@ angular.module('zeppelinWebApp')
     }
   };
 
+  // large result is stored out of the note and sent only when the paragraph is rendered
+  var loadResultIfStored = function() {
+    if (!$scope.paragraph.result && $scope.paragraph.resultRef) {
+      websocketMsgSrv.getParagraphResult($scope.paragraph.id);
+    }
+  };
+
+  $scope.$on('paragraphResult', function(event, data) {
+    if (data.paragraphId === $scope.paragraph.id &&
+        data.resultRef === $scope.paragraph.resultRef && !$scope.paragraph.result) {
+      $scope.paragraph.result = data.result;
+      renderResult();
+    }
+  });
+
     $scope.renderHtml = function() {
       var retryRenderer = function() {
       if (angular.element('#p' + $scope.paragraph.id + '_html').length) {
@@ -192,7 +211,7 @@ angular.module('zeppelinWebApp')
         textEl.append(angular.element('<div></div>').text(lines[i]));
       }
     }
-    if ($scope.keepScrollDown) {
+    if ($scope.keepScrollDown && textEl.length) {
       var doc = angular.element('#p' + $scope.paragraph.id + '_text');
       doc[0].scrollTop = doc[0].scrollHeight;
     }
@@ -347,6 +366,12 @@ angular.module('zeppelinWebApp')
 
   // TODO: this may have impact on performance when there are many paragraphs in a note.
   $scope.$on('updateParagraph', function(event, data) {
+    if (data.paragraph.id === $scope.paragraph.id && isEmpty(data.paragraph.result) &&
+        data.paragraph.resultRef && data.paragraph.resultRef === $scope.paragraph.resultRef) {
+      // result stored out of the note is not sent again
+      data.paragraph.result = $scope.paragraph.result;
+    }
+
     if (data.paragraph.id === $scope.paragraph.id &&
         (data.paragraph.dateCreated !== $scope.paragraph.dateCreated ||
          data.paragraph.dateFinished !== $scope.paragraph.dateFinished ||
@@ -401,6 +426,13 @@ angular.module('zeppelinWebApp')
       $scope.paragraph.lineNumbers = data.paragraph.lineNumbers;
       $scope.paragraph.status = data.paragraph.status;
       $scope.paragraph.result = data.paragraph.result;
+      $scope.paragraph.resultRef = data.paragraph.resultRef;
+      if (data.paragraph.status !== 'RUNNING' && data.paragraph.status !== 'PENDING') {
+        // the result replaces the streamed rows
+        stopStreamingTable();
+      } else if (streamingTable !== undefined) {
+        renderStreamingTable();
+      }
       $scope.paragraph.settings = data.paragraph.settings;
 
       if (!$scope.asIframe) {
@@ -432,6 +464,8 @@ angular.module('zeppelinWebApp')
         $scope.renderText();
       }
 
+      loadResultIfStored();
+
       if (statusChanged || resultRefreshed) {
         // when last paragraph runs, zeppelin automatically appends new paragraph.
         // this broadcast will focus to the newly inserted paragraph
@@ -448,8 +482,38 @@ angular.module('zeppelinWebApp')
 
   });
 
+  // rows of %table output streamed while the paragraph runs, shown in the table view
+  var OUTPUT_DIRECTIVE = /^%([a-z]+)\n/;
+  var streamingTable;
+  var streamingTableRender;
+
+  var renderStreamingTable = function() {
+    if (streamingTableRender) {
+      return;
+    }
+    // render at most every 100ms, not on every append
+    streamingTableRender = $timeout(function() {
+      streamingTableRender = undefined;
+      $scope.paragraph.result = {code: 'SUCCESS', type: 'TABLE', msg: streamingTable};
+      renderResult();
+    }, 100);
+  };
+
+  var stopStreamingTable = function() {
+    streamingTable = undefined;
+    if (streamingTableRender) {
+      $timeout.cancel(streamingTableRender);
+      streamingTableRender = undefined;
+    }
+  };
+
   $scope.$on('appendParagraphOutput', function(event, data) {
     if ($scope.paragraph.id === data.paragraphId) {
+      if (streamingTable !== undefined) {
+        streamingTable += data.data;
+        renderStreamingTable();
+        return;
+      }
       if ($scope.flushStreamingOutput) {
         $scope.clearTextOutput();
         $scope.flushStreamingOutput = false;
@@ -460,8 +524,17 @@ angular.module('zeppelinWebApp')
 
   $scope.$on('updateParagraphOutput', function(event, data) {
     if ($scope.paragraph.id === data.paragraphId) {
+      stopStreamingTable();
+      // output of another type than text starts with its directive, e.g. "%table\n"
+      var directive = OUTPUT_DIRECTIVE.exec(data.data);
+      if (directive && directive[1] === 'table') {
+        streamingTable = data.data.substring(directive[0].length);
+        return;
+      }
       $scope.clearTextOutput();
-      $scope.appendTextOutput(data.data);
+      if (!directive) {
+        $scope.appendTextOutput(data.data);
+      }
     }
   });
 
@@ -1142,11 +1215,69 @@ angular.module('zeppelinWebApp')
     }
   };
 
+  var getColumnarTableValues = function(vector, rowCount) {
+    var values = [];
+    for (var r = 0; r < rowCount; r++) {
+      if (vector.longs) {
+        values.push(String(vector.longs[r]));
+      } else if (vector.doubles) {
+        values.push(String(vector.doubles[r]));
+      } else if (vector.booleans) {
+        values.push(String(vector.booleans[r]));
+      } else if (vector.strings) {
+        values.push(vector.strings[r]);
+      } else {
+        values.push(vector.dictionary[vector.codes[r]]);
+      }
+    }
+    if (vector.nulls) {
+      for (var n = 0; n < vector.nulls.length; n++) {
+        values[vector.nulls[n]] = 'null';
+      }
+    }
+    return values;
+  };
+
+  // read typed columns of the table instead of parsing the text of the result
+  var loadColumnarTableData = function(result) {
+    var table = result.table;
+    var columnNames = [];
+    var rows = [];
+    var array = [];
+
+    for (var i = 0; i < table.columns.length; i++) {
+      columnNames.push({name:table.columns[i].name, index:i, aggr:'sum'});
+    }
+    for (var c = 0; c < table.chunks.length; c++) {
+      var chunk = table.chunks[c];
+      var columns = [];
+      for (var j = 0; j < chunk.vectors.length; j++) {
+        columns.push(getColumnarTableValues(chunk.vectors[j], chunk.rowCount));
+      }
+      for (var r = 0; r < chunk.rowCount; r++) {
+        var cols = [];
+        var cols2 = [];
+        for (j = 0; j < columns.length; j++) {
+          cols.push(columns[j][r]);
+          cols2.push({key: columnNames[j].name, value: columns[j][r]});
+        }
+        rows.push(cols);
+        array.push(cols2);
+      }
+    }
+    result.comment = table.comment || '';
+    result.msgTable = array;
+    result.columnNames = columnNames;
+    result.rows = rows;
+  };
+
   $scope.loadTableData = function(result) {
     if (!result) {
       return;
     }
-    if (result.type === 'TABLE') {
+    if (result.type === 'TABLE' && result.table) {
+      loadColumnarTableData(result);
+    } else if (result.type === 'TABLE') {
       var columnNames = [];
       var rows = [];
       var array = [];
@@ -21,6 +21,8 @@ angular.module('zeppelinWebApp').factory('websocketEvents', function($rootScope,
 
   websocketCalls.ws.onOpen(function() {
     console.log('Websocket created');
+    // versions restart when the server restarts. the note is sent again on reconnect
+    websocketCalls.noteVersions = {};
     $rootScope.$broadcast('setConnectedStatus', true);
     setInterval(function(){
       websocketCalls.sendNewEvent({op: 'PING'});
@@ -41,6 +43,27 @@ angular.module('zeppelinWebApp').factory('websocketEvents', function($rootScope,
     websocketCalls.ws.send(JSON.stringify(data));
   };
 
+  websocketCalls.noteVersions = {};
+
+  /**
+   * request the whole note again when an update of the note has been missed
+   * @return false when the update is older than the note the client has
+   */
+  var checkNoteVersion = function(noteId, version) {
+    var lastVersion = websocketCalls.noteVersions[noteId];
+    if (version === undefined || lastVersion === undefined) {
+      return true;
+    }
+    if (version <= lastVersion) {
+      return false;
+    }
+    websocketCalls.noteVersions[noteId] = version;
+    if (version > lastVersion + 1) {
+      websocketCalls.sendNewEvent({op: 'GET_NOTE', data: {id: noteId}});
+    }
+    return true;
+  };
+
   websocketCalls.isConnected = function() {
     return (websocketCalls.ws.socket.readyState === 1);
   };
@@ -54,6 +77,15 @@ angular.module('zeppelinWebApp').factory('websocketEvents', function($rootScope,
     var op = payload.op;
     var data = payload.data;
     if (op === 'NOTE') {
+      if (data.note) {
+        var lastVersion = websocketCalls.noteVersions[data.note.id];
+        if (data.noteVersion !== undefined && lastVersion !== undefined &&
+            data.noteVersion < lastVersion) {
+          // a newer update of the note is already applied
+          return;
+        }
+        websocketCalls.noteVersions[data.note.id] = data.noteVersion;
+      }
       $rootScope.$broadcast('setNoteContent', data.note);
     } else if (op === 'NEW_NOTE') {
       $location.path('notebook/' + data.note.id);
@@ -80,7 +112,11 @@ angular.module('zeppelinWebApp').factory('websocketEvents', function($rootScope,
           }]
       });
     } else if (op === 'PARAGRAPH') {
-      $rootScope.$broadcast('updateParagraph', data);
+      if (checkNoteVersion(data.noteId, data.noteVersion)) {
+        $rootScope.$broadcast('updateParagraph', data);
+      }
+    } else if (op === 'PARAGRAPH_RESULT') {
+      $rootScope.$broadcast('paragraphResult', data);
     } else if (op === 'PARAGRAPH_APPEND_OUTPUT') {
       $rootScope.$broadcast('appendParagraphOutput', data);
     } else if (op === 'PARAGRAPH_UPDATE_OUTPUT') {
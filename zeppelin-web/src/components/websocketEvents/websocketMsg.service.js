@@ -118,6 +118,10 @@ angular.module('zeppelinWebApp').service('websocketMsgSrv', function($rootScope,
       websocketEvents.sendNewEvent({op: 'PARAGRAPH_CLEAR_OUTPUT', data: {id: paragraphId}});
     },
 
+    getParagraphResult: function(paragraphId) {
+      websocketEvents.sendNewEvent({op: 'GET_PARAGRAPH_RESULT', data: {id: paragraphId}});
+    },
+
     completion: function(paragraphId, buf, cursor) {
       websocketEvents.sendNewEvent({
         op : 'COMPLETION',
@@ -350,6 +350,10 @@ public class ZeppelinConfiguration extends XMLConfiguration {
     return getRelativeDir(ConfVars.ZEPPELIN_INTERPRETER_DIR);
   }
 
+  public String getSearchIndexDir() {
+    return getRelativeDir(ConfVars.ZEPPELIN_SEARCH_INDEX_DIR);
+  }
+
   public String getInterpreterJson() {
     return getString(ConfVars.ZEPPELIN_INTERPRETER_JSON);
   }
@@ -415,6 +419,10 @@ public class ZeppelinConfiguration extends XMLConfiguration {
     return getString(ConfVars.ZEPPELIN_WEBSOCKET_MAX_TEXT_MESSAGE_SIZE);
   }
 
+  public int getWebsocketSendQueueSize() {
+    return getInt(ConfVars.ZEPPELIN_WEBSOCKET_SEND_QUEUE_SIZE);
+  }
+
   public Map<String, String> dumpConfigurations(ZeppelinConfiguration conf,
                                                 ConfigurationKeyPredicate predicate) {
     Map<String, String> configurations = new HashMap<>();
@@ -524,6 +532,17 @@ public class ZeppelinConfiguration extends XMLConfiguration {
     ZEPPELIN_NOTEBOOK_AZURE_SHARE("zeppelin.notebook.azure.share", "zeppelin"),
     ZEPPELIN_NOTEBOOK_AZURE_USER("zeppelin.notebook.azure.user", "user"),
     ZEPPELIN_NOTEBOOK_STORAGE("zeppelin.notebook.storage", VFSNotebookRepo.class.getName()),
+    // Maximum delay in milliseconds before a changed note is written
+    ZEPPELIN_NOTEBOOK_PERSIST_DELAY("zeppelin.notebook.persist.delay", 1000),
+    ZEPPELIN_NOTEBOOK_PERSIST_THREADS("zeppelin.notebook.persist.threads", 4),
+    // Number of notes read at the same time on startup and reload
+    ZEPPELIN_NOTEBOOK_LOAD_THREADS("zeppelin.notebook.load.threads", 8),
+    ZEPPELIN_NOTEBOOK_RESULT_BLOB_THRESHOLD("zeppelin.notebook.result.blob.threshold", 1048576),
+    // Keep search index on disk, so only changed notes are indexed on startup
+    ZEPPELIN_SEARCH_INDEX_PERSIST("zeppelin.search.index.persist", false),
+    ZEPPELIN_SEARCH_INDEX_DIR("zeppelin.search.index.dir", "search-index"),
+    // Run jobs of schedulers in virtual threads, when JVM supports it (JDK 21+)
+    ZEPPELIN_SCHEDULER_VIRTUAL_THREAD("zeppelin.scheduler.virtualThread", false),
     ZEPPELIN_INTERPRETER_REMOTE_RUNNER("zeppelin.interpreter.remoterunner",
         System.getProperty("os.name")
                 .startsWith("Windows") ? "bin/interpreter.cmd" : "bin/interpreter.sh"),
@@ -536,7 +555,8 @@ public class ZeppelinConfiguration extends XMLConfiguration {
     ZEPPELIN_ALLOWED_ORIGINS("zeppelin.server.allowed.origins", "*"),
     ZEPPELIN_ANONYMOUS_ALLOWED("zeppelin.anonymous.allowed", true),
     ZEPPELIN_CREDENTIALS_PERSIST("zeppelin.credentials.persist", true),
-    ZEPPELIN_WEBSOCKET_MAX_TEXT_MESSAGE_SIZE("zeppelin.websocket.max.text.message.size", "1024000");
+    ZEPPELIN_WEBSOCKET_MAX_TEXT_MESSAGE_SIZE("zeppelin.websocket.max.text.message.size", "1024000"),
+    ZEPPELIN_WEBSOCKET_SEND_QUEUE_SIZE("zeppelin.websocket.send.queue.size", 10000);
 
 
     private String varName;
@@ -23,7 +23,9 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang.NullArgumentException;
 import org.apache.zeppelin.dep.Dependency;
 import org.apache.zeppelin.display.AngularObjectRegistry;
+import org.apache.zeppelin.interpreter.remote.ClientPoolStats;
 import org.apache.zeppelin.interpreter.remote.RemoteAngularObjectRegistry;
+import org.apache.zeppelin.interpreter.remote.RemoteInterpreterProcess;
 import org.apache.zeppelin.notebook.utility.IdHashes;
 
 /**
@@ -152,6 +154,25 @@ public class InterpreterSetting {
     }
   }
 
+  /**
+   * @return thrift client pool statistics of running interpreter processes,
+   *         by interpreter group id
+   */
+  public Map<String, ClientPoolStats> getClientPoolStats() {
+    Map<String, ClientPoolStats> stats = new HashMap<String, ClientPoolStats>();
+    for (InterpreterGroup intpGroup : getAllInterpreterGroups()) {
+      RemoteInterpreterProcess process = intpGroup.getRemoteInterpreterProcess();
+      if (process == null) {
+        continue;
+      }
+      ClientPoolStats processStats = process.getClientPoolStats();
+      if (processStats != null) {
+        stats.put(intpGroup.getId(), processStats);
+      }
+    }
+    return stats;
+  }
+
   public void closeAndRemoveInterpreterGroup(String noteId) {
     String key = getInterpreterProcessKey(noteId);
     InterpreterGroup groupToRemove;
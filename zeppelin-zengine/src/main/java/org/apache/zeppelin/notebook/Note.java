@@ -21,9 +21,8 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.*;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.zeppelin.display.AngularObject;
 import org.apache.zeppelin.display.AngularObjectRegistry;
@@ -51,13 +50,6 @@ public class Note implements Serializable, JobListener {
   static Logger logger = LoggerFactory.getLogger(Note.class);
   private static final long serialVersionUID = 7920699076577612429L;
 
-  // threadpool for delayed persist of note
-  private static final ScheduledThreadPoolExecutor delayedPersistThreadPool =
-          new ScheduledThreadPoolExecutor(0);
-  static {
-    delayedPersistThreadPool.setRemoveOnCancelPolicy(true);
-  }
-
   final List<Paragraph> paragraphs = new LinkedList<>();
 
   private String name = "";
@@ -70,8 +62,9 @@ public class Note implements Serializable, JobListener {
   private transient JobListenerFactory jobListenerFactory;
   private transient NotebookRepo repo;
   private transient SearchService index;
-  private transient ScheduledFuture delayedPersist;
+  private transient NotePersistService persistService;
   private transient Credentials credentials;
+  private transient AtomicLong version = new AtomicLong();
 
   /**
    * note configurations.
@@ -116,6 +109,26 @@ public class Note implements Serializable, JobListener {
     return name;
   }
 
+  /**
+   * Version of the note as seen by websocket clients.
+   * Increased on every broadcast change, so a client can detect a missed update.
+   */
+  public long getVersion() {
+    return version.get();
+  }
+
+  public long incrementVersion() {
+    return version.incrementAndGet();
+  }
+
+  /**
+   * Lock to hold while a change gets a version and is queued to clients,
+   * so that clients receive the changes of the note in the order of their versions.
+   */
+  public Object getVersionLock() {
+    return version;
+  }
+
   public void setName(String name) {
     this.name = name;
   }
@@ -156,6 +169,10 @@ public class Note implements Serializable, JobListener {
     this.credentials = credentials;
   }
 
+  public void setPersistService(NotePersistService persistService) {
+    this.persistService = persistService;
+  }
+
 
   @SuppressWarnings("rawtypes")
   public Map<String, List<AngularObject>> getAngularObjects() {
@@ -365,6 +382,14 @@ public class Note implements Serializable, JobListener {
    * Run all paragraphs sequentially.
    */
   public void runAll() {
+    runAll(null);
+  }
+
+  /**
+   * Run all paragraphs sequentially.
+   * @param share share of the paragraphs on fair-share scheduler. null for the user
+   */
+  void runAll(String share) {
     String cronExecutingUser = (String) getConfig().get("cronExecutingUser");
     synchronized (paragraphs) {
       for (Paragraph p : paragraphs) {
@@ -374,6 +399,9 @@ public class Note implements Serializable, JobListener {
         AuthenticationInfo authenticationInfo = new AuthenticationInfo();
         authenticationInfo.setUser(cronExecutingUser);
         p.setAuthenticationInfo(authenticationInfo);
+        if (share != null) {
+          p.setShare(share);
+        }
         p.setNoteReplLoader(replLoader);
         p.setListener(jobListenerFactory.getParagraphJobListener(this));
         Interpreter intp = replLoader.get(p.getRequiredReplName());
@@ -450,10 +478,14 @@ public class Note implements Serializable, JobListener {
   }
 
   public void persist() throws IOException {
-    stopDelayedPersistTimer();
-    snapshotAngularObjectRegistry();
-    index.updateIndexDoc(this);
-    repo.save(this);
+    if (persistService != null) {
+      persistService.cancel(this);
+    }
+    synchronized (this) {
+      snapshotAngularObjectRegistry();
+      index.updateIndexDoc(this);
+      repo.save(this);
+    }
   }
 
   /**
@@ -461,41 +493,35 @@ public class Note implements Serializable, JobListener {
    * @param maxDelaySec
    */
   public void persist(int maxDelaySec) {
-    startDelayedPersistTimer(maxDelaySec);
+    persistLater(TimeUnit.SECONDS.toMillis(maxDelaySec));
   }
 
-  public void unpersist() throws IOException {
-    repo.remove(id());
+  /**
+   * Persist this note in background within the default delay of NotePersistService.
+   */
+  public void persistLater() {
+    persistLater(persistService == null ? 0 : persistService.getDelayMs());
   }
 
+  private void persistLater(long maxDelayMs) {
+    if (persistService != null) {
+      persistService.persist(this, maxDelayMs);
+      return;
+    }
 
-  private void startDelayedPersistTimer(int maxDelaySec) {
-    synchronized (this) {
-      if (delayedPersist != null) {
-        return;
-      }
-
-      delayedPersist = delayedPersistThreadPool.schedule(new Runnable() {
-
-        @Override
-        public void run() {
-          try {
-            persist();
-          } catch (IOException e) {
-            logger.error(e.getMessage(), e);
-          }
-        }
-      }, maxDelaySec, TimeUnit.SECONDS);
+    try {
+      persist();
+    } catch (IOException e) {
+      logger.error(e.getMessage(), e);
     }
   }
 
-  private void stopDelayedPersistTimer() {
+  public void unpersist() throws IOException {
+    if (persistService != null) {
+      persistService.cancel(this);
+    }
     synchronized (this) {
-      if (delayedPersist == null) {
-        return;
-      }
-
-      delayedPersist.cancel(false);
+      repo.remove(id());
     }
   }
 
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.notebook;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-behind persistence of notes.
+ *
+ * Persist requests for a note are coalesced until the note is written,
+ * and different notes are written concurrently.
+ * A note is written no later than the delay given by the first pending request.
+ */
+public class NotePersistService {
+  Logger logger = LoggerFactory.getLogger(NotePersistService.class);
+
+  private final ScheduledThreadPoolExecutor executor;
+  private final long delayMs;
+  private final Map<String, PendingPersist> pending = new HashMap<>();
+  private boolean closed = false;
+
+  private final AtomicLong numPersisted = new AtomicLong();
+  private final AtomicLong numCoalesced = new AtomicLong();
+  private final AtomicLong numFailed = new AtomicLong();
+
+  /**
+   * @param numThreads number of notes that can be written at the same time
+   * @param delayMs default delay of write
+   */
+  public NotePersistService(int numThreads, long delayMs) {
+    this.delayMs = delayMs;
+    executor = new ScheduledThreadPoolExecutor(Math.max(numThreads, 1));
+    executor.setRemoveOnCancelPolicy(true);
+  }
+
+  public long getDelayMs() {
+    return delayMs;
+  }
+
+  /**
+   * Persist note within default delay.
+   */
+  public void persist(Note note) {
+    persist(note, delayMs);
+  }
+
+  /**
+   * Persist note within maxDelayMs.
+   * When the note is already waiting to be written, the request is merged into it.
+   */
+  public void persist(Note note, long maxDelayMs) {
+    long persistTime = System.currentTimeMillis() + maxDelayMs;
+    synchronized (pending) {
+      if (closed) {
+        persistNow(note);
+        return;
+      }
+
+      PendingPersist p = pending.get(note.id());
+      if (p != null) {
+        numCoalesced.incrementAndGet();
+        if (p.persistTime <= persistTime) {
+          return;
+        }
+        // write earlier to keep the requested delay
+        p.future.cancel(false);
+      }
+
+      p = new PendingPersist(note, persistTime);
+      pending.put(note.id(), p);
+      p.future = executor.schedule(p, Math.max(maxDelayMs, 0), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Discard pending write of the note. e.g. note is written synchronously or removed.
+   */
+  public void cancel(Note note) {
+    synchronized (pending) {
+      PendingPersist p = pending.remove(note.id());
+      if (p != null) {
+        p.future.cancel(false);
+      }
+    }
+  }
+
+  /**
+   * Write all pending notes in the calling thread.
+   */
+  public void flush() {
+    List<PendingPersist> notes = new LinkedList<>();
+    synchronized (pending) {
+      for (PendingPersist p : pending.values()) {
+        p.future.cancel(false);
+        notes.add(p);
+      }
+      pending.clear();
+    }
+
+    for (PendingPersist p : notes) {
+      persistNow(p.note);
+    }
+  }
+
+  /**
+   * Write all pending notes and stop. Notes persisted after close are written synchronously.
+   */
+  public void close() {
+    synchronized (pending) {
+      closed = true;
+    }
+    flush();
+    executor.shutdown();
+    try {
+      executor.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      logger.error("Interrupted while waiting for notes to be written", e);
+    }
+  }
+
+  /**
+   * @return number of notes waiting to be written
+   */
+  public int getNumPending() {
+    synchronized (pending) {
+      return pending.size();
+    }
+  }
+
+  public long getNumPersisted() {
+    return numPersisted.get();
+  }
+
+  /**
+   * @return number of persist requests merged into a pending write
+   */
+  public long getNumCoalesced() {
+    return numCoalesced.get();
+  }
+
+  public long getNumFailed() {
+    return numFailed.get();
+  }
+
+  private void persistNow(Note note) {
+    try {
+      note.persist();
+      numPersisted.incrementAndGet();
+    } catch (IOException e) {
+      numFailed.incrementAndGet();
+      logger.error("Failed to persist note " + note.id(), e);
+    }
+  }
+
+  private class PendingPersist implements Runnable {
+    final Note note;
+    final long persistTime;
+    ScheduledFuture<?> future;
+
+    PendingPersist(Note note, long persistTime) {
+      this.note = note;
+      this.persistTime = persistTime;
+    }
+
+    @Override
+    public void run() {
+      synchronized (pending) {
+        if (pending.get(note.id()) != this) {
+          return;
+        }
+        pending.remove(note.id());
+      }
+      persistNow(note);
+    }
+  }
+}
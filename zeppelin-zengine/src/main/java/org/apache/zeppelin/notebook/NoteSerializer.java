@@ -0,0 +1,359 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.notebook;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.zeppelin.scheduler.Job;
+
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.CountingOutputStream;
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Reads and writes note.json as a stream, without building the whole json in memory.
+ * Output is the same as pretty printing Gson.
+ *
+ * Results larger than a threshold can be written to a {@link ResultBlobStore} instead of
+ * note.json. note.json then keeps the hash of the result in 'resultRef' of the paragraph.
+ */
+public class NoteSerializer {
+  private static final String BLOB_ENCODING = "UTF-8";
+  private static final String INDENT = "  ";
+
+  /**
+   * Serializes paragraphs with their results inline, reading results out of note.json if needed.
+   * Register this factory to Gson that serializes notes or paragraphs for clients.
+   */
+  public static final TypeAdapterFactory INLINE_RESULTS = new ParagraphAdapterFactory(null, -1);
+
+  private static final Gson gson = new GsonBuilder()
+      .setPrettyPrinting()
+      .registerTypeAdapterFactory(INLINE_RESULTS)
+      .create();
+  private static final Gson blobGson = new Gson();
+
+  // field of Job that keeps the result
+  private static final String RESULT_FIELD = "result";
+  private static final Set<String> FIELDS_AFTER_RESULT = fieldsAfterResult();
+  // serializes paragraph fields except the result, which is written by ParagraphAdapterFactory
+  private static final Gson paragraphGson = new GsonBuilder()
+      .setExclusionStrategies(new ExclusionStrategy() {
+        @Override
+        public boolean shouldSkipField(FieldAttributes f) {
+          return f.getDeclaringClass() == Job.class && f.getName().equals(RESULT_FIELD);
+        }
+
+        @Override
+        public boolean shouldSkipClass(Class<?> clazz) {
+          return false;
+        }
+      })
+      .create();
+
+  private NoteSerializer() {
+  }
+
+  /**
+   * Write note as json to the output stream with all results inline.
+   * Output stream is not closed.
+   */
+  public static void write(Note note, OutputStream out, String encoding) throws IOException {
+    write(gson, note, out, encoding);
+  }
+
+  /**
+   * Write note as json to the output stream. Results larger than blobThreshold bytes are
+   * written to the blob store, unless the store already has them. Output stream is not closed.
+   * @param blobThreshold negative value keeps all results inline
+   * @return hashes of the results referenced by the note
+   */
+  public static Set<String> write(Note note, OutputStream out, String encoding,
+      ResultBlobStore blobs, long blobThreshold) throws IOException {
+    ParagraphAdapterFactory factory = new ParagraphAdapterFactory(blobs, blobThreshold);
+    Gson blobGson = new GsonBuilder()
+        .setPrettyPrinting()
+        .registerTypeAdapterFactory(factory)
+        .create();
+    write(blobGson, note, out, encoding);
+    return factory.refs;
+  }
+
+  private static void write(Gson gson, Note note, OutputStream out, String encoding)
+      throws IOException {
+    JsonWriter writer = new JsonWriter(
+        new BufferedWriter(new OutputStreamWriter(out, encoding)));
+    writer.setIndent(INDENT);
+    try {
+      gson.toJson(note, Note.class, writer);
+    } catch (JsonParseException e) {
+      throw new IOException(e);
+    } catch (ResultBlobException e) {
+      throw e.getCause();
+    }
+    writer.flush();
+  }
+
+  /**
+   * @return note json with all results inline
+   */
+  public static String toJson(Note note) {
+    return gson.toJson(note);
+  }
+
+  /**
+   * Read note from json input stream. Input stream is not closed.
+   * @return note. null if the input is empty
+   */
+  public static Note read(InputStream in, String encoding) throws IOException {
+    JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(in, encoding)));
+    try {
+      return gson.fromJson(reader, Note.class);
+    } catch (JsonParseException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Read note from json input stream. Results out of note.json are read from the blob store
+   * when they're requested. Input stream is not closed.
+   * @return note. null if the input is empty
+   */
+  public static Note read(InputStream in, String encoding, ResultBlobStore blobs)
+      throws IOException {
+    Note note = read(in, encoding);
+    if (note != null) {
+      for (Paragraph p : note.getParagraphs()) {
+        p.setResultBlobStore(blobs);
+      }
+    }
+    return note;
+  }
+
+  static Object readResult(ResultBlobStore blobs, String hash) throws IOException {
+    try (InputStream in = blobs.read(hash)) {
+      JsonReader reader = new JsonReader(
+          new BufferedReader(new InputStreamReader(in, BLOB_ENCODING)));
+      return gson.fromJson(reader, Object.class);
+    } catch (JsonParseException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Moves paragraph result between note.json and the blob store while paragraph is serialized.
+   * The result is written apart from the other fields, so a result that stays in the blob store
+   * is not serialized at all, and a large one is never held in memory as json.
+   */
+  private static class ParagraphAdapterFactory implements TypeAdapterFactory {
+    private final ResultBlobStore blobs; // null to write all results inline
+    private final long blobThreshold;
+    final Set<String> refs = new HashSet<>();
+
+    ParagraphAdapterFactory(ResultBlobStore blobs, long blobThreshold) {
+      this.blobs = blobs;
+      this.blobThreshold = blobThreshold;
+    }
+
+    @Override
+    public <T> TypeAdapter<T> create(final Gson gson, TypeToken<T> type) {
+      if (type.getRawType() != Paragraph.class) {
+        return null;
+      }
+
+      final TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+      final TypeAdapter<JsonElement> elementAdapter = gson.getAdapter(JsonElement.class);
+      // same as Gson writes a field declared as Object
+      final TypeAdapter<Object> resultAdapter = gson.getAdapter(Object.class);
+      return new TypeAdapter<T>() {
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+          if (value == null) {
+            delegate.write(out, value);
+            return;
+          }
+          Paragraph p = (Paragraph) value;
+          JsonObject tree = paragraphGson.toJsonTree(p).getAsJsonObject();
+          Object result;
+          try {
+            result = prepareResult(p, tree);
+          } catch (IOException e) {
+            throw new ResultBlobException(e);
+          }
+
+          // fields in the order Gson writes them
+          out.beginObject();
+          for (Map.Entry<String, JsonElement> field : tree.entrySet()) {
+            if (result != null && FIELDS_AFTER_RESULT.contains(field.getKey())) {
+              out.name(RESULT_FIELD);
+              resultAdapter.write(out, result);
+              result = null;
+            }
+            out.name(field.getKey());
+            elementAdapter.write(out, field.getValue());
+          }
+          if (result != null) {
+            out.name(RESULT_FIELD);
+            resultAdapter.write(out, result);
+          }
+          out.endObject();
+        }
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+          return delegate.read(in);
+        }
+      };
+    }
+
+    /**
+     * Decide where the result goes, and set resultRef of the paragraph tree accordingly.
+     * @return result to write inline. null if there's none
+     */
+    private Object prepareResult(Paragraph p, JsonObject tree) throws IOException {
+      Object result = p.getLoadedReturn();
+      String ref = p.getResultRef();
+
+      if (blobs != null && ref != null
+          && (result == null || result == p.getStoredResult())
+          && blobs.exists(ref)) {
+        // result is not changed since it's stored
+        refs.add(ref);
+        return null;
+      }
+
+      tree.remove("resultRef");
+      Object inline = result;
+      if (inline == null) {
+        if (ref == null) {
+          return null;
+        }
+        // not loaded yet, or stored in another repository
+        inline = p.getReturn();
+        if (inline == null) {
+          return null;
+        }
+      }
+
+      if (blobs == null || blobThreshold < 0) {
+        return inline;
+      }
+      String hash = storeResult(inline);
+      if (hash == null) {
+        return inline;
+      }
+      refs.add(hash);
+      tree.addProperty("resultRef", hash);
+      if (result != null) {
+        p.setResultRef(hash, result);
+      }
+      return null;
+    }
+
+    /**
+     * Write the result to the blob store, if its json is not smaller than the threshold.
+     * Size and hash are computed while the json is streamed, without keeping it.
+     * @return hash of the result. null if the result is kept inline
+     */
+    private String storeResult(final Object result) throws IOException {
+      Hasher hasher = Hashing.sha1().newHasher();
+      CountingOutputStream counter = new CountingOutputStream(Funnels.asOutputStream(hasher));
+      writeBlob(result, counter);
+      if (counter.getCount() < blobThreshold) {
+        return null;
+      }
+
+      String hash = hasher.hash().toString();
+      if (!blobs.exists(hash)) {
+        blobs.write(hash, new ResultBlobStore.BlobWriter() {
+          @Override
+          public void writeTo(OutputStream out) throws IOException {
+            writeBlob(result, out);
+          }
+        });
+      }
+      return hash;
+    }
+  }
+
+  private static void writeBlob(Object result, OutputStream out) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, BLOB_ENCODING));
+    blobGson.toJson(result, writer);
+    writer.flush();
+  }
+
+  /**
+   * Names of the paragraph fields Gson writes after the result.
+   * Gson writes fields of a class first, and then fields of its super classes.
+   */
+  private static Set<String> fieldsAfterResult() {
+    Set<String> fields = new HashSet<>();
+    boolean after = false;
+    for (Class<?> c = Paragraph.class; c != Object.class; c = c.getSuperclass()) {
+      for (Field f : c.getDeclaredFields()) {
+        int modifiers = f.getModifiers();
+        if (after && !Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+          fields.add(f.getName());
+        }
+        if (c == Job.class && f.getName().equals(RESULT_FIELD)) {
+          after = true;
+        }
+      }
+    }
+    return fields;
+  }
+
+  /**
+   * Carries IOException of the blob store through Gson.
+   */
+  private static class ResultBlobException extends RuntimeException {
+    ResultBlobException(IOException cause) {
+      super(cause);
+    }
+
+    @Override
+    public synchronized IOException getCause() {
+      return (IOException) super.getCause();
+    }
+  }
+}
@@ -28,6 +28,11 @@ import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.zeppelin.conf.ZeppelinConfiguration;
@@ -41,6 +46,7 @@ import org.apache.zeppelin.interpreter.remote.RemoteAngularObjectRegistry;
 import org.apache.zeppelin.notebook.repo.NotebookRepo;
 import org.apache.zeppelin.notebook.repo.NotebookRepoSync;
 import org.apache.zeppelin.resource.ResourcePoolUtils;
+import org.apache.zeppelin.scheduler.Job;
 import org.apache.zeppelin.scheduler.SchedulerFactory;
 import org.apache.zeppelin.search.SearchService;
 import org.apache.zeppelin.user.Credentials;
@@ -72,6 +78,8 @@ public class Notebook {
   private InterpreterFactory replFactory;
   /** Keep the order. */
   Map<String, Note> notes = new LinkedHashMap<String, Note>();
+  // notes listed by the repository and not read yet. guarded by notes
+  private final Map<String, NoteInfo> unloadedNotes = new LinkedHashMap<String, NoteInfo>();
   private ZeppelinConfiguration conf;
   private StdSchedulerFactory quertzSchedFact;
   private org.quartz.Scheduler quartzSched;
@@ -80,6 +88,7 @@ public class Notebook {
   private SearchService notebookIndex;
   private NotebookAuthorization notebookAuthorization;
   private Credentials credentials;
+  private NotePersistService persistService;
 
   /**
    * Main constructor \w manual Dependency Injection
@@ -109,6 +118,9 @@ public class Notebook {
     this.notebookIndex = notebookIndex;
     this.notebookAuthorization = notebookAuthorization;
     this.credentials = credentials;
+    this.persistService = new NotePersistService(
+        conf.getInt(ConfVars.ZEPPELIN_NOTEBOOK_PERSIST_THREADS),
+        conf.getInt(ConfVars.ZEPPELIN_NOTEBOOK_PERSIST_DELAY));
     quertzSchedFact = new org.quartz.impl.StdSchedulerFactory();
     quartzSched = quertzSchedFact.getScheduler();
     quartzSched.start();
@@ -116,13 +128,14 @@ public class Notebook {
 
     loadAllNotes();
     if (this.notebookIndex != null) {
+      // notes are indexed when they are read. until then, only their names are in the index
       long start = System.nanoTime();
       logger.info("Notebook indexing started...");
-      notebookIndex.addIndexDocs(notes.values());
-      logger.info("Notebook indexing finished: {} indexed in {}s", notes.size(),
-          TimeUnit.NANOSECONDS.toSeconds(start - System.nanoTime()));
+      List<NoteInfo> noteInfos = getAllNoteInfos();
+      notebookIndex.addIndexNoteInfos(noteInfos);
+      logger.info("Notebook indexing finished: {} indexed in {}s", noteInfos.size(),
+          TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
     }
-
   }
 
   /**
@@ -151,6 +164,7 @@ public class Notebook {
   public Note createNote(List<String> interpreterIds) throws IOException {
     NoteInterpreterLoader intpLoader = new NoteInterpreterLoader(replFactory);
     Note note = new Note(notebookRepo, intpLoader, jobListenerFactory, notebookIndex, credentials);
+    note.setPersistService(persistService);
     intpLoader.setNoteId(note.id());
     synchronized (notes) {
       notes.put(note.id(), note);
@@ -171,14 +185,11 @@ public class Notebook {
    * @throws IOException, IllegalArgumentException
    */
   public String exportNote(String noteId) throws IOException, IllegalArgumentException {
-    GsonBuilder gsonBuilder = new GsonBuilder();
-    gsonBuilder.setPrettyPrinting();
-    Gson gson = gsonBuilder.create();
     Note note = getNote(noteId);
     if (note == null) {
       throw new IllegalArgumentException(noteId + " not found");
     }
-    return gson.toJson(note);
+    return NoteSerializer.toJson(note);
   }
 
   /**
@@ -258,53 +269,96 @@ public class Notebook {
     }
   }
 
+  /**
+   * Bindings are kept by the interpreter factory, so the note is not read from the repository.
+   */
   public List<String> getBindedInterpreterSettingsIds(String id) {
-    Note note = getNote(id);
-    if (note != null) {
-      return note.getNoteReplLoader().getInterpreters();
-    } else {
-      return new LinkedList<String>();
-    }
+    return replFactory.getNoteInterpreterSettingBinding(id);
   }
 
   public List<InterpreterSetting> getBindedInterpreterSettings(String id) {
-    Note note = getNote(id);
-    if (note != null) {
-      return note.getNoteReplLoader().getInterpreterSettings();
-    } else {
-      return new LinkedList<InterpreterSetting>();
-    }
+    NoteInterpreterLoader replLoader = new NoteInterpreterLoader(replFactory);
+    replLoader.setNoteId(id);
+    return replLoader.getInterpreterSettings();
   }
 
   public Note getNote(String id) {
     synchronized (notes) {
-      return notes.get(id);
+      Note note = notes.get(id);
+      if (note != null || !unloadedNotes.containsKey(id)) {
+        return note;
+      }
     }
+    return loadNote(id);
   }
 
-  public void removeNote(String id) {
+  /**
+   * Read a note listed by the repository and add it to the notebook.
+   * @return the note, or null if the note can't be read
+   */
+  private Note loadNote(String id) {
     Note note;
+    try {
+      note = notebookRepo.get(id);
+    } catch (IOException e) {
+      logger.error("Failed to load " + id, e);
+      return null;
+    }
+
+    synchronized (notes) {
+      if (unloadedNotes.remove(id) == null) {
+        // loaded or removed in the meantime
+        return notes.get(id);
+      }
+      if (note == null) {
+        return null;
+      }
+      initNote(note);
+    }
+
+    if (notebookIndex != null) {
+      try {
+        notebookIndex.updateIndexDoc(note);
+      } catch (IOException e) {
+        logger.error("Failed to index " + id, e);
+      }
+    }
+    return note;
+  }
 
+  /**
+   * Remove the note. A note not read yet is removed without reading it.
+   */
+  public void removeNote(String id) {
+    Note note;
+    boolean unloaded;
     synchronized (notes) {
       note = notes.remove(id);
+      unloaded = unloadedNotes.remove(id) != null;
+    }
+    if (note == null && !unloaded) {
+      return;
     }
     replFactory.removeNoteInterpreterSettingBinding(id);
-    notebookIndex.deleteIndexDocs(note);
+    notebookIndex.deleteNoteIndexDocs(id);
     notebookAuthorization.removeNote(id);
 
     // remove from all interpreter instance's angular object registry
     for (InterpreterSetting settings : replFactory.get()) {
       AngularObjectRegistry registry = settings.getInterpreterGroup(id).getAngularObjectRegistry();
+      // a note not read yet has no paragraph scope object
+      List<Paragraph> paragraphs = note != null
+          ? note.getParagraphs() : Collections.<Paragraph>emptyList();
       if (registry instanceof RemoteAngularObjectRegistry) {
         // remove paragraph scope object
-        for (Paragraph p : note.getParagraphs()) {
+        for (Paragraph p : paragraphs) {
           ((RemoteAngularObjectRegistry) registry).removeAllAndNotifyRemoteProcess(id, p.getId());
         }
         // remove notebook scope object
         ((RemoteAngularObjectRegistry) registry).removeAllAndNotifyRemoteProcess(id, null);
       } else {
         // remove paragraph scope object
-        for (Paragraph p : note.getParagraphs()) {
+        for (Paragraph p : paragraphs) {
           registry.removeAll(id, p.getId());
         }
         // remove notebook scope object
@@ -315,7 +369,11 @@ public class Notebook {
     ResourcePoolUtils.removeResourcesBelongsToNote(id);
 
     try {
-      note.unpersist();
+      if (note != null) {
+        note.unpersist();
+      } else {
+        notebookRepo.remove(id);
+      }
     } catch (IOException e) {
       logger.error(e.toString(), e);
     }
@@ -325,18 +383,71 @@ public class Notebook {
     notebookRepo.checkpoint(noteId, checkpointMessage);
   }
 
-  @SuppressWarnings("rawtypes")
-  private Note loadNoteFromRepo(String id) {
-    Note note = null;
+  /**
+   * Read notes listed by the repository and not read yet, in parallel.
+   */
+  private void loadUnloadedNotes() {
+    List<String> ids;
+    synchronized (notes) {
+      ids = new ArrayList<>(unloadedNotes.keySet());
+    }
+    if (ids.isEmpty()) {
+      return;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.max(1, Math.min(ids.size(),
+            conf.getInt(ConfVars.ZEPPELIN_NOTEBOOK_LOAD_THREADS))));
     try {
-      note = notebookRepo.get(id);
-    } catch (IOException e) {
-      logger.error("Failed to load " + id, e);
+      List<Future<Note>> futures = new ArrayList<>(ids.size());
+      for (final String id : ids) {
+        futures.add(executor.submit(new Callable<Note>() {
+          @Override
+          public Note call() throws Exception {
+            return loadNote(id);
+          }
+        }));
+      }
+
+      for (int i = 0; i < futures.size(); i++) {
+        try {
+          futures.get(i).get();
+        } catch (ExecutionException | InterruptedException e) {
+          logger.error("Failed to load " + ids.get(i), e);
+        }
+      }
+    } finally {
+      executor.shutdownNow();
     }
-    if (note == null) {
-      return null;
+  }
+
+  /**
+   * Add notes listed by the repository, without reading them.
+   * Notes are read when they are used first. Notes having a cron are read now.
+   */
+  private void addUnloadedNotes(List<NoteInfo> noteInfos) {
+    List<String> cronNotes = new LinkedList<>();
+    synchronized (notes) {
+      for (NoteInfo info : noteInfos) {
+        if (notes.containsKey(info.getId())) {
+          continue;
+        }
+        unloadedNotes.put(info.getId(), info);
+        Map<String, Object> config = info.getConfig();
+        if (config != null && config.get("cron") instanceof String
+            && !((String) config.get("cron")).trim().isEmpty()) {
+          cronNotes.add(info.getId());
+        }
+      }
     }
 
+    for (String id : cronNotes) {
+      getNote(id);
+    }
+  }
+
+  @SuppressWarnings("rawtypes")
+  private Note initNote(Note note) {
     //Manually inject ALL dependencies, as DI constructor was NOT used
     note.setIndex(this.notebookIndex);
     note.setCredentials(this.credentials);
@@ -347,6 +458,7 @@ public class Notebook {
 
     note.setJobListenerFactory(jobListenerFactory);
     note.setNotebookRepo(notebookRepo);
+    note.setPersistService(persistService);
 
     Map<String, SnapshotAngularObject> angularObjectSnapshot = new HashMap<>();
 
@@ -404,10 +516,7 @@ public class Notebook {
 
   private void loadAllNotes() throws IOException {
     List<NoteInfo> noteInfos = notebookRepo.list();
-
-    for (NoteInfo info : noteInfos) {
-      loadNoteFromRepo(info.getId());
-    }
+    addUnloadedNotes(noteInfos);
   }
 
   /**
@@ -420,6 +529,7 @@ public class Notebook {
   public void reloadAllNotes() throws IOException {
     synchronized (notes) {
       notes.clear();
+      unloadedNotes.clear();
     }
 
     if (notebookRepo instanceof NotebookRepoSync) {
@@ -430,9 +540,7 @@ public class Notebook {
     }
 
     List<NoteInfo> noteInfos = notebookRepo.list();
-    for (NoteInfo info : noteInfos) {
-      loadNoteFromRepo(info.getId());
-    }
+    addUnloadedNotes(noteInfos);
   }
 
   @SuppressWarnings("rawtypes")
@@ -460,7 +568,11 @@ public class Notebook {
     }
   }
 
+  /**
+   * @return all notes. notes not read yet are read from the repository
+   */
   public List<Note> getAllNotes() {
+    loadUnloadedNotes();
     synchronized (notes) {
       List<Note> noteList = new ArrayList<Note>(notes.values());
       Collections.sort(noteList, new Comparator<Note>() {
@@ -481,6 +593,30 @@ public class Notebook {
     }
   }
 
+  /**
+   * List of all notes, without reading the notes not read yet.
+   * @return id, name and config of all notes in the same order of getAllNotes()
+   */
+  public List<NoteInfo> getAllNoteInfos() {
+    List<NoteInfo> infos;
+    synchronized (notes) {
+      infos = new ArrayList<NoteInfo>(notes.size() + unloadedNotes.size());
+      for (Note note : notes.values()) {
+        infos.add(new NoteInfo(note));
+      }
+      infos.addAll(unloadedNotes.values());
+    }
+    Collections.sort(infos, new Comparator<NoteInfo>() {
+      @Override
+      public int compare(NoteInfo info1, NoteInfo info2) {
+        String name1 = info1.getName() != null ? info1.getName() : info1.getId();
+        String name2 = info2.getName() != null ? info2.getName() : info2.getId();
+        return name1.compareTo(name2);
+      }
+    });
+    return infos;
+  }
+
   public JobListenerFactory getJobListenerFactory() {
     return jobListenerFactory;
   }
@@ -500,7 +636,7 @@ public class Notebook {
 
       String noteId = context.getJobDetail().getJobDataMap().getString("noteId");
       Note note = notebook.getNote(noteId);
-      note.runAll();
+      note.runAll(Job.SHARE_CRON);
     
       while (!note.getLastParagraph().isTerminated()) {
         try {
@@ -596,7 +732,12 @@ public class Notebook {
     return conf;
   }
 
+  public NotePersistService getPersistService() {
+    return persistService;
+  }
+
   public void close() {
+    this.persistService.close();
     this.notebookRepo.close();
     this.notebookIndex.close();
   }
@@ -37,6 +37,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -51,12 +53,19 @@ public class Paragraph extends Job implements Serializable, Cloneable {
   private transient NoteInterpreterLoader replLoader;
   private transient Note note;
   private transient AuthenticationInfo authenticationInfo;
+  // store of the result that is kept out of note.json
+  private transient ResultBlobStore resultBlobStore;
+  // result object that resultRef was computed from
+  private transient Object storedResult;
+  // result read from the blob store, until memory is needed or resultRef is changed
+  private transient CachedResult cachedResult;
 
   String title;
   String text;
   String user;
   Date dateUpdated;
   private Map<String, Object> config; // paragraph configs like isOpen, colWidth, etc
+  private String resultRef;           // hash of the result stored out of note.json
   public final GUI settings;          // form and parameter settings
 
   @VisibleForTesting
@@ -113,6 +122,19 @@ public class Paragraph extends Job implements Serializable, Cloneable {
   public void setAuthenticationInfo(AuthenticationInfo authenticationInfo) {
     this.authenticationInfo = authenticationInfo;
     this.user = authenticationInfo.getUser();
+    setShare(user);
+  }
+
+  /**
+   * Priority set in paragraph config, among paragraphs of the same user on fair-share scheduler
+   */
+  @Override
+  public int getPriority() {
+    Object priority = config == null ? null : config.get("priority");
+    if (priority instanceof Number) {
+      return ((Number) priority).intValue();
+    }
+    return super.getPriority();
   }
 
   public String getTitle() {
@@ -218,6 +240,68 @@ public class Paragraph extends Job implements Serializable, Cloneable {
     return (InterpreterResult) getReturn();
   }
 
+  /**
+   * Result of the paragraph. Result stored out of note.json is read from the blob store
+   * and softly referenced, so it's read again only after garbage collector cleared it.
+   */
+  @Override
+  public Object getReturn() {
+    Object result = super.getReturn();
+    String ref = resultRef;
+    ResultBlobStore store = resultBlobStore;
+    if (result == null && ref != null && store != null) {
+      CachedResult cached = cachedResult;
+      Object cachedValue = cached != null && ref.equals(cached.ref) ? cached.result.get() : null;
+      if (cachedValue != null) {
+        return cachedValue;
+      }
+
+      try {
+        Object read = NoteSerializer.readResult(store, ref);
+        cachedResult = new CachedResult(ref, read);
+        return read;
+      } catch (IOException e) {
+        logger().error("Can't read result " + ref + " of paragraph " + getId(), e);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return result in memory. null if there's no result or the result is not loaded
+   */
+  Object getLoadedReturn() {
+    return super.getReturn();
+  }
+
+  public String getResultRef() {
+    return resultRef;
+  }
+
+  void setResultRef(String resultRef, Object storedResult) {
+    this.resultRef = resultRef;
+    this.storedResult = storedResult;
+    this.cachedResult = null;
+  }
+
+  private static class CachedResult {
+    final String ref;
+    final SoftReference<Object> result;
+
+    CachedResult(String ref, Object result) {
+      this.ref = ref;
+      this.result = new SoftReference<>(result);
+    }
+  }
+
+  Object getStoredResult() {
+    return storedResult;
+  }
+
+  void setResultBlobStore(ResultBlobStore resultBlobStore) {
+    this.resultBlobStore = resultBlobStore;
+  }
+
   @Override
   public int progress() {
     String replName = getRequiredReplName();
@@ -276,14 +360,27 @@ public class Paragraph extends Job implements Serializable, Cloneable {
       context.out.flush();
       InterpreterResult.Type outputType = context.out.getType();
       byte[] interpreterOutput = context.out.toByteArray();
+      ColumnarTable outputTable = context.out.getTable();
       context.out.clear();
 
       if (interpreterOutput != null && interpreterOutput.length > 0) {
-        message = new String(interpreterOutput);
+        message = new String(interpreterOutput, StandardCharsets.UTF_8);
       }
 
-      if (message.isEmpty()) {
+      // context.out has a table only when nothing else follows it
+      boolean emptyResult = ret.message() == null || ret.message().isEmpty();
+      if (outputTable != null && emptyResult) {
+        // table shown by the interpreter, e.g. z.show()
+        return InterpreterResult.fromTable(ret.code(), outputTable);
+      } else if (outputTable == null && message.isEmpty()) {
         return ret;
+      } else if (outputTable != null || ret.table() != null) {
+        // a table with other output. keep all of it, tables as text
+        if (outputTable != null) {
+          message += outputTable.toText();
+        }
+        return new InterpreterResult(ret.code(), InterpreterResult.Type.TEXT,
+            message + ret.message());
       } else {
         String interpreterResultMessage = ret.message();
         if (interpreterResultMessage != null && !interpreterResultMessage.isEmpty()) {
@@ -359,14 +456,15 @@ public class Paragraph extends Job implements Serializable, Cloneable {
               @Override
               public void onAppend(InterpreterOutput out, byte[] line) {
                 updateParagraphResult(out);
-                ((ParagraphJobListener) getListener()).onOutputAppend(self, out, new String(line));
+                ((ParagraphJobListener) getListener()).onOutputAppend(self, out,
+                        new String(line, StandardCharsets.UTF_8));
               }
 
               @Override
               public void onUpdate(InterpreterOutput out, byte[] output) {
                 updateParagraphResult(out);
                 ((ParagraphJobListener) getListener()).onOutputUpdate(self, out,
-                        new String(output));
+                        new String(output, StandardCharsets.UTF_8));
               }
 
               private void updateParagraphResult(InterpreterOutput out) {
@@ -374,7 +472,7 @@ public class Paragraph extends Job implements Serializable, Cloneable {
                 Throwable t = null;
                 String message = null;
                 try {
-                  message = new String(out.toByteArray());
+                  message = new String(out.toByteArray(), StandardCharsets.UTF_8);
                 } catch (IOException e) {
                   logger().error(e.getMessage(), e);
                   t = e;
@@ -417,6 +515,7 @@ public class Paragraph extends Job implements Serializable, Cloneable {
   public void setReturn(InterpreterResult value, Throwable t) {
     setResult(value);
     setException(t);
+    setResultRef(null, null);
   }
 
   @Override
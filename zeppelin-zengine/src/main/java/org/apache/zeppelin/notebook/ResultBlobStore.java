@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.notebook;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Storage of paragraph results that are kept out of note.json.
+ * Each result is a json blob addressed by the hash of its content.
+ */
+public interface ResultBlobStore {
+  boolean exists(String hash) throws IOException;
+
+  /**
+   * Write the blob. Blob is not stored when the writer fails.
+   */
+  void write(String hash, BlobWriter blob) throws IOException;
+
+  InputStream read(String hash) throws IOException;
+
+  /**
+   * Streams content of a blob, so the blob doesn't need to be in memory as a whole.
+   */
+  interface BlobWriter {
+    void writeTo(OutputStream out) throws IOException;
+  }
+}
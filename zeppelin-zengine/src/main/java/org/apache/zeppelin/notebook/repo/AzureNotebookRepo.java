@@ -17,16 +17,15 @@
 
 package org.apache.zeppelin.notebook.repo;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.microsoft.azure.storage.CloudStorageAccount;
 import com.microsoft.azure.storage.StorageException;
 import com.microsoft.azure.storage.file.*;
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.zeppelin.conf.ZeppelinConfiguration;
 import org.apache.zeppelin.notebook.Note;
 import org.apache.zeppelin.notebook.NoteInfo;
+import org.apache.zeppelin.notebook.NoteSerializer;
 import org.apache.zeppelin.notebook.Paragraph;
 import org.apache.zeppelin.scheduler.Job;
 import org.slf4j.Logger;
@@ -114,15 +113,16 @@ public class AzureNotebookRepo implements NotebookRepo {
       throw new IOException(msg, e);
     }
 
-    String json = IOUtils.toString(ins,
-        conf.getString(ZeppelinConfiguration.ConfVars.ZEPPELIN_ENCODING));
-    ins.close();
-
-    GsonBuilder gsonBuilder = new GsonBuilder();
-    gsonBuilder.setPrettyPrinting();
-    Gson gson = gsonBuilder.create();
-
-    Note note = gson.fromJson(json, Note.class);
+    Note note;
+    try {
+      note = NoteSerializer.read(ins,
+          conf.getString(ZeppelinConfiguration.ConfVars.ZEPPELIN_ENCODING));
+    } finally {
+      ins.close();
+    }
+    if (note == null) {
+      throw new IOException(String.format("Notebook %s is empty", noteId));
+    }
 
     for (Paragraph p : note.getParagraphs()) {
       if (p.getStatus() == Job.Status.PENDING || p.getStatus() == Job.Status.RUNNING) {
@@ -140,31 +140,26 @@ public class AzureNotebookRepo implements NotebookRepo {
 
   @Override
   public void save(Note note) throws IOException {
-    GsonBuilder gsonBuilder = new GsonBuilder();
-    gsonBuilder.setPrettyPrinting();
-    Gson gson = gsonBuilder.create();
-    String json = gson.toJson(note);
-
-    ByteArrayOutputStream output = new ByteArrayOutputStream();
-    Writer writer = new OutputStreamWriter(output);
-    writer.write(json);
-    writer.close();
-    output.close();
-
-    byte[] buffer = output.toByteArray();
-
+    File file = File.createTempFile("note", "json");
     try {
+      try (OutputStream out = new java.io.FileOutputStream(file)) {
+        NoteSerializer.write(note, out,
+            conf.getString(ZeppelinConfiguration.ConfVars.ZEPPELIN_ENCODING));
+      }
+
       CloudFileDirectory dir = rootDir.getDirectoryReference(note.getId());
       dir.createIfNotExists();
 
       CloudFile cloudFile = dir.getFileReference("note.json");
-      cloudFile.uploadFromByteArray(buffer, 0, buffer.length);
+      cloudFile.uploadFromFile(file.getAbsolutePath());
     } catch (URISyntaxException | StorageException e) {
       String msg = String.format("Error saving notebook %s to Azure storage", note.getId());
 
       LOG.error(msg, e);
 
       throw new IOException(msg, e);
+    } finally {
+      FileUtils.deleteQuietly(file);
     }
   }
 
@@ -21,8 +21,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
+import java.io.OutputStream;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -31,11 +30,11 @@ import com.amazonaws.services.s3.AmazonS3EncryptionClient;
 import com.amazonaws.services.s3.model.EncryptionMaterialsProvider;
 import com.amazonaws.services.s3.model.KMSEncryptionMaterialsProvider;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.zeppelin.conf.ZeppelinConfiguration;
 import org.apache.zeppelin.conf.ZeppelinConfiguration.ConfVars;
 import org.apache.zeppelin.notebook.Note;
 import org.apache.zeppelin.notebook.NoteInfo;
+import org.apache.zeppelin.notebook.NoteSerializer;
 import org.apache.zeppelin.notebook.Paragraph;
 import org.apache.zeppelin.scheduler.Job.Status;
 import org.slf4j.Logger;
@@ -51,8 +50,6 @@ import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
 /**
  * Backend for storing Notebooks on S3
@@ -163,10 +160,6 @@ public class S3NotebookRepo implements NotebookRepo {
   }
 
   private Note getNote(String key) throws IOException {
-    GsonBuilder gsonBuilder = new GsonBuilder();
-    gsonBuilder.setPrettyPrinting();
-    Gson gson = gsonBuilder.create();
-
     S3Object s3object;
     try {
       s3object = s3client.getObject(new GetObjectRequest(bucketName, key));
@@ -177,8 +170,10 @@ public class S3NotebookRepo implements NotebookRepo {
 
     Note note;
     try (InputStream ins = s3object.getObjectContent()) {
-      String json = IOUtils.toString(ins, conf.getString(ConfVars.ZEPPELIN_ENCODING));
-      note = gson.fromJson(json, Note.class);
+      note = NoteSerializer.read(ins, conf.getString(ConfVars.ZEPPELIN_ENCODING));
+    }
+    if (note == null) {
+      throw new IOException(key + " is empty");
     }
 
     for (Paragraph p : note.getParagraphs()) {
@@ -202,17 +197,13 @@ public class S3NotebookRepo implements NotebookRepo {
 
   @Override
   public void save(Note note) throws IOException {
-    GsonBuilder gsonBuilder = new GsonBuilder();
-    gsonBuilder.setPrettyPrinting();
-    Gson gson = gsonBuilder.create();
-    String json = gson.toJson(note);
     String key = user + "/" + "notebook" + "/" + note.id() + "/" + "note.json";
 
     File file = File.createTempFile("note", "json");
     try {
-      Writer writer = new OutputStreamWriter(new FileOutputStream(file));
-      writer.write(json);
-      writer.close();
+      try (OutputStream out = new FileOutputStream(file)) {
+        NoteSerializer.write(note, out, conf.getString(ConfVars.ZEPPELIN_ENCODING));
+      }
       s3client.putObject(new PutObjectRequest(bucketName, key, file));
     }
     catch (AmazonClientException ace) {
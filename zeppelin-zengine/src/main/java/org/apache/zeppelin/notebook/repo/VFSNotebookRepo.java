@@ -23,8 +23,20 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.vfs2.FileContent;
@@ -38,21 +50,30 @@ import org.apache.zeppelin.conf.ZeppelinConfiguration;
 import org.apache.zeppelin.conf.ZeppelinConfiguration.ConfVars;
 import org.apache.zeppelin.notebook.Note;
 import org.apache.zeppelin.notebook.NoteInfo;
+import org.apache.zeppelin.notebook.NoteSerializer;
 import org.apache.zeppelin.notebook.Paragraph;
+import org.apache.zeppelin.notebook.ResultBlobStore;
 import org.apache.zeppelin.scheduler.Job.Status;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
 
 /**
 *
 */
 public class VFSNotebookRepo implements NotebookRepo {
   Logger logger = LoggerFactory.getLogger(VFSNotebookRepo.class);
+  // metadata of notes, to list notes without parsing note.json that is not modified
+  static final String NOTE_INFO_INDEX = ".noteinfo.json";
 
   private FileSystemManager fsManager;
+  // lock per note, so different notes can be saved at the same time
+  private final ConcurrentMap<String, Object> noteLocks = new ConcurrentHashMap<>();
+  private volatile Map<String, NoteInfoIndexEntry> noteInfoIndex;
+  // index is changed by save() and not written yet
+  private volatile boolean noteInfoIndexChanged = false;
   private URI filesystemRoot;
   private ZeppelinConfiguration conf;
 
@@ -112,7 +133,11 @@ public class VFSNotebookRepo implements NotebookRepo {
 
     FileObject[] children = rootDir.getChildren();
 
-    List<NoteInfo> infos = new LinkedList<NoteInfo>();
+    // index is keyed by the name of the note directory, that is the note id when saved
+    List<String> dirNames = new ArrayList<String>();
+    List<NoteInfoIndexEntry> entries = new ArrayList<NoteInfoIndexEntry>();
+    List<FileObject> modified = new ArrayList<FileObject>();
+    Map<String, NoteInfoIndexEntry> index = getNoteInfoIndex(rootDir);
     for (FileObject f : children) {
       String fileName = f.getName().getBaseName();
       if (f.isHidden()
@@ -129,21 +154,162 @@ public class VFSNotebookRepo implements NotebookRepo {
         continue;
       }
 
-      NoteInfo info = null;
-
       try {
-        info = getNoteInfo(f);
-        if (info != null) {
-          infos.add(info);
+        FileObject noteJson = f.resolveFile("note.json", NameScope.CHILD);
+        NoteInfoIndexEntry entry = noteJson.exists() ? index.get(fileName) : null;
+        if (entry != null
+            && entry.lastModified == noteJson.getContent().getLastModifiedTime()
+            && entry.size == noteJson.getContent().getSize()) {
+          dirNames.add(fileName);
+          entries.add(entry);
+        } else {
+          // placeholder, filled after parsing
+          dirNames.add(fileName);
+          entries.add(null);
+          modified.add(f);
         }
       } catch (Exception e) {
         logger.error("Can't read note " + f.getName().toString(), e);
       }
     }
 
+    List<NoteInfoIndexEntry> parsed = getNoteInfoIndexEntries(modified);
+    int parsedIndex = 0;
+    List<NoteInfo> infos = new LinkedList<NoteInfo>();
+    Map<String, NoteInfoIndexEntry> newIndex = new HashMap<String, NoteInfoIndexEntry>();
+    for (int i = 0; i < entries.size(); i++) {
+      NoteInfoIndexEntry entry = entries.get(i);
+      if (entry == null) {
+        entry = parsed.get(parsedIndex++);
+        if (entry == null) {
+          continue;
+        }
+      }
+      infos.add(entry.toNoteInfo());
+      newIndex.put(dirNames.get(i), entry);
+    }
+
+    if (noteInfoIndexChanged || !modified.isEmpty() || newIndex.size() != index.size()) {
+      noteInfoIndexChanged = false;
+      synchronized (this) {
+        noteInfoIndex = new ConcurrentHashMap<String, NoteInfoIndexEntry>(newIndex);
+      }
+      saveNoteInfoIndex(rootDir, newIndex);
+    }
+
     return infos;
   }
 
+  /**
+   * Parse note.json of given note directories in parallel.
+   * @return entries in the same order of noteDirs. null for the note that can't be read
+   */
+  private List<NoteInfoIndexEntry> getNoteInfoIndexEntries(List<FileObject> noteDirs) {
+    List<NoteInfoIndexEntry> entries = new ArrayList<NoteInfoIndexEntry>(noteDirs.size());
+    if (noteDirs.isEmpty()) {
+      return entries;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.max(1, Math.min(noteDirs.size(),
+            conf.getInt(ConfVars.ZEPPELIN_NOTEBOOK_LOAD_THREADS))));
+    try {
+      List<Future<NoteInfoIndexEntry>> futures =
+          new ArrayList<Future<NoteInfoIndexEntry>>(noteDirs.size());
+      for (final FileObject noteDir : noteDirs) {
+        futures.add(executor.submit(new Callable<NoteInfoIndexEntry>() {
+          @Override
+          public NoteInfoIndexEntry call() throws Exception {
+            FileObject noteJson = noteDir.resolveFile("note.json", NameScope.CHILD);
+            // stat before parsing, so a note modified in the meantime is parsed again next time
+            long lastModified = noteJson.exists() ?
+                noteJson.getContent().getLastModifiedTime() : 0;
+            long size = noteJson.exists() ? noteJson.getContent().getSize() : 0;
+            return new NoteInfoIndexEntry(getNoteInfo(noteDir), lastModified, size);
+          }
+        }));
+      }
+
+      for (int i = 0; i < futures.size(); i++) {
+        try {
+          entries.add(futures.get(i).get());
+        } catch (ExecutionException e) {
+          logger.error("Can't read note " + noteDirs.get(i).getName().toString(), e.getCause());
+          entries.add(null);
+        } catch (InterruptedException e) {
+          logger.error("Interrupted while reading notes", e);
+          entries.add(null);
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return entries;
+  }
+
+  private synchronized Map<String, NoteInfoIndexEntry> getNoteInfoIndex(FileObject rootDir) {
+    if (noteInfoIndex != null) {
+      return noteInfoIndex;
+    }
+
+    noteInfoIndex = new ConcurrentHashMap<String, NoteInfoIndexEntry>();
+    try {
+      FileObject indexFile = rootDir.resolveFile(NOTE_INFO_INDEX, NameScope.CHILD);
+      if (!indexFile.exists()) {
+        return noteInfoIndex;
+      }
+
+      InputStream ins = indexFile.getContent().getInputStream();
+      String json = IOUtils.toString(ins, conf.getString(ConfVars.ZEPPELIN_ENCODING));
+      ins.close();
+
+      Type type = new TypeToken<Map<String, NoteInfoIndexEntry>>() {}.getType();
+      Map<String, NoteInfoIndexEntry> index = new Gson().fromJson(json, type);
+      if (index != null) {
+        noteInfoIndex.putAll(index);
+      }
+    } catch (Exception e) {
+      logger.warn("Can't read note info index. Notes will be read again", e);
+    }
+    return noteInfoIndex;
+  }
+
+  private void saveNoteInfoIndex(FileObject rootDir, Map<String, NoteInfoIndexEntry> index) {
+    try {
+      String json = new Gson().toJson(index);
+      FileObject tmpFile = rootDir.resolveFile(NOTE_INFO_INDEX + ".tmp", NameScope.CHILD);
+      OutputStream out = tmpFile.getContent().getOutputStream(false);
+      out.write(json.getBytes(conf.getString(ConfVars.ZEPPELIN_ENCODING)));
+      out.close();
+      tmpFile.moveTo(rootDir.resolveFile(NOTE_INFO_INDEX, NameScope.CHILD));
+    } catch (Exception e) {
+      logger.warn("Can't write note info index", e);
+    }
+  }
+
+  /**
+   * Entry of note info index. Valid while note.json has the same modification time and size.
+   */
+  static class NoteInfoIndexEntry {
+    String id;
+    String name;
+    Map<String, Object> config;
+    long lastModified;
+    long size;
+
+    NoteInfoIndexEntry(NoteInfo info, long lastModified, long size) {
+      this.id = info.getId();
+      this.name = info.getName();
+      this.config = info.getConfig();
+      this.lastModified = lastModified;
+      this.size = size;
+    }
+
+    NoteInfo toNoteInfo() {
+      return new NoteInfo(id, name, config);
+    }
+  }
+
   private Note getNote(FileObject noteDir) throws IOException {
     if (!isDirectory(noteDir)) {
       throw new IOException(noteDir.getName().toString() + " is not a directory");
@@ -154,18 +320,15 @@ public class VFSNotebookRepo implements NotebookRepo {
       throw new IOException(noteJson.getName().toString() + " not found");
     }
 
-    GsonBuilder gsonBuilder = new GsonBuilder();
-    gsonBuilder.setPrettyPrinting();
-    Gson gson = gsonBuilder.create();
-
     FileContent content = noteJson.getContent();
-    InputStream ins = content.getInputStream();
-    String json = IOUtils.toString(ins, conf.getString(ConfVars.ZEPPELIN_ENCODING));
-    ins.close();
-
-    Note note = gson.fromJson(json, Note.class);
-//    note.setReplLoader(replLoader);
-//    note.jobListenerFactory = jobListenerFactory;
+    Note note;
+    try (InputStream ins = content.getInputStream()) {
+      note = NoteSerializer.read(ins, conf.getString(ConfVars.ZEPPELIN_ENCODING),
+          new ResultBlobDir(noteDir));
+    }
+    if (note == null) {
+      throw new IOException(noteJson.getName().toString() + " is empty");
+    }
 
     for (Paragraph p : note.getParagraphs()) {
       if (p.getStatus() == Status.PENDING || p.getStatus() == Status.RUNNING) {
@@ -204,12 +367,32 @@ public class VFSNotebookRepo implements NotebookRepo {
   }
 
   @Override
-  public synchronized void save(Note note) throws IOException {
-    GsonBuilder gsonBuilder = new GsonBuilder();
-    gsonBuilder.setPrettyPrinting();
-    Gson gson = gsonBuilder.create();
-    String json = gson.toJson(note);
+  public void save(Note note) throws IOException {
+    synchronized (getNoteLock(note.id())) {
+      FileObject noteJson = saveNote(note);
+
+      Map<String, NoteInfoIndexEntry> index = noteInfoIndex;
+      if (index != null) {
+        index.put(note.id(), new NoteInfoIndexEntry(new NoteInfo(note),
+            noteJson.getContent().getLastModifiedTime(), noteJson.getContent().getSize()));
+        noteInfoIndexChanged = true;
+      }
+    }
+  }
+
+  private Object getNoteLock(String noteId) {
+    Object lock = noteLocks.get(noteId);
+    if (lock == null) {
+      Object newLock = new Object();
+      lock = noteLocks.putIfAbsent(noteId, newLock);
+      if (lock == null) {
+        lock = newLock;
+      }
+    }
+    return lock;
+  }
 
+  private FileObject saveNote(Note note) throws IOException {
     FileObject rootDir = getRootDir();
 
     FileObject noteDir = rootDir.resolveFile(note.id(), NameScope.CHILD);
@@ -221,16 +404,82 @@ public class VFSNotebookRepo implements NotebookRepo {
       throw new IOException(noteDir.getName().toString() + " is not a directory");
     }
 
+    ResultBlobDir results = new ResultBlobDir(noteDir);
     FileObject noteJson = noteDir.resolveFile(".note.json", NameScope.CHILD);
+    Set<String> refs;
     // false means not appending. creates file if not exists
-    OutputStream out = noteJson.getContent().getOutputStream(false);
-    out.write(json.getBytes(conf.getString(ConfVars.ZEPPELIN_ENCODING)));
-    out.close();
-    noteJson.moveTo(noteDir.resolveFile("note.json", NameScope.CHILD));
+    try (OutputStream out = noteJson.getContent().getOutputStream(false)) {
+      refs = NoteSerializer.write(note, out, conf.getString(ConfVars.ZEPPELIN_ENCODING),
+          results, conf.getInt(ConfVars.ZEPPELIN_NOTEBOOK_RESULT_BLOB_THRESHOLD));
+    }
+    FileObject savedNoteJson = noteDir.resolveFile("note.json", NameScope.CHILD);
+    noteJson.moveTo(savedNoteJson);
+    savedNoteJson.refresh();
+    results.removeUnreferenced(refs);
+    return savedNoteJson;
+  }
+
+  /**
+   * Paragraph results stored out of note.json, as [NOTE_ID]/results/[HASH].json
+   */
+  static class ResultBlobDir implements ResultBlobStore {
+    static final String RESULTS_DIR = "results";
+    private final FileObject resultsDir;
+
+    ResultBlobDir(FileObject noteDir) throws IOException {
+      resultsDir = noteDir.resolveFile(RESULTS_DIR, NameScope.CHILD);
+    }
+
+    private FileObject getBlob(String hash) throws IOException {
+      return resultsDir.resolveFile(hash + ".json", NameScope.CHILD);
+    }
+
+    @Override
+    public boolean exists(String hash) throws IOException {
+      return getBlob(hash).exists();
+    }
+
+    @Override
+    public void write(String hash, BlobWriter blob) throws IOException {
+      if (!resultsDir.exists()) {
+        resultsDir.createFolder();
+      }
+      FileObject tmpFile = resultsDir.resolveFile("." + hash + ".json", NameScope.CHILD);
+      try (OutputStream out = tmpFile.getContent().getOutputStream(false)) {
+        blob.writeTo(out);
+      }
+      tmpFile.moveTo(getBlob(hash));
+    }
+
+    @Override
+    public InputStream read(String hash) throws IOException {
+      return getBlob(hash).getContent().getInputStream();
+    }
+
+    /**
+     * Delete results that are not referenced by note.json anymore
+     */
+    void removeUnreferenced(Set<String> refs) throws IOException {
+      if (!resultsDir.exists()) {
+        return;
+      }
+      for (FileObject f : resultsDir.getChildren()) {
+        String fileName = f.getName().getBaseName();
+        if (fileName.endsWith(".json")
+            && !refs.contains(fileName.substring(0, fileName.length() - ".json".length()))) {
+          f.delete();
+        }
+      }
+    }
   }
 
   @Override
   public void remove(String noteId) throws IOException {
+    noteLocks.remove(noteId);
+    Map<String, NoteInfoIndexEntry> index = noteInfoIndex;
+    if (index != null) {
+      index.remove(noteId);
+    }
     FileObject rootDir = fsManager.resolveFile(getPath("/"));
     FileObject noteDir = rootDir.resolveFile(noteId, NameScope.CHILD);
 
@@ -111,10 +111,18 @@ public class Message {
     CONFIGURATIONS_INFO, // [s-c] all key/value pairs of configurations
                   // @param settings serialized Map<String, String> object
 
-    CHECKPOINT_NOTEBOOK     // [c-s] checkpoint notebook to storage repository
+    CHECKPOINT_NOTEBOOK,    // [c-s] checkpoint notebook to storage repository
                             // @param noteId
                             // @param checkpointName
 
+    GET_PARAGRAPH_RESULT,   // [c-s] ask result of paragraph stored out of note
+                            // @param id paragraph id
+
+    PARAGRAPH_RESULT        // [s-c] result of paragraph
+                            // @param noteId
+                            // @param paragraphId
+                            // @param result
+
   }
 
   public OP op;
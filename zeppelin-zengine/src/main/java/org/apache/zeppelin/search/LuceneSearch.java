@@ -19,7 +19,9 @@ package org.apache.zeppelin.search;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
+import java.nio.file.Paths;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -32,8 +34,6 @@ import org.apache.lucene.document.Field;
 import org.apache.lucene.document.LongField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
-import org.apache.lucene.index.DirectoryReader;
-import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.Term;
@@ -43,6 +43,8 @@ import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.WildcardQuery;
 import org.apache.lucene.search.highlight.Highlighter;
 import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
@@ -51,21 +53,33 @@ import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
 import org.apache.lucene.search.highlight.TextFragment;
 import org.apache.lucene.search.highlight.TokenSources;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.store.RAMDirectory;
+import org.apache.zeppelin.conf.ZeppelinConfiguration;
+import org.apache.zeppelin.conf.ZeppelinConfiguration.ConfVars;
 import org.apache.zeppelin.notebook.Note;
+import org.apache.zeppelin.notebook.NoteInfo;
 import org.apache.zeppelin.notebook.Paragraph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Charsets;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 
 /**
  * Search (both, indexing and query) the notebooks using Lucene.
  *
- * Query is thread-safe, as creates new IndexReader every time.
+ * Query is thread-safe, as acquires IndexSearcher from SearcherManager.
  * Index is thread-safe, as re-uses single IndexWriter, which is thread-safe.
+ * Changes are visible to the query right after indexing (near-real-time), and committed
+ * to the index directory on {@link #addIndexDocs(Collection)} and {@link #close()}.
+ *
+ * When the index is kept on disk, each note has a fingerprint document, so that
+ * {@link #addIndexDocs(Collection)} only indexes notes changed since the last run.
  */
 public class LuceneSearch implements SearchService {
   private static final Logger LOG = LoggerFactory.getLogger(LuceneSearch.class);
@@ -74,36 +88,67 @@ public class LuceneSearch implements SearchService {
   private static final String SEARCH_FIELD_TITLE = "header";
   static final String PARAGRAPH = "paragraph";
   static final String ID_FIELD = "id";
+  static final String FINGERPRINT = "fingerprint";
+  private static final String KIND_FIELD = "kind";
 
-  Directory ramDirectory;
+  Directory directory;
   Analyzer analyzer;
   IndexWriterConfig iwc;
   IndexWriter writer;
+  SearcherManager searcherManager;
 
+  /**
+   * Index in memory
+   */
   public LuceneSearch() {
-    ramDirectory = new RAMDirectory();
+    this(new RAMDirectory());
+  }
+
+  /**
+   * Index on disk when zeppelin.search.index.persist is true, otherwise in memory
+   */
+  public LuceneSearch(ZeppelinConfiguration conf) {
+    this(openDirectory(conf));
+  }
+
+  LuceneSearch(Directory directory) {
+    this.directory = directory;
     analyzer = new StandardAnalyzer();
     iwc = new IndexWriterConfig(analyzer);
     try {
-      writer = new IndexWriter(ramDirectory, iwc);
+      writer = new IndexWriter(directory, iwc);
+      searcherManager = new SearcherManager(writer, true, null);
     } catch (IOException e) {
       LOG.error("Failed to create new IndexWriter", e);
     }
   }
 
+  private static Directory openDirectory(ZeppelinConfiguration conf) {
+    if (conf.getBoolean(ConfVars.ZEPPELIN_SEARCH_INDEX_PERSIST)) {
+      String indexDir = conf.getSearchIndexDir();
+      try {
+        LOG.info("Search index dir {}", indexDir);
+        return FSDirectory.open(Paths.get(indexDir));
+      } catch (IOException e) {
+        LOG.error("Failed to open search index dir {}, keep index in memory", indexDir, e);
+      }
+    }
+    return new RAMDirectory();
+  }
+
   /* (non-Javadoc)
    * @see org.apache.zeppelin.search.Search#query(java.lang.String)
    */
   @Override
   public List<Map<String, String>> query(String queryStr) {
-    if (null == ramDirectory) {
+    if (null == searcherManager) {
       throw new IllegalStateException(
-          "Something went wrong on instance creation time, index dir is null");
+          "Something went wrong on instance creation time, index is not opened");
     }
     List<Map<String, String>> result = Collections.emptyList();
-    try (IndexReader indexReader = DirectoryReader.open(ramDirectory)) {
-      IndexSearcher indexSearcher = new IndexSearcher(indexReader);
-      Analyzer analyzer = new StandardAnalyzer();
+    IndexSearcher indexSearcher = null;
+    try {
+      indexSearcher = searcherManager.acquire();
       MultiFieldQueryParser parser = new MultiFieldQueryParser(
           new String[] {SEARCH_FIELD_TEXT, SEARCH_FIELD_TITLE},
           analyzer);
@@ -115,15 +160,38 @@ public class LuceneSearch implements SearchService {
       Highlighter highlighter = new Highlighter(htmlFormatter, new QueryScorer(query));
 
       result = doSearch(indexSearcher, query, analyzer, highlighter);
-      indexReader.close();
     } catch (IOException e) {
-      LOG.error("Failed to open index dir {}, make sure indexing finished OK", ramDirectory, e);
+      LOG.error("Failed to open index dir {}, make sure indexing finished OK", directory, e);
     } catch (ParseException e) {
       LOG.error("Failed to parse query " + queryStr, e);
+    } finally {
+      release(indexSearcher);
     }
     return result;
   }
 
+  private void release(IndexSearcher indexSearcher) {
+    if (indexSearcher == null) {
+      return;
+    }
+    try {
+      searcherManager.release(indexSearcher);
+    } catch (IOException e) {
+      LOG.error("Failed to release index searcher", e);
+    }
+  }
+
+  /**
+   * Make changes visible to the query
+   */
+  private void refresh() {
+    try {
+      searcherManager.maybeRefreshBlocking();
+    } catch (IOException e) {
+      LOG.error("Failed to refresh index searcher", e);
+    }
+  }
+
   private List<Map<String, String>> doSearch(IndexSearcher searcher, Query query,
       Analyzer analyzer, Highlighter highlighter) {
     List<Map<String, String>> matchingParagraphs = Lists.newArrayList();
@@ -189,6 +257,8 @@ public class LuceneSearch implements SearchService {
     for (Paragraph p: note.getParagraphs()) {
       updateIndexParagraph(note, p);
     }
+    updateFingerprint(note);
+    refresh();
   }
 
   private void updateIndexNoteName(Note note) throws IOException {
@@ -224,12 +294,66 @@ public class LuceneSearch implements SearchService {
     Document doc = newDocument(id, noteName, p);
     try {
       writer.updateDocument(new Term(ID_FIELD, id), doc);
-      writer.commit();
     } catch (IOException e) {
       LOG.error("Failed to updaet index of notebook {}", noteId, e);
     }
   }
 
+  /**
+   * Fingerprint of the indexed contents of the note: name, paragraph titles and texts
+   */
+  static String fingerprint(Note note) {
+    Hasher hasher = Hashing.sha1().newHasher();
+    putString(hasher, note.getName());
+    for (Paragraph p : note.getParagraphs()) {
+      putString(hasher, p.getId());
+      putString(hasher, p.getTitle());
+      putString(hasher, p.getText());
+    }
+    return hasher.hash().toString();
+  }
+
+  private static void putString(Hasher hasher, String value) {
+    if (value != null) {
+      hasher.putString(value, Charsets.UTF_8);
+    }
+    hasher.putByte((byte) 0);
+  }
+
+  private void updateFingerprint(Note note) {
+    String id = Joiner.on('/').join(note.getId(), FINGERPRINT);
+    Document doc = new Document();
+    doc.add(new StringField(ID_FIELD, id, Field.Store.YES));
+    doc.add(new StringField(KIND_FIELD, FINGERPRINT, Field.Store.NO));
+    doc.add(new StringField(FINGERPRINT, fingerprint(note), Field.Store.YES));
+    try {
+      writer.updateDocument(new Term(ID_FIELD, id), doc);
+    } catch (IOException e) {
+      LOG.error("Failed to update fingerprint of notebook {}", note.getId(), e);
+    }
+  }
+
+  /**
+   * @return fingerprints of the notes in the index, by note id
+   */
+  private Map<String, String> getIndexedFingerprints() throws IOException {
+    Map<String, String> fingerprints = new HashMap<>();
+    IndexSearcher indexSearcher = searcherManager.acquire();
+    try {
+      int maxDoc = Math.max(1, indexSearcher.getIndexReader().maxDoc());
+      ScoreDoc[] hits = indexSearcher.search(
+          new TermQuery(new Term(KIND_FIELD, FINGERPRINT)), maxDoc).scoreDocs;
+      for (ScoreDoc hit : hits) {
+        Document doc = indexSearcher.doc(hit.doc);
+        String id = doc.get(ID_FIELD);
+        fingerprints.put(id.substring(0, id.lastIndexOf('/')), doc.get(FINGERPRINT));
+      }
+    } finally {
+      release(indexSearcher);
+    }
+    return fingerprints;
+  }
+
   /**
    * If paragraph is not null, id is <noteId>/paragraphs/<paragraphId>,
    * otherwise it's just <noteId>.
@@ -289,10 +413,26 @@ public class LuceneSearch implements SearchService {
     int docsIndexed = 0;
     long start = System.nanoTime();
     try {
+      Map<String, String> indexed = getIndexedFingerprints();
       for (Note note : collection) {
+        String fingerprint = indexed.remove(note.getId());
+        if (fingerprint != null) {
+          if (fingerprint.equals(fingerprint(note))) {
+            // not changed since indexed
+            continue;
+          }
+          writer.deleteDocuments(new WildcardQuery(
+              new Term(ID_FIELD, formatDeleteId(note.getId(), null))));
+        }
         addIndexDocAsync(note);
         docsIndexed++;
       }
+
+      // notes removed since indexed
+      for (String noteId : indexed.keySet()) {
+        writer.deleteDocuments(new WildcardQuery(
+            new Term(ID_FIELD, formatDeleteId(noteId, null))));
+      }
     } catch (IOException e) {
       LOG.error("Failed to index all Notebooks", e);
     } finally {
@@ -301,12 +441,48 @@ public class LuceneSearch implements SearchService {
       } catch (IOException e) {
         LOG.error("Failed to save index", e);
       }
+      refresh();
       long end = System.nanoTime();
-      LOG.info("Indexing {} notebooks took {}ms", docsIndexed,
+      LOG.info("Indexing {} of {} notebooks took {}ms", docsIndexed, collection.size(),
           TimeUnit.NANOSECONDS.toMillis(end - start));
     }
   }
 
+  /* (non-Javadoc)
+   * @see org.apache.zeppelin.search.Search#addIndexNoteInfos(java.util.Collection)
+   */
+  @Override
+  public void addIndexNoteInfos(Collection<NoteInfo> collection) {
+    long start = System.nanoTime();
+    try {
+      // notes indexed on earlier runs keep their paragraphs, until the notes are read
+      Map<String, String> indexed = getIndexedFingerprints();
+      for (NoteInfo info : collection) {
+        indexed.remove(info.getId());
+        if (info.getName() != null && !info.getName().isEmpty()) {
+          updateDoc(info.getId(), info.getName(), null);
+        }
+      }
+
+      // notes removed since indexed
+      for (String noteId : indexed.keySet()) {
+        writer.deleteDocuments(new WildcardQuery(
+            new Term(ID_FIELD, formatDeleteId(noteId, null))));
+      }
+    } catch (IOException e) {
+      LOG.error("Failed to index names of all Notebooks", e);
+    } finally {
+      try {
+        writer.commit();
+      } catch (IOException e) {
+        LOG.error("Failed to save index", e);
+      }
+      refresh();
+      LOG.info("Indexing names of {} notebooks took {}ms", collection.size(),
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+  }
+
   /* (non-Javadoc)
    * @see org.apache.zeppelin.search.Search#addIndexDoc(org.apache.zeppelin.notebook.Note)
    */
@@ -314,10 +490,10 @@ public class LuceneSearch implements SearchService {
   public void addIndexDoc(Note note) {
     try {
       addIndexDocAsync(note);
-      writer.commit();
     } catch (IOException e) {
       LOG.error("Failed to add note {} to index", note, e);
     }
+    refresh();
   }
 
   /**
@@ -335,6 +511,7 @@ public class LuceneSearch implements SearchService {
       }
       indexDoc(writer, note.getId(), note.getName(), doc);
     }
+    updateFingerprint(note);
   }
 
   /* (non-Javadoc)
@@ -345,6 +522,20 @@ public class LuceneSearch implements SearchService {
     deleteDoc(note, null);
   }
 
+  /* (non-Javadoc)
+   * @see org.apache.zeppelin.search.Search#deleteNoteIndexDocs(java.lang.String)
+   */
+  @Override
+  public void deleteNoteIndexDocs(String noteId) {
+    String fullNote = formatDeleteId(noteId, null);
+    try {
+      writer.deleteDocuments(new WildcardQuery(new Term(ID_FIELD, fullNote)));
+    } catch (IOException e) {
+      LOG.error("Failed to delete {} from index by '{}'", noteId, fullNote, e);
+    }
+    refresh();
+  }
+
   /* (non-Javadoc)
    * @see org.apache.zeppelin.search.Search
    *  #deleteIndexDoc(org.apache.zeppelin.notebook.Note, org.apache.zeppelin.notebook.Paragraph)
@@ -363,10 +554,13 @@ public class LuceneSearch implements SearchService {
     LOG.debug("Deleting note {}, out of: {}", note.getId(), writer.numDocs());
     try {
       writer.deleteDocuments(new WildcardQuery(new Term(ID_FIELD, fullNoteOrJustParagraph)));
-      writer.commit();
     } catch (IOException e) {
       LOG.error("Failed to delete {} from index by '{}'", note, fullNoteOrJustParagraph, e);
     }
+    if (p != null) {
+      updateFingerprint(note);
+    }
+    refresh();
     LOG.debug("Done, index contains {} docs now" + writer.numDocs());
   }
 
@@ -376,6 +570,7 @@ public class LuceneSearch implements SearchService {
   @Override
   public void close() {
     try {
+      searcherManager.close();
       writer.close();
     } catch (IOException e) {
       LOG.error("Failed to .close() the notebook index", e);
@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.zeppelin.notebook.Note;
+import org.apache.zeppelin.notebook.NoteInfo;
 import org.apache.zeppelin.notebook.Paragraph;
 
 /**
@@ -58,6 +59,15 @@ public interface SearchService {
    */
   public void addIndexDocs(Collection<Note> collection);
 
+  /**
+   * Indexes names of the notes, without reading the notes.
+   * Docs of the notes already in index are kept, docs of the notes not in the collection
+   * are deleted.
+   *
+   * @param collection of NoteInfos
+   */
+  public void addIndexNoteInfos(Collection<NoteInfo> collection);
+
   /**
    * Indexes the given notebook.
    *
@@ -70,6 +80,11 @@ public interface SearchService {
    */
   public void deleteIndexDocs(Note note);
 
+  /**
+   * Deletes all docs on given Note from index, without reading the note
+   */
+  public void deleteNoteIndexDocs(String noteId);
+
   /**
    * Deletes doc for a given
    *
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.notebook;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NotePersistServiceTest {
+  private NotePersistService persistService;
+
+  @Before
+  public void setUp() {
+    persistService = new NotePersistService(2, 60 * 1000);
+  }
+
+  @After
+  public void tearDown() {
+    persistService.close();
+  }
+
+  private Note createNote(String id) {
+    Note note = mock(Note.class);
+    when(note.id()).thenReturn(id);
+    return note;
+  }
+
+  @Test
+  public void testCoalescePersist() throws IOException {
+    Note note1 = createNote("note1");
+    Note note2 = createNote("note2");
+    for (int i = 0; i < 10; i++) {
+      persistService.persist(note1);
+    }
+    persistService.persist(note2);
+
+    assertEquals(2, persistService.getNumPending());
+    assertEquals(9, persistService.getNumCoalesced());
+    verify(note1, never()).persist();
+
+    persistService.flush();
+    verify(note1, times(1)).persist();
+    verify(note2, times(1)).persist();
+    assertEquals(0, persistService.getNumPending());
+    assertEquals(2, persistService.getNumPersisted());
+  }
+
+  @Test
+  public void testPersistWithinMaxDelay() throws IOException, InterruptedException {
+    Note note = createNote("note1");
+    persistService.persist(note);
+    // shorter delay moves the pending write earlier
+    persistService.persist(note, 10);
+
+    long start = System.currentTimeMillis();
+    while (persistService.getNumPersisted() == 0 && System.currentTimeMillis() - start < 5000) {
+      Thread.sleep(10);
+    }
+    verify(note, times(1)).persist();
+    assertEquals(0, persistService.getNumPending());
+  }
+
+  @Test
+  public void testCancel() throws IOException {
+    Note note = createNote("note1");
+    persistService.persist(note);
+    persistService.cancel(note);
+    assertEquals(0, persistService.getNumPending());
+
+    persistService.flush();
+    verify(note, never()).persist();
+  }
+
+  @Test
+  public void testFailedPersist() throws IOException {
+    Note note = createNote("note1");
+    doThrow(new IOException("fail")).when(note).persist();
+    persistService.persist(note);
+    persistService.flush();
+    assertEquals(1, persistService.getNumFailed());
+    assertEquals(0, persistService.getNumPersisted());
+  }
+
+  @Test
+  public void testPersistAfterClose() throws IOException {
+    Note note = createNote("note1");
+    persistService.persist(note);
+    persistService.close();
+    verify(note, times(1)).persist();
+
+    // written synchronously after close
+    persistService.persist(note);
+    verify(note, times(2)).persist();
+  }
+}
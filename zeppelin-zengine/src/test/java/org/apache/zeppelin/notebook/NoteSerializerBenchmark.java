@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.notebook;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+import com.google.gson.GsonBuilder;
+
+/**
+ * Compares peak heap usage of saving a note with large results
+ * as a single json string and with NoteSerializer.
+ *
+ * Run with e.g.
+ *   java -Xmx2g -cp ... org.apache.zeppelin.notebook.NoteSerializerBenchmark [outputMB]
+ */
+public class NoteSerializerBenchmark {
+
+  interface Save {
+    void save(Note note, File file) throws IOException;
+  }
+
+  public static void main(String[] args) throws IOException {
+    int outputMB = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+    int numParagraphs = 10;
+
+    StringBuilder table = new StringBuilder("key\tvalue\n");
+    int row = 0;
+    while (table.length() < outputMB * 1024 * 1024 / numParagraphs) {
+      table.append("key").append(row).append('\t').append(row++).append('\n');
+    }
+    Note note = NoteSerializerTest.createNote(numParagraphs, table.toString());
+    table = null;
+    File file = File.createTempFile("note", "json");
+    file.deleteOnExit();
+
+    Save stringSave = new Save() {
+      @Override
+      public void save(Note note, File file) throws IOException {
+        String json = new GsonBuilder().setPrettyPrinting().create().toJson(note);
+        try (OutputStream out = new FileOutputStream(file)) {
+          out.write(json.getBytes("UTF-8"));
+        }
+      }
+    };
+    Save streamingSave = new Save() {
+      @Override
+      public void save(Note note, File file) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+          NoteSerializer.write(note, out, "UTF-8");
+        }
+      }
+    };
+
+    System.out.println(String.format("note with %d MB of %%table output", outputMB));
+    for (int i = 0; i < 3; i++) {
+      run("string   ", stringSave, note, file);
+      run("streaming", streamingSave, note, file);
+    }
+  }
+
+  private static void run(String name, Save save, Note note, File file) throws IOException {
+    System.gc();
+    long base = heapUsed();
+    resetPeak();
+    long start = System.nanoTime();
+    save.save(note, file);
+    long elapsedMs = (System.nanoTime() - start) / 1000000;
+    long peak = peakHeapUsed();
+    System.out.println(String.format("%s save: %5d ms, peak heap above baseline %5d MB",
+        name, elapsedMs, Math.max(0, peak - base) / 1024 / 1024));
+  }
+
+  private static long heapUsed() {
+    long used = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        used += pool.getUsage().getUsed();
+      }
+    }
+    return used;
+  }
+
+  private static void resetPeak() {
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  private static long peakHeapUsed() {
+    long peak = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        peak += pool.getPeakUsage().getUsed();
+      }
+    }
+    return peak;
+  }
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.zeppelin.notebook;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.zeppelin.interpreter.InterpreterResult;
+import org.junit.Test;
+
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+public class NoteSerializerTest {
+
+  static Note createNote(int numParagraphs, String output) {
+    Note note = new Note(null, null, null, null, null);
+    note.setName("note é<>");
+    for (int i = 0; i < numParagraphs; i++) {
+      Paragraph p = note.addParagraph();
+      p.setText("%table\nparagraph " + i);
+      p.setReturn(new InterpreterResult(InterpreterResult.Code.SUCCESS,
+          InterpreterResult.Type.TABLE, output), null);
+    }
+    return note;
+  }
+
+  static String createTable(int rows) {
+    StringBuilder table = new StringBuilder("key\tvalue\n");
+    for (int i = 0; i < rows; i++) {
+      table.append("key").append(i).append('\t').append(i).append('\n');
+    }
+    return table.toString();
+  }
+
+  static class MemoryResultBlobStore implements ResultBlobStore {
+    Map<String, byte[]> blobs = new HashMap<>();
+    int numWrites = 0;
+    int numReads = 0;
+
+    @Override
+    public boolean exists(String hash) {
+      return blobs.containsKey(hash);
+    }
+
+    @Override
+    public void write(String hash, BlobWriter blob) throws IOException {
+      numWrites++;
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      blob.writeTo(out);
+      blobs.put(hash, out.toByteArray());
+    }
+
+    @Override
+    public InputStream read(String hash) throws IOException {
+      if (!blobs.containsKey(hash)) {
+        throw new IOException(hash + " not found");
+      }
+      numReads++;
+      return new ByteArrayInputStream(blobs.get(hash));
+    }
+  }
+
+  @Test
+  public void testSameOutputAsGson() throws IOException {
+    Note note = createNote(3, "a\tb\n1\t2\n");
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    NoteSerializer.write(note, out, "UTF-8");
+
+    String expected = new GsonBuilder().setPrettyPrinting().create().toJson(note);
+    assertEquals(expected, out.toString("UTF-8"));
+  }
+
+  @Test
+  public void testSameOutputAsGsonWithSmallResults() throws IOException {
+    Note note = createNote(3, "a\tb\n1\t2\n");
+    MemoryResultBlobStore blobs = new MemoryResultBlobStore();
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    assertTrue(NoteSerializer.write(note, out, "UTF-8", blobs, 1024).isEmpty());
+
+    String expected = new GsonBuilder().setPrettyPrinting().create().toJson(note);
+    assertEquals(expected, out.toString("UTF-8"));
+    assertEquals(0, blobs.numWrites);
+  }
+
+  @Test
+  public void testReadWrite() throws IOException {
+    Note note = createNote(3, "a\tb\n1\t2\n");
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    NoteSerializer.write(note, out, "UTF-8");
+    Note read = NoteSerializer.read(new ByteArrayInputStream(out.toByteArray()), "UTF-8");
+
+    assertEquals(note.id(), read.id());
+    assertEquals(note.getName(), read.getName());
+    assertEquals(3, read.getParagraphs().size());
+    assertEquals("%table\nparagraph 1", read.getParagraphs().get(1).getText());
+    // result is read back as a map, same as Gson
+    assertEquals("a\tb\n1\t2\n",
+        ((Map) read.getParagraphs().get(1).getReturn()).get("msg"));
+  }
+
+  @Test
+  public void testLargeResultInBlobStore() throws IOException {
+    Note note = createNote(1, "small");
+    String large = createTable(1000);
+    Paragraph p = note.addParagraph();
+    p.setReturn(new InterpreterResult(InterpreterResult.Code.SUCCESS,
+        InterpreterResult.Type.TABLE, large), null);
+    MemoryResultBlobStore blobs = new MemoryResultBlobStore();
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Set<String> refs = NoteSerializer.write(note, out, "UTF-8", blobs, 1024);
+    String json = out.toString("UTF-8");
+    assertEquals(1, refs.size());
+    assertEquals(refs, blobs.blobs.keySet());
+    assertEquals(1, blobs.numWrites);
+    assertTrue(json.contains("small"));
+    assertFalse(json.contains("key999\\t999"));
+    assertEquals(refs.iterator().next(), p.getResultRef());
+    // blob is the json of the result, addressed by its hash
+    byte[] blob = blobs.blobs.get(p.getResultRef());
+    assertEquals(p.getResultRef(), Hashing.sha1().hashBytes(blob).toString());
+    assertEquals(new Gson().toJson(p.getReturn()), new String(blob, "UTF-8"));
+
+    // unchanged result is not written again
+    NoteSerializer.write(note, new ByteArrayOutputStream(), "UTF-8", blobs, 1024);
+    assertEquals(1, blobs.numWrites);
+
+    // read lazily from blob store
+    Note read = NoteSerializer.read(new ByteArrayInputStream(out.toByteArray()), "UTF-8", blobs);
+    Paragraph readParagraph = read.getParagraphs().get(1);
+    assertNull(readParagraph.getLoadedReturn());
+    assertEquals(large, ((Map) readParagraph.getReturn()).get("msg"));
+
+    // saved again without loading the result
+    out = new ByteArrayOutputStream();
+    assertEquals(refs, NoteSerializer.write(read, out, "UTF-8", blobs, 1024));
+    assertEquals(1, blobs.numWrites);
+    assertNull(readParagraph.getLoadedReturn());
+
+    // result is inline when it's written without blob store
+    assertTrue(NoteSerializer.toJson(read).contains("key999\\t999"));
+    assertFalse(NoteSerializer.toJson(read).contains("resultRef"));
+  }
+
+  @Test
+  public void testResultInBlobStoreReadOnce() throws IOException {
+    Note note = createNote(1, createTable(1000));
+    MemoryResultBlobStore blobs = new MemoryResultBlobStore();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    NoteSerializer.write(note, out, "UTF-8", blobs, 1024);
+
+    Note read = NoteSerializer.read(new ByteArrayInputStream(out.toByteArray()), "UTF-8", blobs);
+    Paragraph p = read.getParagraphs().get(0);
+    Object result = p.getReturn();
+    assertSame(result, p.getReturn());
+    assertEquals(1, blobs.numReads);
+    assertNull(p.getLoadedReturn());
+
+    // new result replaces the cached one
+    p.setReturn(new InterpreterResult(InterpreterResult.Code.SUCCESS, "new"), null);
+    assertEquals("new", p.getResult().message());
+    p.setReturn(null, null);
+    assertNull(p.getReturn());
+    assertEquals(1, blobs.numReads);
+  }
+
+  @Test
+  public void testChangedResultInBlobStore() throws IOException {
+    Note note = createNote(1, createTable(1000));
+    Paragraph p = note.getParagraphs().get(0);
+    MemoryResultBlobStore blobs = new MemoryResultBlobStore();
+    NoteSerializer.write(note, new ByteArrayOutputStream(), "UTF-8", blobs, 1024);
+    String ref = p.getResultRef();
+
+    p.setReturn(new InterpreterResult(InterpreterResult.Code.SUCCESS,
+        InterpreterResult.Type.TABLE, createTable(2000)), null);
+    Set<String> refs = NoteSerializer.write(note, new ByteArrayOutputStream(), "UTF-8",
+        blobs, 1024);
+    assertEquals(2, blobs.numWrites);
+    assertFalse(refs.contains(ref));
+    assertEquals(refs.iterator().next(), p.getResultRef());
+
+    // cleared result
+    p.setReturn(null, null);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    assertTrue(NoteSerializer.write(note, out, "UTF-8", blobs, 1024).isEmpty());
+    assertFalse(out.toString("UTF-8").contains("resultRef"));
+  }
+
+  @Test
+  public void testReadEmpty() throws IOException {
+    assertNull(NoteSerializer.read(new ByteArrayInputStream(new byte[0]), "UTF-8"));
+  }
+}
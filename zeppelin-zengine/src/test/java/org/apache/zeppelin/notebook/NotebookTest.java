@@ -18,11 +18,17 @@
 package org.apache.zeppelin.notebook;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 
 import java.io.File;
 import java.io.IOException;
@@ -169,6 +175,24 @@ public class NotebookTest implements JobListenerFactory{
     assertEquals(notes.size(), 0);
   }
 
+  @Test
+  public void testRemoveNoteNotRead() throws IOException, SchedulerException {
+    FileUtils.copyDirectory(new File("src/test/resources/2A94M5J1Z"),
+        new File(notebookDir, "2A94M5J1Z"));
+    NotebookRepo repo = spy(notebookRepo);
+    SearchService search = mock(SearchService.class);
+    Notebook notebook2 = new Notebook(conf, repo, schedulerFactory, factory, this, search,
+        notebookAuthorization, credentials);
+    assertEquals(1, notebook2.getAllNoteInfos().size());
+    verify(search).addIndexNoteInfos(anyCollectionOf(NoteInfo.class));
+
+    notebook2.removeNote("2A94M5J1Z");
+    verify(repo, never()).get(anyString());
+    verify(search).deleteNoteIndexDocs("2A94M5J1Z");
+    assertEquals(0, notebook2.getAllNoteInfos().size());
+    assertFalse(new File(notebookDir, "2A94M5J1Z").exists());
+  }
+
   @Test
   public void testPersist() throws IOException, SchedulerException, RepositoryException {
     Note note = notebook.createNote();
@@ -18,10 +18,14 @@
 package org.apache.zeppelin.notebook.repo;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.io.FileUtils;
@@ -30,6 +34,7 @@ import org.apache.zeppelin.conf.ZeppelinConfiguration.ConfVars;
 import org.apache.zeppelin.dep.DependencyResolver;
 import org.apache.zeppelin.interpreter.InterpreterFactory;
 import org.apache.zeppelin.interpreter.InterpreterOption;
+import org.apache.zeppelin.interpreter.InterpreterResult;
 import org.apache.zeppelin.interpreter.mock.MockInterpreter1;
 import org.apache.zeppelin.notebook.*;
 import org.apache.zeppelin.scheduler.JobListener;
@@ -104,6 +109,84 @@ public class VFSNotebookRepoTest implements JobListenerFactory {
     assertEquals(numNotes, notebookRepo.list().size());
   }
 
+  @Test
+  public void testNoteInfoIndex() throws IOException {
+    Note note = notebook.createNote();
+    note.setName("before");
+    note.persist();
+
+    assertEquals("before", findNoteInfo(notebookRepo.list(), note.id()).getName());
+    assertTrue(new File(mainNotebookDir, VFSNotebookRepo.NOTE_INFO_INDEX).exists());
+
+    // note.json modified outside of the repo is read again
+    File noteJson = new File(new File(mainNotebookDir, note.id()), "note.json");
+    String json = FileUtils.readFileToString(noteJson);
+    FileUtils.writeStringToFile(noteJson, json.replace("\"before\"", "\"after modified\""));
+    assertEquals("after modified", findNoteInfo(notebookRepo.list(), note.id()).getName());
+
+    // index is loaded by a new repo instance
+    VFSNotebookRepo newRepo = new VFSNotebookRepo(conf);
+    assertEquals("after modified", findNoteInfo(newRepo.list(), note.id()).getName());
+
+    notebookRepo.remove(note.id());
+    assertNull(findNoteInfo(notebookRepo.list(), note.id()));
+  }
+
+  @Test
+  public void testNoteInfoIndexKeyedByDirectory() throws IOException {
+    Note note = notebook.createNote();
+    note.persist();
+    // a note directory copied under another name
+    FileUtils.copyDirectory(new File(mainNotebookDir, note.id()),
+        new File(mainNotebookDir, "copied"));
+
+    assertEquals(2, notebookRepo.list().size());
+    String index = FileUtils.readFileToString(
+        new File(mainNotebookDir, VFSNotebookRepo.NOTE_INFO_INDEX));
+    assertTrue(index.contains("\"copied\""));
+    assertTrue(index.contains("\"" + note.id() + "\""));
+
+    // both entries are found in the index by a new repo instance
+    assertEquals(2, new VFSNotebookRepo(conf).list().size());
+  }
+
+  @Test
+  public void testLargeResultStoredOutOfNote() throws IOException {
+    Note note = notebook.createNote();
+    Paragraph p = note.addParagraph();
+    StringBuilder table = new StringBuilder("key\tvalue\n");
+    while (table.length() <= conf.getInt(ConfVars.ZEPPELIN_NOTEBOOK_RESULT_BLOB_THRESHOLD)) {
+      table.append("key\t").append(table.length()).append('\n');
+    }
+    p.setReturn(new InterpreterResult(InterpreterResult.Code.SUCCESS,
+        InterpreterResult.Type.TABLE, table.toString()), null);
+    note.persist();
+
+    File noteDir = new File(mainNotebookDir, note.id());
+    File resultsDir = new File(noteDir, VFSNotebookRepo.ResultBlobDir.RESULTS_DIR);
+    File blob = new File(resultsDir, p.getResultRef() + ".json");
+    assertTrue(blob.exists());
+    assertTrue(new File(noteDir, "note.json").length() < table.length());
+
+    Note loaded = notebookRepo.get(note.id());
+    assertEquals(table.toString(),
+        ((Map) loaded.getParagraph(p.getId()).getReturn()).get("msg"));
+
+    // blob of the old result is removed
+    p.setReturn(null, null);
+    note.persist();
+    assertFalse(blob.exists());
+  }
+
+  private NoteInfo findNoteInfo(List<NoteInfo> infos, String id) {
+    for (NoteInfo info : infos) {
+      if (info.getId().equals(id)) {
+        return info;
+      }
+    }
+    return null;
+  }
+
   @Test
   public void testSaveNotebook() throws IOException, InterruptedException {
     Note note = notebook.createNote();
@@ -20,13 +20,17 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.Mockito.*;
 import static org.apache.zeppelin.search.LuceneSearch.formatId;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.lucene.store.FSDirectory;
 import org.apache.zeppelin.interpreter.InterpreterSetting;
 import org.apache.zeppelin.notebook.Note;
+import org.apache.zeppelin.notebook.NoteInfo;
 import org.apache.zeppelin.notebook.NoteInterpreterLoader;
 import org.apache.zeppelin.notebook.Paragraph;
 import org.apache.zeppelin.notebook.repo.NotebookRepo;
@@ -37,6 +41,7 @@ import org.junit.Test;
 
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
 
 public class LuceneSearchTest {
 
@@ -236,6 +241,54 @@ public class LuceneSearchTest {
     assertThat(resultForQuery("NotebookN").size()).isEqualTo(1);
   }
 
+  @Test public void persistentIndexUpdatedOnlyForChangedNotes() throws IOException {
+    File indexDir = Files.createTempDir();
+    try {
+      //given: index on disk
+      notebookIndex.close();
+      notebookIndex = new LuceneSearch(FSDirectory.open(indexDir.toPath()));
+      Note note1 = newNoteWithParagraph("Notebook1", "test");
+      Note note2 = newNoteWithParagraphs("Notebook2", "not test", "not test at all");
+      Note note3 = newNoteWithParagraph("Notebook3", "removed");
+      notebookIndex.addIndexDocs(Arrays.asList(note1, note2, note3));
+      notebookIndex.close();
+
+      //when: restarted after note2 is changed and note3 is removed
+      String fingerprint = LuceneSearch.fingerprint(note2);
+      note2.getLastParagraph().setText("test indeed");
+      assertThat(LuceneSearch.fingerprint(note2)).isNotEqualTo(fingerprint);
+      notebookIndex = new LuceneSearch(FSDirectory.open(indexDir.toPath()));
+      notebookIndex.addIndexDocs(Arrays.asList(note1, note2));
+
+      //then
+      assertThat(resultForQuery("all")).isEmpty();
+      assertThat(resultForQuery("indeed")).isNotEmpty();
+      assertThat(resultForQuery("removed")).isEmpty();
+      assertThat(resultForQuery("test").size()).isEqualTo(3);
+    } finally {
+      notebookIndex.close();
+      notebookIndex = new LuceneSearch();
+      FileUtils.deleteQuietly(indexDir);
+    }
+  }
+
+  @Test public void indexNoteNamesWithoutReadingNotes() throws IOException {
+    //given: total 2 notebooks, 3 paragraphs
+    Note note1 = newNoteWithParagraph("Notebook1", "test");
+    Note note2 = newNoteWithParagraphs("Notebook2", "not test", "not test at all");
+    notebookIndex.addIndexDocs(Arrays.asList(note1, note2));
+
+    //when: note2 is removed, and Notebook3 is listed but not read
+    notebookIndex.addIndexNoteInfos(Arrays.asList(new NoteInfo(note1),
+        new NoteInfo("note3", "Notebook3", null)));
+
+    //then: paragraphs of note1 are kept
+    assertThat(resultForQuery("test").size()).isEqualTo(1);
+    assertThat(resultForQuery("Notebook2")).isEmpty();
+    assertThat(resultForQuery("Notebook3").size()).isEqualTo(1);
+    assertThat(resultForQuery("Notebook3").get(0).get("id")).isEqualTo("note3");
+  }
+
   private List<Map<String, String>> resultForQuery(String q) {
     return notebookIndex.query(q);
   }